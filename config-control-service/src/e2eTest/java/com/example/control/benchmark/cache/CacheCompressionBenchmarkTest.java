@@ -0,0 +1,225 @@
+package com.example.control.benchmark.cache;
+
+import com.example.control.infrastructure.cache.CacheCompressionSerializer;
+import com.example.control.infrastructure.config.cache.CacheProperties.CompressionAlgorithm;
+import com.github.luben.zstd.ZstdDictTrainer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark of the {@link CacheCompressionSerializer} codecs on sample cache
+ * values.
+ * <p>
+ * Values are JSON pages of service instances, shaped like the entries of the
+ * {@code service-instances} cache. Half of them train the Zstd dictionary and
+ * the other half are measured, so the dictionary has not seen the measured
+ * values. For each codec the compression ratio and the compression and
+ * decompression throughput (MB/s of uncompressed data) are reported, for
+ * small (single page) and large (multi page) values.
+ * </p>
+ * Tunables (system properties): {@code benchmark.values},
+ * {@code benchmark.rounds}, {@code benchmark.dictSize}.
+ */
+@Slf4j
+@DisplayName("Cache Compression Codec Benchmark")
+public class CacheCompressionBenchmarkTest {
+
+    private static final RedisSerializer<String> UTF8 = StringRedisSerializer.UTF_8;
+
+    private final int values = Integer.getInteger("benchmark.values", 2_000);
+    private final int rounds = Integer.getInteger("benchmark.rounds", 20);
+    private final int dictSize = Integer.getInteger("benchmark.dictSize", 16 * 1024);
+
+    @Test
+    @DisplayName("Every codec round-trips and reads values written by the others")
+    void codecsRoundTrip() {
+        List<String> samples = generateValues(new Random(7), 200, 4);
+        byte[] dictionary = trainDictionary(samples);
+        String value = samples.get(0);
+
+        List<CacheCompressionSerializer<String>> serializers = List.of(
+                serializer(CompressionAlgorithm.GZIP, dictionary),
+                serializer(CompressionAlgorithm.LZ4, dictionary),
+                serializer(CompressionAlgorithm.ZSTD, null),
+                serializer(CompressionAlgorithm.ZSTD, dictionary));
+
+        for (CacheCompressionSerializer<String> writer : serializers) {
+            byte[] bytes = writer.serialize(value);
+            assertTrue(bytes.length < UTF8.serialize(value).length);
+            for (CacheCompressionSerializer<String> reader : serializers) {
+                assertEquals(value, reader.deserialize(bytes));
+            }
+        }
+
+        // Uncompressed values are read as-is
+        assertEquals("{\"small\":true}", serializers.get(1).deserialize(UTF8.serialize("{\"small\":true}")));
+    }
+
+    @Test
+    @DisplayName("Values larger than the decompression limit are rejected")
+    void oversizedValuesRejected() {
+        String value = generateValues(new Random(7), 1, 4).get(0);
+        int limit = UTF8.serialize(value).length - 1;
+
+        for (CompressionAlgorithm algorithm : CompressionAlgorithm.values()) {
+            byte[] bytes = serializer(algorithm, null).serialize(value);
+            CacheCompressionSerializer<String> limited = new CacheCompressionSerializer<>(UTF8, 1, algorithm,
+                    CacheCompressionSerializer.DEFAULT_ZSTD_LEVEL, null, limit);
+            assertThrows(SerializationException.class, () -> limited.deserialize(bytes));
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark codec ratio and throughput on sample cache values")
+    void benchmarkCodecs() {
+        log.info("=== Starting Cache Compression Codec Benchmark ===");
+        log.info("Config: values={}, rounds={}, dictSize={}", values, rounds, dictSize);
+
+        Random random = new Random(42);
+        for (int pages : new int[] { 1, 10 }) {
+            List<String> training = generateValues(random, values, pages);
+            List<String> measured = generateValues(random, values, pages);
+            byte[] dictionary = trainDictionary(training);
+            List<byte[]> raw = measured.stream().map(UTF8::serialize).toList();
+
+            log.info("--- {} page(s) per value, avg {} bytes, dictionary {} bytes ---", pages,
+                    raw.stream().mapToLong(b -> b.length).sum() / raw.size(), dictionary.length);
+            measure("GZIP", serializer(CompressionAlgorithm.GZIP, null), measured, raw);
+            measure("LZ4", serializer(CompressionAlgorithm.LZ4, null), measured, raw);
+            measure("ZSTD", serializer(CompressionAlgorithm.ZSTD, null), measured, raw);
+            measure("ZSTD+dict", serializer(CompressionAlgorithm.ZSTD, dictionary), measured, raw);
+        }
+
+        log.info("=== Cache Compression Codec Benchmark Completed ===");
+    }
+
+    private void measure(String name, CacheCompressionSerializer<String> serializer,
+                         List<String> measured, List<byte[]> raw) {
+        long rawBytes = raw.stream().mapToLong(b -> b.length).sum();
+        List<byte[]> compressed = new ArrayList<>(measured.size());
+        for (String value : measured) {
+            compressed.add(serializer.serialize(value));
+        }
+        long compressedBytes = compressed.stream().mapToLong(b -> b.length).sum();
+
+        // Warm up both directions before timing
+        long sink = 0;
+        for (int i = 0; i < Math.max(1, rounds / 4); i++) {
+            sink += roundCompress(serializer, measured) + roundDecompress(serializer, compressed);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            sink += roundCompress(serializer, measured);
+        }
+        long compressNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            sink += roundDecompress(serializer, compressed);
+        }
+        long decompressNanos = System.nanoTime() - start;
+
+        for (int i = 0; i < measured.size(); i++) {
+            assertEquals(measured.get(i), serializer.deserialize(compressed.get(i)));
+        }
+
+        double mb = (double) rawBytes * rounds / (1024 * 1024);
+        log.info("{}: ratio {}x ({}% of original), compress {} MB/s, decompress {} MB/s (sink={})", name,
+                String.format("%.2f", (double) rawBytes / compressedBytes),
+                String.format("%.1f", (double) compressedBytes / rawBytes * 100),
+                String.format("%.0f", mb / (compressNanos / 1e9)),
+                String.format("%.0f", mb / (decompressNanos / 1e9)), sink);
+    }
+
+    private static long roundCompress(CacheCompressionSerializer<String> serializer, List<String> values) {
+        long sink = 0;
+        for (String value : values) {
+            sink += serializer.serialize(value).length;
+        }
+        return sink;
+    }
+
+    private static long roundDecompress(CacheCompressionSerializer<String> serializer, List<byte[]> values) {
+        long sink = 0;
+        for (byte[] value : values) {
+            sink += serializer.deserialize(value).length();
+        }
+        return sink;
+    }
+
+    private static CacheCompressionSerializer<String> serializer(CompressionAlgorithm algorithm, byte[] dictionary) {
+        return new CacheCompressionSerializer<>(UTF8, 1, algorithm,
+                CacheCompressionSerializer.DEFAULT_ZSTD_LEVEL, dictionary);
+    }
+
+    private byte[] trainDictionary(List<String> samples) {
+        int sampleBytes = samples.stream().mapToInt(s -> UTF8.serialize(s).length).sum();
+        ZstdDictTrainer trainer = new ZstdDictTrainer(sampleBytes, dictSize);
+        for (String sample : samples) {
+            trainer.addSample(UTF8.serialize(sample));
+        }
+        return trainer.trainSamples();
+    }
+
+    /**
+     * JSON pages of service instances with realistic repetition: fixed field
+     * names and enum-like values, varying ids, hosts and timestamps.
+     */
+    private static List<String> generateValues(Random random, int count, int pages) {
+        String[] services = { "payment-service", "order-service", "inventory-service", "user-service",
+                "notification-service", "shipping-service" };
+        String[] environments = { "dev", "staging", "prod" };
+        String[] statuses = { "HEALTHY", "HEALTHY", "HEALTHY", "UNHEALTHY", "DRIFT" };
+
+        List<String> result = new ArrayList<>(count);
+        for (int v = 0; v < count; v++) {
+            StringBuilder json = new StringBuilder(1024 * pages);
+            json.append("{\"@class\":\"org.springframework.data.domain.PageImpl\",\"content\":[\"java.util.ArrayList\",[");
+            int size = 5 * pages;
+            for (int i = 0; i < size; i++) {
+                String service = services[random.nextInt(services.length)];
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append("{\"@class\":\"com.example.control.domain.model.ServiceInstance\"")
+                        .append(",\"instanceId\":\"").append(service).append('-')
+                        .append(Long.toHexString(random.nextLong())).append('"')
+                        .append(",\"serviceName\":\"").append(service).append('"')
+                        .append(",\"host\":\"10.").append(random.nextInt(256)).append('.')
+                        .append(random.nextInt(256)).append('.').append(random.nextInt(256)).append('"')
+                        .append(",\"port\":").append(8000 + random.nextInt(100))
+                        .append(",\"environment\":\"").append(environments[random.nextInt(environments.length)])
+                        .append('"')
+                        .append(",\"version\":\"1.").append(random.nextInt(10)).append('.')
+                        .append(random.nextInt(20)).append('"')
+                        .append(",\"status\":\"").append(statuses[random.nextInt(statuses.length)]).append('"')
+                        .append(",\"configHash\":\"").append(Long.toHexString(random.nextLong()))
+                        .append(Long.toHexString(random.nextLong())).append('"')
+                        .append(",\"hasDrift\":").append(random.nextInt(10) == 0)
+                        .append(",\"lastSeenAt\":\"2025-0").append(1 + random.nextInt(9)).append('-')
+                        .append(10 + random.nextInt(18)).append("T").append(10 + random.nextInt(14))
+                        .append(':').append(10 + random.nextInt(50)).append(":00Z\"")
+                        .append(",\"metadata\":{\"@class\":\"java.util.HashMap\",\"region\":\"ap-southeast-1\"")
+                        .append(",\"zone\":\"ap-southeast-1").append((char) ('a' + random.nextInt(3))).append("\"}}");
+            }
+            json.append("]],\"pageable\":{\"pageNumber\":").append(random.nextInt(10))
+                    .append(",\"pageSize\":").append(size).append("},\"total\":")
+                    .append(size * (1 + random.nextInt(20))).append('}');
+            result.add(json.toString());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.control.benchmark.cache;
+
+import com.example.control.infrastructure.cache.TransactionAwareTwoLevelCache;
+import com.example.control.infrastructure.cache.TwoLevelCacheManager;
+import com.example.control.infrastructure.config.cache.CacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Micro-benchmark of {@code @Cacheable} hit latency through
+ * {@link TwoLevelCacheManager}.
+ * <p>
+ * The baseline composes a new {@code TwoLevelCache} (wrapped in a
+ * {@link TransactionAwareTwoLevelCache}) on every {@code getCache} call, as the
+ * manager did before it kept a registry of composite caches. Both run behind
+ * Spring's cache interceptor with in-memory L1 and L2 tiers, so the numbers
+ * isolate the per-invocation overhead; time and allocated bytes per hit are
+ * reported.
+ * </p>
+ * Tunables (system properties): {@code benchmark.cache.hits},
+ * {@code benchmark.cache.warmup}. They are separate from the shared
+ * {@code benchmark.runs} because a cache hit is far cheaper than the
+ * operations the other benchmarks time.
+ */
+@Slf4j
+@DisplayName("Two-Level Cache Hit Benchmark")
+public class TwoLevelCacheBenchmarkTest {
+
+    private static final String CACHE_NAME = "bench";
+
+    private final int runs = Integer.getInteger("benchmark.cache.hits", 2_000_000);
+    private final int warmup = Integer.getInteger("benchmark.cache.warmup", 200_000);
+
+    @Test
+    @DisplayName("Composite caches are reused and recomposed after reset")
+    void compositeCacheIsReused() {
+        TwoLevelCacheManager manager = newManager();
+
+        Cache first = manager.getCache(CACHE_NAME);
+        assertSame(first, manager.getCache(CACHE_NAME));
+
+        first.put("k", "v");
+        manager.resetCaches();
+        Cache recomposed = manager.getCache(CACHE_NAME);
+        assertEquals("v", recomposed.get("k", String.class));
+    }
+
+    @Test
+    @DisplayName("Benchmark @Cacheable hits: per-call composition vs cached composite")
+    void benchmarkCacheableHits() {
+        log.info("=== Starting Two-Level Cache Hit Benchmark ===");
+        log.info("Config: runs={}, warmup={}", runs, warmup);
+
+        Result legacy = measure("Compose per getCache", new PerCallCompositionCacheManager(
+                new ConcurrentMapCacheManager(), new ConcurrentMapCacheManager(), newConfig()));
+        Result registry = measure("Composite registry", newManager());
+
+        log.info("Speed-up: {}x, allocation reduction: {}x",
+                String.format("%.2f", legacy.nanosPerHit() / registry.nanosPerHit()),
+                String.format("%.1f", (double) legacy.bytesPerHit() / Math.max(1, registry.bytesPerHit())));
+        log.info("=== Two-Level Cache Hit Benchmark Completed ===");
+    }
+
+    private Result measure(String name, CacheManager cacheManager) {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(CacheManager.class, () -> cacheManager);
+            context.register(BenchConfig.class);
+            context.refresh();
+
+            LookupService service = context.getBean(LookupService.class);
+            long sink = 0;
+            for (int i = 0; i < warmup; i++) {
+                sink += service.lookup(i & 63).length();
+            }
+
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().threadId();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                sink += service.lookup(i & 63).length();
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            assertEquals(64, service.loads());
+            Result result = new Result((double) elapsed / runs, allocated / runs);
+            log.info("{}: {} ns/hit, {} bytes allocated/hit (sink={})", name,
+                    String.format("%.1f", result.nanosPerHit()), result.bytesPerHit(), sink);
+            return result;
+        }
+    }
+
+    private static TwoLevelCacheManager newManager() {
+        return new TwoLevelCacheManager(new ConcurrentMapCacheManager(), new ConcurrentMapCacheManager(), newConfig());
+    }
+
+    private static CacheProperties.TwoLevelConfig newConfig() {
+        CacheProperties.TwoLevelConfig config = new CacheProperties.TwoLevelConfig();
+        config.setDeferL2Writes(true);
+        return config;
+    }
+
+    /**
+     * The manager's behavior before the composite registry: a new composite
+     * (and transaction-aware wrapper) per {@code getCache} call.
+     */
+    private record PerCallCompositionCacheManager(CacheManager l1, CacheManager l2,
+                                                  CacheProperties.TwoLevelConfig config) implements CacheManager {
+
+        @Override
+        public Cache getCache(String name) {
+            Cache l1Cache = l1.getCache(name);
+            Cache l2Cache = l2.getCache(name);
+            return new TransactionAwareTwoLevelCache(
+                    new TwoLevelCacheManager.TwoLevelCache(name, l1Cache, l2Cache, config), l2Cache, name);
+        }
+
+        @Override
+        public Collection<String> getCacheNames() {
+            return l1.getCacheNames();
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class BenchConfig {
+
+        @Bean
+        LookupService lookupService() {
+            return new LookupService();
+        }
+    }
+
+    static class LookupService {
+
+        private final AtomicLong loads = new AtomicLong();
+
+        @Cacheable(CACHE_NAME)
+        public String lookup(int id) {
+            loads.incrementAndGet();
+            return "value-" + id;
+        }
+
+        public long loads() {
+            return loads.get();
+        }
+    }
+
+    private record Result(double nanosPerHit, long bytesPerHit) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.control.benchmark.configsnapshot;
+
+import com.example.control.domain.valueobject.configsnapshot.ConfigFingerprint;
+import com.example.control.domain.valueobject.configsnapshot.ConfigHashCalculator;
+import com.example.control.domain.valueobject.configsnapshot.ConfigSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Micro-benchmark comparing string-based and streaming config snapshot hashing.
+ * <p>
+ * The baseline is the original algorithm (build the canonical string, copy it
+ * to UTF-8 bytes, hex-format each digest byte with {@code String.format}).
+ * The streaming path is {@link ConfigHashCalculator#hash(ConfigSnapshot)}.
+ * Both must produce identical hashes, including for non-ASCII values and
+ * unpaired surrogates; time and allocated bytes per hash are reported. The
+ * SDK's copy of the hasher (compiled into this source set) must produce the
+ * same hashes and fingerprints as the control plane's.
+ * </p>
+ * Tunables (system properties): {@code benchmark.runs},
+ * {@code benchmark.warmup}, {@code benchmark.properties}.
+ */
+@Slf4j
+@DisplayName("Config Snapshot Hash Benchmark")
+public class ConfigHashBenchmarkTest {
+
+    private final int runs = Integer.getInteger("benchmark.runs", 200);
+    private final int warmup = Integer.getInteger("benchmark.warmup", 50);
+    private final int propertyCount = Integer.getInteger("benchmark.properties", 20_000);
+
+    @Test
+    @DisplayName("Streaming hash is byte-identical to canonical string hash")
+    void streamingHashMatchesCanonicalHash() throws Exception {
+        SortedMap<String, String> props = new TreeMap<>();
+        props.put("ascii.key", "plain value");
+        props.put("latin.key", "café déjà vu");
+        props.put("cjk.key", "配置中心");
+        props.put("emoji.key", "rocket 🚀");
+        props.put("broken.high", "x\uD83D");
+        props.put("broken.low", "\uDE80y");
+        props.put("empty.key", "");
+        props.put("long.key", "v".repeat(20_000));
+
+        ConfigSnapshot full = new ConfigSnapshot("bench-app", "prod", "main", "abc123", props);
+        ConfigSnapshot bare = new ConfigSnapshot("bench-app", null, null, null, props);
+        ConfigSnapshot empty = new ConfigSnapshot(null, null, null, null, null);
+
+        for (ConfigSnapshot snapshot : new ConfigSnapshot[] { full, bare, empty, generateSnapshot() }) {
+            assertEquals(legacyHash(snapshot), ConfigHashCalculator.hash(snapshot));
+            assertEquals(legacyHash(snapshot), ConfigHashCalculator.hash(snapshot.toCanonicalString()));
+        }
+    }
+
+    @Test
+    @DisplayName("SDK and control plane hash and fingerprint snapshots identically")
+    void sdkHashMatchesControlPlaneHash() {
+        SortedMap<String, String> props = new TreeMap<>();
+        props.put("ascii.key", "plain value");
+        props.put("cjk.key", "配置中心");
+        props.put("emoji.key", "rocket 🚀");
+        props.put("broken.high", "x\uD83D");
+        props.put("broken.low", "\uDE80y");
+        props.put("empty.key", "");
+        props.put("spring.datasource.url", "jdbc:postgresql://db:5432/app");
+
+        ConfigSnapshot[] snapshots = {
+                new ConfigSnapshot("bench-app", "prod", "main", "abc123", props),
+                new ConfigSnapshot("bench-app", null, null, null, props),
+                new ConfigSnapshot(null, null, null, null, null),
+                generateSnapshot()
+        };
+
+        for (ConfigSnapshot snapshot : snapshots) {
+            com.vng.zing.zcm.configsnapshot.ConfigSnapshot sdkSnapshot =
+                    new com.vng.zing.zcm.configsnapshot.ConfigSnapshot(snapshot.getApplication(),
+                            snapshot.getProfile(), snapshot.getLabel(), snapshot.getVersion(),
+                            snapshot.getProperties());
+            assertEquals(ConfigHashCalculator.hash(snapshot),
+                    com.vng.zing.zcm.configsnapshot.StreamingConfigHasher.hash(sdkSnapshot));
+            assertEquals(ConfigFingerprint.of(snapshot),
+                    com.vng.zing.zcm.configsnapshot.ConfigFingerprint.of(sdkSnapshot));
+        }
+    }
+
+    @Test
+    @DisplayName("Benchmark canonical string hashing vs streaming hashing")
+    void benchmarkHashing() throws Exception {
+        log.info("=== Starting Config Snapshot Hash Benchmark ===");
+        log.info("Config: runs={}, warmup={}, properties={}", runs, warmup, propertyCount);
+
+        ConfigSnapshot snapshot = generateSnapshot();
+        String expected = legacyHash(snapshot);
+
+        Result legacy = measure("String + String.format", () -> legacyHash(snapshot));
+        Result streaming = measure("Streaming", () -> ConfigHashCalculator.hash(snapshot));
+
+        assertEquals(expected, ConfigHashCalculator.hash(snapshot));
+        log.info("Speed-up: {}x, allocation reduction: {}x",
+                String.format("%.2f", legacy.nanosPerHash() / streaming.nanosPerHash()),
+                String.format("%.1f", (double) legacy.bytesPerHash() / Math.max(1, streaming.bytesPerHash())));
+        log.info("=== Config Snapshot Hash Benchmark Completed ===");
+    }
+
+    private Result measure(String name, HashFunction function) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += function.hash().hashCode();
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink += function.hash().hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Result result = new Result((double) elapsed / runs, allocated / runs);
+        log.info("{}: {} us/hash, {} KB allocated/hash (sink={})", name,
+                String.format("%.1f", result.nanosPerHash() / 1000), result.bytesPerHash() / 1024, sink);
+        return result;
+    }
+
+    /**
+     * The hashing algorithm before streaming was introduced.
+     */
+    private static String legacyHash(ConfigSnapshot snapshot) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        byte[] digest = md.digest(snapshot.toCanonicalString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    private ConfigSnapshot generateSnapshot() {
+        SortedMap<String, String> props = new TreeMap<>();
+        for (int i = 0; i < propertyCount; i++) {
+            props.put("app.module" + (i % 100) + ".feature" + i + ".setting",
+                    i % 10 == 0 ? "jdbc:postgresql://db-" + i + ".internal:5432/app?ssl=true" : "value-" + i);
+        }
+        return new ConfigSnapshot("bench-app", "prod", "main", "3f2a9c1", props);
+    }
+
+    @FunctionalInterface
+    private interface HashFunction {
+        String hash() throws Exception;
+    }
+
+    private record Result(double nanosPerHash, long bytesPerHash) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.control.benchmark.heartbeat;
+
+import com.example.control.application.service.infra.HeartbeatBatchProcessor;
+import com.example.control.application.service.infra.HeartbeatBatchService;
+import com.example.control.application.service.infra.HeartbeatWriteBehindBuffer;
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties.ParallelMode;
+import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Throughput benchmark for {@link HeartbeatBatchProcessor} parallel modes.
+ * <p>
+ * Feeds identical polled batches through the processor with
+ * {@code parallel-mode} NONE, PARTITION and SERVICE. Batch processing is
+ * replaced by a mock that parks for a fixed per-call latency plus a per-record
+ * cost, approximating the MongoDB round trips of a real sub-batch.
+ * </p>
+ * Tunables (system properties): {@code benchmark.runs},
+ * {@code benchmark.warmup}, {@code benchmark.batchSize},
+ * {@code benchmark.partitions}, {@code benchmark.services},
+ * {@code benchmark.callLatencyMicros}, {@code benchmark.recordCostMicros}.
+ */
+@Slf4j
+@DisplayName("HeartbeatBatchProcessor Parallel Mode Benchmark")
+public class HeartbeatBatchProcessorBenchmarkTest {
+
+    private static final String TOPIC = "heartbeat-queue";
+
+    private final int runs = Integer.getInteger("benchmark.runs", 20);
+    private final int warmup = Integer.getInteger("benchmark.warmup", 3);
+    private final int batchSize = Integer.getInteger("benchmark.batchSize", 500);
+    private final int partitions = Integer.getInteger("benchmark.partitions", 12);
+    private final int services = Integer.getInteger("benchmark.services", 50);
+    private final long callLatencyMicros = Long.getLong("benchmark.callLatencyMicros", 5_000);
+    private final long recordCostMicros = Long.getLong("benchmark.recordCostMicros", 20);
+
+    @Test
+    @DisplayName("Benchmark sequential vs per-partition vs per-service batch processing")
+    void benchmarkParallelModes() {
+        log.info("=== Starting HeartbeatBatchProcessor Benchmark ===");
+        log.info("Config: runs={}, warmup={}, batchSize={}, partitions={}, services={}, callLatency={}us, recordCost={}us",
+                runs, warmup, batchSize, partitions, services, callLatencyMicros, recordCostMicros);
+
+        List<ConsumerRecord<String, HeartbeatPayload>> records = generateRecords();
+        Map<ParallelMode, Double> throughput = new EnumMap<>(ParallelMode.class);
+
+        for (ParallelMode mode : ParallelMode.values()) {
+            AtomicInteger processed = new AtomicInteger();
+            HeartbeatBatchProcessor processor = createProcessor(mode, processed);
+            Acknowledgment acknowledgment = () -> { };
+
+            for (int i = 0; i < warmup; i++) {
+                processor.processBatch(records, acknowledgment);
+            }
+            processed.set(0);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                processor.processBatch(records, acknowledgment);
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            assertEquals(runs * batchSize, processed.get(), "Every record should be processed exactly once");
+            throughput.put(mode, processed.get() / seconds);
+            log.info("{}: {} records in {} s -> {} records/s, {} ms/batch",
+                    mode, processed.get(), String.format("%.3f", seconds),
+                    String.format("%.0f", processed.get() / seconds),
+                    String.format("%.2f", seconds * 1000 / runs));
+        }
+
+        double baseline = throughput.get(ParallelMode.NONE);
+        throughput.forEach((mode, value) ->
+                log.info("{} speed-up vs NONE: {}x", mode, String.format("%.2f", value / baseline)));
+        log.info("=== HeartbeatBatchProcessor Benchmark Completed ===");
+    }
+
+    private HeartbeatBatchProcessor createProcessor(ParallelMode mode, AtomicInteger processed) {
+        HeartbeatBatchService batchService = mock(HeartbeatBatchService.class);
+        doAnswer(invocation -> {
+            List<?> payloads = invocation.getArgument(0);
+            LockSupport.parkNanos((callLatencyMicros + recordCostMicros * payloads.size()) * 1_000);
+            processed.addAndGet(payloads.size());
+            return null;
+        }).when(batchService).processBatch(anyList());
+
+        HeartbeatProperties properties = new HeartbeatProperties();
+        properties.getKafka().getConsumer().setParallelMode(mode);
+        properties.getKafka().getConsumer().setServiceBuckets(Math.max(1, partitions));
+
+        return new HeartbeatBatchProcessor(
+                batchService,
+                mock(HeartbeatWriteBehindBuffer.class),
+                new HeartbeatMetrics(new SimpleMeterRegistry()),
+                properties,
+                runnable -> runnable);
+    }
+
+    private List<ConsumerRecord<String, HeartbeatPayload>> generateRecords() {
+        List<ConsumerRecord<String, HeartbeatPayload>> records = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String serviceName = "bench-service-" + (i % services);
+            HeartbeatPayload payload = HeartbeatPayload.builder()
+                    .serviceName(serviceName)
+                    .instanceId(serviceName + "-instance-" + i)
+                    .configHash("hash-" + (i % 7))
+                    .host("10.0.0." + (i % 250))
+                    .port(8080)
+                    .environment("bench")
+                    .version("1.0.0")
+                    .build();
+            int partition = Math.floorMod(serviceName.hashCode(), partitions);
+            records.add(new ConsumerRecord<>(TOPIC, partition, i, payload.getInstanceId(), payload));
+        }
+        return records;
+    }
+}
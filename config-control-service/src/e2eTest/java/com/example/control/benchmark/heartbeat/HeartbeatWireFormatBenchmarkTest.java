@@ -0,0 +1,158 @@
+package com.example.control.benchmark.heartbeat;
+
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.infrastructure.config.messaging.serde.HeartbeatBinaryDeserializer;
+import com.example.control.infrastructure.config.messaging.serde.HeartbeatBinarySerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Micro-benchmark comparing the JSON and compact binary heartbeat wire formats.
+ * <p>
+ * Serializes a set of realistic heartbeats with both formats and reports
+ * average record size and serialize/deserialize cost per record. Records
+ * must round-trip with and without a config fingerprint, and the binary
+ * deserializer is also checked to read JSON records (migration path).
+ * </p>
+ * Tunables (system properties): {@code benchmark.runs},
+ * {@code benchmark.warmup}, {@code benchmark.records}.
+ */
+@Slf4j
+@DisplayName("Heartbeat Wire Format Benchmark")
+public class HeartbeatWireFormatBenchmarkTest {
+
+    private static final String TOPIC = "heartbeat-queue";
+
+    private final int runs = Integer.getInteger("benchmark.runs", 20);
+    private final int warmup = Integer.getInteger("benchmark.warmup", 3);
+    private final int recordCount = Integer.getInteger("benchmark.records", 10_000);
+
+    @Test
+    @DisplayName("Benchmark JSON vs PROTOBUF heartbeat serde")
+    void benchmarkWireFormats() {
+        log.info("=== Starting Heartbeat Wire Format Benchmark ===");
+        log.info("Config: runs={}, warmup={}, records={}", runs, warmup, recordCount);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonSerializer<HeartbeatPayload> jsonSerializer = new JsonSerializer<>(objectMapper);
+        jsonSerializer.setAddTypeInfo(false);
+        JsonDeserializer<HeartbeatPayload> jsonDeserializer = new JsonDeserializer<>(HeartbeatPayload.class, objectMapper);
+        jsonDeserializer.setUseTypeHeaders(false);
+
+        HeartbeatBinarySerializer binarySerializer = new HeartbeatBinarySerializer();
+        HeartbeatBinaryDeserializer binaryDeserializer = new HeartbeatBinaryDeserializer(
+                new JsonDeserializer<>(HeartbeatPayload.class, objectMapper));
+
+        List<HeartbeatPayload> payloads = generatePayloads();
+
+        Result json = measure("JSON", payloads, jsonSerializer, jsonDeserializer);
+        Result binary = measure("PROTOBUF", payloads, binarySerializer, binaryDeserializer);
+
+        // Round trip and JSON fallback must be lossless, with and without a fingerprint
+        for (HeartbeatPayload sample : List.of(payloads.get(0), payloads.get(1))) {
+            assertEquals(sample, binaryDeserializer.deserialize(TOPIC, binarySerializer.serialize(TOPIC, sample)));
+            assertEquals(sample, binaryDeserializer.deserialize(TOPIC, jsonSerializer.serialize(TOPIC, sample)));
+        }
+        assertTrue(binary.avgBytes() < json.avgBytes(), "Binary records should be smaller than JSON");
+
+        log.info("Size reduction: {}%, deserialize speed-up: {}x",
+                String.format("%.1f", 100.0 * (1 - binary.avgBytes() / json.avgBytes())),
+                String.format("%.2f", json.deserializeNanos() / binary.deserializeNanos()));
+        log.info("=== Heartbeat Wire Format Benchmark Completed ===");
+    }
+
+    private Result measure(String name, List<HeartbeatPayload> payloads,
+                           Serializer<HeartbeatPayload> serializer, Deserializer<HeartbeatPayload> deserializer) {
+        List<byte[]> encoded = new ArrayList<>(payloads.size());
+        long totalBytes = 0;
+        for (HeartbeatPayload payload : payloads) {
+            byte[] bytes = serializer.serialize(TOPIC, payload);
+            encoded.add(bytes);
+            totalBytes += bytes.length;
+        }
+
+        long sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += serializeAll(payloads, serializer) + deserializeAll(encoded, deserializer);
+        }
+
+        long serializeTime = 0;
+        long deserializeTime = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            sink += serializeAll(payloads, serializer);
+            serializeTime += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            sink += deserializeAll(encoded, deserializer);
+            deserializeTime += System.nanoTime() - start;
+        }
+
+        long operations = (long) runs * payloads.size();
+        Result result = new Result((double) totalBytes / payloads.size(),
+                (double) serializeTime / operations, (double) deserializeTime / operations);
+        log.info("{}: {} bytes/record, serialize {} ns/record, deserialize {} ns/record (sink={})",
+                name, String.format("%.1f", result.avgBytes()), String.format("%.0f", result.serializeNanos()),
+                String.format("%.0f", result.deserializeNanos()), sink);
+        return result;
+    }
+
+    private long serializeAll(List<HeartbeatPayload> payloads, Serializer<HeartbeatPayload> serializer) {
+        long bytes = 0;
+        for (HeartbeatPayload payload : payloads) {
+            bytes += serializer.serialize(TOPIC, payload).length;
+        }
+        return bytes;
+    }
+
+    private long deserializeAll(List<byte[]> encoded, Deserializer<HeartbeatPayload> deserializer) {
+        long ports = 0;
+        for (byte[] bytes : encoded) {
+            ports += deserializer.deserialize(TOPIC, bytes).getPort();
+        }
+        return ports;
+    }
+
+    private List<HeartbeatPayload> generatePayloads() {
+        List<HeartbeatPayload> payloads = new ArrayList<>(recordCount);
+        for (int i = 0; i < recordCount; i++) {
+            String serviceName = "bench-service-" + (i % 200);
+            payloads.add(HeartbeatPayload.builder()
+                    .serviceName(serviceName)
+                    .instanceId(serviceName + "-instance-" + i)
+                    .configHash(String.format("%064x", (long) i * 31))
+                    .host("10.12." + (i % 250) + "." + (i % 199))
+                    .port(8080 + (i % 10))
+                    .environment("prod")
+                    .version("1." + (i % 5) + ".0")
+                    .metadata(Map.of(
+                            "hostname", serviceName + "-pod-" + i,
+                            "profile", "prod",
+                            "zone", "zone-" + (i % 3)))
+                    // Half of the instances report a config fingerprint
+                    .configFingerprint(i % 2 == 0
+                            ? Map.of("spring", String.format("%016x", (long) i * 17),
+                                    "server", String.format("%016x", (long) i * 13),
+                                    "app", String.format("%016x", (long) i * 7))
+                            : null)
+                    .build());
+        }
+        return payloads;
+    }
+
+    private record Result(double avgBytes, double serializeNanos, double deserializeNanos) {
+    }
+}
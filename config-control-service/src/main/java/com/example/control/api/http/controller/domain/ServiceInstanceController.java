@@ -27,6 +27,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -96,6 +97,37 @@ public class ServiceInstanceController {
                                 .orElse(ResponseEntity.notFound().build());
         }
 
+        @GetMapping("/{instanceId}/config-diff")
+        @Operation(summary = "Get configuration drift of a service instance", description = """
+                        Compare the configuration applied by an instance with the effective configuration in Config Server.
+
+                        When the instance reports a config fingerprint (SDK `zcm.sdk.ping.fingerprint-enabled`),
+                        drifted instances also list `divergingKeyRanges`: the top-level key prefixes
+                        (e.g. `spring`, `app`) whose values differ.
+
+                        **Access Control:**
+                        - Team members: Can view instances of services owned by their team
+                        - Shared access: Can view instances of services shared with their team
+                        - SYS_ADMIN: Can view all instances
+                        """, security = {
+                        @SecurityRequirement(name = "oauth2_auth_code"),
+                        @SecurityRequirement(name = "oauth2_password")
+        }, operationId = "getServiceInstanceConfigDiff")
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "Configuration drift computed"),
+                        @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+                        @ApiResponse(responseCode = "404", description = "Service instance not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+                        @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+        })
+        public ResponseEntity<Map<String, Object>> getConfigDiff(
+                        @Parameter(description = "Instance ID", example = "payment-dev-1") @PathVariable String instanceId,
+                        @AuthenticationPrincipal Jwt jwt) {
+                UserContext userContext = UserContext.fromJwt(jwt);
+                return service.getConfigDiff(ServiceInstanceId.of(instanceId), userContext)
+                                .map(ResponseEntity::ok)
+                                .orElse(ResponseEntity.notFound().build());
+        }
+
         @PutMapping("/{instanceId}")
         @Operation(summary = "Update service instance", description = """
                         Update an existing service instance.
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 import com.example.control.infrastructure.cache.CacheHealthIndicator;
 import com.example.control.infrastructure.cache.DelegatingCacheManager;
+import com.example.control.infrastructure.cache.TwoLevelCacheManager;
 import com.example.control.infrastructure.config.cache.CacheManagerFactory;
 import com.example.control.infrastructure.config.cache.CacheProperties;
 
@@ -259,8 +260,8 @@ public class CacheManagementController {
   *
   * <p><strong>Current behavior</strong> (by design of this controller):
   * updates {@link CacheProperties#setProvider(CacheProperties.CacheProvider)} first, then creates a new manager
-  * and atomically switches the delegate. If manager creation fails, the switch is not applied and the old manager
-  * stays active; however the configured provider value may already have been updated (see suggestions). </p>
+  * and atomically switches the delegate. If manager creation fails, the switch is not applied, the old manager
+  * stays active and the configured provider is restored. </p>
   *
   * @param provider provider name (case-insensitive): CAFFEINE | REDIS | TWO_LEVEL | NOOP
   * @return HTTP 200 on success; HTTP 400 for invalid/unavailable provider; HTTP 500 on error
@@ -277,15 +278,20 @@ public class CacheManagementController {
                        "reason", getProviderUnavailableReason(newProvider)));
      }
 
-     // Create new manager and switch the delegate atomically
-     CacheManager newManager = cacheManagerFactory.createCacheManager();
-
+     // Update the provider configuration, then create the new manager (with its
+     // own composite caches) and switch the delegate atomically
      CacheProperties.CacheProvider oldProvider = cacheProperties.getProvider();
-     delegatingCacheManager.switchCacheManager(newManager);
-     log.info("Switching cache provider from {} to {}", oldProvider, newProvider);
-
-     // Update the provider configuration
      cacheProperties.setProvider(newProvider);
+     CacheManager newManager;
+     try {
+       newManager = cacheManagerFactory.createCacheManager();
+     } catch (RuntimeException e) {
+       cacheProperties.setProvider(oldProvider);
+       throw e;
+     }
+
+     log.info("Switching cache provider from {} to {}", oldProvider, newProvider);
+     delegatingCacheManager.switchCacheManager(newManager);
 
      log.info("Successfully switched cache provider from {} to {}", oldProvider, newProvider);
 
@@ -320,7 +326,8 @@ public class CacheManagementController {
   * </ul>
   *
   * <p><strong>Important</strong>: this endpoint mutates configuration but does <em>not</em> rebuild the current
-  * providers. TTL/provider changes take effect after you create/switch a manager accordingly. </p>
+  * providers; it only recomposes the caches of a two-level manager. TTL/provider changes take effect after you
+  * create/switch a manager accordingly. </p>
   *
   * @param configUpdates JSON map of updates
   * @return HTTP 200 with applied changes; HTTP 400 for invalid input; HTTP 500 on error
@@ -384,6 +391,12 @@ public class CacheManagementController {
        }
      }
 
+     // Recompose two-level caches so they pick up the new configuration
+     if (!appliedChanges.isEmpty()
+         && delegatingCacheManager.getCurrentDelegate() instanceof TwoLevelCacheManager twoLevelCacheManager) {
+       twoLevelCacheManager.resetCaches();
+     }
+
      Map<String, Object> response = Map.of(
          "message", "Cache configuration updated successfully",
          "appliedChanges", appliedChanges,
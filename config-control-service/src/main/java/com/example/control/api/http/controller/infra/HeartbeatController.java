@@ -1,8 +1,14 @@
 package com.example.control.api.http.controller.infra;
 
+import com.example.control.api.http.dto.infra.HeartbeatBatchDto;
+import com.example.control.api.http.dto.infra.HeartbeatBatchDto.ItemResult;
+import com.example.control.api.http.dto.infra.HeartbeatBatchDto.ItemStatus;
+import com.example.control.api.http.exception.exceptions.ValidationException;
 import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.application.service.infra.HeartbeatBatchService;
 import com.example.control.application.service.infra.HeartbeatService;
 import com.example.control.application.service.infra.HeartbeatIngestionService;
+import com.example.control.application.service.infra.HeartbeatWriteBehindBuffer;
 import com.example.control.domain.model.ServiceInstance;
 import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
 import com.example.control.api.http.exception.ErrorResponse;
@@ -15,15 +21,30 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * REST controller responsible for receiving heartbeat signals from running
@@ -45,8 +66,12 @@ public class HeartbeatController {
 
   private final HeartbeatService heartbeatService;
   private final HeartbeatIngestionService heartbeatIngestionService;
+  private final HeartbeatBatchService heartbeatBatchService;
+  private final HeartbeatWriteBehindBuffer heartbeatWriteBehindBuffer;
   private final HeartbeatMetrics heartbeatMetrics;
   private final HeartbeatProperties heartbeatProperties;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
 
   /**
    * Processes a heartbeat payload sent from a service instance.
@@ -129,6 +154,144 @@ public class HeartbeatController {
     }
   }
 
+  /**
+   * Processes a batch of heartbeats relayed by a gateway or node agent.
+   * <p>
+   * The body is a JSON array or newline-delimited JSON and is parsed as a
+   * stream, one payload at a time. Valid payloads are enqueued to Kafka (async
+   * mode) or handed to {@link HeartbeatBatchService} in one call (sync mode);
+   * invalid ones are reported individually without failing the batch.
+   *
+   * @param request servlet request whose body holds the heartbeats
+   * @return aggregated result with per-item status in request order
+   */
+  @PostMapping(value = "/batch", consumes = {
+      MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+  @Operation(summary = "Process a batch of heartbeats", description = """
+      Receives many heartbeats in one request, as a JSON array or as
+      newline-delimited JSON (application/x-ndjson). Intended for gateways and
+      node agents relaying heartbeats for many instances.
+
+      **Public Endpoint:** No authentication required for SDK integration
+      **Limits:** Item count and body size are capped by app.heartbeat.batch.*
+      **Partial success:** Invalid items are reported per item; the rest are processed
+      """, security = {
+      @SecurityRequirement(name = "oauth2_auth_code"),
+      @SecurityRequirement(name = "oauth2_password")
+  }, operationId = "processHeartbeatBatch")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Batch processed synchronously", content = @Content(schema = @Schema(implementation = HeartbeatBatchDto.HeartbeatBatchResponse.class))),
+      @ApiResponse(responseCode = "202", description = "Batch queued for asynchronous processing", content = @Content(schema = @Schema(implementation = HeartbeatBatchDto.HeartbeatBatchResponse.class))),
+      @ApiResponse(responseCode = "400", description = "Malformed body or batch exceeds configured limits", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  public ResponseEntity<HeartbeatBatchDto.HeartbeatBatchResponse> processHeartbeatBatch(HttpServletRequest request)
+      throws IOException {
+    HeartbeatProperties.Batch limits = heartbeatProperties.getBatch();
+    if (request.getContentLengthLong() > limits.getMaxRequestBytes()) {
+      throw new ValidationException("Batch request exceeds " + limits.getMaxRequestBytes() + " bytes");
+    }
+
+    List<ItemResult> items = new ArrayList<>();
+    List<HeartbeatPayload> valid = new ArrayList<>();
+    List<ItemResult> validItems = new ArrayList<>();
+    readBatch(request.getInputStream(), limits, items, valid, validItems);
+
+    log.debug("Received heartbeat batch of {} items ({} valid)", items.size(), valid.size());
+
+    boolean async = heartbeatProperties.isAsyncEnabled();
+    if (async) {
+      // Async mode: enqueue each heartbeat to Kafka
+      for (int i = 0; i < valid.size(); i++) {
+        try {
+          heartbeatIngestionService.enqueue(valid.get(i));
+          validItems.get(i).setStatus(ItemStatus.ACCEPTED);
+        } catch (Exception e) {
+          validItems.get(i).setStatus(ItemStatus.FAILED);
+          validItems.get(i).setMessage(e.getMessage());
+        }
+      }
+    } else if (!valid.isEmpty()) {
+      // Synchronous mode: one batch pass over all valid heartbeats
+      try {
+        heartbeatWriteBehindBuffer.awaitCapacity();
+        heartbeatBatchService.processBatch(valid);
+        validItems.forEach(item -> item.setStatus(ItemStatus.PROCESSED));
+      } catch (Exception e) {
+        log.error("Failed to process heartbeat batch of {} items", valid.size(), e);
+        validItems.forEach(item -> {
+          item.setStatus(ItemStatus.FAILED);
+          item.setMessage(e.getMessage());
+        });
+      }
+    }
+
+    int succeeded = (int) items.stream()
+        .filter(item -> item.getStatus() == ItemStatus.ACCEPTED || item.getStatus() == ItemStatus.PROCESSED)
+        .count();
+    HeartbeatBatchDto.HeartbeatBatchResponse response = HeartbeatBatchDto.HeartbeatBatchResponse.builder()
+        .status(async ? "accepted" : "ok")
+        .total(items.size())
+        .succeeded(succeeded)
+        .failed(items.size() - succeeded)
+        .items(items)
+        .build();
+
+    return async ? ResponseEntity.accepted().body(response) : ResponseEntity.ok(response);
+  }
+
+  /**
+   * Streams heartbeats out of a JSON array or NDJSON body, validating each one.
+   * <p>
+   * Items that cannot be bound or fail bean validation are recorded as
+   * REJECTED; malformed JSON or exceeding a limit fails the whole request.
+   */
+  private void readBatch(InputStream body, HeartbeatProperties.Batch limits, List<ItemResult> items,
+      List<HeartbeatPayload> valid, List<ItemResult> validItems) throws IOException {
+    InputStream limited = new SizeLimitedInputStream(body, limits.getMaxRequestBytes());
+
+    // A root-level JSON array is unwrapped by MappingIterator, so arrays and NDJSON share this path
+    try (MappingIterator<HeartbeatPayload> iterator = objectMapper.readerFor(HeartbeatPayload.class)
+        .readValues(limited)) {
+      while (iterator.hasNextValue()) {
+        if (items.size() >= limits.getMaxItems()) {
+          throw new ValidationException("Batch exceeds " + limits.getMaxItems() + " heartbeats");
+        }
+
+        ItemResult item = ItemResult.builder().index(items.size()).build();
+        items.add(item);
+
+        HeartbeatPayload payload;
+        try {
+          payload = iterator.nextValue();
+        } catch (DatabindException e) {
+          // Bad field types: the iterator skips to the next item
+          item.setStatus(ItemStatus.REJECTED);
+          item.setMessage(e.getOriginalMessage());
+          continue;
+        }
+
+        item.setInstanceId(payload.getInstanceId());
+        Set<ConstraintViolation<HeartbeatPayload>> violations = validator.validate(payload);
+        if (!violations.isEmpty()) {
+          item.setStatus(ItemStatus.REJECTED);
+          item.setMessage(violations.stream()
+              .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+              .sorted()
+              .collect(Collectors.joining(", ")));
+          continue;
+        }
+
+        valid.add(payload);
+        validItems.add(item);
+      }
+    } catch (JsonProcessingException e) {
+      throw new ValidationException("Malformed heartbeat batch after " + items.size() + " items: "
+          + e.getOriginalMessage(), e);
+    } catch (SizeLimitExceededException e) {
+      throw new ValidationException("Batch request exceeds " + limits.getMaxRequestBytes() + " bytes", e);
+    }
+  }
+
   /**
    * Simple health check endpoint to verify that the heartbeat controller is
    * operational.
@@ -159,4 +322,47 @@ public class HeartbeatController {
         "status", "UP",
         "service", "heartbeat-controller"));
   }
+
+  /**
+   * Input stream that fails once more than {@code maxBytes} have been read, so
+   * chunked bodies without a Content-Length are capped as well.
+   */
+  private static final class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private long count;
+
+    private SizeLimitedInputStream(InputStream in, long maxBytes) {
+      super(in);
+      this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        advance(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int off, int len) throws IOException {
+      int n = super.read(buffer, off, len);
+      if (n > 0) {
+        advance(n);
+      }
+      return n;
+    }
+
+    private void advance(int n) throws SizeLimitExceededException {
+      count += n;
+      if (count > maxBytes) {
+        throw new SizeLimitExceededException();
+      }
+    }
+  }
+
+  private static final class SizeLimitExceededException extends IOException {
+  }
 }
@@ -0,0 +1,90 @@
+package com.example.control.api.http.dto.infra;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTOs for the batch heartbeat endpoint.
+ * <p>
+ * Provides data transfer objects reporting the outcome of every heartbeat in a
+ * batch submitted by gateways or node agents.
+ * </p>
+ */
+@Schema(name = "HeartbeatBatchDto", description = "DTOs for batch heartbeat submission")
+public final class HeartbeatBatchDto {
+
+    private HeartbeatBatchDto() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Outcome of a single heartbeat within a batch.
+     */
+    public enum ItemStatus {
+        /**
+         * Enqueued to Kafka for asynchronous processing.
+         */
+        ACCEPTED,
+
+        /**
+         * Processed synchronously.
+         */
+        PROCESSED,
+
+        /**
+         * Invalid payload, not processed.
+         */
+        REJECTED,
+
+        /**
+         * Valid payload that could not be enqueued or processed.
+         */
+        FAILED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "HeartbeatBatchResponse", description = "Aggregated result of a batch heartbeat submission")
+    public static class HeartbeatBatchResponse {
+        @Schema(description = "Overall status", example = "accepted")
+        private String status;
+
+        @Schema(description = "Number of heartbeats received", example = "3")
+        private int total;
+
+        @Schema(description = "Number of heartbeats accepted or processed", example = "2")
+        private int succeeded;
+
+        @Schema(description = "Number of heartbeats rejected or failed", example = "1")
+        private int failed;
+
+        @Schema(description = "Per-item results in request order")
+        private List<ItemResult> items;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(name = "HeartbeatBatchItemResult", description = "Result of one heartbeat within a batch")
+    public static class ItemResult {
+        @Schema(description = "Zero-based position of the heartbeat in the request", example = "0")
+        private int index;
+
+        @Schema(description = "Instance ID from the payload, if present", example = "payment-service-1")
+        private String instanceId;
+
+        @Schema(description = "Item outcome", example = "ACCEPTED")
+        private ItemStatus status;
+
+        @Schema(description = "Reason for rejection or failure", example = "instanceId: Instance ID is required")
+        private String message;
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.control.api.rpc.grpc;
+
+import com.example.control.application.service.infra.HeartbeatBatchService;
+import com.example.control.application.service.infra.HeartbeatIngestionService;
+import com.example.control.application.service.infra.HeartbeatService;
+import com.example.control.application.service.infra.HeartbeatWriteBehindBuffer;
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.grpc.ConfigControlServiceGrpc;
+import com.example.control.grpc.HeartbeatRequest;
+import com.example.control.grpc.HeartbeatResponse;
+import com.example.control.grpc.StreamHeartbeatsResponse;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.config.misc.RpcServerProperties;
+import com.example.control.infrastructure.observability.MetricsNames;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * gRPC heartbeat endpoint.
+ * <p>
+ * {@code RecordHeartbeat} mirrors the HTTP and Thrift endpoints (enqueue in
+ * async mode, process synchronously otherwise). {@code StreamHeartbeats} lets
+ * a sidecar or multi-instance host push many heartbeats over one HTTP/2
+ * stream:
+ * <ul>
+ * <li>Async mode: every beat is enqueued to the Kafka ingestion pipeline as it
+ * arrives</li>
+ * <li>Sync mode: beats are buffered per stream and handed to
+ * {@link HeartbeatBatchService} in chunks of
+ * {@code rpc.server.grpc-stream-batch-size}</li>
+ * </ul>
+ * The client receives a single aggregated acknowledgement when it half-closes
+ * the stream.
+ */
+@Slf4j
+@GrpcService
+@RequiredArgsConstructor
+public class GrpcHeartbeatService extends ConfigControlServiceGrpc.ConfigControlServiceImplBase {
+
+    private final HeartbeatService heartbeatService;
+    private final HeartbeatIngestionService heartbeatIngestionService;
+    private final HeartbeatBatchService heartbeatBatchService;
+    private final HeartbeatWriteBehindBuffer heartbeatWriteBehindBuffer;
+    private final HeartbeatProperties heartbeatProperties;
+    private final RpcServerProperties rpcServerProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    @Timed(MetricsNames.Grpc.HEARTBEAT)
+    public void recordHeartbeat(HeartbeatRequest request,
+                                StreamObserver<HeartbeatResponse> responseObserver) {
+        log.debug("Received gRPC heartbeat from {}:{}",
+                request.getServiceName(), request.getInstanceId());
+
+        HeartbeatResponse response;
+        try {
+            // Convert gRPC request to HeartbeatPayload
+            HeartbeatPayload payload = convertToPayload(request);
+
+            if (heartbeatProperties.isAsyncEnabled()) {
+                // Async mode: enqueue to Kafka and return immediately
+                heartbeatIngestionService.enqueue(payload);
+                response = buildResponse(true, "Heartbeat queued");
+            } else {
+                heartbeatService.processHeartbeat(payload);
+                response = buildResponse(true, "Heartbeat processed successfully");
+            }
+
+        } catch (Exception e) {
+            log.error("Failed to process gRPC heartbeat", e);
+            response = buildResponse(false, "Failed: " + e.getMessage());
+        }
+
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public StreamObserver<HeartbeatRequest> streamHeartbeats(
+            StreamObserver<StreamHeartbeatsResponse> responseObserver) {
+        return new HeartbeatStreamObserver(responseObserver);
+    }
+
+    private HeartbeatResponse buildResponse(boolean success, String message) {
+        return HeartbeatResponse.newBuilder()
+                .setSuccess(success)
+                .setMessage(message)
+                .setTimestamp(System.currentTimeMillis())
+                .build();
+    }
+
+    private HeartbeatPayload convertToPayload(HeartbeatRequest request) {
+        return HeartbeatPayload.builder()
+                .serviceName(request.getServiceName())
+                .instanceId(request.getInstanceId())
+                .configHash(StringUtils.hasText(request.getConfigHash()) ? request.getConfigHash() : null)
+                .host(StringUtils.hasText(request.getHost()) ? request.getHost() : null)
+                .port(request.getPort() > 0 ? request.getPort() : null)
+                .environment(StringUtils.hasText(request.getEnvironment()) ? request.getEnvironment() : null)
+                .version(StringUtils.hasText(request.getVersion()) ? request.getVersion() : null)
+                .metadata(request.getMetadataMap())
+                .configFingerprint(request.getConfigFingerprintCount() > 0 ? request.getConfigFingerprintMap() : null)
+                .build();
+    }
+
+    /**
+     * Per-call state of a {@code StreamHeartbeats} stream.
+     * <p>
+     * gRPC delivers callbacks of one call serially, so no synchronization is
+     * needed.
+     */
+    private final class HeartbeatStreamObserver implements StreamObserver<HeartbeatRequest> {
+
+        private final StreamObserver<StreamHeartbeatsResponse> responseObserver;
+        private final boolean async = heartbeatProperties.isAsyncEnabled();
+        private final int batchSize = rpcServerProperties.getGrpcStreamBatchSize();
+        private final List<HeartbeatPayload> buffer = new ArrayList<>();
+        private int accepted;
+        private int rejected;
+
+        private HeartbeatStreamObserver(StreamObserver<StreamHeartbeatsResponse> responseObserver) {
+            this.responseObserver = responseObserver;
+        }
+
+        @Override
+        public void onNext(HeartbeatRequest request) {
+            // proto3 has no required fields, so enforce what HeartbeatPayload validates
+            if (!StringUtils.hasText(request.getServiceName()) || !StringUtils.hasText(request.getInstanceId())) {
+                rejected++;
+                return;
+            }
+
+            HeartbeatPayload payload = convertToPayload(request);
+            if (async) {
+                try {
+                    heartbeatIngestionService.enqueue(payload);
+                    accepted++;
+                } catch (Exception e) {
+                    // Already logged and counted by the ingestion service
+                    rejected++;
+                }
+                return;
+            }
+
+            buffer.add(payload);
+            if (buffer.size() >= batchSize) {
+                processBuffer();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.debug("gRPC heartbeat stream cancelled by client after {} accepted heartbeats", accepted, t);
+            buffer.clear();
+            recordMetrics();
+        }
+
+        @Override
+        public void onCompleted() {
+            processBuffer();
+            recordMetrics();
+
+            log.debug("gRPC heartbeat stream completed: accepted={}, rejected={}", accepted, rejected);
+
+            responseObserver.onNext(StreamHeartbeatsResponse.newBuilder()
+                    .setSuccess(rejected == 0)
+                    .setAccepted(accepted)
+                    .setRejected(rejected)
+                    .setMessage(async ? "Heartbeats queued" : "Heartbeats processed")
+                    .setTimestamp(System.currentTimeMillis())
+                    .build());
+            responseObserver.onCompleted();
+        }
+
+        private void processBuffer() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+
+            List<HeartbeatPayload> chunk = new ArrayList<>(buffer);
+            buffer.clear();
+            try {
+                heartbeatWriteBehindBuffer.awaitCapacity();
+                heartbeatBatchService.processBatch(chunk);
+                accepted += chunk.size();
+            } catch (Exception e) {
+                log.error("Failed to process {} streamed gRPC heartbeats", chunk.size(), e);
+                rejected += chunk.size();
+            }
+        }
+
+        private void recordMetrics() {
+            meterRegistry.counter(MetricsNames.Grpc.STREAM_HEARTBEATS, "result", "accepted").increment(accepted);
+            meterRegistry.counter(MetricsNames.Grpc.STREAM_HEARTBEATS, "result", "rejected").increment(rejected);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.control.api.rpc.thrift;
 
 import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.application.service.infra.HeartbeatIngestionService;
 import com.example.control.application.service.infra.HeartbeatService;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
 import com.example.control.infrastructure.observability.MetricsNames;
 import com.example.control.thrift.ConfigControlService;
 import com.example.control.thrift.HeartbeatRequest;
@@ -11,12 +13,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+/**
+ * Thrift handler for SDK heartbeats.
+ * <p>
+ * Mirrors the HTTP heartbeat endpoint: when {@code app.heartbeat.async-enabled}
+ * is true the payload is enqueued to the same Kafka ingestion pipeline and the
+ * RPC returns as soon as the beat is queued; otherwise it is processed
+ * synchronously.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class ThriftHeartbeatHandler implements ConfigControlService.Iface {
 
     private final HeartbeatService heartbeatService;
+    private final HeartbeatIngestionService heartbeatIngestionService;
+    private final HeartbeatProperties heartbeatProperties;
 
     @Override
     @Timed(MetricsNames.Thrift.HEARTBEAT)
@@ -28,6 +40,16 @@ public class ThriftHeartbeatHandler implements ConfigControlService.Iface {
             // Convert Thrift request to HeartbeatPayload
             HeartbeatPayload payload = convertToPayload(request);
 
+            if (heartbeatProperties.isAsyncEnabled()) {
+                // Async mode: enqueue to Kafka and return immediately
+                heartbeatIngestionService.enqueue(payload);
+
+                return new HeartbeatResponse()
+                        .setSuccess(true)
+                        .setMessage("Heartbeat queued")
+                        .setTimestamp(System.currentTimeMillis());
+            }
+
             // Process heartbeat (returns updated instance but we don't need it for
             // response)
             heartbeatService.processHeartbeat(payload);
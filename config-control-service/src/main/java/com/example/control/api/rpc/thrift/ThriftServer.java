@@ -4,9 +4,14 @@ import com.example.control.infrastructure.config.misc.RpcServerProperties;
 import com.example.control.thrift.ConfigControlService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TTransportException;
+import org.apache.thrift.transport.layered.TFramedTransport;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
@@ -14,6 +19,19 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PreDestroy;
 
+/**
+ * Thrift heartbeat RPC server.
+ * <p>
+ * Runs in one of two modes ({@code rpc.server.thrift-server-mode}):
+ * <ul>
+ * <li>THREAD_POOL: blocking sockets, one worker thread per open connection
+ * (unframed transport)</li>
+ * <li>NONBLOCKING: {@link TThreadedSelectorServer} over a
+ * {@link TNonblockingServerSocket}; selector threads multiplex all SDK
+ * connections so thread usage no longer grows with the number of clients
+ * (framed transport)</li>
+ * </ul>
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -36,18 +54,15 @@ public class ThriftServer {
     public void start() {
         try {
             int port = rpcServerProperties.getThriftPort();
-            TServerSocket serverTransport = new TServerSocket(port);
             ConfigControlService.Processor<ThriftHeartbeatHandler> processor = new ConfigControlService.Processor<>(
                     handler);
 
-            TThreadPoolServer.Args args = new TThreadPoolServer.Args(serverTransport)
-                    .processor(processor)
-                    .minWorkerThreads(20)
-                    .maxWorkerThreads(200);
+            server = switch (rpcServerProperties.getThriftServerMode()) {
+                case THREAD_POOL -> createThreadPoolServer(port, processor);
+                case NONBLOCKING -> createNonblockingServer(port, processor);
+            };
 
-            server = new TThreadPoolServer(args);
-
-            log.info("Starting Thrift server on port {}", port);
+            log.info("Starting Thrift server on port {} ({} mode)", port, rpcServerProperties.getThriftServerMode());
             server.serve();
 
         } catch (Exception e) {
@@ -55,6 +70,34 @@ public class ThriftServer {
         }
     }
 
+    private TServer createThreadPoolServer(int port, ConfigControlService.Processor<ThriftHeartbeatHandler> processor)
+            throws TTransportException {
+        TServerSocket serverTransport = new TServerSocket(port);
+
+        TThreadPoolServer.Args args = new TThreadPoolServer.Args(serverTransport)
+                .processor(processor)
+                .minWorkerThreads(20)
+                .maxWorkerThreads(200);
+
+        return new TThreadPoolServer(args);
+    }
+
+    private TServer createNonblockingServer(int port, ConfigControlService.Processor<ThriftHeartbeatHandler> processor)
+            throws TTransportException {
+        TNonblockingServerSocket serverTransport = new TNonblockingServerSocket(port);
+        int maxFrameSize = rpcServerProperties.getThriftMaxFrameSize();
+
+        TThreadedSelectorServer.Args args = new TThreadedSelectorServer.Args(serverTransport)
+                .selectorThreads(rpcServerProperties.getThriftSelectorThreads())
+                .workerThreads(rpcServerProperties.getThriftWorkerThreads())
+                .processor(processor)
+                .transportFactory(new TFramedTransport.Factory(maxFrameSize))
+                .protocolFactory(new TBinaryProtocol.Factory());
+        args.maxReadBufferBytes = maxFrameSize;
+
+        return new TThreadedSelectorServer(args);
+    }
+
     @PreDestroy
     public void stop() {
         if (server != null && server.isServing()) {
@@ -14,7 +14,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -105,6 +107,29 @@ public class DriftEventCommandService {
         repository.resolveForInstance(serviceName, instanceId, resolvedBy);
     }
 
+    /**
+     * Resolves all unresolved drift events of several instances with a single
+     * update.
+     * <p>
+     * Evicts all drift-events cache entries since we don't know which events were
+     * affected.
+     *
+     * @param instanceIdsByService instance IDs grouped by service name
+     * @param resolvedBy           identifier of who/what resolved the drift
+     * @return number of drift events resolved
+     */
+    @CacheEvict(value = "drift-events", allEntries = true)
+    public long resolveForInstances(Map<String, ? extends Collection<String>> instanceIdsByService,
+                                    String resolvedBy) {
+        if (instanceIdsByService == null || instanceIdsByService.isEmpty()) {
+            return 0;
+        }
+        long count = repository.resolveForInstances(instanceIdsByService, resolvedBy);
+        log.info("Resolved {} drift events for instances of {} services, resolved by: {}",
+                count, instanceIdsByService.size(), resolvedBy);
+        return count;
+    }
+
     /**
      * Bulk updates teamId for all drift events of a specific service.
      * <p>
@@ -1,5 +1,6 @@
 package com.example.control.application.command;
 
+import com.example.control.domain.event.ServiceInstancesChanged;
 import com.example.control.domain.valueobject.id.ServiceInstanceId;
 import com.example.control.domain.model.ServiceInstance;
 import com.example.control.domain.port.repository.ServiceInstanceRepositoryPort;
@@ -11,11 +12,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -28,6 +34,8 @@ import java.util.UUID;
  * <li>CRUD operations with validation</li>
  * <li>Cache eviction for write operations</li>
  * <li>Transaction management</li>
+ * <li>Publishing {@link ServiceInstancesChanged} for writes made outside the
+ * heartbeat path</li>
  * </ul>
  * <p>
  * Does NOT handle:
@@ -49,6 +57,7 @@ public class ServiceInstanceCommandService {
     private final ServiceInstanceRepositoryPort repository;
     private final CacheManager cacheManager;
     private final CacheProperties cacheProperties;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Saves a service instance (create or update).
@@ -71,6 +80,7 @@ public class ServiceInstanceCommandService {
 
         ServiceInstance saved = repository.save(instance);
         log.info("Saved service instance: {} for service: {}", saved.getId(), saved.getServiceId());
+        eventPublisher.publishEvent(ServiceInstancesChanged.updated(Set.of(saved.getId())));
         return saved;
     }
 
@@ -85,6 +95,7 @@ public class ServiceInstanceCommandService {
     public void deleteById(ServiceInstanceId id) {
         log.info("Deleting service instance: {}", id);
         repository.deleteById(id);
+        eventPublisher.publishEvent(ServiceInstancesChanged.deleted(Set.of(id)));
     }
 
     /**
@@ -104,6 +115,7 @@ public class ServiceInstanceCommandService {
                 newTeamId, serviceId);
         long count = repository.bulkUpdateTeamIdByServiceId(serviceId, newTeamId);
         log.info("Updated {} service instances for service: {}", count, serviceId);
+        eventPublisher.publishEvent(ServiceInstancesChanged.service(serviceId));
         return count;
     }
 
@@ -127,42 +139,104 @@ public class ServiceInstanceCommandService {
         log.info("Bulk upserting {} service instances", instances.size());
         BulkWriteResult result = repository.bulkUpsert(instances);
 
-        // Optimized batch cache eviction: use clear() for large batches, individual eviction for small ones
-        Cache cache = cacheManager.getCache("service-instances");
-        if (cache != null && !instances.isEmpty()) {
-            int batchThreshold = cacheProperties.getEviction().getBatchThreshold();
-            int batchSize = instances.size();
-
-            if (batchSize > batchThreshold) {
-                // Large batch: clear entire cache for better performance
-                try {
-                    cache.clear();
-                    log.debug("Cleared entire service-instances cache (batch size {} > threshold {})", 
-                            batchSize, batchThreshold);
-                } catch (Exception e) {
-                    log.warn("Failed to clear cache for service instances", e);
-                }
-            } else {
-                // Small batch: evict individual entries
-                int evictedCount = 0;
-                for (ServiceInstance instance : instances) {
-                    if (instance.getId() != null) {
-                        try {
-                            cache.evict(instance.getId());
-                            evictedCount++;
-                        } catch (Exception e) {
-                            log.warn("Failed to evict cache for service instance: {}", instance.getId(), e);
-                        }
-                    }
-                }
-                log.debug("Batch evicted {} cache entries for service instances (batch size {} <= threshold {})", 
-                        evictedCount, batchSize, batchThreshold);
-            }
-        }
+        evictInstances(instances.stream().map(ServiceInstance::getId).toList());
 
         log.info("Bulk upsert completed: {} inserted, {} modified",
                 result != null ? result.getInsertedCount() : 0,
                 result != null ? result.getModifiedCount() : 0);
         return result;
     }
+
+    /**
+     * Bulk write only the changed fields of service instances.
+     * <p>
+     * Used by the heartbeat write-behind flush so a replica never overwrites
+     * fields it did not change. Updates of existing instances never insert, so
+     * an instance deleted meanwhile is not recreated.
+     * <p>
+     * Evicts cache entries for the written instance IDs after the write.
+     *
+     * @param updates the partial writes
+     * @return bulk write result with matched/modified/upserted counts
+     */
+    public BulkWriteResult bulkUpdateFields(List<ServiceInstanceRepositoryPort.FieldUpdate> updates) {
+        if (updates == null || updates.isEmpty()) {
+            log.debug("Empty field update list, skipping bulk update");
+            return null;
+        }
+
+        log.debug("Bulk updating changed fields of {} service instances", updates.size());
+        BulkWriteResult result = repository.bulkUpdateFields(updates);
+
+        evictInstances(updates.stream().map(update -> update.instance().getId()).toList());
+        return result;
+    }
+
+    /**
+     * Bulk advance lastSeenAt for existing service instances.
+     * <p>
+     * Used by the heartbeat write-behind flush for instances whose heartbeats
+     * changed nothing but liveness, avoiding a full document rewrite.
+     * <p>
+     * Evicts cache entries for the touched instance IDs.
+     *
+     * @param lastSeenById map of instance ID to observed lastSeenAt
+     * @return bulk write result with matched/modified counts
+     */
+    public BulkWriteResult bulkTouchLastSeen(Map<ServiceInstanceId, Instant> lastSeenById) {
+        if (lastSeenById == null || lastSeenById.isEmpty()) {
+            log.debug("Empty touch map, skipping bulk lastSeenAt update");
+            return null;
+        }
+
+        log.debug("Bulk touching lastSeenAt for {} service instances", lastSeenById.size());
+        BulkWriteResult result = repository.bulkTouchLastSeen(lastSeenById);
+
+        evictInstances(lastSeenById.keySet());
+        return result;
+    }
+
+    /**
+     * Evicts service-instances cache entries after a bulk write.
+     * <p>
+     * Optimized batch cache eviction: use clear() for large batches, individual
+     * eviction for small ones.
+     *
+     * @param ids IDs of the written instances
+     */
+    private void evictInstances(Collection<ServiceInstanceId> ids) {
+        Cache cache = cacheManager.getCache("service-instances");
+        if (cache == null || ids.isEmpty()) {
+            return;
+        }
+
+        int batchThreshold = cacheProperties.getEviction().getBatchThreshold();
+        int batchSize = ids.size();
+
+        if (batchSize > batchThreshold) {
+            // Large batch: clear entire cache for better performance
+            try {
+                cache.clear();
+                log.debug("Cleared entire service-instances cache (batch size {} > threshold {})", 
+                        batchSize, batchThreshold);
+            } catch (Exception e) {
+                log.warn("Failed to clear cache for service instances", e);
+            }
+        } else {
+            // Small batch: evict individual entries
+            int evictedCount = 0;
+            for (ServiceInstanceId id : ids) {
+                if (id != null) {
+                    try {
+                        cache.evict(id);
+                        evictedCount++;
+                    } catch (Exception e) {
+                        log.warn("Failed to evict cache for service instance: {}", id, e);
+                    }
+                }
+            }
+            log.debug("Batch evicted {} cache entries for service instances (batch size {} <= threshold {})", 
+                    evictedCount, batchSize, batchThreshold);
+        }
+    }
 }
@@ -17,7 +17,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -216,6 +218,23 @@ public class DriftEventService {
         commandService.resolveForInstance(serviceName, instanceId, resolvedBy);
     }
 
+    /**
+     * Resolves all unresolved drift events of several instances in one update.
+     * <p>
+     * Used by the drift-event aggregator to resolve a whole window of
+     * realigned instances at once.
+     *
+     * @param instanceIdsByService instance IDs grouped by service name
+     * @param resolvedBy           identifier of who/what resolved the drift
+     * @return number of drift events resolved
+     */
+    @Observed(name = MetricsNames.DriftEvent.RESOLVE, contextualName = "drift-event-resolve-bulk", lowCardinalityKeyValues = {
+            "operation", "resolve_bulk" })
+    public long resolveForInstances(Map<String, ? extends Collection<String>> instanceIdsByService,
+                                    String resolvedBy) {
+        return commandService.resolveForInstances(instanceIdsByService, resolvedBy);
+    }
+
     /**
      * Bulk update teamId for all drift events with the given serviceId.
      * <p>
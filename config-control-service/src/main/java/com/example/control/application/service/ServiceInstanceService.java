@@ -10,6 +10,7 @@ import com.example.control.domain.model.ServiceInstance;
 import com.example.control.domain.criteria.ServiceInstanceCriteria;
 import com.example.control.domain.valueobject.id.ApplicationServiceId;
 import com.example.control.domain.valueobject.id.ServiceInstanceId;
+import com.example.control.infrastructure.external.configserver.ConfigProxyService;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -40,6 +42,7 @@ public class ServiceInstanceService {
     private final ServiceInstanceQueryService queryService;
     private final DomainPermissionEvaluator permissionEvaluator;
     private final ApplicationServiceService applicationServiceService;
+    private final ConfigProxyService configProxyService;
 
     /**
      * Saves or updates a {@link ServiceInstance} record.
@@ -392,4 +395,28 @@ public class ServiceInstanceService {
 
         return instance;
     }
+
+    /**
+     * Computes the configuration drift of an instance against Config Server.
+     * <p>
+     * When the instance reports a config fingerprint, the result also names
+     * the diverging key ranges (see {@link ConfigProxyService#getConfigDiff}).
+     *
+     * @param id          the instance ID
+     * @param userContext the current user context
+     * @return drift details, or empty if the instance is not found or not visible
+     */
+    public Optional<Map<String, Object>> getConfigDiff(ServiceInstanceId id, UserContext userContext) {
+        return findById(id, userContext).flatMap(instance -> {
+            if (instance.getServiceId() == null) {
+                return Optional.empty();
+            }
+            return applicationServiceService.findById(ApplicationServiceId.of(instance.getServiceId()))
+                    .map(appService -> configProxyService.getConfigDiff(
+                            appService.getDisplayName(),
+                            instance.getEnvironment(),
+                            instance.getLastAppliedHash(),
+                            instance.getLastAppliedFingerprint()));
+        });
+    }
 }
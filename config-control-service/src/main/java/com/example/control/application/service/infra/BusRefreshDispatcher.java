@@ -0,0 +1,263 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.external.configserver.ConfigProxyService;
+import com.example.control.infrastructure.observability.configserver.BusRefreshMetrics;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Debounces and coalesces drift-triggered {@code /busrefresh} calls.
+ * <p>
+ * Heartbeat processing only records which instances need a refresh; the
+ * dispatcher sends them off the heartbeat thread:
+ * <ul>
+ * <li>Requests are collected per service and environment for
+ * {@code app.heartbeat.refresh.debounce-ms}</li>
+ * <li>When {@code merge-threshold} or more instances of one service and
+ * environment are waiting, they are refreshed with one {@code service:**}
+ * destination, otherwise one {@code service:instanceId} destination each.
+ * The bus cannot address an environment, so a merged refresh also reaches the
+ * service's other environments; the threshold keeps that to large drifts</li>
+ * <li>A destination (or its service-wide destination) refreshed within
+ * {@code cooldown-ms} is not refreshed again until the cooldown expires; its
+ * requests stay pending until then</li>
+ * <li>Sends are limited by the {@code bus-refresh} rate limiter; refreshes
+ * over the limit wait for the next dispatch</li>
+ * </ul>
+ * Requests that did not produce a refresh of their own are reported as
+ * suppressed.
+ */
+@Slf4j
+@Component
+public class BusRefreshDispatcher {
+
+    private final ConfigProxyService configProxyService;
+    private final BusRefreshMetrics metrics;
+    private final RateLimiter rateLimiter;
+    private final HeartbeatProperties.Refresh properties;
+    private final AsyncTaskExecutor dispatchExecutor;
+
+    /**
+     * Requests waiting for the next dispatch, keyed by service and environment.
+     * Values are only mutated inside {@code compute}.
+     */
+    private final ConcurrentHashMap<Scope, PendingRefresh> pending = new ConcurrentHashMap<>();
+
+    /**
+     * {@link System#nanoTime()} of the last refresh per destination.
+     */
+    private final ConcurrentHashMap<String, Long> lastSent = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean dispatching = new AtomicBoolean(false);
+
+    public BusRefreshDispatcher(
+            ConfigProxyService configProxyService,
+            BusRefreshMetrics metrics,
+            @Qualifier("busRefreshRateLimiter") RateLimiter rateLimiter,
+            HeartbeatProperties heartbeatProperties,
+            @Qualifier("defaultExecutor") AsyncTaskExecutor dispatchExecutor) {
+        this.configProxyService = configProxyService;
+        this.metrics = metrics;
+        this.rateLimiter = rateLimiter;
+        this.properties = heartbeatProperties.getRefresh();
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * Requests a configuration refresh for one instance.
+     *
+     * @param serviceName service name
+     * @param environment instance environment (null for default)
+     * @param instanceId  instance identifier
+     */
+    public void request(String serviceName, String environment, String instanceId) {
+        metrics.recordRequested();
+        if (!properties.isDebounced()) {
+            send(serviceName + ":" + instanceId);
+            return;
+        }
+
+        pending.compute(Scope.of(serviceName, environment), (key, current) -> {
+            PendingRefresh target = current != null ? current : new PendingRefresh();
+            target.instanceIds.add(instanceId);
+            target.requests++;
+            return target;
+        });
+        metrics.updatePending(pending.size());
+    }
+
+    /**
+     * Requests a configuration refresh for several instances.
+     *
+     * @param targets instances to refresh
+     */
+    public void requestAll(Collection<Target> targets) {
+        for (Target target : targets) {
+            request(target.serviceName(), target.environment(), target.instanceId());
+        }
+    }
+
+    /**
+     * Dispatch trigger: hands the collected requests to a worker unless the
+     * previous dispatch is still running.
+     */
+    @Scheduled(fixedDelayString = "${app.heartbeat.refresh.debounce-ms:1000}")
+    public void scheduledDispatch() {
+        if (pending.isEmpty() || !dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(() -> {
+                try {
+                    dispatch();
+                } finally {
+                    dispatching.set(false);
+                }
+            });
+        } catch (Exception e) {
+            dispatching.set(false);
+            log.warn("Failed to schedule bus refresh dispatch, waiting for next window", e);
+        }
+    }
+
+    /**
+     * Sends the collected refreshes.
+     */
+    private void dispatch() {
+        long now = System.nanoTime();
+        long cooldownNanos = properties.getCooldownMs() * 1_000_000L;
+        lastSent.values().removeIf(sentAt -> now - sentAt >= cooldownNanos);
+
+        for (Scope scope : new ArrayList<>(pending.keySet())) {
+            PendingRefresh refresh = pending.remove(scope);
+            if (refresh == null) {
+                continue;
+            }
+
+            String serviceName = scope.serviceName();
+            List<String> destinations = destinations(serviceName, refresh);
+            List<String> coolingDown = new ArrayList<>();
+            int sent = 0;
+            for (int d = 0; d < destinations.size(); d++) {
+                String destination = destinations.get(d);
+                if (isCoolingDown(serviceName, destination)) {
+                    coolingDown.add(destination);
+                    continue;
+                }
+                if (!rateLimiter.acquirePermission()) {
+                    metrics.recordRateLimited();
+                    // Keep what was not sent (a service-wide refresh stays service-wide)
+                    coolingDown.addAll(destinations.subList(d, destinations.size()));
+                    int deferred = requeue(scope, refresh, coolingDown, sent);
+                    metrics.recordSuppressed(refresh.requests - sent - deferred);
+                    log.debug("Bus refresh rate limit reached, deferring {} services", pending.size());
+                    metrics.updatePending(pending.size());
+                    return;
+                }
+                send(destination);
+                lastSent.put(destination, System.nanoTime());
+                sent++;
+            }
+            // Destinations in cooldown are retried once it expires
+            int deferred = requeue(scope, refresh, coolingDown, sent);
+            metrics.recordSuppressed(refresh.requests - sent - deferred);
+        }
+        metrics.updatePending(pending.size());
+    }
+
+    private List<String> destinations(String serviceName, PendingRefresh refresh) {
+        if (refresh.instanceIds.size() >= properties.getMergeThreshold()) {
+            return List.of(serviceName + ":**");
+        }
+        List<String> destinations = new ArrayList<>(refresh.instanceIds.size());
+        for (String instanceId : refresh.instanceIds) {
+            destinations.add(serviceName + ":" + instanceId);
+        }
+        return destinations;
+    }
+
+    private boolean isCoolingDown(String serviceName, String destination) {
+        return lastSent.containsKey(destination) || lastSent.containsKey(serviceName + ":**");
+    }
+
+    /**
+     * Puts unsent destinations back in the pending requests of their scope.
+     *
+     * @return number of requests put back
+     */
+    private int requeue(Scope scope, PendingRefresh refresh, List<String> unsent, int sent) {
+        if (unsent.isEmpty()) {
+            return 0;
+        }
+        PendingRefresh rest = new PendingRefresh();
+        if (unsent.size() == 1 && unsent.get(0).endsWith(":**")) {
+            rest.instanceIds.addAll(refresh.instanceIds);
+            rest.requests = refresh.requests - sent;
+        } else {
+            for (String destination : unsent) {
+                rest.instanceIds.add(destination.substring(scope.serviceName().length() + 1));
+            }
+            rest.requests = rest.instanceIds.size();
+        }
+        pending.merge(scope, rest, (newer, deferred) -> {
+            newer.instanceIds.addAll(deferred.instanceIds);
+            newer.requests += deferred.requests;
+            return newer;
+        });
+        return rest.requests;
+    }
+
+    private void send(String destination) {
+        try {
+            String response = configProxyService.triggerBusRefresh(destination);
+            metrics.recordSent();
+            log.info("Triggered refresh for drifted destination: {} - response: {}", destination, response);
+        } catch (Exception e) {
+            metrics.recordFailed();
+            log.error("Failed to trigger refresh for {}", destination, e);
+        }
+    }
+
+    /**
+     * An instance to refresh.
+     *
+     * @param serviceName service name
+     * @param environment instance environment (null for default)
+     * @param instanceId  instance identifier
+     */
+    public record Target(String serviceName, String environment, String instanceId) {
+    }
+
+    /**
+     * Service and environment that pending requests are collected and merged
+     * by.
+     */
+    private record Scope(String serviceName, String environment) {
+
+        static Scope of(String serviceName, String environment) {
+            return new Scope(serviceName, environment == null || environment.isBlank() ? "default" : environment);
+        }
+    }
+
+    /**
+     * Refresh requests of one service and environment collected since the
+     * last dispatch.
+     */
+    private static final class PendingRefresh {
+        private final Set<String> instanceIds = new HashSet<>();
+        private int requests;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Exponential refresh backoff state for instances with persistent drift.
+ * <p>
+ * Each instance in drift re-triggers a refresh after 1, 2, 4, ... heartbeats
+ * (up to {@code 2^max-exponent}). The state is kept in a bounded Caffeine
+ * cache whose entries expire once an instance stops sending heartbeats, so it
+ * no longer grows with every instance ever seen. With
+ * {@code app.heartbeat.drift-backoff.shared=true} it lives in Redis instead,
+ * updated by atomic scripts, so all control-plane replicas apply one backoff
+ * per instance and a refresh is triggered once rather than once per replica.
+ * When Redis fails the in-process state is used.
+ */
+@Slf4j
+@Component
+public class DriftBackoffStore {
+
+    private static final String KEY_PREFIX = "drift-backoff:";
+
+    /**
+     * Counts a persistent-drift heartbeat; returns 1 when a refresh is due and
+     * then resets the count and raises the exponent.
+     */
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>("""
+            local count = redis.call('HINCRBY', KEYS[1], 'count', 1)
+            local pow = math.min(tonumber(redis.call('HGET', KEYS[1], 'pow') or '0'), tonumber(ARGV[2]))
+            local due = 0
+            if count >= 2 ^ pow then
+              due = 1
+              redis.call('HSET', KEYS[1], 'count', 0, 'pow', math.min(pow + 1, tonumber(ARGV[2])))
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return due
+            """, Long.class);
+
+    private static final RedisScript<Long> START_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('HSET', KEYS[1], 'count', 1, 'pow', 0)
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private final HeartbeatProperties.DriftBackoff properties;
+    private final Optional<RedisTemplate<String, String>> redisTemplate;
+    private final Cache<String, Backoff> local;
+
+    public DriftBackoffStore(HeartbeatProperties heartbeatProperties,
+                             @Qualifier("cacheRedisTemplate") Optional<RedisTemplate<String, String>> redisTemplate) {
+        this.properties = heartbeatProperties.getDriftBackoff();
+        this.redisTemplate = properties.isShared() ? redisTemplate : Optional.empty();
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterAccess(Duration.ofMillis(properties.getTtlMs()))
+                .build();
+        if (properties.isShared() && redisTemplate.isEmpty()) {
+            log.warn("Shared drift backoff requested but Redis is not available, using in-process state");
+        }
+    }
+
+    /**
+     * Starts the backoff of an instance whose drift was just detected (the
+     * refresh for the detection itself has already been triggered).
+     *
+     * @param instanceKey {@code serviceName:instanceId}
+     */
+    public void start(String instanceKey) {
+        local.put(instanceKey, new Backoff(1, 0));
+        redisTemplate.ifPresent(redis -> {
+            try {
+                redis.execute(START_SCRIPT, List.of(KEY_PREFIX + instanceKey), ttlArg());
+            } catch (Exception e) {
+                log.debug("Failed to start shared drift backoff for {}: {}", instanceKey, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Records another heartbeat of an instance still in drift.
+     *
+     * @param instanceKey {@code serviceName:instanceId}
+     * @return true if the refresh should be re-triggered now
+     */
+    public boolean recordPersistentDrift(String instanceKey) {
+        if (redisTemplate.isPresent()) {
+            try {
+                Long due = redisTemplate.get().execute(RECORD_SCRIPT, List.of(KEY_PREFIX + instanceKey),
+                        ttlArg(), String.valueOf(properties.getMaxExponent()));
+                // Keep a local marker so clear() knows there is shared state to drop
+                local.put(instanceKey, new Backoff(0, 0));
+                return due != null && due == 1L;
+            } catch (Exception e) {
+                log.debug("Shared drift backoff unavailable for {}, using in-process state: {}",
+                        instanceKey, e.getMessage());
+            }
+        }
+
+        int maxExponent = properties.getMaxExponent();
+        boolean[] due = new boolean[1];
+        local.asMap().compute(instanceKey, (key, current) -> {
+            int count = current == null ? 1 : current.count() + 1;
+            int pow = current == null ? 0 : Math.min(current.pow(), maxExponent);
+            if (count >= 1 << pow) {
+                due[0] = true;
+                return new Backoff(0, Math.min(pow + 1, maxExponent));
+            }
+            return new Backoff(count, pow);
+        });
+        return due[0];
+    }
+
+    /**
+     * Drops the backoff state of an instance that is no longer in drift.
+     * <p>
+     * Shared state is only deleted when this replica holds state for the
+     * instance, so steady-state heartbeats do not cost a Redis round trip;
+     * leftovers expire and are overwritten by {@link #start}.
+     *
+     * @param instanceKey {@code serviceName:instanceId}
+     */
+    public void clear(String instanceKey) {
+        if (local.asMap().remove(instanceKey) == null) {
+            return;
+        }
+        redisTemplate.ifPresent(redis -> {
+            try {
+                redis.delete(KEY_PREFIX + instanceKey);
+            } catch (Exception e) {
+                log.debug("Failed to clear shared drift backoff for {}: {}", instanceKey, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Number of instances with in-process backoff state.
+     *
+     * @return estimated entry count
+     */
+    public long size() {
+        return local.estimatedSize();
+    }
+
+    private String ttlArg() {
+        return String.valueOf(properties.getTtlMs());
+    }
+
+    /**
+     * Heartbeats counted since the last refresh and current backoff exponent.
+     */
+    private record Backoff(int count, int pow) {
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.application.service.DriftEventService;
+import com.example.control.domain.model.DriftEvent;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collapses drift transitions reported by heartbeat processing into per-window
+ * writes.
+ * <p>
+ * A bad configuration rollout drifts many instances at once; writing one drift
+ * event per transition turns it into a burst of single writes. Instead:
+ * <ul>
+ * <li>Detected drift is buffered per instance (repeated detections within a
+ * window are dropped) and written as one bulk insert per window</li>
+ * <li>For each (service, environment, expected hash) one warning with the
+ * instance count is logged and counted ({@code heartbeat.drift.aggregated})
+ * instead of one per instance</li>
+ * <li>Resolutions are buffered per service and applied as one
+ * {@code updateMulti}; a drift detected and resolved within the same window is
+ * written already resolved</li>
+ * <li>Flushes every {@code app.heartbeat.drift-aggregation.window-ms}, or as
+ * soon as {@code app.heartbeat.drift-aggregation.max-batch-size} entries are
+ * pending, and synchronously on shutdown</li>
+ * </ul>
+ * With {@code app.heartbeat.drift-aggregation.enabled=false} every transition
+ * is written immediately.
+ */
+@Slf4j
+@Component
+public class DriftEventAggregator {
+
+    private static final String RESOLVED_BY = "heartbeat-service";
+
+    private final DriftEventService driftEventService;
+    private final HeartbeatMetrics heartbeatMetrics;
+    private final HeartbeatProperties.DriftAggregation properties;
+    private final AsyncTaskExecutor flushExecutor;
+
+    /**
+     * Detected drift events keyed by {@code serviceName:instanceId}.
+     */
+    private final ConcurrentHashMap<String, DriftEvent> pendingDetections = new ConcurrentHashMap<>();
+
+    /**
+     * Instances whose drift events must be resolved, keyed by service name.
+     */
+    private final ConcurrentHashMap<String, Set<String>> pendingResolutions = new ConcurrentHashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    public DriftEventAggregator(
+            DriftEventService driftEventService,
+            HeartbeatMetrics heartbeatMetrics,
+            HeartbeatProperties heartbeatProperties,
+            @Qualifier("defaultExecutor") AsyncTaskExecutor flushExecutor) {
+        this.driftEventService = driftEventService;
+        this.heartbeatMetrics = heartbeatMetrics;
+        this.properties = heartbeatProperties.getDriftAggregation();
+        this.flushExecutor = flushExecutor;
+    }
+
+    /**
+     * Buffers a newly detected drift.
+     * <p>
+     * A pending, still unresolved event of the same instance is kept; one that
+     * was resolved within the window is replaced by the new detection.
+     *
+     * @param event drift event for one instance (owned by the aggregator afterwards)
+     */
+    public void offerDetected(DriftEvent event) {
+        if (!properties.isEnabled()) {
+            driftEventService.save(event);
+            heartbeatMetrics.recordDriftDetected();
+            return;
+        }
+
+        pendingDetections.merge(instanceKey(event.getServiceName(), event.getInstanceId()), event,
+                (previous, next) -> previous.isResolved() ? next : previous);
+        afterOffer();
+    }
+
+    /**
+     * Buffers several newly detected drifts.
+     *
+     * @param events drift events (owned by the aggregator afterwards)
+     */
+    public void offerDetected(List<DriftEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (!properties.isEnabled()) {
+            driftEventService.bulkSave(events);
+            heartbeatMetrics.recordDriftDetected(events.size());
+            return;
+        }
+
+        events.forEach(event -> pendingDetections.merge(
+                instanceKey(event.getServiceName(), event.getInstanceId()), event,
+                (previous, next) -> previous.isResolved() ? next : previous));
+        afterOffer();
+    }
+
+    /**
+     * Buffers the resolution of all unresolved drift events of an instance.
+     *
+     * @param serviceName service name
+     * @param instanceId  instance identifier
+     */
+    public void offerResolved(String serviceName, String instanceId) {
+        if (!properties.isEnabled()) {
+            driftEventService.resolveForInstance(serviceName, instanceId, RESOLVED_BY);
+            return;
+        }
+
+        // A drift detected in this window is written already resolved
+        pendingDetections.computeIfPresent(instanceKey(serviceName, instanceId), (key, event) -> {
+            if (!event.isResolved()) {
+                event.resolve(RESOLVED_BY);
+            }
+            return event;
+        });
+        // Older events are resolved by the bulk update; the set is only mutated
+        // inside compute so a concurrent drain cannot lose the ID
+        pendingResolutions.compute(serviceName, (key, ids) -> {
+            Set<String> target = ids != null ? ids : new HashSet<>();
+            target.add(instanceId);
+            return target;
+        });
+        afterOffer();
+    }
+
+    /**
+     * Time-based flush trigger.
+     */
+    @Scheduled(fixedDelayString = "${app.heartbeat.drift-aggregation.window-ms:2000}")
+    public void scheduledFlush() {
+        if (!pendingDetections.isEmpty() || !pendingResolutions.isEmpty()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all pending resolutions and detections.
+     * <p>
+     * Resolutions are applied first, so an instance that realigned and drifted
+     * again within the window keeps its new event open. Failed writes are
+     * re-buffered and retried on the next cycle. Only one flush runs at a time.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushScheduled.set(false);
+            flushResolutions();
+            flushDetections();
+        } finally {
+            flushLock.unlock();
+            heartbeatMetrics.updateDriftPending(pendingCount());
+        }
+    }
+
+    /**
+     * Writes the last window synchronously before the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!pendingDetections.isEmpty() || !pendingResolutions.isEmpty()) {
+            log.info("Flushing {} pending drift transitions before shutdown", pendingCount());
+            flush();
+        }
+    }
+
+    private void flushResolutions() {
+        Map<String, Set<String>> resolutions = new HashMap<>();
+        for (String serviceName : pendingResolutions.keySet()) {
+            Set<String> ids = pendingResolutions.remove(serviceName);
+            if (ids != null && !ids.isEmpty()) {
+                resolutions.put(serviceName, ids);
+            }
+        }
+        if (resolutions.isEmpty()) {
+            return;
+        }
+
+        try {
+            driftEventService.resolveForInstances(resolutions, RESOLVED_BY);
+        } catch (Exception e) {
+            log.error("Failed to resolve drift events for instances of {} services, will retry next cycle",
+                    resolutions.size(), e);
+            resolutions.forEach((serviceName, ids) -> pendingResolutions.compute(serviceName, (key, current) -> {
+                Set<String> target = current != null ? current : new HashSet<>();
+                target.addAll(ids);
+                return target;
+            }));
+        }
+    }
+
+    private void flushDetections() {
+        List<DriftEvent> events = new ArrayList<>();
+        for (String key : pendingDetections.keySet()) {
+            DriftEvent event = pendingDetections.remove(key);
+            if (event != null) {
+                events.add(event);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            driftEventService.bulkSave(events);
+        } catch (Exception e) {
+            log.error("Failed to save {} drift events, will retry next cycle", events.size(), e);
+            events.forEach(event -> pendingDetections.putIfAbsent(
+                    instanceKey(event.getServiceName(), event.getInstanceId()), event));
+            return;
+        }
+
+        heartbeatMetrics.recordDriftDetected(events.size());
+        logAggregates(events);
+    }
+
+    private void logAggregates(List<DriftEvent> events) {
+        Map<DriftKey, List<DriftEvent>> groups = new LinkedHashMap<>();
+        for (DriftEvent event : events) {
+            groups.computeIfAbsent(new DriftKey(event.getServiceName(), event.getEnvironment(), event.getExpectedHash()),
+                    key -> new ArrayList<>()).add(event);
+        }
+
+        groups.forEach((key, group) -> {
+            Instant first = group.stream().map(DriftEvent::getDetectedAt).filter(Objects::nonNull)
+                    .min(Instant::compareTo).orElse(null);
+            Instant last = group.stream().map(DriftEvent::getDetectedAt).filter(Objects::nonNull)
+                    .max(Instant::compareTo).orElse(null);
+            log.warn("Configuration drift on {} instance(s) of {} ({}), expected hash {}, detected {} - {}",
+                    group.size(), key.serviceName(), key.environment(), key.expectedHash(), first, last);
+            heartbeatMetrics.recordDriftAggregated();
+        });
+    }
+
+    private void afterOffer() {
+        int pending = pendingCount();
+        heartbeatMetrics.updateDriftPending(pending);
+        if (pending >= properties.getMaxBatchSize()) {
+            scheduleFlush();
+        }
+    }
+
+    private int pendingCount() {
+        int resolutions = 0;
+        for (Set<String> ids : pendingResolutions.values()) {
+            resolutions += ids.size();
+        }
+        return pendingDetections.size() + resolutions;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (Exception e) {
+                flushScheduled.set(false);
+                log.warn("Failed to schedule early drift-event flush, waiting for next window", e);
+            }
+        }
+    }
+
+    private static String instanceKey(String serviceName, String instanceId) {
+        return serviceName + ":" + instanceId;
+    }
+
+    /**
+     * Aggregation key of a drift: instances of the same service and
+     * environment that missed the same configuration.
+     */
+    private record DriftKey(String serviceName, String environment, String expectedHash) {
+    }
+}
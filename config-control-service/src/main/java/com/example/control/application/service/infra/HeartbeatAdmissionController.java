@@ -0,0 +1,126 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive admission control in front of heartbeat processing.
+ * <p>
+ * Keeps the number of heartbeats in flight (single calls and batch members)
+ * below a concurrency limit that adapts to observed processing latency
+ * (AIMD). Latency is judged per heartbeat: a batch call's latency is divided
+ * by the number of heartbeats it processed, so batches and single calls are
+ * held to the same threshold.
+ * <ul>
+ * <li>A call averaging more than {@code latency-threshold-ms} per heartbeat,
+ * or a failed call, multiplies the limit by {@code backoff-ratio}</li>
+ * <li>A fast call made while at least half the limit was in use raises it by
+ * {@code additive-increase}</li>
+ * </ul>
+ * <p>
+ * Only touch-only heartbeats (see
+ * {@link ServiceInstanceRegistry#isTouchOnly}) are sheddable; registrations
+ * and possible drift transitions are always admitted, even beyond the limit.
+ * Callers defer shed heartbeats to {@link ServiceInstanceRegistry#touch}, so
+ * liveness keeps being tracked while MongoDB or the config server are slow.
+ * Only active when {@code app.heartbeat.admission.enabled} is true.
+ */
+@Slf4j
+@Component
+public class HeartbeatAdmissionController {
+
+    private final HeartbeatMetrics heartbeatMetrics;
+    private final HeartbeatProperties.Admission properties;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+
+    public HeartbeatAdmissionController(HeartbeatMetrics heartbeatMetrics, HeartbeatProperties heartbeatProperties) {
+        this.heartbeatMetrics = heartbeatMetrics;
+        this.properties = heartbeatProperties.getAdmission();
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLatencyThresholdMs());
+        this.limit = Math.clamp(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit());
+        heartbeatMetrics.updateAdmission((long) limit, 0);
+    }
+
+    /**
+     * Whether admission control is active.
+     *
+     * @return true if heartbeats are gated by the adaptive limit
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Admits heartbeats for processing.
+     * <p>
+     * Critical heartbeats are always admitted; sheddable ones only while the
+     * limit has room. Every admitted heartbeat must be given back via
+     * {@link #release}.
+     *
+     * @param critical  number of heartbeats that must be processed
+     * @param sheddable number of touch-only heartbeats that may be shed
+     * @return number of sheddable heartbeats admitted (the rest are shed)
+     */
+    public int acquire(int critical, int sheddable) {
+        if (!isEnabled()) {
+            return sheddable;
+        }
+
+        int granted;
+        int current;
+        do {
+            current = inFlight.get();
+            int available = Math.max(0, (int) limit - current - critical);
+            granted = Math.min(sheddable, available);
+        } while (!inFlight.compareAndSet(current, current + critical + granted));
+
+        int shed = sheddable - granted;
+        if (shed > 0) {
+            heartbeatMetrics.recordAdmissionShed(shed);
+        }
+        heartbeatMetrics.updateAdmission((long) limit, current + critical + granted);
+        return granted;
+    }
+
+    /**
+     * Releases admitted heartbeats and adapts the limit to the per-heartbeat
+     * latency of the call that processed them.
+     *
+     * @param permits      number of heartbeats admitted for the call
+     * @param latencyNanos processing time of the call
+     * @param success      whether the call completed without error
+     */
+    public void release(int permits, long latencyNanos, boolean success) {
+        if (!isEnabled() || permits <= 0) {
+            return;
+        }
+
+        int inFlightBefore = inFlight.getAndAdd(-permits);
+        long perHeartbeatNanos = latencyNanos / permits;
+        double newLimit;
+        synchronized (this) {
+            if (!success || perHeartbeatNanos > latencyThresholdNanos) {
+                newLimit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (inFlightBefore * 2 >= limit) {
+                newLimit = Math.min(properties.getMaxLimit(), limit + properties.getAdditiveIncrease());
+            } else {
+                newLimit = limit;
+            }
+            if (newLimit < limit) {
+                log.debug("Heartbeat admission limit decreased to {} (latency={}us per heartbeat, success={})",
+                        (int) newLimit, TimeUnit.NANOSECONDS.toMicros(perHeartbeatNanos), success);
+            }
+            limit = newLimit;
+        }
+
+        heartbeatMetrics.updateAdmission((long) newLimit, inFlightBefore - permits);
+    }
+}
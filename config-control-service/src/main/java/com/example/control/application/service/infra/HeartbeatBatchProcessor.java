@@ -1,19 +1,32 @@
 package com.example.control.application.service.infra;
 
 import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
 import com.example.control.infrastructure.observability.MetricsNames;
 import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
 import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -22,6 +35,22 @@ import java.util.stream.Collectors;
  * Consumes batches of heartbeat messages from Kafka and delegates to
  * HeartbeatBatchService for batch processing. Implements manual acknowledgment
  * and error handling via HeartbeatKafkaErrorHandler.
+ * <p>
+ * Before each batch the write-behind buffer is checked for capacity, so a slow
+ * MongoDB throttles consumption instead of growing the buffer without bound.
+ * <p>
+ * With {@code app.heartbeat.kafka.consumer.parallel-mode} set to PARTITION or
+ * SERVICE, the polled batch is split by Kafka partition or by hashed
+ * serviceName and each sub-batch runs on its own virtual thread. Per-partition
+ * (or per-service) ordering is preserved, and the batch is acknowledged only
+ * after every sub-batch has finished.
+ * <p>
+ * Each sub-batch commits on its own, so a failure must not re-apply the
+ * sub-batches that already succeeded: only the failed ones are retried
+ * in-process, and records of succeeded sub-batches are remembered and skipped
+ * if the error handler redelivers the poll. Remembered offsets are dropped
+ * once a later poll of the partition is acknowledged or starts past them, and
+ * when the partition is revoked ({@link #forgetPartitions}).
  */
 @Slf4j
 @Component
@@ -29,7 +58,24 @@ import java.util.stream.Collectors;
 public class HeartbeatBatchProcessor {
 
     private final HeartbeatBatchService heartbeatBatchService;
+    private final HeartbeatWriteBehindBuffer heartbeatWriteBehindBuffer;
     private final HeartbeatMetrics heartbeatMetrics;
+    private final HeartbeatProperties heartbeatProperties;
+    private final TaskDecorator taskDecorator;
+
+    /**
+     * Executor for parallel sub-batches. Virtual threads are cheap enough to
+     * create one per sub-batch, so no pool sizing is needed.
+     */
+    private final VirtualThreadTaskExecutor subBatchExecutor = new VirtualThreadTaskExecutor("heartbeat-sub-batch-");
+
+    /**
+     * Offsets of records whose sub-batch was processed but whose poll has not
+     * been acknowledged yet, per partition. Holds at most one poll per
+     * partition: cleared once a later poll of the partition is acknowledged or
+     * starts past them, and when the partition is revoked.
+     */
+    private final Map<TopicPartition, Set<Long>> completedOffsets = new ConcurrentHashMap<>();
 
     /**
      * Processes a batch of heartbeat records from Kafka.
@@ -61,16 +107,28 @@ public class HeartbeatBatchProcessor {
         try {
             log.debug("Processing heartbeat batch of {} records", batchSize);
 
-            // Extract payloads from records
-            List<HeartbeatPayload> payloads = records.stream()
-                    .map(ConsumerRecord::value)
-                    .collect(Collectors.toList());
+            // Back-pressure: flush on this thread if the write-behind buffer is full
+            heartbeatWriteBehindBuffer.awaitCapacity();
 
-            // Process batch
-            heartbeatBatchService.processBatch(payloads);
+            // Skip records already processed in an earlier delivery of this poll;
+            // anything below this poll was committed or recovered by the error handler
+            forgetBefore(records);
+            List<ConsumerRecord<String, HeartbeatPayload>> pending = records.stream()
+                    .filter(record -> !isCompleted(record))
+                    .toList();
+            if (pending.size() < batchSize) {
+                log.info("Skipping {} of {} redelivered heartbeat records already processed",
+                        batchSize - pending.size(), batchSize);
+            }
+
+            // Split into sub-batches (single sub-batch when parallel mode is NONE)
+            if (!pending.isEmpty()) {
+                processSubBatches(splitBatch(pending));
+            }
 
             // Acknowledge after successful processing
             acknowledgment.acknowledge();
+            forgetCompleted(records);
 
             // Record metrics
             Duration processingTime = Duration.between(start, Instant.now());
@@ -86,5 +144,167 @@ public class HeartbeatBatchProcessor {
             throw new RuntimeException("Batch processing failed", e);
         }
     }
-}
 
+    /**
+     * Splits polled records into independently processable sub-batches
+     * according to the configured parallel mode, preserving record order within
+     * each sub-batch.
+     *
+     * @param records polled consumer records
+     * @return list of sub-batches (exactly one when parallel mode is NONE)
+     */
+    List<List<ConsumerRecord<String, HeartbeatPayload>>> splitBatch(
+            List<ConsumerRecord<String, HeartbeatPayload>> records) {
+        HeartbeatProperties.Kafka.Consumer consumer = heartbeatProperties.getKafka().getConsumer();
+
+        Map<Integer, List<ConsumerRecord<String, HeartbeatPayload>>> groups = switch (consumer.getParallelMode()) {
+            case NONE -> Map.of(0, records);
+            case PARTITION -> records.stream()
+                    .collect(Collectors.groupingBy(ConsumerRecord::partition, LinkedHashMap::new,
+                            Collectors.toList()));
+            case SERVICE -> records.stream()
+                    .collect(Collectors.groupingBy(
+                            r -> Math.floorMod(Objects.hashCode(r.value().getServiceName()),
+                                    consumer.getServiceBuckets()),
+                            LinkedHashMap::new,
+                            Collectors.toList()));
+        };
+
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Processes sub-batches, retrying only the ones that failed.
+     * <p>
+     * Failed sub-batches are retried up to
+     * {@code app.heartbeat.kafka.consumer.sub-batch-retries} times with
+     * exponential backoff. If some still fail, the last failures are rethrown
+     * so the error handler retries the poll; records of the sub-batches that
+     * succeeded are skipped on that redelivery.
+     *
+     * @param subBatches sub-batches to process
+     */
+    private void processSubBatches(List<List<ConsumerRecord<String, HeartbeatPayload>>> subBatches) {
+        HeartbeatProperties.Kafka.Consumer consumer = heartbeatProperties.getKafka().getConsumer();
+        List<List<ConsumerRecord<String, HeartbeatPayload>>> remaining = subBatches;
+
+        for (int attempt = 0; ; attempt++) {
+            List<Throwable> errors = new ArrayList<>();
+            remaining = runSubBatches(remaining, errors);
+            if (remaining.isEmpty()) {
+                return;
+            }
+
+            if (attempt >= consumer.getSubBatchRetries()) {
+                RuntimeException failure = new RuntimeException(remaining.size() + " of " + subBatches.size()
+                        + " heartbeat sub-batches failed after " + (attempt + 1) + " attempts", errors.get(0));
+                errors.stream().skip(1).forEach(failure::addSuppressed);
+                throw failure;
+            }
+
+            long backoffMs = consumer.getSubBatchRetryBackoffMs() << attempt;
+            log.warn("Retrying {} of {} failed heartbeat sub-batches (attempt {}/{}) after {}ms",
+                    remaining.size(), subBatches.size(), attempt + 1, consumer.getSubBatchRetries(), backoffMs,
+                    errors.get(0));
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while retrying heartbeat sub-batches", e);
+            }
+        }
+    }
+
+    /**
+     * Runs sub-batches, concurrently on virtual threads when there is more
+     * than one, and waits for all of them.
+     *
+     * @param subBatches sub-batches to run
+     * @param errors     collects the failure of each failed sub-batch
+     * @return the sub-batches that failed
+     */
+    private List<List<ConsumerRecord<String, HeartbeatPayload>>> runSubBatches(
+            List<List<ConsumerRecord<String, HeartbeatPayload>>> subBatches, List<Throwable> errors) {
+        if (subBatches.size() == 1) {
+            try {
+                processSubBatch(subBatches.get(0));
+                return List.of();
+            } catch (RuntimeException e) {
+                errors.add(e);
+                return subBatches;
+            }
+        }
+
+        log.debug("Processing heartbeat batch as {} parallel sub-batches", subBatches.size());
+
+        List<CompletableFuture<Void>> tasks = subBatches.stream()
+                .map(subBatch -> CompletableFuture.runAsync(
+                        taskDecorator.decorate(() -> processSubBatch(subBatch)),
+                        subBatchExecutor))
+                .toList();
+
+        List<List<ConsumerRecord<String, HeartbeatPayload>>> failed = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                tasks.get(i).join();
+            } catch (CompletionException e) {
+                failed.add(subBatches.get(i));
+                errors.add(e.getCause() != null ? e.getCause() : e);
+            }
+        }
+        return failed;
+    }
+
+    private void processSubBatch(List<ConsumerRecord<String, HeartbeatPayload>> subBatch) {
+        heartbeatBatchService.processBatch(subBatch.stream().map(ConsumerRecord::value).toList());
+        for (ConsumerRecord<String, HeartbeatPayload> record : subBatch) {
+            completedOffsets.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+                    tp -> ConcurrentHashMap.newKeySet()).add(record.offset());
+        }
+    }
+
+    private boolean isCompleted(ConsumerRecord<String, HeartbeatPayload> record) {
+        Set<Long> offsets = completedOffsets.get(new TopicPartition(record.topic(), record.partition()));
+        return offsets != null && offsets.contains(record.offset());
+    }
+
+    /**
+     * Drops remembered offsets of partitions no longer assigned to this
+     * consumer, whose records will be redelivered to the new owner.
+     *
+     * @param partitions the revoked or lost partitions
+     */
+    public void forgetPartitions(Collection<TopicPartition> partitions) {
+        partitions.forEach(completedOffsets::remove);
+    }
+
+    /**
+     * Drops remembered offsets below the lowest offset of each partition in a
+     * poll, left behind by polls that failed and were never acknowledged.
+     */
+    private void forgetBefore(List<ConsumerRecord<String, HeartbeatPayload>> records) {
+        Map<TopicPartition, Long> minOffsets = records.stream()
+                .collect(Collectors.toMap(r -> new TopicPartition(r.topic(), r.partition()),
+                        ConsumerRecord::offset, Math::min));
+        minOffsets.forEach((partition, minOffset) -> completedOffsets.computeIfPresent(partition,
+                (tp, offsets) -> {
+                    offsets.removeIf(offset -> offset < minOffset);
+                    return offsets.isEmpty() ? null : offsets;
+                }));
+    }
+
+    /**
+     * Drops remembered offsets up to the highest offset of each partition in
+     * an acknowledged poll.
+     */
+    private void forgetCompleted(List<ConsumerRecord<String, HeartbeatPayload>> records) {
+        Map<TopicPartition, Long> maxOffsets = records.stream()
+                .collect(Collectors.toMap(r -> new TopicPartition(r.topic(), r.partition()),
+                        ConsumerRecord::offset, Math::max));
+        maxOffsets.forEach((partition, maxOffset) -> completedOffsets.computeIfPresent(partition,
+                (tp, offsets) -> {
+                    offsets.removeIf(offset -> offset <= maxOffset);
+                    return offsets.isEmpty() ? null : offsets;
+                }));
+    }
+}
@@ -1,20 +1,16 @@
 package com.example.control.application.service.infra;
 
 import com.example.control.application.command.ApplicationServiceCommandService;
-import com.example.control.application.command.ServiceInstanceCommandService;
 import com.example.control.application.query.ApplicationServiceQueryService;
-import com.example.control.application.service.DriftEventService;
 import com.example.control.domain.model.ApplicationService;
 import com.example.control.domain.model.DriftEvent;
 import com.example.control.domain.model.HeartbeatPayload;
 import com.example.control.domain.model.ServiceInstance;
-import com.example.control.domain.port.repository.ServiceInstanceRepositoryPort;
 import com.example.control.domain.valueobject.id.ApplicationServiceId;
 import com.example.control.domain.valueobject.id.DriftEventId;
 import com.example.control.domain.valueobject.id.ServiceInstanceId;
 import com.example.control.infrastructure.external.configserver.ConfigProxyService;
 import com.example.control.infrastructure.observability.MetricsNames;
-import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
 import com.mongodb.bulk.BulkWriteResult;
 
 import io.micrometer.observation.annotation.Observed;
@@ -28,7 +24,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,33 +34,35 @@ import java.util.stream.Stream;
  * write overhead. Implements the same business logic as HeartbeatService but
  * optimized for batch operations:
  * <ul>
- * <li>Batch loads ServiceInstances and ApplicationServices</li>
+ * <li>Batch loads ServiceInstances (from the in-memory registry) and
+ * ApplicationServices</li>
  * <li>Batch loads config hashes (with cache deduplication)</li>
  * <li>Processes all heartbeats in memory</li>
- * <li>Bulk upserts to MongoDB</li>
+ * <li>Records results in the registry, persisted by its write-behind
+ * flush</li>
  * </ul>
  * <p>
  * This service maintains the same drift detection and refresh logic as the
- * synchronous HeartbeatService.
+ * synchronous HeartbeatService, including admission control by
+ * {@link HeartbeatAdmissionController}.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class HeartbeatBatchService {
 
-    private final ServiceInstanceCommandService serviceInstanceCommandService;
-    private final ServiceInstanceRepositoryPort serviceInstanceRepository;
+    private final ServiceInstanceRegistry serviceInstanceRegistry;
     private final ApplicationServiceQueryService applicationServiceQueryService;
     private final ApplicationServiceCommandService applicationServiceCommandService;
     private final ConfigProxyService configProxyService;
-    private final DriftEventService driftEventService;
-    private final HeartbeatMetrics heartbeatMetrics;
+    private final DriftEventAggregator driftEventAggregator;
+    private final BusRefreshDispatcher busRefreshDispatcher;
+    private final HeartbeatAdmissionController heartbeatAdmissionController;
     @Qualifier("configHashFetchExecutor")
     private final AsyncTaskExecutor configHashFetchExecutor;
 
-    // In-memory state for drift backoff (shared with HeartbeatService if needed)
-    private final ConcurrentHashMap<String, Integer> driftRetryCount = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Integer> driftBackoffPow = new ConcurrentHashMap<>();
+    // Refresh backoff state, shared with HeartbeatService (and other replicas when enabled)
+    private final DriftBackoffStore driftBackoffStore;
 
     /**
      * Processes a batch of heartbeat payloads.
@@ -77,8 +74,8 @@ public class HeartbeatBatchService {
      * <li>Batch load ApplicationServices by display names</li>
      * <li>Batch load config hashes (grouped by service:env)</li>
      * <li>Process each heartbeat in memory</li>
-     * <li>Bulk upsert ServiceInstances</li>
-     * <li>Save drift events if any</li>
+     * <li>Record ServiceInstances in the registry</li>
+     * <li>Hand new drift events to the drift-event aggregator</li>
      * </ol>
      *
      * @param payloads list of heartbeat payloads to process
@@ -91,6 +88,69 @@ public class HeartbeatBatchService {
             return;
         }
 
+        List<HeartbeatPayload> admitted = admit(payloads);
+        if (admitted.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            processAdmittedBatch(admitted);
+            success = true;
+        } finally {
+            heartbeatAdmissionController.release(admitted.size(), System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Passes a batch through admission control.
+     * <p>
+     * Registrations and possible drift transitions are always admitted;
+     * touch-only heartbeats beyond the current limit are shed to a liveness
+     * touch in the registry.
+     *
+     * @param payloads the polled heartbeats
+     * @return the heartbeats to process in full
+     */
+    private List<HeartbeatPayload> admit(List<HeartbeatPayload> payloads) {
+        if (!heartbeatAdmissionController.isEnabled()) {
+            return payloads;
+        }
+
+        List<HeartbeatPayload> critical = new ArrayList<>();
+        List<HeartbeatPayload> sheddable = new ArrayList<>();
+        for (HeartbeatPayload payload : payloads) {
+            (serviceInstanceRegistry.isTouchOnly(payload) ? sheddable : critical).add(payload);
+        }
+
+        int granted = heartbeatAdmissionController.acquire(critical.size(), sheddable.size());
+        if (granted == sheddable.size()) {
+            return payloads;
+        }
+
+        List<HeartbeatPayload> admitted = new ArrayList<>(critical);
+        admitted.addAll(sheddable.subList(0, granted));
+
+        // Evicted from the registry in the meantime: process those in full
+        List<HeartbeatPayload> untouched = new ArrayList<>();
+        Instant now = Instant.now();
+        for (HeartbeatPayload payload : sheddable.subList(granted, sheddable.size())) {
+            if (serviceInstanceRegistry.touch(ServiceInstanceId.of(payload.getInstanceId()), now).isEmpty()) {
+                untouched.add(payload);
+            }
+        }
+        if (!untouched.isEmpty()) {
+            heartbeatAdmissionController.acquire(untouched.size(), 0);
+            admitted.addAll(untouched);
+        }
+
+        log.debug("Admission control shed {} of {} heartbeats in batch",
+                sheddable.size() - granted - untouched.size(), payloads.size());
+        return admitted;
+    }
+
+    private void processAdmittedBatch(List<HeartbeatPayload> payloads) {
         log.debug("Processing batch of {} heartbeats", payloads.size());
         Instant now = Instant.now();
 
@@ -114,20 +174,19 @@ public class HeartbeatBatchService {
         // 4. Process each heartbeat in memory
         List<ServiceInstance> instancesToSave = new ArrayList<>();
         List<DriftEvent> driftEventsToSave = new ArrayList<>();
-        Set<String> servicesToRefresh = new HashSet<>();
+        Set<BusRefreshDispatcher.Target> servicesToRefresh = new HashSet<>();
 
         for (HeartbeatPayload payload : payloads) {
             try {
                 ServiceInstance instance = processHeartbeatInMemory(
-                        payload, instancesMap, appServicesMap, configHashesMap, now, appServicesToSave);
+                        payload, instancesMap, appServicesMap, configHashesMap, now, appServicesToSave,
+                        servicesToRefresh);
                 instancesToSave.add(instance);
 
-                // Collect drift events and refresh triggers
-                if (Boolean.TRUE.equals(instance.getHasDrift()) && instance.getDriftDetectedAt() != null) {
-                    // New drift detected - create event
-                    DriftEvent event = createDriftEvent(payload, instance);
-                    driftEventsToSave.add(event);
-                    servicesToRefresh.add(payload.getServiceName() + ":" + payload.getInstanceId());
+                // Collect drift events (refresh destinations are collected while processing)
+                if (Boolean.TRUE.equals(instance.getHasDrift()) && now.equals(instance.getDriftDetectedAt())) {
+                    // New drift detected in this batch - create event
+                    driftEventsToSave.add(createDriftEvent(payload, instance));
                 }
             } catch (Exception e) {
                 log.error("Failed to process heartbeat for {}:{}", payload.getServiceName(),
@@ -150,97 +209,27 @@ public class HeartbeatBatchService {
             }
         }
 
-        // 6. Bulk upsert ServiceInstances
-        if (!instancesToSave.isEmpty()) {
-            BulkWriteResult result = serviceInstanceCommandService.bulkUpsert(instancesToSave);
-            if (result != null) {
-                heartbeatMetrics.recordMongodbWrites(result.getInsertedCount() + result.getModifiedCount());
-            }
-        }
+        // 6. Record ServiceInstances in the registry (persisted by write-behind flush)
+        serviceInstanceRegistry.saveAll(instancesToSave);
 
-        // 7. Save drift events in batch
-        if (!driftEventsToSave.isEmpty()) {
-            driftEventService.bulkSave(driftEventsToSave);
-            heartbeatMetrics.recordDriftDetected();
-        }
+        // 7. Hand drift events to the aggregator (bulk written per window)
+        driftEventAggregator.offerDetected(driftEventsToSave);
 
-        // 8. Trigger refresh for drifted instances (batched by service)
-        if (!servicesToRefresh.isEmpty()) {
-            triggerBatchBusRefresh(servicesToRefresh);
-        }
+        // 8. Request refresh for drifted instances (debounced and merged per service and environment)
+        busRefreshDispatcher.requestAll(servicesToRefresh);
 
         log.debug("Batch processing completed: {} instances processed, {} drift events created, {} app services saved",
                 instancesToSave.size(), driftEventsToSave.size(), appServicesToSave.size());
     }
 
-    /**
-     * Triggers batch bus refresh grouped by service name with parallel execution.
-     * <p>
-     * Groups refresh destinations by service name and triggers one refresh per service
-     * to reduce HTTP calls to Config Server. Executes refresh calls in parallel using
-     * CompletableFuture for better performance.
-     *
-     * @param destinations set of destination strings in format "serviceName:instanceId"
-     */
-    private void triggerBatchBusRefresh(Set<String> destinations) {
-        if (destinations.isEmpty()) {
-            return;
-        }
-
-        // Extract unique service names from destinations
-        Set<String> uniqueServiceNames = destinations.stream()
-                .map(dest -> {
-                    int colonIndex = dest.indexOf(':');
-                    return colonIndex > 0 ? dest.substring(0, colonIndex) : dest;
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        log.debug("Triggering batch bus refresh for {} unique services (from {} destinations)",
-                uniqueServiceNames.size(), destinations.size());
-
-        // Trigger refresh calls in parallel using CompletableFuture
-        // Each service refresh runs independently with individual error handling
-        List<CompletableFuture<Void>> refreshTasks = uniqueServiceNames.stream()
-                .map(serviceName -> CompletableFuture.runAsync(() -> {
-                    try {
-                        // Use service name as destination (Config Server may support service:** pattern)
-                        configProxyService.triggerBusRefresh(serviceName);
-                        log.debug("Triggered refresh for service: {}", serviceName);
-                    } catch (Exception e) {
-                        log.error("Failed to trigger refresh for service: {}", serviceName, e);
-                        // Don't propagate exception - allow other refreshes to continue
-                    }
-                }, configHashFetchExecutor))
-                .collect(Collectors.toList());
-
-        // Wait for all refresh tasks to complete (with timeout protection)
-        try {
-            CompletableFuture<Void> allRefreshes = CompletableFuture.allOf(
-                    refreshTasks.toArray(new CompletableFuture[0]));
-            allRefreshes.join(); // Wait for completion
-            log.debug("Completed batch bus refresh for {} services", uniqueServiceNames.size());
-        } catch (Exception e) {
-            log.warn("Some bus refresh operations may have failed", e);
-            // Continue - individual errors are already logged
-        }
-    }
-
     /**
      * Batch loads ServiceInstances by their IDs.
+     * <p>
+     * Served from the in-memory registry; only registry misses are read from
+     * MongoDB, in a single query.
      */
     private Map<String, ServiceInstance> loadInstancesBatch(Set<ServiceInstanceId> instanceIds) {
-        if (instanceIds.isEmpty()) {
-            return new HashMap<>();
-        }
-
-        // Use repository directly for batch query
-        List<ServiceInstance> instances = serviceInstanceRepository.findAllByIds(instanceIds);
-
-        return instances.stream()
-                .collect(Collectors.toMap(
-                        instance -> instance.getId().instanceId(),
-                        instance -> instance));
+        return serviceInstanceRegistry.findAll(instanceIds);
     }
 
     /**
@@ -292,10 +281,12 @@ public class HeartbeatBatchService {
     }
 
     /**
-     * Batch loads config hashes grouped by service:environment with parallel fetching.
+     * Batch loads config hashes grouped by service:environment.
      * <p>
      * Groups payloads by service:env to minimize cache misses and HTTP calls.
-     * Fetches config hashes in parallel using CompletableFuture for better performance.
+     * Indexed hashes and hashes Config Server resolves in one bulk request are
+     * used first; any remaining keys are fetched in parallel using
+     * CompletableFuture.
      */
     @Observed(name = "heartbeat.batch.config-hash-fetch", contextualName = "heartbeat-batch-config-hash-fetch")
     private Map<String, String> loadConfigHashesBatch(List<HeartbeatPayload> payloads) {
@@ -305,9 +296,22 @@ public class HeartbeatBatchService {
                 .collect(Collectors.groupingBy(
                         p -> p.getServiceName() + ":" + (p.getEnvironment() != null ? p.getEnvironment() : "default")));
 
-        // Create parallel fetch tasks for each unique service:env combination
+        Map<String, String> bulkHashes;
+        try {
+            bulkHashes = configProxyService.getEffectiveConfigHashes(grouped.keySet());
+        } catch (Exception e) {
+            log.warn("Bulk config hash lookup failed, fetching per service:env", e);
+            bulkHashes = Map.of();
+        }
+        if (bulkHashes.size() == grouped.size()) {
+            return new HashMap<>(bulkHashes);
+        }
+        Map<String, String> resolved = bulkHashes;
+
+        // Create parallel fetch tasks for each remaining service:env combination
         // Use dedicated configHashFetchExecutor to avoid saturating common pool
         List<CompletableFuture<Map.Entry<String, String>>> fetchTasks = grouped.keySet().stream()
+                .filter(key -> !resolved.containsKey(key))
                 .map(key -> {
                     String[] parts = key.split(":", 2);
                     String serviceName = parts[0];
@@ -330,7 +334,7 @@ public class HeartbeatBatchService {
         CompletableFuture<Void> allFetches = CompletableFuture.allOf(
                 fetchTasks.toArray(new CompletableFuture[0]));
 
-        Map<String, String> hashes = new HashMap<>();
+        Map<String, String> hashes = new HashMap<>(resolved);
         try {
             allFetches.join(); // Wait for all parallel fetches to complete
             
@@ -359,6 +363,7 @@ public class HeartbeatBatchService {
      * @param configHashesMap map of service:env to config hash
      * @param now current timestamp
      * @param appServicesToSave set to collect ApplicationServices that need to be saved
+     * @param servicesToRefresh set to collect instances to refresh
      * @return processed ServiceInstance
      */
     private ServiceInstance processHeartbeatInMemory(
@@ -367,7 +372,8 @@ public class HeartbeatBatchService {
             Map<String, ApplicationService> appServicesMap,
             Map<String, String> configHashesMap,
             Instant now,
-            Set<ApplicationService> appServicesToSave) {
+            Set<ApplicationService> appServicesToSave,
+            Set<BusRefreshDispatcher.Target> servicesToRefresh) {
 
         String id = payload.getServiceName() + ":" + payload.getInstanceId();
         ServiceInstanceId instanceId = ServiceInstanceId.of(payload.getInstanceId());
@@ -409,7 +415,7 @@ public class HeartbeatBatchService {
         instance.setPort(payload.getPort());
         instance.setEnvironment(payload.getEnvironment());
         instance.setVersion(payload.getVersion());
-        instance.setLastAppliedHash(payload.getConfigHash());
+        instance.recordAppliedConfig(payload.getConfigHash(), payload.getConfigFingerprint());
         instance.setLastSeenAt(now);
         instance.setUpdatedAt(now);
         instance.setMetadata(payload.getMetadata());
@@ -423,8 +429,7 @@ public class HeartbeatBatchService {
         if (expectedHash == null || payload.getConfigHash() == null) {
             instance.setStatus(ServiceInstance.InstanceStatus.UNKNOWN);
             instance.setHasDrift(false);
-            driftRetryCount.remove(id);
-            driftBackoffPow.remove(id);
+            driftBackoffStore.clear(id);
             return instance;
         }
 
@@ -438,33 +443,30 @@ public class HeartbeatBatchService {
             instance.setExpectedHash(expectedHash);
             instance.setConfigHash(expectedHash);
             instance.setStatus(ServiceInstance.InstanceStatus.DRIFT);
-            driftRetryCount.put(id, 1);
-            driftBackoffPow.put(id, 0);
+            driftBackoffStore.start(id);
+            servicesToRefresh.add(new BusRefreshDispatcher.Target(
+                    payload.getServiceName(), payload.getEnvironment(), payload.getInstanceId()));
         } else if (!hasDrift && Boolean.TRUE.equals(instance.getHasDrift())) {
             // Case B: Drift resolved
             instance.setHasDrift(false);
             instance.setDriftDetectedAt(null);
             instance.setStatus(ServiceInstance.InstanceStatus.HEALTHY);
             instance.setExpectedHash(expectedHash);
-            driftRetryCount.remove(id);
-            driftBackoffPow.remove(id);
+            driftEventAggregator.offerResolved(payload.getServiceName(), payload.getInstanceId());
+            driftBackoffStore.clear(id);
         } else if (!hasDrift && !Boolean.TRUE.equals(instance.getHasDrift())) {
             // Case C: Normal steady state
             if (instance.getStatus() != ServiceInstance.InstanceStatus.HEALTHY) {
                 instance.setStatus(ServiceInstance.InstanceStatus.HEALTHY);
             }
             instance.setExpectedHash(expectedHash);
-            driftRetryCount.remove(id);
-            driftBackoffPow.remove(id);
+            driftBackoffStore.clear(id);
         } else if (hasDrift && Boolean.TRUE.equals(instance.getHasDrift())) {
             // Case D: Persistent drift
-            int count = driftRetryCount.merge(id, 1, Integer::sum);
-            int pow = driftBackoffPow.compute(id, (k, v) -> v == null ? 0 : Math.min(v, 4));
-            int threshold = 1 << pow;
-            if (count >= threshold) {
-                driftRetryCount.put(id, 0);
-                driftBackoffPow.put(id, Math.min(pow + 1, 4));
+            if (driftBackoffStore.recordPersistentDrift(id)) {
                 // Refresh will be triggered after batch processing
+                servicesToRefresh.add(new BusRefreshDispatcher.Target(
+                        payload.getServiceName(), payload.getEnvironment(), payload.getInstanceId()));
             }
         }
 
@@ -0,0 +1,165 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.domain.model.ServiceInstance;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Change-detection stage for heartbeat persistence.
+ * <p>
+ * Compares the state produced by a heartbeat with the last known state of the
+ * same instance and classifies the difference, so steady-state heartbeats can
+ * be persisted as a {@code lastSeenAt} touch instead of a full document
+ * rewrite.
+ */
+public final class HeartbeatChangeDetector {
+
+    private HeartbeatChangeDetector() {
+    }
+
+    /**
+     * Classification of a heartbeat relative to the previous instance state,
+     * ordered from weakest to strongest.
+     */
+    public enum ChangeType {
+        /**
+         * Nothing but liveness timestamps changed.
+         */
+        TOUCH_ONLY,
+
+        /**
+         * Persisted fields (host, port, version, hashes, metadata, ownership)
+         * changed, or the instance is not yet persisted.
+         */
+        FIELD_CHANGE,
+
+        /**
+         * Instance status or drift flag changed.
+         */
+        STATUS_TRANSITION;
+
+        /**
+         * Returns the stronger of two change types, used to coalesce several
+         * heartbeats of one instance within a flush window.
+         *
+         * @param other the other change type (may be null)
+         * @return the stronger change type
+         */
+        public ChangeType max(ChangeType other) {
+            return other == null || ordinal() >= other.ordinal() ? this : other;
+        }
+    }
+
+    /**
+     * Classifies the change from {@code previous} to {@code current}.
+     * <p>
+     * {@code lastSeenAt} and {@code updatedAt} are ignored since every heartbeat
+     * advances them.
+     *
+     * @param previous last known state, or null if the instance is new
+     * @param current  state after applying the heartbeat
+     * @return the change classification
+     */
+    public static ChangeType classify(ServiceInstance previous, ServiceInstance current) {
+        if (previous == null) {
+            return ChangeType.FIELD_CHANGE;
+        }
+
+        if (previous.getStatus() != current.getStatus()
+                || previous.isDrifted() != current.isDrifted()) {
+            return ChangeType.STATUS_TRANSITION;
+        }
+
+        boolean fieldsChanged = !Objects.equals(previous.getServiceId(), current.getServiceId())
+                || !Objects.equals(previous.getTeamId(), current.getTeamId())
+                || !Objects.equals(previous.getHost(), current.getHost())
+                || !Objects.equals(previous.getPort(), current.getPort())
+                || !Objects.equals(previous.getEnvironment(), current.getEnvironment())
+                || !Objects.equals(previous.getVersion(), current.getVersion())
+                || !Objects.equals(previous.getConfigHash(), current.getConfigHash())
+                || !Objects.equals(previous.getExpectedHash(), current.getExpectedHash())
+                || !Objects.equals(previous.getLastAppliedHash(), current.getLastAppliedHash())
+                || !Objects.equals(previous.getLastAppliedFingerprint(), current.getLastAppliedFingerprint())
+                || !Objects.equals(previous.getDriftDetectedAt(), current.getDriftDetectedAt())
+                || !Objects.equals(previous.getCreatedAt(), current.getCreatedAt())
+                || !Objects.equals(previous.getMetadata(), current.getMetadata());
+
+        return fieldsChanged ? ChangeType.FIELD_CHANGE : ChangeType.TOUCH_ONLY;
+    }
+
+    /**
+     * Names of the persisted fields that differ between {@code previous} and
+     * {@code current}, so a flush writes only what this replica changed.
+     * <p>
+     * {@code lastSeenAt}, {@code updatedAt} and {@code createdAt} are never
+     * included; they are written as a {@code $max}, always and on insert
+     * respectively. With no previous state, every non-null field is included.
+     *
+     * @param previous last known state, or null if the instance is new
+     * @param current  state after applying the heartbeat
+     * @return the changed field names
+     */
+    public static Set<String> changedFields(ServiceInstance previous, ServiceInstance current) {
+        Set<String> fields = new HashSet<>();
+        addIfChanged(fields, "serviceId", previous, current, ServiceInstance::getServiceId);
+        addIfChanged(fields, "teamId", previous, current, ServiceInstance::getTeamId);
+        addIfChanged(fields, "host", previous, current, ServiceInstance::getHost);
+        addIfChanged(fields, "port", previous, current, ServiceInstance::getPort);
+        addIfChanged(fields, "environment", previous, current, ServiceInstance::getEnvironment);
+        addIfChanged(fields, "version", previous, current, ServiceInstance::getVersion);
+        addIfChanged(fields, "configHash", previous, current, ServiceInstance::getConfigHash);
+        addIfChanged(fields, "expectedHash", previous, current, ServiceInstance::getExpectedHash);
+        addIfChanged(fields, "lastAppliedHash", previous, current, ServiceInstance::getLastAppliedHash);
+        addIfChanged(fields, "lastAppliedFingerprint", previous, current,
+                ServiceInstance::getLastAppliedFingerprint);
+        addIfChanged(fields, "status", previous, current, ServiceInstance::getStatus);
+        addIfChanged(fields, "hasDrift", previous, current, ServiceInstance::getHasDrift);
+        addIfChanged(fields, "driftDetectedAt", previous, current, ServiceInstance::getDriftDetectedAt);
+        addIfChanged(fields, "metadata", previous, current, ServiceInstance::getMetadata);
+        return fields;
+    }
+
+    private static void addIfChanged(Set<String> fields, String name, ServiceInstance previous,
+            ServiceInstance current, Function<ServiceInstance, Object> getter) {
+        Object value = getter.apply(current);
+        if (previous == null ? value != null : !Objects.equals(getter.apply(previous), value)) {
+            fields.add(name);
+        }
+    }
+
+    /**
+     * Predicts, before any processing, whether a heartbeat would only refresh
+     * liveness.
+     * <p>
+     * True only for a registered, healthy, non-drifted instance that reports
+     * the current expected hash, had already applied it and was already
+     * expecting it, and whose reported host, port, environment, version and
+     * metadata are unchanged. Anything else may be a registration or a drift
+     * transition.
+     *
+     * @param previous     last known state, or null if the instance is new
+     * @param payload      incoming heartbeat
+     * @param expectedHash current expected hash of the instance's service and
+     *                     environment
+     * @return true if the heartbeat is expected to be {@link ChangeType#TOUCH_ONLY}
+     */
+    public static boolean isTouchOnly(ServiceInstance previous, HeartbeatPayload payload, String expectedHash) {
+        return previous != null
+                && previous.getCreatedAt() != null
+                && previous.getStatus() == ServiceInstance.InstanceStatus.HEALTHY
+                && !previous.isDrifted()
+                && payload.getConfigHash() != null
+                && payload.getConfigHash().equals(expectedHash)
+                && payload.getConfigHash().equals(previous.getLastAppliedHash())
+                && payload.getConfigHash().equals(previous.getExpectedHash())
+                && Objects.equals(previous.getHost(), payload.getHost())
+                && Objects.equals(previous.getPort(), payload.getPort())
+                && Objects.equals(previous.getEnvironment(), payload.getEnvironment())
+                && Objects.equals(previous.getVersion(), payload.getVersion())
+                && Objects.equals(previous.getMetadata(), payload.getMetadata());
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
+import com.example.control.infrastructure.resilience.messaging.ResilientKafkaProducer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-process buffer in front of the heartbeat Kafka producer.
+ * <p>
+ * HTTP, Thrift and gRPC handlers only offer payloads to a fixed-size ring
+ * buffer; a single drainer thread hands them to
+ * {@link ResilientKafkaProducer#sendBatch} in bulk:
+ * <ul>
+ * <li>A bulk send is made once {@code max-batch-records} heartbeats are
+ * waiting, or {@code linger-ms} after the first one arrived, matching the
+ * producer's own linger.ms</li>
+ * <li>Send outcomes are accounted once per batch rather than per
+ * heartbeat</li>
+ * <li>When the buffer is full, new heartbeats are rejected so callers see the
+ * back-pressure</li>
+ * </ul>
+ * Callers have already answered the heartbeat as accepted, so failed sends are
+ * not dropped: the failed records are re-sent with exponential backoff up to
+ * {@code send-retries} times, then processed synchronously through
+ * {@link HeartbeatBatchService} as in non-async mode. While sends are failing,
+ * new heartbeats are rejected so the endpoints answer 503 and the SDK retries
+ * later.
+ * <p>
+ * Only active when {@code app.heartbeat.kafka.producer.batched} is true.
+ */
+@Slf4j
+@Component
+public class HeartbeatIngestionBuffer {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final ResilientKafkaProducer resilientKafkaProducer;
+    private final KafkaTemplate<String, HeartbeatPayload> heartbeatKafkaTemplate;
+    private final HeartbeatMetrics heartbeatMetrics;
+    private final HeartbeatProperties heartbeatProperties;
+    private final HeartbeatBatchService heartbeatBatchService;
+    private final HeartbeatProperties.Kafka.Producer properties;
+    private final ArrayBlockingQueue<HeartbeatPayload> queue;
+
+    /**
+     * Runs delayed re-sends and the synchronous fallback, keeping both off the
+     * producer's callback thread.
+     */
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("heartbeat-ingestion-retry").daemon(true).factory());
+
+    private volatile boolean running;
+    private volatile boolean sendFailing;
+    private Thread drainer;
+
+    public HeartbeatIngestionBuffer(
+            ResilientKafkaProducer resilientKafkaProducer,
+            @Qualifier("heartbeatKafkaTemplate") KafkaTemplate<String, HeartbeatPayload> heartbeatKafkaTemplate,
+            HeartbeatMetrics heartbeatMetrics,
+            HeartbeatProperties heartbeatProperties,
+            HeartbeatBatchService heartbeatBatchService) {
+        this.resilientKafkaProducer = resilientKafkaProducer;
+        this.heartbeatKafkaTemplate = heartbeatKafkaTemplate;
+        this.heartbeatMetrics = heartbeatMetrics;
+        this.heartbeatProperties = heartbeatProperties;
+        this.heartbeatBatchService = heartbeatBatchService;
+        this.properties = heartbeatProperties.getKafka().getProducer();
+        this.queue = new ArrayBlockingQueue<>(properties.getBufferCapacity());
+    }
+
+    /**
+     * Starts the drainer thread when batched ingestion is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        running = true;
+        drainer = Thread.ofPlatform()
+                .name("heartbeat-ingestion-drainer")
+                .daemon(true)
+                .start(this::drainLoop);
+        log.info("Batched heartbeat ingestion enabled (capacity={}, maxBatchRecords={}, lingerMs={})",
+                properties.getBufferCapacity(), properties.getMaxBatchRecords(), properties.getLingerMs());
+    }
+
+    /**
+     * Whether heartbeats should be routed through this buffer.
+     *
+     * @return true if batched ingestion is enabled
+     */
+    public boolean isEnabled() {
+        return properties.isBatched();
+    }
+
+    /**
+     * Adds a heartbeat to the buffer without blocking.
+     *
+     * @param payload the heartbeat payload
+     * @return false if the buffer is full or Kafka sends are failing, and the
+     *         heartbeat was rejected
+     */
+    public boolean offer(HeartbeatPayload payload) {
+        if (!sendFailing && queue.offer(payload)) {
+            return true;
+        }
+        heartbeatMetrics.recordIngestionRejected();
+        return false;
+    }
+
+    /**
+     * Stops the drainer after it has sent everything still buffered.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (drainer == null) {
+            return;
+        }
+        log.info("Draining {} buffered heartbeats before shutdown", queue.size());
+        running = false;
+        try {
+            drainer.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("{} buffered heartbeats were not sent before shutdown", queue.size());
+        }
+
+        // Pending re-sends still run; new ones fall back to synchronous processing
+        retryScheduler.shutdown();
+        try {
+            if (!retryScheduler.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                log.warn("Heartbeat re-sends did not finish before shutdown");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        int maxBatchRecords = properties.getMaxBatchRecords();
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLingerMs());
+        List<HeartbeatPayload> batch = new ArrayList<>(maxBatchRecords);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                HeartbeatPayload first = queue.poll(Math.max(lingerNanos, TimeUnit.MILLISECONDS.toNanos(100)),
+                        TimeUnit.NANOSECONDS);
+                heartbeatMetrics.updateIngestionQueueDepth(queue.size());
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Linger: fill the batch until it is full or linger.ms has passed
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchRecords) {
+                    queue.drainTo(batch, maxBatchRecords - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchRecords || remaining <= 0) {
+                        break;
+                    }
+                    HeartbeatPayload next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                send(List.copyOf(batch), 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to send batch of {} heartbeats", batch.size(), e);
+                heartbeatMetrics.recordIngestionBatchFailed(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<HeartbeatPayload> batch, int attempt) {
+        long start = System.nanoTime();
+        String topic = heartbeatProperties.getKafka().getTopic();
+
+        // serviceName as partition key keeps ordering per service
+        List<CompletableFuture<SendResult<String, HeartbeatPayload>>> futures;
+        try {
+            futures = resilientKafkaProducer.sendBatch(heartbeatKafkaTemplate, topic, batch,
+                    HeartbeatPayload::getServiceName);
+        } catch (RuntimeException e) {
+            retryOrFallback(batch, attempt, e);
+            return;
+        }
+
+        if (attempt == 0) {
+            heartbeatMetrics.recordReceived(batch.size());
+        }
+        heartbeatMetrics.recordIngestionBatchSent(Duration.ofNanos(System.nanoTime() - start));
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                sendFailing = false;
+                log.trace("Sent batch of {} heartbeats to topic {}", batch.size(), topic);
+                return;
+            }
+            List<HeartbeatPayload> failed = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                if (futures.get(i).isCompletedExceptionally()) {
+                    failed.add(batch.get(i));
+                }
+            }
+            log.warn("Failed to enqueue {} of {} heartbeats to topic {} (attempt {})",
+                    failed.size(), batch.size(), topic, attempt + 1, ex);
+            retryOrFallback(failed, attempt, ex);
+        });
+    }
+
+    /**
+     * Schedules a re-send of failed heartbeats, or processes them
+     * synchronously once {@code send-retries} is exhausted.
+     */
+    private void retryOrFallback(List<HeartbeatPayload> failed, int attempt, Throwable cause) {
+        sendFailing = true;
+        try {
+            if (attempt < properties.getSendRetries()) {
+                long backoffMs = properties.getRetryBackoffMs() << attempt;
+                heartbeatMetrics.recordIngestionRetried(failed.size());
+                retryScheduler.schedule(() -> send(failed, attempt + 1), backoffMs, TimeUnit.MILLISECONDS);
+            } else {
+                retryScheduler.execute(() -> fallback(failed, attempt + 1, cause));
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down: no more retries
+            fallback(failed, attempt + 1, cause);
+        }
+    }
+
+    private void fallback(List<HeartbeatPayload> failed, int attempts, Throwable cause) {
+        log.error("Kafka send of {} heartbeats failed after {} attempts, processing them synchronously",
+                failed.size(), attempts, cause);
+        try {
+            heartbeatBatchService.processBatch(failed);
+            heartbeatMetrics.recordIngestionFallback(failed.size());
+        } catch (RuntimeException e) {
+            log.error("Synchronous processing of {} heartbeats failed, dropping them", failed.size(), e);
+            heartbeatMetrics.recordIngestionBatchFailed(failed.size());
+        } finally {
+            // Let new heartbeats probe Kafka again
+            sendFailing = false;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetri
 import com.example.control.infrastructure.resilience.messaging.ResilientKafkaProducer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
@@ -23,6 +24,9 @@ import java.util.concurrent.CompletableFuture;
  * <p>
  * All operations are protected with resilience patterns (circuit breaker,
  * bulkhead, time limiter) via ResilientKafkaProducer.
+ * <p>
+ * With {@code app.heartbeat.kafka.producer.batched} enabled, payloads are
+ * handed to {@link HeartbeatIngestionBuffer} instead and sent in bulk.
  */
 @Slf4j
 @Service
@@ -32,16 +36,19 @@ public class HeartbeatIngestionService {
     private final HeartbeatMetrics heartbeatMetrics;
     private final KafkaTemplate<String, HeartbeatPayload> heartbeatKafkaTemplate;
     private final HeartbeatProperties heartbeatProperties;
+    private final HeartbeatIngestionBuffer heartbeatIngestionBuffer;
 
     public HeartbeatIngestionService(
             ResilientKafkaProducer resilientKafkaProducer,
             HeartbeatMetrics heartbeatMetrics,
             @Qualifier("heartbeatKafkaTemplate") KafkaTemplate<String, HeartbeatPayload> heartbeatKafkaTemplate,
-            HeartbeatProperties heartbeatProperties) {
+            HeartbeatProperties heartbeatProperties,
+            HeartbeatIngestionBuffer heartbeatIngestionBuffer) {
         this.resilientKafkaProducer = resilientKafkaProducer;
         this.heartbeatMetrics = heartbeatMetrics;
         this.heartbeatKafkaTemplate = heartbeatKafkaTemplate;
         this.heartbeatProperties = heartbeatProperties;
+        this.heartbeatIngestionBuffer = heartbeatIngestionBuffer;
     }
 
     /**
@@ -58,6 +65,15 @@ public class HeartbeatIngestionService {
      * @throws RuntimeException if Kafka send fails (should be rare due to resilience)
      */
     public void enqueue(HeartbeatPayload payload) {
+        if (heartbeatIngestionBuffer.isEnabled()) {
+            // Batched mode: metrics and failures are accounted per bulk send
+            if (!heartbeatIngestionBuffer.offer(payload)) {
+                // KafkaException is answered with 503, so the SDK retries later
+                throw new KafkaException("Failed to enqueue heartbeat: ingestion buffer full or Kafka unavailable");
+            }
+            return;
+        }
+
         Instant start = Instant.now();
 
         try {
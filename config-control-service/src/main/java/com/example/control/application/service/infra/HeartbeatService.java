@@ -5,8 +5,6 @@ import com.example.control.api.http.exception.exceptions.ValidationException;
 import com.example.control.infrastructure.external.configserver.ConfigProxyService;
 import com.example.control.application.command.ApplicationServiceCommandService;
 import com.example.control.application.query.ApplicationServiceQueryService;
-import com.example.control.application.service.DriftEventService;
-import com.example.control.application.service.ServiceInstanceService;
 import com.example.control.domain.valueobject.id.ApplicationServiceId;
 import com.example.control.domain.valueobject.id.DriftEventId;
 import com.example.control.domain.valueobject.id.ServiceInstanceId;
@@ -29,7 +27,6 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Core service responsible for processing incoming heartbeat signals.
@@ -43,8 +40,14 @@ import java.util.concurrent.ConcurrentHashMap;
  * <li>Triggering /busrefresh on persistent drift</li>
  * </ul>
  * <p>
- * The service also uses in-memory exponential backoff logic to avoid
- * frequent re-triggering of refresh for persistent drift cases.
+ * Instance state is read from and written to {@link ServiceInstanceRegistry},
+ * so a steady-state heartbeat does not touch MongoDB directly.
+ * <p>
+ * The service also uses exponential backoff ({@link DriftBackoffStore}) to
+ * avoid frequent re-triggering of refresh for persistent drift cases.
+ * <p>
+ * Work is gated by {@link HeartbeatAdmissionController}; heartbeats shed
+ * under overload only refresh the instance's liveness in the registry.
  * <p>
  * This orchestrator service ONLY calls Command/Query services, NOT other
  * orchestrators.
@@ -54,23 +57,21 @@ import java.util.concurrent.ConcurrentHashMap;
 @RequiredArgsConstructor
 public class HeartbeatService {
 
-    private final ServiceInstanceService serviceInstanceService;
-    private final DriftEventService driftEventService;
+    private final ServiceInstanceRegistry serviceInstanceRegistry;
+    private final DriftEventAggregator driftEventAggregator;
     private final ConfigProxyService configProxyService;
+    private final BusRefreshDispatcher busRefreshDispatcher;
+    private final HeartbeatAdmissionController heartbeatAdmissionController;
 
     // Command/Query services for ApplicationService
     private final ApplicationServiceCommandService applicationServiceCommandService;
     private final ApplicationServiceQueryService applicationServiceQueryService;
 
     /**
-     * Maintains retry count per instance for drift backoff algorithm.
-     */
-    private final ConcurrentHashMap<String, Integer> driftRetryCount = new ConcurrentHashMap<>();
-
-    /**
-     * Maintains exponential backoff power per instance (1, 2, 4, 8, 16 cycles).
+     * Refresh backoff per instance (1, 2, 4, 8, 16 cycles), optionally shared
+     * across replicas.
      */
-    private final ConcurrentHashMap<String, Integer> driftBackoffPow = new ConcurrentHashMap<>();
+    private final DriftBackoffStore driftBackoffStore;
 
     /**
      * Main entry point for heartbeat processing.
@@ -84,18 +85,19 @@ public class HeartbeatService {
      * Config Server)</li>
      * <li>Detect drift, create events, and trigger refresh with exponential
      * backoff</li>
-     * <li>Persist the final state to MongoDB</li>
+     * <li>Record the final state in the instance registry</li>
      * </ol>
      * <p>
-     * Cache eviction: Evicts specific instance and related drift events cache
-     * entries
-     * to ensure fresh state for monitoring dashboards.
+     * Cache eviction: Evicts related drift events cache entries to ensure fresh
+     * state for monitoring dashboards. The service-instances entry is evicted by
+     * the write-behind flush once the new state is persisted, so readers cannot
+     * load the old document back in between.
      *
      * @param payload validated heartbeat payload
      * @return updated {@link ServiceInstance} representing the current state
      */
     @Transactional
-    @CacheEvict(value = { "service-instances", "drift-events" }, key = "#payload.instanceId")
+    @CacheEvict(value = "drift-events", key = "#payload.instanceId")
     // Using @Observed for both metrics and traces (when enabled)
     // @Timed removed to avoid double-recording latency metrics
     @Observed(name = MetricsNames.Heartbeat.PROCESS, contextualName = "process-heartbeat")
@@ -106,13 +108,50 @@ public class HeartbeatService {
         // 1️⃣ Validate payload (basic sanity checks)
         validateHeartbeatPayload(payload);
 
+        // Ensure instance always has a valid ID to prevent NPE in getInstanceId()
+        ServiceInstanceId instanceId = ServiceInstanceId.of(payload.getInstanceId());
+
+        // Admission control: under overload, touch-only beats only refresh
+        // lastSeenAt; registrations and possible drift transitions always pass
+        boolean sheddable = heartbeatAdmissionController.isEnabled()
+                && serviceInstanceRegistry.isTouchOnly(payload);
+        if (sheddable && heartbeatAdmissionController.acquire(0, 1) == 0) {
+            Optional<ServiceInstance> deferred = serviceInstanceRegistry.touch(instanceId, Instant.now());
+            if (deferred.isPresent()) {
+                log.debug("Shed touch-only heartbeat from {}:{}", payload.getServiceName(), payload.getInstanceId());
+                return deferred.get();
+            }
+            // Evicted from the registry in the meantime, process it in full
+            heartbeatAdmissionController.acquire(1, 0);
+        } else if (!sheddable) {
+            heartbeatAdmissionController.acquire(1, 0);
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            ServiceInstance result = processAdmittedHeartbeat(payload, instanceId);
+            success = true;
+            return result;
+        } finally {
+            heartbeatAdmissionController.release(1, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Applies an admitted heartbeat: registration, ownership sync, drift
+     * detection and recording in the registry.
+     *
+     * @param payload    validated heartbeat payload
+     * @param instanceId the instance ID from the payload
+     * @return updated {@link ServiceInstance} representing the current state
+     */
+    private ServiceInstance processAdmittedHeartbeat(HeartbeatPayload payload, ServiceInstanceId instanceId) {
         String id = payload.getServiceName() + ":" + payload.getInstanceId();
 
         // 2️⃣ Load or initialize ServiceInstance domain object
-        // Ensure instance always has a valid ID to prevent NPE in getInstanceId()
-        ServiceInstanceId instanceId = ServiceInstanceId.of(payload.getInstanceId());
-        ServiceInstance instance = serviceInstanceService
-                .findById(instanceId)
+        ServiceInstance instance = serviceInstanceRegistry
+                .find(instanceId)
                 .orElse(ServiceInstance.builder()
                         .id(instanceId)
                         .status(ServiceInstance.InstanceStatus.HEALTHY)
@@ -307,7 +346,7 @@ public class HeartbeatService {
         instance.setPort(payload.getPort());
         instance.setEnvironment(payload.getEnvironment());
         instance.setVersion(payload.getVersion());
-        instance.setLastAppliedHash(payload.getConfigHash());
+        instance.recordAppliedConfig(payload.getConfigHash(), payload.getConfigFingerprint());
         instance.setLastSeenAt(now);
         instance.setUpdatedAt(now);
         instance.setMetadata(payload.getMetadata());
@@ -327,9 +366,8 @@ public class HeartbeatService {
         if (expectedHash == null || payload.getConfigHash() == null) {
             instance.setStatus(ServiceInstance.InstanceStatus.UNKNOWN);
             instance.setHasDrift(false);
-            driftRetryCount.remove(id);
-            driftBackoffPow.remove(id);
-            return serviceInstanceService.save(instance);
+            driftBackoffStore.clear(id);
+            return serviceInstanceRegistry.save(instance);
         }
 
         boolean hasDrift = !expectedHash.equals(payload.getConfigHash());
@@ -346,15 +384,14 @@ public class HeartbeatService {
             instance.setConfigHash(expectedHash);
             instance.setStatus(ServiceInstance.InstanceStatus.DRIFT);
 
-            // Create a drift event record for observability
+            // Record a drift event (written by the aggregator's next window)
             createDriftEvent(payload, expectedHash, instance);
 
             // Trigger /busrefresh to resync configuration
-            triggerRefreshForInstance(payload.getServiceName(), payload.getInstanceId());
+            triggerRefreshForInstance(payload.getServiceName(), payload.getEnvironment(), payload.getInstanceId());
 
             // Initialize retry counters for exponential backoff
-            driftRetryCount.put(id, 1);
-            driftBackoffPow.put(id, 0); // 2^0 = 1 cycle delay
+            driftBackoffStore.start(id);
 
         } else if (!hasDrift && Boolean.TRUE.equals(instance.getHasDrift())) {
             /** Case B: Drift resolved - config hash now matches expected */
@@ -368,13 +405,9 @@ public class HeartbeatService {
             // Auto-resolve all unresolved drift events for this instance
             // Resolution is scoped by serviceName + instanceId (environment-agnostic as per
             // policy)
-            driftEventService.resolveForInstance(
-                    payload.getServiceName(),
-                    payload.getInstanceId(),
-                    "heartbeat-service");
+            driftEventAggregator.offerResolved(payload.getServiceName(), payload.getInstanceId());
 
-            driftRetryCount.remove(id);
-            driftBackoffPow.remove(id);
+            driftBackoffStore.clear(id);
 
         } else if (!hasDrift && !Boolean.TRUE.equals(instance.getHasDrift())) {
             /**
@@ -387,35 +420,25 @@ public class HeartbeatService {
             instance.setExpectedHash(expectedHash);
 
             // Resolve any orphaned DETECTED events from previous sessions
-            driftEventService.resolveForInstance(
-                    payload.getServiceName(),
-                    payload.getInstanceId(),
-                    "heartbeat-service");
+            driftEventAggregator.offerResolved(payload.getServiceName(), payload.getInstanceId());
 
-            driftRetryCount.remove(id);
-            driftBackoffPow.remove(id);
+            driftBackoffStore.clear(id);
 
         } else if (hasDrift && Boolean.TRUE.equals(instance.getHasDrift())) {
             /** Case D: Persistent drift — apply exponential backoff strategy */
-            int count = driftRetryCount.merge(id, 1, Integer::sum);
-            int pow = driftBackoffPow.compute(id, (k, v) -> v == null ? 0 : Math.min(v, 4)); // limit to 16 cycles
-            int threshold = 1 << pow; // 1, 2, 4, 8, 16
-            if (count >= threshold) {
-                log.warn("Persistent drift for {} after {} heartbeats (threshold {}). Re-triggering refresh.",
-                        id, count, threshold);
-                triggerRefreshForInstance(payload.getServiceName(), payload.getInstanceId());
-
-                driftRetryCount.put(id, 0);
-                driftBackoffPow.put(id, Math.min(pow + 1, 4));
+            if (driftBackoffStore.recordPersistentDrift(id)) {
+                log.warn("Persistent drift for {}. Re-triggering refresh.", id);
+                triggerRefreshForInstance(payload.getServiceName(), payload.getEnvironment(), payload.getInstanceId());
             }
         }
 
-        // 8️⃣ Persist instance to MongoDB and return updated state
-        return serviceInstanceService.save(instance);
+        // 8️⃣ Record state in the registry (persisted by write-behind flush)
+        return serviceInstanceRegistry.save(instance);
     }
 
     /**
-     * Creates and saves a {@link DriftEvent} record to log drift detection.
+     * Creates a {@link DriftEvent} record to log drift detection and hands it
+     * to the {@link DriftEventAggregator}.
      * <p>
      * Populates serviceId and teamId from the ServiceInstance to ensure proper
      * team-based access control and filtering.
@@ -441,24 +464,20 @@ public class HeartbeatService {
                 .notes("Drift detected via heartbeat")
                 .build();
 
-        driftEventService.save(event);
+        driftEventAggregator.offerDetected(event);
     }
 
     /**
-     * Invokes Config Server’s /busrefresh endpoint to trigger a refresh event for a
-     * given instance.
+     * Requests a Config Server /busrefresh for a given instance; the
+     * {@link BusRefreshDispatcher} debounces and sends it off the heartbeat
+     * thread.
      *
      * @param serviceName service identifier
+     * @param environment instance environment
      * @param instanceId  instance identifier
      */
-    private void triggerRefreshForInstance(String serviceName, String instanceId) {
-        try {
-            String destination = serviceName + ":" + instanceId;
-            String response = configProxyService.triggerBusRefresh(destination);
-            log.info("Triggered refresh for drifted instance: {} - response: {}", destination, response);
-        } catch (Exception e) {
-            log.error("Failed to trigger refresh for {}:{}", serviceName, instanceId, e);
-        }
+    private void triggerRefreshForInstance(String serviceName, String environment, String instanceId) {
+        busRefreshDispatcher.request(serviceName, environment, instanceId);
     }
 
     /**
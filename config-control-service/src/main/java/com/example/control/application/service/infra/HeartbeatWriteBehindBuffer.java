@@ -0,0 +1,309 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.application.command.ServiceInstanceCommandService;
+import com.example.control.application.service.infra.HeartbeatChangeDetector.ChangeType;
+import com.example.control.domain.event.ServiceInstancesChanged;
+import com.example.control.domain.model.ServiceInstance;
+import com.example.control.domain.port.repository.ServiceInstanceRepositoryPort;
+import com.example.control.domain.valueobject.id.ServiceInstanceId;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalescing write-behind buffer between heartbeat processing and
+ * {@link ServiceInstanceCommandService}.
+ * <p>
+ * Keeps only the latest state per instance, together with the strongest
+ * {@link ChangeType} seen since the last flush, so several heartbeats of the
+ * same instance within one window produce a single write:
+ * <ul>
+ * <li>Flushes every {@code app.heartbeat.flush.interval-ms}, or as soon as
+ * {@code app.heartbeat.flush.max-batch-size} entries are pending</li>
+ * <li>Touch-only entries are written as one {@code $max lastSeenAt} bulk
+ * update, all others as one bulk update of only the fields that changed since
+ * the state they were derived from; only new instances are upserted, so
+ * fields written by other replicas or the admin APIs are kept and deleted
+ * instances are not recreated</li>
+ * <li>Instances found missing by a flush are dropped and reported as
+ * {@link ServiceInstancesChanged}</li>
+ * <li>Each flush is written in bulk operations of at most
+ * {@code app.heartbeat.flush.max-batch-size} entries</li>
+ * <li>When {@code app.heartbeat.flush.capacity} entries are pending, the
+ * offering thread (or a batch consumer via {@link #awaitCapacity()}) flushes
+ * synchronously (caller-runs back-pressure)</li>
+ * <li>Flushes synchronously on shutdown so the last window is not lost</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class HeartbeatWriteBehindBuffer {
+
+    private final ServiceInstanceCommandService serviceInstanceCommandService;
+    private final HeartbeatMetrics heartbeatMetrics;
+    private final HeartbeatProperties.Flush properties;
+    private final AsyncTaskExecutor flushExecutor;
+    private final ServiceInstanceRepositoryPort serviceInstanceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<ServiceInstanceId, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    public HeartbeatWriteBehindBuffer(
+            ServiceInstanceCommandService serviceInstanceCommandService,
+            HeartbeatMetrics heartbeatMetrics,
+            HeartbeatProperties heartbeatProperties,
+            @Qualifier("defaultExecutor") AsyncTaskExecutor flushExecutor,
+            ServiceInstanceRepositoryPort serviceInstanceRepository,
+            ApplicationEventPublisher eventPublisher) {
+        this.serviceInstanceCommandService = serviceInstanceCommandService;
+        this.heartbeatMetrics = heartbeatMetrics;
+        this.properties = heartbeatProperties.getFlush();
+        this.flushExecutor = flushExecutor;
+        this.serviceInstanceRepository = serviceInstanceRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Buffers the latest state of an instance.
+     * <p>
+     * Replaces any pending state for the same instance, keeping the stronger of
+     * the two change types and the union of the changed fields. Schedules an
+     * early flush once the size threshold is reached, and flushes on the
+     * calling thread once the buffer is at capacity.
+     *
+     * @param instance snapshot of the instance state (not mutated afterwards)
+     * @param change   classification of the change that produced it
+     * @param fields   persisted fields changed by it (see
+     *                 {@link HeartbeatChangeDetector#changedFields})
+     * @param insert   whether the instance may not be persisted yet
+     */
+    public void offer(ServiceInstance instance, ChangeType change, Set<String> fields, boolean insert) {
+        pending.merge(instance.getId(), new PendingWrite(instance, change, fields, insert), PendingWrite::merge);
+
+        int size = pending.size();
+        if (size >= properties.getCapacity()) {
+            awaitCapacity();
+        } else if (size >= properties.getMaxBatchSize()) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Drops the pending write of a deleted instance.
+     *
+     * @param id the service instance ID
+     */
+    public void discard(ServiceInstanceId id) {
+        pending.remove(id);
+    }
+
+    /**
+     * Applies back-pressure before new heartbeats are buffered.
+     * <p>
+     * Returns immediately while the buffer is below capacity. Otherwise the
+     * calling thread performs the flush itself (waiting for any flush already in
+     * progress), which slows the Kafka consumer down to the rate MongoDB can
+     * absorb.
+     */
+    public void awaitCapacity() {
+        if (pending.size() < properties.getCapacity()) {
+            return;
+        }
+
+        log.debug("Heartbeat write-behind buffer full ({} pending), flushing on caller thread", pending.size());
+        heartbeatMetrics.recordFlushBackpressure();
+        flush();
+    }
+
+    /**
+     * Time-based flush trigger.
+     */
+    @Scheduled(fixedDelayString = "${app.heartbeat.flush.interval-ms:5000}")
+    public void scheduledFlush() {
+        if (!pending.isEmpty()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all pending entries.
+     * <p>
+     * Entries are removed from the buffer before they are written, so an update
+     * racing with the flush is buffered again and written on the next cycle.
+     * Writes go out in bulk operations of at most {@code max-batch-size}
+     * entries. Failed chunks are re-buffered (unless newer state arrived
+     * meanwhile) and retried on the next cycle. Only one flush runs at a time.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushScheduled.set(false);
+
+            int chunkSize = properties.getMaxBatchSize();
+            List<PendingWrite> touchWrites = new ArrayList<>();
+            List<PendingWrite> updateWrites = new ArrayList<>();
+            for (ServiceInstanceId id : pending.keySet()) {
+                PendingWrite write = pending.remove(id);
+                if (write == null) {
+                    continue;
+                }
+                if (write.change() == ChangeType.TOUCH_ONLY && write.fields().isEmpty() && !write.insert()) {
+                    if (write.instance().getLastSeenAt() == null) {
+                        continue;
+                    }
+                    touchWrites.add(write);
+                    if (touchWrites.size() >= chunkSize) {
+                        writeTouches(touchWrites);
+                        touchWrites = new ArrayList<>();
+                    }
+                } else {
+                    updateWrites.add(write);
+                    if (updateWrites.size() >= chunkSize) {
+                        writeUpdates(updateWrites);
+                        updateWrites = new ArrayList<>();
+                    }
+                }
+            }
+
+            if (!updateWrites.isEmpty()) {
+                writeUpdates(updateWrites);
+            }
+            if (!touchWrites.isEmpty()) {
+                writeTouches(touchWrites);
+            }
+        } finally {
+            flushLock.unlock();
+            heartbeatMetrics.updateFlushPending(pending.size());
+        }
+    }
+
+    /**
+     * Writes one chunk of field updates, re-buffering it on failure.
+     */
+    private void writeUpdates(List<PendingWrite> updateWrites) {
+        List<ServiceInstanceRepositoryPort.FieldUpdate> updates = new ArrayList<>(updateWrites.size());
+        for (PendingWrite write : updateWrites) {
+            updates.add(new ServiceInstanceRepositoryPort.FieldUpdate(write.instance(), write.fields(), write.insert()));
+        }
+        try {
+            BulkWriteResult result = serviceInstanceCommandService.bulkUpdateFields(updates);
+            if (result != null) {
+                heartbeatMetrics.recordMongodbWrites(result.getUpserts().size() + result.getModifiedCount());
+                if (result.getMatchedCount() + result.getUpserts().size() < updates.size()) {
+                    dropMissing(updateWrites);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Write-behind update failed for {} service instances, will retry next cycle",
+                    updates.size(), e);
+            updateWrites.forEach(this::requeue);
+        }
+    }
+
+    /**
+     * Writes one chunk of lastSeenAt touches, re-buffering it on failure.
+     */
+    private void writeTouches(List<PendingWrite> touchWrites) {
+        Map<ServiceInstanceId, Instant> touches = new HashMap<>();
+        for (PendingWrite write : touchWrites) {
+            touches.put(write.instance().getId(), write.instance().getLastSeenAt());
+        }
+        try {
+            BulkWriteResult result = serviceInstanceCommandService.bulkTouchLastSeen(touches);
+            if (result != null) {
+                heartbeatMetrics.recordMongodbWrites(result.getModifiedCount());
+                if (result.getMatchedCount() < touches.size()) {
+                    dropMissing(touchWrites);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Write-behind lastSeenAt touch failed for {} service instances, will retry next cycle",
+                    touches.size(), e);
+            touchWrites.forEach(this::requeue);
+        }
+    }
+
+    /**
+     * Flushes the last window synchronously before the application shuts down.
+     * <p>
+     * Kafka listener containers are stopped before singletons are destroyed, so
+     * no new heartbeats arrive while this runs.
+     */
+    @PreDestroy
+    public void shutdown() {
+        log.info("Flushing {} pending heartbeat writes before shutdown", pending.size());
+        flush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (Exception e) {
+                flushScheduled.set(false);
+                log.warn("Failed to schedule early heartbeat flush, waiting for next interval", e);
+            }
+        }
+    }
+
+    private void requeue(PendingWrite write) {
+        pending.merge(write.instance().getId(), write, (newer, failed) -> failed.merge(newer));
+    }
+
+    /**
+     * Reports instances of a flush that matched no document (deleted
+     * meanwhile), so their in-memory state is dropped instead of being
+     * written again.
+     */
+    private void dropMissing(List<PendingWrite> writes) {
+        try {
+            Set<ServiceInstanceId> ids = new HashSet<>();
+            writes.forEach(write -> ids.add(write.instance().getId()));
+            serviceInstanceRepository.findAllByIds(ids).forEach(found -> ids.remove(found.getId()));
+            if (!ids.isEmpty()) {
+                log.info("Dropping {} service instances deleted while their heartbeat writes were pending",
+                        ids.size());
+                ids.forEach(pending::remove);
+                eventPublisher.publishEvent(ServiceInstancesChanged.deleted(ids));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to look up service instances missing after write-behind flush", e);
+        }
+    }
+
+    /**
+     * Latest buffered state of one instance, the strongest change and the
+     * fields changed since the last flush.
+     */
+    private record PendingWrite(ServiceInstance instance, ChangeType change, Set<String> fields, boolean insert) {
+
+        /**
+         * Coalesces this write with a newer one of the same instance.
+         */
+        PendingWrite merge(PendingWrite next) {
+            Set<String> merged = new HashSet<>(fields);
+            merged.addAll(next.fields());
+            return new PendingWrite(next.instance(), next.change().max(change), merged, insert || next.insert());
+        }
+    }
+}
@@ -28,6 +28,10 @@ import java.util.List;
  * <li>Deletes instances that have been STALE for longer than the cleanup
  * threshold</li>
  * </ul>
+ * <p>
+ * Writes go through {@link ServiceInstanceCommandService}, whose change events
+ * drop the affected entries from {@link ServiceInstanceRegistry} on every
+ * replica (see {@link ServiceInstanceRegistryBroadcaster}).
  */
 @Slf4j
 @Service
@@ -0,0 +1,463 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.application.command.ServiceInstanceCommandService;
+import com.example.control.application.service.infra.HeartbeatChangeDetector.ChangeType;
+import com.example.control.domain.event.ServiceInstancesChanged;
+import com.example.control.domain.event.ServiceOwnershipTransferred;
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.domain.model.ServiceInstance;
+import com.example.control.domain.port.repository.ServiceInstanceRepositoryPort;
+import com.example.control.domain.valueobject.id.ServiceInstanceId;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.external.configserver.ConfigProxyService;
+import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
+import com.mongodb.bulk.BulkWriteResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sharded in-memory registry of {@link ServiceInstance} state for the
+ * heartbeat hot path.
+ * <p>
+ * Both {@link HeartbeatService} and {@link HeartbeatBatchService} read and
+ * update instances here instead of round-tripping to MongoDB on every beat:
+ * <ul>
+ * <li>Warmed from MongoDB after startup; misses fall back to a repository
+ * read so instances registered by another replica are still found</li>
+ * <li>Updates are applied in memory and classified against the previous
+ * state by {@link HeartbeatChangeDetector}</li>
+ * <li>Updated state is handed to {@link HeartbeatWriteBehindBuffer} together
+ * with the fields that changed, which persists only those fields
+ * asynchronously</li>
+ * <li>Entries are dropped when instances are updated or deleted outside the
+ * heartbeat path ({@link ServiceInstancesChanged},
+ * {@link ServiceOwnershipTransferred}), on this replica and, through
+ * {@link ServiceInstanceRegistryBroadcaster}, on all others; deletes also
+ * discard pending writes</li>
+ * <li>Entries loaded from MongoDB more than
+ * {@code app.heartbeat.registry.entry-ttl-ms} ago are reloaded before use and
+ * never judged touch-only, bounding how long a replica acts on state changed
+ * elsewhere (heartbeats of one instance may reach several replicas through
+ * the HTTP load balancer or a consumer rebalance)</li>
+ * <li>The whole registry is dropped when heartbeat partitions are assigned
+ * to this replica ({@link #clear()})</li>
+ * </ul>
+ * <p>
+ * Callers always receive and hand over deep copies, so in-flight processing
+ * never mutates the registered state directly. The registry is disabled by
+ * default; when {@code app.heartbeat.registry.enabled} is false, reads and
+ * writes go straight to MongoDB.
+ */
+@Slf4j
+@Component
+public class ServiceInstanceRegistry {
+
+    private final ServiceInstanceRepositoryPort serviceInstanceRepository;
+    private final ServiceInstanceCommandService serviceInstanceCommandService;
+    private final HeartbeatWriteBehindBuffer writeBehindBuffer;
+    private final HeartbeatMetrics heartbeatMetrics;
+    private final ConfigProxyService configProxyService;
+    private final HeartbeatProperties.Registry properties;
+    private final long entryTtlNanos;
+    private final Shard[] shards;
+
+    public ServiceInstanceRegistry(
+            ServiceInstanceRepositoryPort serviceInstanceRepository,
+            ServiceInstanceCommandService serviceInstanceCommandService,
+            HeartbeatWriteBehindBuffer writeBehindBuffer,
+            HeartbeatMetrics heartbeatMetrics,
+            ConfigProxyService configProxyService,
+            HeartbeatProperties heartbeatProperties) {
+        this.serviceInstanceRepository = serviceInstanceRepository;
+        this.serviceInstanceCommandService = serviceInstanceCommandService;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.heartbeatMetrics = heartbeatMetrics;
+        this.configProxyService = configProxyService;
+        this.properties = heartbeatProperties.getRegistry();
+        this.entryTtlNanos = Duration.ofMillis(properties.getEntryTtlMs()).toNanos();
+        this.shards = new Shard[properties.getShards()];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Loads all persisted instances into the registry after startup.
+     * <p>
+     * Uses {@code putIfAbsent} so entries already updated by early heartbeats
+     * are never overwritten by older persisted state.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            log.info("Service instance registry disabled, heartbeats will read and write MongoDB directly");
+            return;
+        }
+
+        log.info("Warming service instance registry...");
+        Instant start = Instant.now();
+        int loaded = 0;
+
+        try {
+            Page<ServiceInstance> page;
+            int pageNumber = 0;
+            do {
+                page = serviceInstanceRepository.findAll(PageRequest.of(pageNumber++, properties.getWarmupPageSize()));
+                long now = System.nanoTime();
+                for (ServiceInstance instance : page.getContent()) {
+                    if (instance.getId() != null) {
+                        shardFor(instance.getId()).instances.putIfAbsent(instance.getId(), new Entry(instance, now));
+                        loaded++;
+                    }
+                }
+            } while (page.hasNext());
+
+            log.info("Service instance registry warmed with {} instances in {}ms",
+                    loaded, Duration.between(start, Instant.now()).toMillis());
+        } catch (Exception e) {
+            log.warn("Failed to fully warm service instance registry after {} instances, misses will read through",
+                    loaded, e);
+        }
+        updateMetrics();
+    }
+
+    /**
+     * Finds an instance by ID, reading through to MongoDB on a registry miss
+     * or an expired entry.
+     *
+     * @param id the service instance ID
+     * @return a copy of the current instance state, if known
+     */
+    public Optional<ServiceInstance> find(ServiceInstanceId id) {
+        if (!properties.isEnabled()) {
+            return serviceInstanceRepository.findById(id);
+        }
+
+        Shard shard = shardFor(id);
+        Entry current = shard.instances.get(id);
+        if (current == null || isExpired(current, System.nanoTime())) {
+            Optional<ServiceInstance> persisted = serviceInstanceRepository.findById(id);
+            if (persisted.isEmpty()) {
+                removeIfExpired(shard, id);
+                return Optional.empty();
+            }
+            current = reload(shard, persisted.get());
+        }
+        return Optional.of(copyOf(current.instance()));
+    }
+
+    /**
+     * Finds multiple instances by ID, reading all registry misses and expired
+     * entries from MongoDB in a single query.
+     *
+     * @param ids the service instance IDs
+     * @return map of instance ID string to a copy of the instance state
+     */
+    public Map<String, ServiceInstance> findAll(Set<ServiceInstanceId> ids) {
+        Map<String, ServiceInstance> result = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+
+        if (!properties.isEnabled()) {
+            for (ServiceInstance instance : serviceInstanceRepository.findAllByIds(ids)) {
+                result.put(instance.getId().instanceId(), instance);
+            }
+            return result;
+        }
+
+        Set<ServiceInstanceId> missing = new HashSet<>();
+        long now = System.nanoTime();
+        for (ServiceInstanceId id : ids) {
+            Entry current = shardFor(id).instances.get(id);
+            if (current != null && !isExpired(current, now)) {
+                result.put(id.instanceId(), copyOf(current.instance()));
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (ServiceInstance persisted : serviceInstanceRepository.findAllByIds(missing)) {
+                missing.remove(persisted.getId());
+                Entry current = reload(shardFor(persisted.getId()), persisted);
+                result.put(persisted.getId().instanceId(), copyOf(current.instance()));
+            }
+            // Expired entries of instances deleted elsewhere
+            missing.forEach(id -> removeIfExpired(shardFor(id), id));
+        }
+        return result;
+    }
+
+    /**
+     * Records the new state of an instance.
+     * <p>
+     * The state is applied in memory immediately, classified against the
+     * previous state and handed to the write-behind buffer with the fields that
+     * differ from it. Instances without previous state are upserted.
+     *
+     * @param instance the updated instance (must have an ID)
+     * @return the instance as recorded
+     */
+    public ServiceInstance save(ServiceInstance instance) {
+        if (!properties.isEnabled()) {
+            return serviceInstanceCommandService.save(instance);
+        }
+
+        // Keeps the load time of the previous entry: heartbeats applied here
+        // do not make state written by other replicas any more current
+        ServiceInstance snapshot = copyOf(instance);
+        ServiceInstance[] replaced = new ServiceInstance[1];
+        shardFor(instance.getId()).instances.compute(instance.getId(), (k, current) -> {
+            if (current == null) {
+                return new Entry(snapshot, System.nanoTime());
+            }
+            replaced[0] = current.instance();
+            return new Entry(snapshot, current.loadedAt());
+        });
+        ServiceInstance previous = replaced[0];
+        ChangeType change = HeartbeatChangeDetector.classify(previous, snapshot);
+        recordChange(change);
+        writeBehindBuffer.offer(copyOf(snapshot), change,
+                HeartbeatChangeDetector.changedFields(previous, snapshot), previous == null);
+        return instance;
+    }
+
+    /**
+     * Records the new state of several instances.
+     *
+     * @param instances the updated instances (must have IDs)
+     */
+    public void saveAll(Collection<ServiceInstance> instances) {
+        if (instances == null || instances.isEmpty()) {
+            return;
+        }
+        if (!properties.isEnabled()) {
+            BulkWriteResult result = serviceInstanceCommandService.bulkUpsert(new ArrayList<>(instances));
+            if (result != null) {
+                heartbeatMetrics.recordMongodbWrites(result.getInsertedCount() + result.getModifiedCount());
+            }
+            return;
+        }
+        for (ServiceInstance instance : instances) {
+            save(instance);
+        }
+    }
+
+    /**
+     * Whether a heartbeat is expected to only refresh liveness, judged against
+     * the registered state without reading through to MongoDB.
+     * <p>
+     * The reported hash is compared with the current expected hash as known
+     * locally by {@link ConfigProxyService#findKnownConfigHash}, not the one
+     * stored on the instance, so heartbeats of instances that did not pick up
+     * a new rollout are never shed. Unknown instances, expired entries,
+     * instances whose expected hash is not known locally, and every instance
+     * when the registry is disabled are never touch-only.
+     *
+     * @param payload the incoming heartbeat
+     * @return true if the heartbeat is sheddable under overload
+     */
+    public boolean isTouchOnly(HeartbeatPayload payload) {
+        if (!properties.isEnabled() || payload.getInstanceId() == null) {
+            return false;
+        }
+        ServiceInstanceId id = ServiceInstanceId.of(payload.getInstanceId());
+        Entry current = shardFor(id).instances.get(id);
+        if (current == null || isExpired(current, System.nanoTime())) {
+            return false;
+        }
+        ServiceInstance previous = current.instance();
+        String profile = payload.getEnvironment() != null ? payload.getEnvironment() : "default";
+        return configProxyService.findKnownConfigHash(payload.getServiceName(), profile)
+                .map(expectedHash -> HeartbeatChangeDetector.isTouchOnly(previous, payload, expectedHash))
+                .orElse(false);
+    }
+
+    /**
+     * Refreshes only the liveness timestamps of a registered instance, used
+     * for heartbeats shed by admission control.
+     *
+     * @param id  the service instance ID
+     * @param now the heartbeat time
+     * @return a copy of the touched instance, or empty if it is not registered
+     *         or its entry expired
+     */
+    public Optional<ServiceInstance> touch(ServiceInstanceId id, Instant now) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        long nanos = System.nanoTime();
+        Entry touched = shardFor(id).instances.computeIfPresent(id, (k, current) -> isExpired(current, nanos)
+                ? current
+                : new Entry(current.instance().toBuilder().lastSeenAt(now).updatedAt(now).build(), current.loadedAt()));
+        if (touched == null || isExpired(touched, nanos)) {
+            return Optional.empty();
+        }
+        ServiceInstance snapshot = touched.instance();
+        recordChange(ChangeType.TOUCH_ONLY);
+        writeBehindBuffer.offer(copyOf(snapshot), ChangeType.TOUCH_ONLY, Set.of(), false);
+        return Optional.of(copyOf(snapshot));
+    }
+
+    /**
+     * Drops instances changed outside the heartbeat path once the change is
+     * committed, so the next heartbeat reloads them from MongoDB.
+     * <p>
+     * Pending writes of updated instances are kept, since they only carry the
+     * fields the heartbeats changed; those of deleted instances are discarded.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInstancesChanged(ServiceInstancesChanged event) {
+        apply(event);
+    }
+
+    /**
+     * Drops the instances of a change made on this or another replica.
+     *
+     * @param event the change
+     * @see #onInstancesChanged(ServiceInstancesChanged)
+     */
+    public void apply(ServiceInstancesChanged event) {
+        if (event.getServiceId() != null) {
+            evictService(event.getServiceId());
+        }
+        if (event.getInstanceIds() == null) {
+            return;
+        }
+        for (ServiceInstanceId id : event.getInstanceIds()) {
+            shardFor(id).instances.remove(id);
+            if (event.isDeleted()) {
+                writeBehindBuffer.discard(id);
+            }
+        }
+    }
+
+    /**
+     * Drops all instances of a service whose ownership was transferred.
+     *
+     * @param event the transfer
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOwnershipTransferred(ServiceOwnershipTransferred event) {
+        evictService(event.getServiceId());
+    }
+
+    /**
+     * Drops every entry, so all instances are reloaded from MongoDB on their
+     * next heartbeat. Pending writes are kept.
+     * <p>
+     * Called when heartbeat partitions are assigned to this replica: the
+     * previous owner may have changed their instances in the meantime, and
+     * entries do not record the service name the partitions are keyed by.
+     */
+    public void clear() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (Shard shard : shards) {
+            shard.instances.clear();
+        }
+        log.debug("Cleared service instance registry");
+    }
+
+    private void evictService(String serviceId) {
+        for (Shard shard : shards) {
+            shard.instances.values().removeIf(entry -> Objects.equals(entry.instance().getServiceId(), serviceId));
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.loadedAt() > entryTtlNanos;
+    }
+
+    private void removeIfExpired(Shard shard, ServiceInstanceId id) {
+        long now = System.nanoTime();
+        shard.instances.computeIfPresent(id, (k, current) -> isExpired(current, now) ? null : current);
+    }
+
+    /**
+     * Replaces a missing or expired entry with freshly read state; an entry
+     * loaded concurrently is kept.
+     */
+    private Entry reload(Shard shard, ServiceInstance persisted) {
+        long now = System.nanoTime();
+        return shard.instances.compute(persisted.getId(),
+                (k, current) -> current == null || isExpired(current, now) ? new Entry(persisted, now) : current);
+    }
+
+    /**
+     * Copy of an instance that shares no mutable state with the original.
+     */
+    private static ServiceInstance copyOf(ServiceInstance instance) {
+        return instance.toBuilder()
+                .metadata(instance.getMetadata() != null ? new HashMap<>(instance.getMetadata()) : null)
+                .lastAppliedFingerprint(instance.getLastAppliedFingerprint() != null
+                        ? new HashMap<>(instance.getLastAppliedFingerprint())
+                        : null)
+                .build();
+    }
+
+    private Shard shardFor(ServiceInstanceId id) {
+        return shards[Math.floorMod(id.hashCode(), shards.length)];
+    }
+
+    /**
+     * Refreshes the registry size gauge.
+     */
+    @Scheduled(fixedDelayString = "${app.heartbeat.flush.interval-ms:5000}")
+    public void updateMetrics() {
+        long size = 0;
+        for (Shard shard : shards) {
+            size += shard.instances.size();
+        }
+        heartbeatMetrics.updateRegistrySize(size);
+    }
+
+    private void recordChange(ChangeType change) {
+        switch (change) {
+            case TOUCH_ONLY -> heartbeatMetrics.recordTouchOnly();
+            case FIELD_CHANGE -> heartbeatMetrics.recordFieldChange();
+            case STATUS_TRANSITION -> heartbeatMetrics.recordStatusTransition();
+        }
+    }
+
+    /**
+     * One partition of the registry holding current instance state.
+     */
+    private static final class Shard {
+        private final ConcurrentHashMap<ServiceInstanceId, Entry> instances = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registered state of an instance.
+     *
+     * @param instance the current state
+     * @param loadedAt {@link System#nanoTime()} when the state was last read
+     *                 from MongoDB (or first registered here)
+     */
+    private record Entry(ServiceInstance instance, long loadedAt) {
+    }
+}
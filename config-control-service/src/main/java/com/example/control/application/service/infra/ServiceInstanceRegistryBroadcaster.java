@@ -0,0 +1,139 @@
+package com.example.control.application.service.infra;
+
+import com.example.control.domain.event.ServiceInstancesChanged;
+import com.example.control.domain.event.ServiceOwnershipTransferred;
+import com.example.control.domain.valueobject.id.ServiceInstanceId;
+import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Spreads instance changes made on one control-plane replica to the
+ * {@link ServiceInstanceRegistry} of all others via Redis pub/sub.
+ * <p>
+ * Committed {@link ServiceInstancesChanged} and
+ * {@link ServiceOwnershipTransferred} events are published on the
+ * {@code registry:invalidation} channel; received messages from other
+ * replicas are applied with {@link ServiceInstanceRegistry#apply}. Without
+ * Redis, or with the registry disabled, nothing is published and other
+ * replicas only catch up once their entries expire.
+ */
+@Slf4j
+@Component
+public class ServiceInstanceRegistryBroadcaster implements MessageListener {
+
+    private static final String CHANNEL = "registry:invalidation";
+
+    private final ServiceInstanceRegistry registry;
+    private final HeartbeatProperties.Registry properties;
+    private final Optional<RedisTemplate<String, String>> redisTemplate;
+    private final Optional<RedisMessageListenerContainer> listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final String origin = UUID.randomUUID().toString();
+
+    public ServiceInstanceRegistryBroadcaster(
+            ServiceInstanceRegistry registry,
+            HeartbeatProperties heartbeatProperties,
+            @Qualifier("cacheRedisTemplate") Optional<RedisTemplate<String, String>> redisTemplate,
+            Optional<RedisMessageListenerContainer> listenerContainer,
+            ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.properties = heartbeatProperties.getRegistry();
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (redisTemplate.isEmpty() || listenerContainer.isEmpty()) {
+            log.warn("Service instance registry enabled without Redis, changes made on other replicas "
+                    + "are only seen once registry entries expire");
+            return;
+        }
+        listenerContainer.get().addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Publishes a committed instance change to the other replicas.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInstancesChanged(ServiceInstancesChanged event) {
+        Set<String> instanceIds = event.getInstanceIds() != null
+                ? event.getInstanceIds().stream().map(ServiceInstanceId::instanceId).collect(Collectors.toSet())
+                : Set.of();
+        publish(new Change(origin, instanceIds, event.getServiceId(), event.isDeleted()));
+    }
+
+    /**
+     * Publishes a committed ownership transfer as a service-wide change.
+     *
+     * @param event the transfer
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOwnershipTransferred(ServiceOwnershipTransferred event) {
+        publish(new Change(origin, Set.of(), event.getServiceId(), false));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Change change = objectMapper.readValue(message.getBody(), Change.class);
+            if (origin.equals(change.origin())) {
+                return;
+            }
+            registry.apply(ServiceInstancesChanged.builder()
+                    .instanceIds(change.instanceIds() != null
+                            ? change.instanceIds().stream().map(ServiceInstanceId::of).collect(Collectors.toSet())
+                            : Set.of())
+                    .serviceId(change.serviceId())
+                    .deleted(change.deleted())
+                    .build());
+        } catch (Exception e) {
+            log.error("Failed to apply service instance registry invalidation", e);
+        }
+    }
+
+    private void publish(Change change) {
+        if (!properties.isEnabled() || redisTemplate.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.get().convertAndSend(CHANNEL, objectMapper.writeValueAsString(change));
+        } catch (Exception e) {
+            log.warn("Failed to publish service instance registry invalidation for {} instances of service {}",
+                    change.instanceIds().size(), change.serviceId(), e);
+        }
+    }
+
+    /**
+     * Wire format of a broadcast change.
+     *
+     * @param origin      the publishing replica, whose own messages are ignored
+     * @param instanceIds the affected instance IDs
+     * @param serviceId   the service whose instances all changed, or null
+     * @param deleted     whether the instances were deleted
+     */
+    record Change(String origin, Set<String> instanceIds, String serviceId, boolean deleted) {
+    }
+}
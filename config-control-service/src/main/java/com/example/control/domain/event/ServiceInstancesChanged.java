@@ -0,0 +1,51 @@
+package com.example.control.domain.event;
+
+import com.example.control.domain.valueobject.id.ServiceInstanceId;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Set;
+
+/**
+ * Domain event published when service instances are updated or deleted
+ * outside the heartbeat path (admin APIs, cleanup, ownership transfer), or
+ * found missing by the heartbeat write-behind flush.
+ * <p>
+ * Lets in-memory instance state (e.g. the heartbeat registry) drop entries
+ * that no longer match MongoDB.
+ * </p>
+ *
+ * @param instanceIds the affected instance IDs (empty for service-wide
+ *                    changes)
+ * @param serviceId   the service whose instances all changed, or null
+ * @param deleted     whether the instances were deleted
+ */
+@Data
+@Builder
+public class ServiceInstancesChanged {
+
+    private final Set<ServiceInstanceId> instanceIds;
+    private final String serviceId;
+    private final boolean deleted;
+
+    /**
+     * Event for updated instances.
+     */
+    public static ServiceInstancesChanged updated(Set<ServiceInstanceId> instanceIds) {
+        return ServiceInstancesChanged.builder().instanceIds(instanceIds).build();
+    }
+
+    /**
+     * Event for deleted instances.
+     */
+    public static ServiceInstancesChanged deleted(Set<ServiceInstanceId> instanceIds) {
+        return ServiceInstancesChanged.builder().instanceIds(instanceIds).deleted(true).build();
+    }
+
+    /**
+     * Event for a change to all instances of a service.
+     */
+    public static ServiceInstancesChanged service(String serviceId) {
+        return ServiceInstancesChanged.builder().instanceIds(Set.of()).serviceId(serviceId).build();
+    }
+}
@@ -60,4 +60,10 @@ public class HeartbeatPayload {
      * Additional instance metadata
      */
     private Map<String, String> metadata;
+
+    /**
+     * Optional key-bucket fingerprint of the applied configuration
+     * (bucket name to bucket hash, see {@code ConfigFingerprint})
+     */
+    private Map<String, String> configFingerprint;
 }
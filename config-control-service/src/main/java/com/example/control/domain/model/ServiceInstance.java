@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Domain model representing a runtime instance of a service within the system.
@@ -21,7 +22,7 @@ import java.util.Map;
  * detection and health monitoring.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ServiceInstance {
@@ -78,6 +79,12 @@ public class ServiceInstance {
      */
     private String lastAppliedHash;
 
+    /**
+     * Key-bucket fingerprint of the last applied configuration, if the
+     * instance reports one (see {@code ConfigFingerprint}).
+     */
+    private Map<String, String> lastAppliedFingerprint;
+
     /**
      * Current health or drift status of the instance.
      */
@@ -133,6 +140,25 @@ public class ServiceInstance {
         return Boolean.TRUE.equals(hasDrift);
     }
 
+    /**
+     * Records the configuration hash and fingerprint reported by the instance.
+     * <p>
+     * A previously reported fingerprint is kept while the hash is unchanged
+     * (heartbeats over binary transports do not carry one) and dropped once
+     * it no longer describes the applied configuration.
+     *
+     * @param appliedHash the reported configuration hash
+     * @param fingerprint the reported fingerprint, or {@code null}
+     */
+    public void recordAppliedConfig(String appliedHash, Map<String, String> fingerprint) {
+        if (fingerprint != null) {
+            this.lastAppliedFingerprint = fingerprint;
+        } else if (!Objects.equals(this.lastAppliedHash, appliedHash)) {
+            this.lastAppliedFingerprint = null;
+        }
+        this.lastAppliedHash = appliedHash;
+    }
+
     /**
      * Marks this instance as drifted, recording detection time and updating status.
      *
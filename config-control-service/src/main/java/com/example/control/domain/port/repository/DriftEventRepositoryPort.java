@@ -6,7 +6,9 @@ import com.example.control.domain.port.RepositoryPort;
 import com.example.control.domain.valueobject.id.DriftEventId;
 import com.mongodb.bulk.BulkWriteResult;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Port (hexagonal architecture) for persisting and querying {@link DriftEvent}.
@@ -18,6 +20,15 @@ public interface DriftEventRepositoryPort extends RepositoryPort<DriftEvent, Dri
      */
     void resolveForInstance(String serviceName, String instanceId, String resolvedBy);
 
+    /**
+     * Resolve all unresolved events of several instances in one update.
+     *
+     * @param instanceIdsByService instance IDs grouped by service name
+     * @param resolvedBy           identifier of who/what resolved the drift
+     * @return number of drift events resolved
+     */
+    long resolveForInstances(Map<String, ? extends Collection<String>> instanceIdsByService, String resolvedBy);
+
     long countByStatus(DriftEvent.DriftStatus status);
 
     /**
@@ -6,7 +6,9 @@ import com.example.control.domain.port.RepositoryPort;
 import com.example.control.domain.valueobject.id.ServiceInstanceId;
 import com.mongodb.bulk.BulkWriteResult;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -45,6 +47,29 @@ public interface ServiceInstanceRepositoryPort
      */
     BulkWriteResult bulkUpsert(List<ServiceInstance> instances);
 
+    /**
+     * Bulk write only the given fields of service instances.
+     * <p>
+     * {@code lastSeenAt} only ever moves forward ({@code $max}) and
+     * {@code updatedAt} is always set. Inserts are upserts; all other updates
+     * only modify existing documents.
+     *
+     * @param updates the partial writes
+     * @return bulk write result with matched/modified/upserted counts
+     */
+    BulkWriteResult bulkUpdateFields(List<FieldUpdate> updates);
+
+    /**
+     * Bulk advance lastSeenAt for existing service instances.
+     * <p>
+     * Used for heartbeats that changed nothing but liveness. Each update only
+     * moves lastSeenAt forward ({@code $max}) and never inserts documents.
+     *
+     * @param lastSeenById map of instance ID to observed lastSeenAt
+     * @return bulk write result with matched/modified counts
+     */
+    BulkWriteResult bulkTouchLastSeen(Map<ServiceInstanceId, Instant> lastSeenById);
+
     /**
      * Find all service instances by their IDs.
      * <p>
@@ -54,4 +79,14 @@ public interface ServiceInstanceRepositoryPort
      * @return list of service instances (may be smaller than input if some don't exist)
      */
     List<ServiceInstance> findAllByIds(Set<ServiceInstanceId> ids);
+
+    /**
+     * Partial write of one service instance.
+     *
+     * @param instance the instance state to take values from
+     * @param fields   names of the persisted fields to write
+     * @param insert   whether the instance may not exist yet (upsert)
+     */
+    record FieldUpdate(ServiceInstance instance, Set<String> fields, boolean insert) {
+    }
 }
@@ -0,0 +1,88 @@
+package com.example.control.domain.valueobject.configsnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Merkle-style fingerprint of a {@link ConfigSnapshot}.
+ * <p>
+ * Properties are grouped into buckets by their top-level key segment
+ * ({@code spring.datasource.url} belongs to bucket {@code spring}); each bucket
+ * is hashed over its sorted {@code key=value} lines. The configuration hash
+ * remains the root used for equality checks, while the bucket hashes let the
+ * control plane name which key ranges diverge without either side shipping
+ * the configuration itself.
+ * <p>
+ * Mirrors the SDK's {@code ConfigFingerprint}; keep both in sync.
+ */
+public final class ConfigFingerprint {
+
+    /** Number of hex characters kept per bucket hash (64 bits). */
+    static final int BUCKET_HASH_LENGTH = 16;
+
+    private ConfigFingerprint() {
+    }
+
+    /**
+     * Computes the bucket hashes of a snapshot.
+     *
+     * @param snapshot the configuration snapshot
+     * @return bucket name to truncated bucket hash, sorted by bucket name
+     */
+    public static SortedMap<String, String> of(ConfigSnapshot snapshot) {
+        SortedMap<String, SortedMap<String, String>> buckets = new TreeMap<>();
+        for (Map.Entry<String, String> e : snapshot.getProperties().entrySet()) {
+            buckets.computeIfAbsent(bucketOf(e.getKey()), b -> new TreeMap<>()).put(e.getKey(), e.getValue());
+        }
+
+        SortedMap<String, String> fingerprint = new TreeMap<>();
+        for (Map.Entry<String, SortedMap<String, String>> bucket : buckets.entrySet()) {
+            String hash = StreamingConfigHasher.hash(new ConfigSnapshot(null, null, null, null, bucket.getValue()));
+            fingerprint.put(bucket.getKey(), hash.substring(0, BUCKET_HASH_LENGTH));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the bucket of a property key: its first segment before
+     * {@code '.'} or {@code '['}, or the whole key.
+     *
+     * @param key the property key
+     * @return bucket name
+     */
+    public static String bucketOf(String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '.' || c == '[') {
+                return key.substring(0, i);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Lists the buckets whose hashes differ between two fingerprints,
+     * including buckets present on only one side.
+     *
+     * @param expected fingerprint of the source of truth
+     * @param applied  fingerprint reported by the instance
+     * @return sorted names of diverging buckets
+     */
+    public static List<String> diverging(Map<String, String> expected, Map<String, String> applied) {
+        SortedSet<String> buckets = new TreeSet<>(expected.keySet());
+        buckets.addAll(applied.keySet());
+        List<String> diverging = new ArrayList<>();
+        for (String bucket : buckets) {
+            if (!Objects.equals(expected.get(bucket), applied.get(bucket))) {
+                diverging.add(bucket);
+            }
+        }
+        return diverging;
+    }
+}
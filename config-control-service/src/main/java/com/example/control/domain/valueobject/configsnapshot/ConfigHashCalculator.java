@@ -28,12 +28,23 @@ public final class ConfigHashCalculator {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] digest = md.digest(canonical.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(digest.length * 2);
-            for (byte b : digest) sb.append(String.format("%02x", b));
-            return sb.toString();
+            return StreamingConfigHasher.toHex(digest);
         } catch (Exception e) {
             // Should not happen in standard JVM; fallback for safety
             return null;
         }
     }
+
+    /**
+     * Computes the SHA-256 hash of a snapshot's canonical form without
+     * materializing the canonical string.
+     * <p>
+     * Equivalent to {@code hash(snapshot.toCanonicalString())}.
+     *
+     * @param snapshot the configuration snapshot
+     * @return SHA-256 hash as a lowercase hex string
+     */
+    public static String hash(ConfigSnapshot snapshot) {
+        return StreamingConfigHasher.hash(snapshot);
+    }
 }
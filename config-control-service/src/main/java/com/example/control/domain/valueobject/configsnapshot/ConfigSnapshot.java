@@ -69,11 +69,41 @@ public final class ConfigSnapshot {
         this.properties = properties != null ? new TreeMap<>(properties) : new TreeMap<>();
     }
 
+    /**
+     * @return the application name
+     */
+    public String getApplication() {
+        return application;
+    }
+
+    /**
+     * @return the active profile
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return the configuration label (branch or tag)
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the version identifier (e.g., Git commit hash)
+     */
+    public String getVersion() {
+        return version;
+    }
+
     /**
      * Converts this configuration snapshot into a canonical string representation.
      * <p>
      * The result is a newline-separated list of metadata and key-value pairs.
      * This ensures a deterministic, platform-independent format suitable for hashing.
+     * {@link StreamingConfigHasher} hashes the same format without building the
+     * string; keep both in sync.
      *
      * @return canonical configuration string
      */
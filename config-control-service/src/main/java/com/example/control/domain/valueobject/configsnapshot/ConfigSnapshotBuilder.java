@@ -2,7 +2,9 @@ package com.example.control.domain.valueobject.configsnapshot;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -53,6 +55,49 @@ public final class ConfigSnapshotBuilder {
         return new ConfigSnapshot(application, profile != null ? profile : "default", label, version, props);
     }
 
+    /**
+     * Computes the per-source configuration hash ({@link ConfigHashCombiner})
+     * from a Config Server environment JSON.
+     * <p>
+     * Each included property source is filtered like {@link #build} and
+     * hashed on its own; the sub-hashes are combined in the order Config
+     * Server returns them (highest precedence first). Matches the SDK's
+     * incremental hashing mode.
+     *
+     * @param application application name
+     * @param profile     active profile
+     * @param label       config label (branch/tag)
+     * @param envJson     Config Server environment JSON response
+     * @return SHA-256 hash as a lowercase hex string
+     */
+    public String buildPerSourceHash(String application, String profile, String label, JsonNode envJson) {
+        String version = envJson != null && envJson.hasNonNull("version") ? envJson.get("version").asText() : null;
+        List<String> sourceHashes = new ArrayList<>();
+
+        if (envJson != null && envJson.has("propertySources") && envJson.get("propertySources").isArray()) {
+            for (JsonNode ps : envJson.get("propertySources")) {
+                String name = ps.hasNonNull("name") ? ps.get("name").asText() : null;
+                if (!includeSource(name)) continue;
+
+                SortedMap<String, String> props = new TreeMap<>();
+                JsonNode source = ps.get("source");
+                if (source != null && source.isObject()) {
+                    Iterator<String> it = source.fieldNames();
+                    while (it.hasNext()) {
+                        String key = it.next();
+                        if (excludeKey(key)) continue;
+                        JsonNode v = source.get(key);
+                        if (v != null && !v.isNull()) props.put(key, v.asText());
+                    }
+                }
+                sourceHashes.add(ConfigHashCombiner.sourceHash(props));
+            }
+        }
+
+        return ConfigHashCombiner.combine(application, profile != null ? profile : "default", label, version,
+                sourceHashes);
+    }
+
     /**
      * Determines whether a property source should be included in the snapshot.
      *
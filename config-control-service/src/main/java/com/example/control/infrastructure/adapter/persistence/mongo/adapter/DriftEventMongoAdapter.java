@@ -17,6 +17,7 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -119,6 +120,33 @@ public class DriftEventMongoAdapter
                 result.getModifiedCount(), serviceName, instanceId);
     }
 
+    @Override
+    public long resolveForInstances(Map<String, ? extends Collection<String>> instanceIdsByService,
+                                    String resolvedBy) {
+        Criteria[] perService = instanceIdsByService.entrySet().stream()
+                .filter(e -> !e.getValue().isEmpty())
+                .map(e -> Criteria.where("serviceName").is(e.getKey()).and("instanceId").in(e.getValue()))
+                .toArray(Criteria[]::new);
+        if (perService.length == 0) {
+            return 0;
+        }
+
+        Query query = new Query(new Criteria()
+                .orOperator(perService)
+                .and("status").in("DETECTED", "ACKNOWLEDGED", "RESOLVING")); // Only unresolved events
+
+        Update update = new Update()
+                .set("status", DriftEvent.DriftStatus.RESOLVED.name())
+                .set("resolvedAt", Instant.now())
+                .set("resolvedBy", resolvedBy);
+
+        UpdateResult result = mongoTemplate.updateMulti(
+                query, update, DriftEventDocument.class, getCollectionName());
+
+        log.debug("Resolved {} drift events across {} services", result.getModifiedCount(), perService.length);
+        return result.getModifiedCount();
+    }
+
     @Override
     public long countByStatus(DriftEvent.DriftStatus status) {
         return repository.countByStatus(status.name());
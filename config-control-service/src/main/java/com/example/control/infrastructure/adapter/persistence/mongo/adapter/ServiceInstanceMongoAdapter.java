@@ -17,6 +17,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -131,6 +132,7 @@ public class ServiceInstanceMongoAdapter
                     .set("version", doc.getVersion())
                     .set("configHash", doc.getConfigHash())
                     .set("lastAppliedHash", doc.getLastAppliedHash())
+                    .set("lastAppliedFingerprint", doc.getLastAppliedFingerprint())
                     .set("expectedHash", doc.getExpectedHash())
                     .set("status", doc.getStatus())
                     .set("hasDrift", doc.getHasDrift())
@@ -150,6 +152,96 @@ public class ServiceInstanceMongoAdapter
         return result;
     }
 
+    @Override
+    public BulkWriteResult bulkUpdateFields(List<FieldUpdate> updates) {
+        if (updates.isEmpty()) {
+            log.debug("Empty field update list, skipping bulk update");
+            return null;
+        }
+
+        log.debug("Bulk updating changed fields of {} service instances", updates.size());
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED,
+                ServiceInstanceDocument.class);
+
+        Instant now = Instant.now();
+        for (FieldUpdate fieldUpdate : updates) {
+            ServiceInstanceDocument doc = toDocument(fieldUpdate.instance());
+            Query query = Query.query(Criteria.where("_id").is(fieldUpdate.instance().getId().instanceId()));
+            Update update = new Update().set("updatedAt", now);
+            for (String field : fieldUpdate.fields()) {
+                if (!"lastSeenAt".equals(field)) {
+                    update.set(field, fieldValue(doc, field));
+                }
+            }
+            if (doc.getLastSeenAt() != null) {
+                update.max("lastSeenAt", doc.getLastSeenAt());
+            }
+
+            if (fieldUpdate.insert()) {
+                update.setOnInsert("createdAt", doc.getCreatedAt() != null ? doc.getCreatedAt() : now);
+                bulkOps.upsert(query, update);
+            } else {
+                bulkOps.updateOne(query, update);
+            }
+        }
+
+        BulkWriteResult result = bulkOps.execute();
+        log.debug("Bulk field update completed: {} inserted, {} modified, {} matched",
+                result.getUpserts().size(), result.getModifiedCount(), result.getMatchedCount());
+
+        return result;
+    }
+
+    /**
+     * Value of a persisted field in its document representation.
+     */
+    private static Object fieldValue(ServiceInstanceDocument doc, String field) {
+        return switch (field) {
+            case "serviceId" -> doc.getServiceId();
+            case "teamId" -> doc.getTeamId();
+            case "host" -> doc.getHost();
+            case "port" -> doc.getPort();
+            case "environment" -> doc.getEnvironment();
+            case "version" -> doc.getVersion();
+            case "configHash" -> doc.getConfigHash();
+            case "lastAppliedHash" -> doc.getLastAppliedHash();
+            case "lastAppliedFingerprint" -> doc.getLastAppliedFingerprint();
+            case "expectedHash" -> doc.getExpectedHash();
+            case "status" -> doc.getStatus();
+            case "hasDrift" -> doc.getHasDrift();
+            case "driftDetectedAt" -> doc.getDriftDetectedAt();
+            case "metadata" -> doc.getMetadata();
+            default -> throw new IllegalArgumentException("Unknown service instance field: " + field);
+        };
+    }
+
+    @Override
+    public BulkWriteResult bulkTouchLastSeen(Map<ServiceInstanceId, Instant> lastSeenById) {
+        if (lastSeenById.isEmpty()) {
+            log.debug("Empty touch map, skipping bulk lastSeenAt update");
+            return null;
+        }
+
+        log.debug("Bulk touching lastSeenAt for {} service instances", lastSeenById.size());
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED,
+                ServiceInstanceDocument.class);
+
+        for (Map.Entry<ServiceInstanceId, Instant> entry : lastSeenById.entrySet()) {
+            Query query = Query.query(Criteria.where("_id").is(entry.getKey().instanceId()));
+            bulkOps.updateOne(query, new Update().max("lastSeenAt", entry.getValue()));
+        }
+
+        BulkWriteResult result = bulkOps.execute();
+        log.debug("Bulk touch completed: {} matched, {} modified",
+                result.getMatchedCount(), result.getModifiedCount());
+
+        return result;
+    }
+
     @Override
     public List<ServiceInstance> findAllByIds(Set<ServiceInstanceId> ids) {
         if (ids == null || ids.isEmpty()) {
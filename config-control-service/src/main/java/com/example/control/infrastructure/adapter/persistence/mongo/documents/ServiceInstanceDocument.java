@@ -75,6 +75,9 @@ public class ServiceInstanceDocument {
     @Field("lastAppliedHash")
     private String lastAppliedHash;
 
+    @Field("lastAppliedFingerprint")
+    private Map<String, String> lastAppliedFingerprint;
+
     @Field("expectedHash")
     private String expectedHash;
 
@@ -130,6 +133,7 @@ public class ServiceInstanceDocument {
                 .version(domain.getVersion())
                 .configHash(domain.getConfigHash())
                 .lastAppliedHash(domain.getLastAppliedHash())
+                .lastAppliedFingerprint(domain.getLastAppliedFingerprint())
                 .expectedHash(domain.getExpectedHash())
                 .status(domain.getStatus() != null ? domain.getStatus().name() : null)
                 .lastSeenAt(domain.getLastSeenAt())
@@ -157,6 +161,7 @@ public class ServiceInstanceDocument {
                 .version(version)
                 .configHash(configHash)
                 .lastAppliedHash(lastAppliedHash)
+                .lastAppliedFingerprint(lastAppliedFingerprint)
                 .expectedHash(expectedHash)
                 .status(status != null
                         ? ServiceInstance.InstanceStatus.valueOf(status)
@@ -0,0 +1,164 @@
+package com.example.control.infrastructure.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link CacheInvalidationPublisher} that batches exact-key invalidations.
+ * <p>
+ * Bulk evictions (e.g. a KV {@code putList} evicting hundreds of keys) would
+ * otherwise publish one message per key. Instead:
+ * <ul>
+ * <li>Keys are gathered per cache for up to {@code batch-window}, or until
+ * {@code max-batch-keys} keys are pending</li>
+ * <li>Each cache's keys are then published as one multi-key
+ * {@link CacheInvalidationMessage}, or as one single-key message per key
+ * until {@code multi-key-messages} is enabled (listeners from before
+ * multi-key messages cannot read them); the messages of one flush go out in
+ * a single pipelined round trip</li>
+ * <li>Clear-all and pattern invalidations are published immediately; a
+ * clear-all drops the pending keys of its cache</li>
+ * </ul>
+ * Pending keys are published when the publisher is closed.
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+public class BatchingCacheInvalidationPublisher extends CacheInvalidationPublisher implements AutoCloseable {
+
+  private final long batchWindowNanos;
+  private final int maxBatchKeys;
+  private final boolean multiKeyMessages;
+
+  /**
+   * Pending keys per cache name. Sets are only mutated inside {@code compute}.
+   */
+  private final ConcurrentHashMap<String, Set<String>> pending = new ConcurrentHashMap<>();
+
+  private final AtomicInteger pendingKeys = new AtomicInteger();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Constructor that accepts nullable RedisTemplate (for environments without
+   * Redis).
+   *
+   * @param redisTemplate    template used to publish (may be null)
+   * @param objectMapper     mapper for invalidation messages
+   * @param meterRegistry    registry for publication metrics (may be null)
+   * @param batchWindow      maximum time an invalidation waits for its batch
+   * @param maxBatchKeys     number of pending keys that triggers an immediate
+   *                         publish
+   * @param multiKeyMessages publish each cache's keys as one message instead of
+   *                         one message per key
+   */
+  public BatchingCacheInvalidationPublisher(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper,
+      MeterRegistry meterRegistry, Duration batchWindow, int maxBatchKeys, boolean multiKeyMessages) {
+    super(redisTemplate, objectMapper, meterRegistry);
+    this.batchWindowNanos = batchWindow.toNanos();
+    this.maxBatchKeys = maxBatchKeys;
+    this.multiKeyMessages = multiKeyMessages;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofVirtual().name("cache-invalidation-batch").factory());
+  }
+
+  /**
+   * Queue invalidation of a specific cache key for the next batch.
+   */
+  @Override
+  public void invalidate(String cacheName, String key) {
+    boolean[] added = new boolean[1];
+    pending.compute(cacheName, (name, keys) -> {
+      Set<String> target = keys != null ? keys : new LinkedHashSet<>();
+      added[0] = target.add(key);
+      return target;
+    });
+    if (!added[0]) {
+      return;
+    }
+
+    if (pendingKeys.incrementAndGet() == maxBatchKeys) {
+      submitFlush();
+    } else if (flushScheduled.compareAndSet(false, true)) {
+      try {
+        scheduler.schedule(this::flush, batchWindowNanos, TimeUnit.NANOSECONDS);
+      } catch (Exception e) {
+        flushScheduled.set(false);
+        log.warn("Failed to schedule cache invalidation batch, publishing now", e);
+        flush();
+      }
+    }
+  }
+
+  /**
+   * Publish invalidation to clear all entries in a cache, dropping its pending
+   * keys.
+   */
+  @Override
+  public void clearAll(String cacheName) {
+    Set<String> keys = pending.remove(cacheName);
+    if (keys != null) {
+      pendingKeys.addAndGet(-keys.size());
+    }
+    super.clearAll(cacheName);
+  }
+
+  /**
+   * Publish all pending keys, one message per cache.
+   */
+  public void flush() {
+    flushScheduled.set(false);
+
+    List<CacheInvalidationMessage> messages = new ArrayList<>();
+    for (String cacheName : pending.keySet()) {
+      Set<String> keys = pending.remove(cacheName);
+      if (keys == null || keys.isEmpty()) {
+        continue;
+      }
+      pendingKeys.addAndGet(-keys.size());
+      if (multiKeyMessages && keys.size() > 1) {
+        messages.add(CacheInvalidationMessage.exactKeys(cacheName, keys));
+      } else {
+        for (String key : keys) {
+          messages.add(CacheInvalidationMessage.exactKey(cacheName, key));
+        }
+      }
+    }
+
+    if (!messages.isEmpty()) {
+      publishAll(messages);
+    }
+  }
+
+  /**
+   * Publish the pending keys and stop the scheduler.
+   */
+  @Override
+  public void close() {
+    scheduler.shutdown();
+    flush();
+  }
+
+  private void submitFlush() {
+    try {
+      scheduler.execute(this::flush);
+    } catch (Exception e) {
+      log.warn("Failed to submit cache invalidation batch, publishing now", e);
+      flush();
+    }
+  }
+}
@@ -1,14 +1,21 @@
 package com.example.control.infrastructure.cache;
 
 import com.example.control.infrastructure.config.cache.CacheProperties;
-import lombok.RequiredArgsConstructor;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
 import lombok.extern.slf4j.Slf4j;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -16,30 +23,124 @@ import java.util.zip.GZIPOutputStream;
  * Redis serializer that compresses values above a configurable threshold.
  * <p>
  * Compression is applied only to values >= threshold size. Values below
- * threshold
- * are stored uncompressed for fast access. Compression/decompression is
- * transparent
- * to the application.
+ * threshold, and values that do not shrink, are stored uncompressed for fast
+ * access. Compression/decompression is transparent to the application.
  * <p>
- * Currently supports GZIP compression. LZ4 support can be added if needed.
+ * Stored values are self-describing, so any instance can read values written
+ * with another algorithm:
+ * <ul>
+ * <li>GZIP values are plain GZIP streams, recognized by their magic bytes
+ * {@code 1F 8B} (the format written before LZ4 and Zstd were supported)</li>
+ * <li>LZ4 and Zstd values start with a header byte naming the codec, followed
+ * by the uncompressed length (4 bytes, big-endian) and the compressed
+ * block</li>
+ * </ul>
+ * Header bytes are in the range {@code F8-FF}, which never starts UTF-8 text,
+ * so they cannot be confused with uncompressed JSON. Instances from before LZ4
+ * and Zstd were supported cannot read such values, so only switch away from
+ * GZIP once every instance sharing the cache has been upgraded.
+ * <p>
+ * Values whose uncompressed size would exceed {@code maxDecompressedBytes}
+ * are rejected with a {@link SerializationException} (read as a cache miss)
+ * instead of being allocated.
+ * <p>
+ * Zstd can use a dictionary trained on sample cache values (see
+ * {@code zstd --train}), which greatly improves the ratio for small,
+ * repetitive JSON payloads. Values written with a dictionary can only be read
+ * by serializers configured with the same dictionary.
  *
  * @param <T> value type
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class CacheCompressionSerializer<T> implements RedisSerializer<T> {
 
-  private static final byte[] COMPRESSION_MARKER = new byte[] { 0x1F, (byte) 0x8B }; // GZIP magic bytes
+  private static final byte[] GZIP_MAGIC = new byte[] { 0x1F, (byte) 0x8B };
+
+  private static final byte HEADER_LZ4 = (byte) 0xF9;
+  private static final byte HEADER_ZSTD = (byte) 0xFA;
+  private static final byte HEADER_ZSTD_DICT = (byte) 0xFB;
+
+  /**
+   * Header byte plus uncompressed length.
+   */
+  private static final int HEADER_LENGTH = 5;
+
+  /**
+   * Default Zstd compression level.
+   */
+  public static final int DEFAULT_ZSTD_LEVEL = 3;
+
+  /**
+   * Default largest uncompressed size of a value that is decompressed.
+   */
+  public static final int DEFAULT_MAX_DECOMPRESSED_BYTES = 16 * 1024 * 1024;
+
+  private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
 
   private final RedisSerializer<T> delegate;
   private final int compressionThreshold;
   private final CacheProperties.CompressionAlgorithm algorithm;
+  private final int zstdLevel;
+  private final int maxDecompressedBytes;
+
+  private final LZ4Compressor lz4Compressor = LZ4.fastCompressor();
+  private final LZ4SafeDecompressor lz4Decompressor = LZ4.safeDecompressor();
+
+  private final ZstdDictCompress zstdDictCompress;
+  private final ZstdDictDecompress zstdDictDecompress;
 
   public CacheCompressionSerializer(RedisSerializer<T> delegate, int compressionThreshold) {
     this(delegate, compressionThreshold, CacheProperties.CompressionAlgorithm.GZIP);
   }
 
+  public CacheCompressionSerializer(RedisSerializer<T> delegate, int compressionThreshold,
+      CacheProperties.CompressionAlgorithm algorithm) {
+    this(delegate, compressionThreshold, algorithm, DEFAULT_ZSTD_LEVEL, null);
+  }
+
+  /**
+   * Create a compressing serializer.
+   *
+   * @param delegate             serializer producing the uncompressed bytes
+   * @param compressionThreshold minimum size (in bytes) to compress
+   * @param algorithm            algorithm used for new values
+   * @param zstdLevel            Zstd compression level
+   * @param zstdDictionary       trained Zstd dictionary (may be null)
+   */
+  public CacheCompressionSerializer(RedisSerializer<T> delegate, int compressionThreshold,
+      CacheProperties.CompressionAlgorithm algorithm, int zstdLevel, byte[] zstdDictionary) {
+    this(delegate, compressionThreshold, algorithm, zstdLevel, zstdDictionary, DEFAULT_MAX_DECOMPRESSED_BYTES);
+  }
+
+  /**
+   * Create a compressing serializer.
+   *
+   * @param delegate             serializer producing the uncompressed bytes
+   * @param compressionThreshold minimum size (in bytes) to compress
+   * @param algorithm            algorithm used for new values
+   * @param zstdLevel            Zstd compression level
+   * @param zstdDictionary       trained Zstd dictionary (may be null)
+   * @param maxDecompressedBytes largest uncompressed size (in bytes) that is
+   *                             decompressed; larger values are rejected
+   */
+  public CacheCompressionSerializer(RedisSerializer<T> delegate, int compressionThreshold,
+      CacheProperties.CompressionAlgorithm algorithm, int zstdLevel, byte[] zstdDictionary,
+      int maxDecompressedBytes) {
+    this.delegate = delegate;
+    this.compressionThreshold = compressionThreshold;
+    this.algorithm = algorithm;
+    this.zstdLevel = zstdLevel;
+    this.maxDecompressedBytes = maxDecompressedBytes;
+    if (zstdDictionary != null && zstdDictionary.length > 0) {
+      this.zstdDictCompress = new ZstdDictCompress(zstdDictionary, zstdLevel);
+      this.zstdDictDecompress = new ZstdDictDecompress(zstdDictionary);
+    } else {
+      this.zstdDictCompress = null;
+      this.zstdDictDecompress = null;
+    }
+  }
+
   @Override
   public byte[] serialize(T value) throws SerializationException {
     if (value == null) {
@@ -52,10 +153,16 @@ public class CacheCompressionSerializer<T> implements RedisSerializer<T> {
     if (serialized.length >= compressionThreshold) {
       try {
         byte[] compressed = compress(serialized);
-        log.debug("Compressed cache value: {} bytes -> {} bytes (ratio: {:.2f}%)",
-            serialized.length, compressed.length, (double) compressed.length / serialized.length * 100);
+        if (compressed.length >= serialized.length) {
+          return serialized;
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Compressed cache value with {}: {} bytes -> {} bytes (ratio: {}%)", algorithm,
+              serialized.length, compressed.length,
+              String.format("%.2f", (double) compressed.length / serialized.length * 100));
+        }
         return compressed;
-      } catch (IOException e) {
+      } catch (IOException | RuntimeException e) {
         log.warn("Failed to compress cache value, storing uncompressed", e);
         return serialized;
       }
@@ -70,14 +177,13 @@ public class CacheCompressionSerializer<T> implements RedisSerializer<T> {
       return delegate.deserialize(null);
     }
 
-    // Check if compressed (starts with GZIP magic bytes)
     if (isCompressed(bytes)) {
       try {
         byte[] decompressed = decompress(bytes);
         log.debug("Decompressed cache value: {} bytes -> {} bytes",
             bytes.length, decompressed.length);
         return delegate.deserialize(decompressed);
-      } catch (IOException e) {
+      } catch (IOException | RuntimeException e) {
         log.warn("Failed to decompress cache value", e);
         throw new SerializationException("Failed to decompress cache value", e);
       }
@@ -87,50 +193,113 @@ public class CacheCompressionSerializer<T> implements RedisSerializer<T> {
   }
 
   /**
-   * Check if bytes are compressed (starts with compression marker).
+   * Check if bytes are compressed (start with a codec header or GZIP magic
+   * bytes).
    */
   private boolean isCompressed(byte[] bytes) {
-    if (bytes.length < COMPRESSION_MARKER.length) {
-      return false;
+    return isGzip(bytes) || (bytes.length >= HEADER_LENGTH && isHeader(bytes[0]));
+  }
+
+  private boolean isGzip(byte[] bytes) {
+    return bytes.length >= GZIP_MAGIC.length && bytes[0] == GZIP_MAGIC[0] && bytes[1] == GZIP_MAGIC[1];
+  }
+
+  private boolean isHeader(byte b) {
+    return b == HEADER_LZ4 || b == HEADER_ZSTD || b == HEADER_ZSTD_DICT;
+  }
+
+  /**
+   * Compress bytes using configured algorithm.
+   */
+  private byte[] compress(byte[] data) throws IOException {
+    return switch (algorithm) {
+      case LZ4 -> compressLz4(data);
+      case ZSTD -> compressZstd(data);
+      default -> compressGzip(data);
+    };
+  }
+
+  /**
+   * Decompress bytes using the algorithm they were written with.
+   */
+  private byte[] decompress(byte[] data) throws IOException {
+    if (isGzip(data)) {
+      return decompressGzip(data);
     }
-    for (int i = 0; i < COMPRESSION_MARKER.length; i++) {
-      if (bytes[i] != COMPRESSION_MARKER[i]) {
-        return false;
+    return switch (data[0]) {
+      case HEADER_LZ4 -> decompressLz4(data);
+      case HEADER_ZSTD -> decompressZstd(data, null);
+      case HEADER_ZSTD_DICT -> {
+        if (zstdDictDecompress == null) {
+          throw new IOException("Value was compressed with a Zstd dictionary, but none is configured");
+        }
+        yield decompressZstd(data, zstdDictDecompress);
+      }
+      default -> throw new IOException("Unknown compression header: " + data[0]);
+    };
+  }
+
+  /**
+   * Compress using LZ4 (block format).
+   */
+  private byte[] compressLz4(byte[] data) {
+    byte[] out = new byte[HEADER_LENGTH + lz4Compressor.maxCompressedLength(data.length)];
+    int length = lz4Compressor.compress(data, 0, data.length, out, HEADER_LENGTH, out.length - HEADER_LENGTH);
+    writeHeader(out, HEADER_LZ4, data.length);
+    return Arrays.copyOf(out, HEADER_LENGTH + length);
+  }
+
+  /**
+   * Decompress using LZ4 (block format).
+   */
+  private byte[] decompressLz4(byte[] data) throws IOException {
+    byte[] out = new byte[readLength(data)];
+    try {
+      int length = lz4Decompressor.decompress(data, HEADER_LENGTH, data.length - HEADER_LENGTH, out, 0);
+      if (length != out.length) {
+        throw new IOException("LZ4 value decompressed to " + length + " bytes, expected " + out.length);
       }
+    } catch (LZ4Exception e) {
+      throw new IOException("Corrupt LZ4 value", e);
     }
-    return true;
+    return out;
   }
 
   /**
-   * Compress bytes using configured algorithm.
+   * Compress using Zstd, with the dictionary if one is configured.
    */
-  private byte[] compress(byte[] data) throws IOException {
-    switch (algorithm) {
-      case GZIP:
-        return compressGzip(data);
-      case LZ4:
-        // TODO: Implement LZ4 compression if library is available
-        log.warn("LZ4 compression not yet implemented, falling back to GZIP");
-        return compressGzip(data);
-      default:
-        return compressGzip(data);
+  private byte[] compressZstd(byte[] data) throws IOException {
+    byte[] out = new byte[HEADER_LENGTH + (int) Zstd.compressBound(data.length)];
+    long length;
+    if (zstdDictCompress != null) {
+      length = Zstd.compressFastDict(out, HEADER_LENGTH, data, 0, data.length, zstdDictCompress);
+      writeHeader(out, HEADER_ZSTD_DICT, data.length);
+    } else {
+      length = Zstd.compressByteArray(out, HEADER_LENGTH, out.length - HEADER_LENGTH,
+          data, 0, data.length, zstdLevel);
+      writeHeader(out, HEADER_ZSTD, data.length);
     }
+    if (Zstd.isError(length)) {
+      throw new IOException("Zstd compression failed: " + Zstd.getErrorName(length));
+    }
+    return Arrays.copyOf(out, HEADER_LENGTH + (int) length);
   }
 
   /**
-   * Decompress bytes using configured algorithm.
+   * Decompress using Zstd.
    */
-  private byte[] decompress(byte[] data) throws IOException {
-    switch (algorithm) {
-      case GZIP:
-        return decompressGzip(data);
-      case LZ4:
-        // TODO: Implement LZ4 decompression if library is available
-        log.warn("LZ4 decompression not yet implemented, falling back to GZIP");
-        return decompressGzip(data);
-      default:
-        return decompressGzip(data);
+  private byte[] decompressZstd(byte[] data, ZstdDictDecompress dictionary) throws IOException {
+    byte[] out = new byte[readLength(data)];
+    long length = dictionary != null
+        ? Zstd.decompressFastDict(out, 0, data, HEADER_LENGTH, data.length - HEADER_LENGTH, dictionary)
+        : Zstd.decompressByteArray(out, 0, out.length, data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+    if (Zstd.isError(length)) {
+      throw new IOException("Zstd decompression failed: " + Zstd.getErrorName(length));
     }
+    if (length != out.length) {
+      throw new IOException("Zstd value decompressed to " + length + " bytes, expected " + out.length);
+    }
+    return out;
   }
 
   /**
@@ -154,9 +323,32 @@ public class CacheCompressionSerializer<T> implements RedisSerializer<T> {
       byte[] buffer = new byte[4096];
       int bytesRead;
       while ((bytesRead = gzis.read(buffer)) != -1) {
+        if (baos.size() + bytesRead > maxDecompressedBytes) {
+          throw new IOException("GZIP value exceeds " + maxDecompressedBytes + " bytes uncompressed");
+        }
         baos.write(buffer, 0, bytesRead);
       }
     }
     return baos.toByteArray();
   }
+
+  private static void writeHeader(byte[] out, byte header, int length) {
+    out[0] = header;
+    out[1] = (byte) (length >>> 24);
+    out[2] = (byte) (length >>> 16);
+    out[3] = (byte) (length >>> 8);
+    out[4] = (byte) length;
+  }
+
+  private int readLength(byte[] data) throws IOException {
+    int length = ((data[1] & 0xFF) << 24) | ((data[2] & 0xFF) << 16)
+        | ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+    if (length < 0) {
+      throw new IOException("Invalid uncompressed length: " + length);
+    }
+    if (length > maxDecompressedBytes) {
+      throw new IOException("Uncompressed length " + length + " exceeds " + maxDecompressedBytes + " bytes");
+    }
+    return length;
+  }
 }
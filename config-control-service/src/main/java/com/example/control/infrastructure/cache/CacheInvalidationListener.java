@@ -10,6 +10,7 @@ import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * Redis pub/sub listener for cache invalidation events.
@@ -19,6 +20,11 @@ import java.nio.charset.StandardCharsets;
  * <p>
  * This ensures that when one instance updates the cache, all other instances
  * are notified to invalidate their local cache, maintaining consistency.
+ * <p>
+ * Multi-key messages (see {@link BatchingCacheInvalidationPublisher}) are
+ * applied in one pass. For two-level caches only L1 is evicted: L2 was already
+ * updated by the sender, and evicting through the composite cache would
+ * publish the invalidation again.
  *
  * @since 1.0.0
  */
@@ -36,8 +42,9 @@ public class CacheInvalidationListener implements MessageListener {
       String json = new String(message.getBody(), StandardCharsets.UTF_8);
       CacheInvalidationMessage invalidationMessage = objectMapper.readValue(json, CacheInvalidationMessage.class);
 
-      log.debug("Received cache invalidation: cache={}, key={}, pattern={}",
-          invalidationMessage.cacheName(), invalidationMessage.key(), invalidationMessage.pattern());
+      log.debug("Received cache invalidation: cache={}, key={}, keys={}, pattern={}",
+          invalidationMessage.cacheName(), invalidationMessage.key(), invalidationMessage.keyCount(),
+          invalidationMessage.pattern());
 
       Cache cache = cacheManager.getCache(invalidationMessage.cacheName());
       if (cache == null) {
@@ -45,19 +52,23 @@ public class CacheInvalidationListener implements MessageListener {
         return;
       }
 
-      // For TwoLevelCacheManager, evicting from the composite cache will evict L1
       if (invalidationMessage.pattern()) {
         // Pattern-based invalidation - clear all entries (for now)
         // TODO: Implement pattern matching if needed
         log.debug("Pattern-based invalidation for cache: {}, clearing all", invalidationMessage.cacheName());
-        cache.clear();
+        clear(cache);
+      } else if (invalidationMessage.keys() != null) {
+        // Multi-key invalidation
+        evict(cache, invalidationMessage.keys());
+        log.debug("Evicted {} keys from cache: {}", invalidationMessage.keys().size(),
+            invalidationMessage.cacheName());
       } else if (invalidationMessage.key() == null) {
         // Clear all entries
-        cache.clear();
+        clear(cache);
         log.debug("Cleared all entries in cache: {}", invalidationMessage.cacheName());
       } else {
         // Exact key invalidation
-        cache.evict(invalidationMessage.key());
+        evict(cache, List.of(invalidationMessage.key()));
         log.debug("Evicted key: {} from cache: {}", invalidationMessage.key(), invalidationMessage.cacheName());
       }
 
@@ -65,4 +76,21 @@ public class CacheInvalidationListener implements MessageListener {
       log.error("Failed to process cache invalidation message", e);
     }
   }
+
+  private void evict(Cache cache, List<String> keys) {
+    // Transaction-aware wrappers expose the two-level cache as their native cache
+    if (cache.getNativeCache() instanceof TwoLevelCacheManager.TwoLevelCache twoLevelCache) {
+      twoLevelCache.evictLocal(keys);
+    } else {
+      keys.forEach(cache::evict);
+    }
+  }
+
+  private void clear(Cache cache) {
+    if (cache.getNativeCache() instanceof TwoLevelCacheManager.TwoLevelCache twoLevelCache) {
+      twoLevelCache.clearLocal();
+    } else {
+      cache.clear();
+    }
+  }
 }
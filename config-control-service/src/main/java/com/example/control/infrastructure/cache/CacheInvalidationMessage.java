@@ -1,8 +1,14 @@
 package com.example.control.infrastructure.cache;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * Message DTO for cache invalidation events published via Redis pub/sub.
  * <p>
@@ -13,13 +19,18 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * @param cacheName the cache name (e.g., "service-instances", "iam-users")
  * @param key       the cache key to invalidate (may be null for pattern-based
  *                  invalidation)
+ * @param keys      cache keys to invalidate in one message (null unless the
+ *                  message was batched)
  * @param pattern   if true, key is treated as a pattern; if false, exact key
  *                  match
  * @since 1.0.0
  */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 public record CacheInvalidationMessage(
     String cacheName,
     String key,
+    List<String> keys,
     boolean pattern) {
   /**
    * Create a message for exact key invalidation.
@@ -28,12 +39,21 @@ public record CacheInvalidationMessage(
   public CacheInvalidationMessage(
       @JsonProperty("cacheName") String cacheName,
       @JsonProperty("key") String key,
+      @JsonProperty("keys") List<String> keys,
       @JsonProperty("pattern") boolean pattern) {
     this.cacheName = cacheName;
     this.key = key;
+    this.keys = keys;
     this.pattern = pattern;
   }
 
+  /**
+   * Create a single-key or pattern message.
+   */
+  public CacheInvalidationMessage(String cacheName, String key, boolean pattern) {
+    this(cacheName, key, null, pattern);
+  }
+
   /**
    * Create a message for exact key invalidation.
    */
@@ -41,6 +61,13 @@ public record CacheInvalidationMessage(
     return new CacheInvalidationMessage(cacheName, key, false);
   }
 
+  /**
+   * Create a message for exact invalidation of several keys.
+   */
+  public static CacheInvalidationMessage exactKeys(String cacheName, Collection<String> keys) {
+    return new CacheInvalidationMessage(cacheName, null, List.copyOf(keys), false);
+  }
+
   /**
    * Create a message for pattern-based invalidation.
    */
@@ -54,4 +81,16 @@ public record CacheInvalidationMessage(
   public static CacheInvalidationMessage clearAll(String cacheName) {
     return new CacheInvalidationMessage(cacheName, null, false);
   }
+
+  /**
+   * Number of keys invalidated by this message (0 for clear-all and pattern
+   * messages).
+   */
+  @JsonIgnore
+  public int keyCount() {
+    if (keys != null) {
+      return keys.size();
+    }
+    return key != null && !pattern ? 1 : 0;
+  }
 }
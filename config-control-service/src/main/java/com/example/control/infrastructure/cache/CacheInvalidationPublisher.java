@@ -2,10 +2,18 @@ package com.example.control.infrastructure.cache;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,7 +22,12 @@ import java.util.Optional;
  * Publishes invalidation messages to Redis channel so that all instances
  * can invalidate their local L1 cache (Caffeine) when L2 cache (Redis) is
  * updated.
+ * <p>
+ * Published messages are counted ({@code cache.custom.invalidation.messages})
+ * together with the number of keys each one carries
+ * ({@code cache.custom.invalidation.keys_per_message}).
  *
+ * @see BatchingCacheInvalidationPublisher
  * @since 1.0.0
  */
 @Slf4j
@@ -22,17 +35,37 @@ import java.util.Optional;
 public class CacheInvalidationPublisher {
 
   private static final String CHANNEL = "cache:invalidation";
+  private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
 
   private final Optional<RedisTemplate<String, String>> redisTemplate;
   private final ObjectMapper objectMapper;
+  private final Counter publishedMessages;
+  private final DistributionSummary keysPerMessage;
 
   /**
    * Constructor that accepts nullable RedisTemplate (for environments without
-   * Redis).
+   * Redis) and a meter registry for publication metrics (may be null).
    */
-  public CacheInvalidationPublisher(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+  public CacheInvalidationPublisher(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper,
+      MeterRegistry meterRegistry) {
     this.redisTemplate = Optional.ofNullable(redisTemplate);
     this.objectMapper = objectMapper;
+
+    MeterRegistry registry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+    this.publishedMessages = Counter.builder("cache.custom.invalidation.messages")
+        .description("Cache invalidation messages published")
+        .register(registry);
+    this.keysPerMessage = DistributionSummary.builder("cache.custom.invalidation.keys_per_message")
+        .description("Keys invalidated per published message (0 for clear-all and pattern messages)")
+        .register(registry);
+  }
+
+  /**
+   * Constructor that accepts nullable RedisTemplate (for environments without
+   * Redis).
+   */
+  public CacheInvalidationPublisher(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+    this(redisTemplate, objectMapper, null);
   }
 
   /**
@@ -49,8 +82,9 @@ public class CacheInvalidationPublisher {
     try {
       String json = objectMapper.writeValueAsString(message);
       redisTemplate.get().convertAndSend(CHANNEL, json);
-      log.debug("Published cache invalidation: cache={}, key={}, pattern={}",
-          message.cacheName(), message.key(), message.pattern());
+      recordPublished(message);
+      log.debug("Published cache invalidation: cache={}, key={}, keys={}, pattern={}",
+          message.cacheName(), message.key(), message.keyCount(), message.pattern());
     } catch (JsonProcessingException e) {
       log.error("Failed to serialize cache invalidation message: {}", message, e);
     } catch (Exception e) {
@@ -58,6 +92,46 @@ public class CacheInvalidationPublisher {
     }
   }
 
+  /**
+   * Publish several invalidation messages in one pipelined round trip.
+   *
+   * @param messages the invalidation messages
+   */
+  public void publishAll(List<CacheInvalidationMessage> messages) {
+    if (messages.size() <= 1) {
+      messages.forEach(this::publish);
+      return;
+    }
+    if (redisTemplate.isEmpty()) {
+      log.debug("Redis template not available, skipping cache invalidation publication");
+      return;
+    }
+
+    List<byte[]> payloads = new ArrayList<>(messages.size());
+    List<CacheInvalidationMessage> serialized = new ArrayList<>(messages.size());
+    for (CacheInvalidationMessage message : messages) {
+      try {
+        payloads.add(objectMapper.writeValueAsBytes(message));
+        serialized.add(message);
+      } catch (JsonProcessingException e) {
+        log.error("Failed to serialize cache invalidation message: {}", message, e);
+      }
+    }
+
+    try {
+      redisTemplate.get().executePipelined((RedisCallback<Object>) connection -> {
+        for (byte[] payload : payloads) {
+          connection.publish(CHANNEL_BYTES, payload);
+        }
+        return null;
+      });
+      serialized.forEach(this::recordPublished);
+      log.debug("Published {} cache invalidation messages in one pipeline", serialized.size());
+    } catch (Exception e) {
+      log.error("Failed to publish {} cache invalidation messages", serialized.size(), e);
+    }
+  }
+
   /**
    * Publish invalidation for a specific cache key.
    */
@@ -78,4 +152,9 @@ public class CacheInvalidationPublisher {
   public void clearAll(String cacheName) {
     publish(CacheInvalidationMessage.clearAll(cacheName));
   }
+
+  private void recordPublished(CacheInvalidationMessage message) {
+    publishedMessages.increment();
+    keysPerMessage.record(message.keyCount());
+  }
 }
@@ -68,6 +68,9 @@ public class CacheMetrics {
   // Cached error counters per cache and error type
   private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
 
+  // Cached early refresh counters per cache and mode
+  private final Map<String, Counter> earlyRefreshCounters = new ConcurrentHashMap<>();
+
   // Initialization flag to prevent duplicate initialization
   private final AtomicBoolean initialized = new AtomicBoolean(false);
 
@@ -271,4 +274,24 @@ public class CacheMetrics {
 
     counter.increment();
   }
-}
\ No newline at end of file
+
+  /**
+   * Record an early (refresh-ahead) refresh of a cache entry.
+   *
+   * @param cacheName  the cache name
+   * @param background {@code true} if the entry is reloaded in the background
+   *                   while the stale value is served, {@code false} if the
+   *                   caller reloads it
+   */
+  public void recordEarlyRefresh(String cacheName, boolean background) {
+    String mode = background ? "background" : "caller";
+    Counter counter = earlyRefreshCounters.computeIfAbsent(cacheName + ":" + mode,
+        key -> Counter.builder(METRIC_PREFIX + ".refresh_ahead.total")
+            .description("Cache entries refreshed before expiring")
+            .tag(CACHE_TAG, cacheName)
+            .tag("mode", mode)
+            .register(meterRegistry));
+
+    counter.increment();
+  }
+}
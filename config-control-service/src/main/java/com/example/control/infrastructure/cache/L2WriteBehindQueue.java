@@ -0,0 +1,360 @@
+package com.example.control.infrastructure.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded write-behind queue for L2 (Redis) writes of two-level caches.
+ * <p>
+ * With {@code app.cache.two-level.write-behind} enabled, {@code TwoLevelCache}
+ * updates L1 on the calling thread and hands the L2 put or evict (and the
+ * invalidation that follows it) to this queue:
+ * <ul>
+ * <li>Pending writes are coalesced per cache and key; only the latest put or
+ * evict of a key is written, followed by one invalidation if any of the
+ * coalesced writes requested it</li>
+ * <li>A single virtual-thread worker drains the queue in batches of
+ * {@code write-behind-batch-size}, at least every
+ * {@code write-behind-max-delay} or as soon as a full batch is pending</li>
+ * <li>Each write still goes through {@link CacheOperationExecutor} (retry and
+ * circuit breaker), but off the request thread</li>
+ * <li>When {@code write-behind-capacity} distinct keys are pending, new keys
+ * are rejected and the caller writes synchronously</li>
+ * <li>The worker takes a write off the queue and writes it while holding the
+ * key's lock (and its cache's read lock); {@link #discard} takes the same
+ * locks, so a write already being drained completes before a synchronous
+ * evict or clear that follows the discard, and cannot overwrite it</li>
+ * </ul>
+ * Until a write is drained, other instances may read the previous L2 value.
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+public class L2WriteBehindQueue implements AutoCloseable {
+
+  private static final String METRIC_PREFIX = "cache.custom.l2.write_behind";
+  private static final int KEY_LOCK_STRIPES = 64;
+
+  private final CacheOperationExecutor cacheOperationExecutor;
+  private final CacheInvalidationPublisher invalidationPublisher;
+  private final int capacity;
+  private final int batchSize;
+  private final long maxDelayNanos;
+
+  /**
+   * Latest pending write per cache and key.
+   */
+  private final ConcurrentHashMap<PendingKey, PendingWrite> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Keys in the order they became pending. A key is added once per pending
+   * entry; keys of discarded entries are skipped by the worker.
+   */
+  private final ConcurrentLinkedQueue<PendingKey> order = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger depth = new AtomicInteger();
+
+  /**
+   * Striped per-key locks serializing the worker's write of a key with
+   * {@link #discard(String, Object)}.
+   */
+  private final Lock[] keyLocks = new Lock[KEY_LOCK_STRIPES];
+
+  /**
+   * Per-cache locks: the worker writes under the read lock,
+   * {@link #discard(String)} takes the write lock.
+   */
+  private final ConcurrentHashMap<String, ReentrantReadWriteLock> cacheLocks = new ConcurrentHashMap<>();
+
+  private final Counter coalesced;
+  private final Counter overflow;
+  private final Counter written;
+
+  private final Thread worker;
+  private volatile boolean running = true;
+
+  /**
+   * Create the queue and start its worker.
+   *
+   * @param cacheOperationExecutor resilience wrapper for L2 writes (may be null)
+   * @param invalidationPublisher  publisher for cross-instance invalidation
+   *                               (may be null)
+   * @param meterRegistry          registry for queue metrics (may be null)
+   * @param capacity               maximum number of pending keys
+   * @param batchSize              maximum number of writes per batch
+   * @param maxDelay               maximum time a write waits for a batch
+   */
+  public L2WriteBehindQueue(CacheOperationExecutor cacheOperationExecutor,
+      CacheInvalidationPublisher invalidationPublisher, MeterRegistry meterRegistry,
+      int capacity, int batchSize, Duration maxDelay) {
+    this.cacheOperationExecutor = cacheOperationExecutor;
+    this.invalidationPublisher = invalidationPublisher;
+    this.capacity = capacity;
+    this.batchSize = batchSize;
+    this.maxDelayNanos = maxDelay.toNanos();
+    for (int i = 0; i < keyLocks.length; i++) {
+      keyLocks[i] = new ReentrantLock();
+    }
+
+    MeterRegistry registry = meterRegistry != null ? meterRegistry : new SimpleMeterRegistry();
+    Gauge.builder(METRIC_PREFIX + ".depth", depth, AtomicInteger::get)
+        .description("L2 writes waiting in the write-behind queue")
+        .register(registry);
+    this.coalesced = Counter.builder(METRIC_PREFIX + ".coalesced")
+        .description("L2 writes replaced by a later write of the same key before being drained")
+        .register(registry);
+    this.overflow = Counter.builder(METRIC_PREFIX + ".overflow")
+        .description("L2 writes performed synchronously because the write-behind queue was full")
+        .register(registry);
+    this.written = Counter.builder(METRIC_PREFIX + ".written")
+        .description("L2 writes drained by the write-behind worker")
+        .register(registry);
+
+    this.worker = Thread.ofVirtual().name("cache-l2-write-behind").start(this::run);
+  }
+
+  /**
+   * Queue an L2 put.
+   *
+   * @param cacheName cache name
+   * @param l2Cache   L2 cache to write to
+   * @param key       cache key
+   * @param value     value to cache
+   * @param publish   whether to publish an invalidation after the write
+   * @return {@code false} if the queue is full or closed; the caller must then
+   *         write synchronously
+   */
+  public boolean offerPut(String cacheName, Cache l2Cache, Object key, Object value, boolean publish) {
+    return offer(new PendingKey(cacheName, key), new PendingWrite(cacheName, l2Cache, key, value, false, publish));
+  }
+
+  /**
+   * Queue an L2 evict, replacing a pending put of the same key.
+   *
+   * @param cacheName cache name
+   * @param l2Cache   L2 cache to evict from
+   * @param key       cache key
+   * @param publish   whether to publish an invalidation after the evict
+   * @return {@code false} if the queue is full or closed; the caller must then
+   *         evict synchronously
+   */
+  public boolean offerEvict(String cacheName, Cache l2Cache, Object key, boolean publish) {
+    return offer(new PendingKey(cacheName, key), new PendingWrite(cacheName, l2Cache, key, null, true, publish));
+  }
+
+  /**
+   * Drop the pending write of a key, before it is written synchronously.
+   * Waits for a write of the key that the worker is performing, so it cannot
+   * land after the synchronous one.
+   *
+   * @param cacheName cache name
+   * @param key       cache key
+   */
+  public void discard(String cacheName, Object key) {
+    PendingKey pendingKey = new PendingKey(cacheName, key);
+    Lock lock = keyLock(pendingKey);
+    lock.lock();
+    try {
+      if (pending.remove(pendingKey) != null) {
+        depth.decrementAndGet();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Drop all pending writes of a cache, before it is cleared. Waits for writes
+   * of the cache that the worker is performing.
+   *
+   * @param cacheName cache name
+   */
+  public void discard(String cacheName) {
+    Lock lock = cacheLock(cacheName).writeLock();
+    lock.lock();
+    try {
+      for (PendingKey key : pending.keySet()) {
+        if (key.cacheName().equals(cacheName) && pending.remove(key) != null) {
+          depth.decrementAndGet();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Number of pending writes.
+   *
+   * @return queue depth
+   */
+  public int depth() {
+    return depth.get();
+  }
+
+  /**
+   * Stop the worker after draining the pending writes.
+   */
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(worker);
+    try {
+      worker.join(Duration.ofSeconds(10));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (depth.get() > 0) {
+      log.warn("L2 write-behind queue closed with {} pending writes", depth.get());
+    }
+  }
+
+  private boolean offer(PendingKey key, PendingWrite write) {
+    if (!running) {
+      return false;
+    }
+
+    boolean[] added = new boolean[1];
+    boolean[] replaced = new boolean[1];
+    pending.compute(key, (k, previous) -> {
+      if (previous != null) {
+        replaced[0] = true;
+        // Keep an invalidation requested by the replaced write
+        return previous.publish() && !write.publish() ? write.withPublish() : write;
+      }
+      if (depth.get() >= capacity) {
+        return null;
+      }
+      depth.incrementAndGet();
+      added[0] = true;
+      return write;
+    });
+
+    if (replaced[0]) {
+      coalesced.increment();
+      return true;
+    }
+    if (!added[0]) {
+      overflow.increment();
+      return false;
+    }
+
+    order.offer(key);
+    if (depth.get() >= batchSize) {
+      LockSupport.unpark(worker);
+    }
+    return true;
+  }
+
+  private void run() {
+    while (running) {
+      if (depth.get() < batchSize) {
+        LockSupport.parkNanos(maxDelayNanos);
+      }
+      drain();
+    }
+    drain();
+  }
+
+  private void drain() {
+    while (true) {
+      int polled = 0;
+      int drained = 0;
+      PendingKey key;
+      while (polled < batchSize && (key = order.poll()) != null) {
+        polled++;
+        if (write(key)) {
+          drained++;
+        }
+      }
+      if (polled == 0) {
+        return;
+      }
+      log.debug("Drained {} write-behind L2 writes", drained);
+    }
+  }
+
+  /**
+   * Take the pending write of a key and perform it, under the key and cache
+   * locks.
+   *
+   * @return {@code false} if the write was discarded or replaced and drained
+   *         already
+   */
+  private boolean write(PendingKey key) {
+    PendingWrite write;
+    boolean succeeded = false;
+    Lock cacheLock = cacheLock(key.cacheName()).readLock();
+    Lock keyLock = keyLock(key);
+    cacheLock.lock();
+    keyLock.lock();
+    try {
+      write = pending.remove(key);
+      if (write == null) {
+        return false;
+      }
+      depth.decrementAndGet();
+
+      Runnable operation = write.evict()
+          ? () -> write.l2Cache().evict(write.key())
+          : () -> write.l2Cache().put(write.key(), write.value());
+      try {
+        if (cacheOperationExecutor != null) {
+          cacheOperationExecutor.executeVoid(write.cacheName(), operation);
+        } else {
+          operation.run();
+        }
+        written.increment();
+        succeeded = true;
+      } catch (Exception e) {
+        log.error("Write-behind L2 write failed for cache: {}, key: {}", write.cacheName(), write.key(), e);
+      }
+    } finally {
+      keyLock.unlock();
+      cacheLock.unlock();
+    }
+
+    if (succeeded && write.publish() && invalidationPublisher != null) {
+      try {
+        invalidationPublisher.invalidate(write.cacheName(), write.key().toString());
+      } catch (Exception e) {
+        log.error("Write-behind invalidation failed for cache: {}, key: {}", write.cacheName(), write.key(), e);
+      }
+    }
+    return true;
+  }
+
+  private Lock keyLock(PendingKey key) {
+    return keyLocks[Math.floorMod(key.hashCode(), keyLocks.length)];
+  }
+
+  private ReentrantReadWriteLock cacheLock(String cacheName) {
+    return cacheLocks.computeIfAbsent(cacheName, name -> new ReentrantReadWriteLock());
+  }
+
+  private record PendingKey(String cacheName, Object key) {
+  }
+
+  private record PendingWrite(String cacheName, Cache l2Cache, Object key, Object value,
+      boolean evict, boolean publish) {
+
+    PendingWrite withPublish() {
+      return new PendingWrite(cacheName, l2Cache, key, value, evict, true);
+    }
+  }
+}
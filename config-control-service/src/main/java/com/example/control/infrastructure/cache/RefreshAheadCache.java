@@ -0,0 +1,320 @@
+package com.example.control.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link Cache} decorator that refreshes hot entries shortly before they
+ * expire, using probabilistic early expiration (XFetch).
+ * <p>
+ * Entries written together otherwise expire together, and every caller of the
+ * next moment misses and reloads from the source. Instead, each hit rolls
+ * whether the entry counts as expired already:
+ *
+ * <pre>
+ *   now + delta * beta * -ln(random()) &gt;= writtenAt + ttl
+ * </pre>
+ *
+ * where {@code delta} is how long the last load took. The closer the expiry
+ * and the slower the load, the likelier an early refresh. Only one refresh per
+ * entry runs at a time; everyone else keeps getting the current value:
+ * <ul>
+ * <li>{@link #get(Object, Callable)} (e.g. {@code @Cacheable(sync = true)})
+ * returns the current value and reloads it on a virtual thread with the
+ * caller's loader</li>
+ * <li>{@link #get(Object)} (plain {@code @Cacheable}) reports a miss to the
+ * one caller that wins, which reloads and puts the value</li>
+ * </ul>
+ * {@link #get(Object, Class)} is a plain lookup used by callers that only peek
+ * at the cache and never put; it neither claims refreshes nor measures loads.
+ * Load times are measured from a miss to the following {@code put} of the same
+ * key on the same thread, or around the loader. Entries whose load time is
+ * unknown expire normally.
+ * <p>
+ * A claim is released when the refresh writes the entry, when a background
+ * refresh or the caller's put fails, when the claiming thread uses the cache
+ * again without having written the key (its reload failed or was not cached),
+ * and at the latest after {@link #CLAIM_TIMEOUT_LOADS} load times.
+ *
+ * @since 1.0.0
+ */
+@Slf4j
+public class RefreshAheadCache implements Cache {
+
+  /**
+   * Load times after which an unreleased refresh claim lapses.
+   */
+  static final int CLAIM_TIMEOUT_LOADS = 10;
+
+  private static final long MIN_CLAIM_TIMEOUT_NANOS = Duration.ofSeconds(1).toNanos();
+
+  private final Cache delegate;
+  private final long ttlNanos;
+  private final double beta;
+  private final CacheMetrics cacheMetrics;
+
+  /**
+   * Write time and load time per key, bounded like the cache itself.
+   */
+  private final com.github.benmanes.caffeine.cache.Cache<Object, Stamp> stamps;
+
+  /**
+   * Key and start time of the last miss on the current thread, until the
+   * matching put or the thread's next use of the cache.
+   */
+  private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+  /**
+   * Create a refresh-ahead decorator.
+   *
+   * @param delegate     the cache to decorate
+   * @param ttl          time after which entries of {@code delegate} expire
+   * @param beta         XFetch beta; values above 1 refresh earlier, below 1
+   *                     later
+   * @param maximumSize  maximum number of tracked entries
+   * @param cacheMetrics cache metrics (may be null)
+   */
+  public RefreshAheadCache(Cache delegate, Duration ttl, double beta, long maximumSize, CacheMetrics cacheMetrics) {
+    this.delegate = delegate;
+    this.ttlNanos = ttl.toNanos();
+    this.beta = beta;
+    this.cacheMetrics = cacheMetrics;
+    this.stamps = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    // A miss this thread did not follow with a put: its reload failed or was not cached
+    abandonPendingLoad();
+
+    ValueWrapper value = delegate.get(key);
+    if (value == null) {
+      pendingLoad.set(new PendingLoad(key, System.nanoTime(), null));
+      return null;
+    }
+
+    Stamp claim = claimEarlyRefresh(key);
+    if (claim != null) {
+      log.debug("Early refresh of key: {} in cache: {} by caller", key, getName());
+      recordEarlyRefresh(false);
+      pendingLoad.set(new PendingLoad(key, System.nanoTime(), claim));
+      return null;
+    }
+    return value;
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    abandonPendingLoad();
+
+    ValueWrapper value = delegate.get(key);
+    if (value != null) {
+      Stamp claim = claimEarlyRefresh(key);
+      if (claim != null) {
+        refreshInBackground(key, valueLoader, claim);
+      }
+      @SuppressWarnings("unchecked")
+      T result = (T) value.get();
+      return result;
+    }
+
+    long start = System.nanoTime();
+    T result = delegate.get(key, valueLoader);
+    stamp(key, System.nanoTime() - start);
+    return result;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    try {
+      delegate.put(key, value);
+      stamp(key, measuredLoadTime(key));
+    } finally {
+      abandonPendingLoad();
+    }
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    try {
+      ValueWrapper existing = delegate.putIfAbsent(key, value);
+      if (existing == null) {
+        stamp(key, measuredLoadTime(key));
+      }
+      return existing;
+    } finally {
+      abandonPendingLoad();
+    }
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+    stamps.invalidate(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    stamps.invalidate(key);
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    stamps.invalidateAll();
+  }
+
+  @Override
+  public boolean invalidate() {
+    stamps.invalidateAll();
+    return delegate.invalidate();
+  }
+
+  /**
+   * Decide whether this hit refreshes the entry and, if so, claim the refresh
+   * so no other caller starts one. The claim lasts until the entry is written
+   * again, the claim is released or lapses, or the stamp expires.
+   *
+   * @return the claimed stamp, or null if this hit does not refresh
+   */
+  private Stamp claimEarlyRefresh(Object key) {
+    long now = System.nanoTime();
+    Stamp stamp = stamps.getIfPresent(key);
+    if (stamp == null || stamp.isClaimed(now) || stamp.loadNanos() <= 0) {
+      return null;
+    }
+
+    double headroom = stamp.loadNanos() * beta * -Math.log(ThreadLocalRandom.current().nextDouble());
+    if (now + headroom < stamp.writtenAt() + ttlNanos) {
+      return null;
+    }
+
+    Stamp[] claimed = new Stamp[1];
+    stamps.asMap().computeIfPresent(key, (k, current) -> {
+      if (current.isClaimed(now)) {
+        return current;
+      }
+      claimed[0] = new Stamp(current.writtenAt(), current.loadNanos(), true, now);
+      return claimed[0];
+    });
+    return claimed[0];
+  }
+
+  /**
+   * Release a refresh claim that did not rewrite the entry. Does nothing if
+   * the entry was rewritten or claimed again since.
+   */
+  private void releaseClaim(Object key, Stamp claim) {
+    stamps.asMap().computeIfPresent(key, (k, current) -> current.equals(claim)
+        ? new Stamp(current.writtenAt(), current.loadNanos(), false, 0)
+        : current);
+  }
+
+  private <T> void refreshInBackground(Object key, Callable<T> valueLoader, Stamp claim) {
+    log.debug("Early refresh of key: {} in cache: {} in background", key, getName());
+    recordEarlyRefresh(true);
+    Thread.ofVirtual().name("cache-refresh-ahead").start(() -> {
+      long start = System.nanoTime();
+      boolean stored = false;
+      try {
+        T value = valueLoader.call();
+        delegate.put(key, value);
+        stamp(key, System.nanoTime() - start);
+        stored = true;
+      } catch (Exception e) {
+        log.warn("Early refresh failed for key: {} in cache: {}", key, getName(), e);
+      } finally {
+        if (!stored) {
+          releaseClaim(key, claim);
+        }
+      }
+    });
+  }
+
+  /**
+   * Time since the last miss of {@code key} on this thread, or 0 if the put
+   * does not follow a miss.
+   */
+  private long measuredLoadTime(Object key) {
+    PendingLoad load = pendingLoad.get();
+    if (load == null || !Objects.equals(load.key(), key)) {
+      return 0;
+    }
+    pendingLoad.remove();
+    long elapsed = System.nanoTime() - load.startedAt();
+    return elapsed < ttlNanos ? elapsed : 0;
+  }
+
+  /**
+   * Drop this thread's pending miss and release the refresh claim it holds.
+   */
+  private void abandonPendingLoad() {
+    PendingLoad load = pendingLoad.get();
+    if (load == null) {
+      return;
+    }
+    pendingLoad.remove();
+    if (load.claim() != null) {
+      releaseClaim(load.key(), load.claim());
+    }
+  }
+
+  private void stamp(Object key, long loadNanos) {
+    long now = System.nanoTime();
+    stamps.asMap().compute(key, (k, previous) -> new Stamp(now,
+        loadNanos > 0 || previous == null ? loadNanos : previous.loadNanos(), false, 0));
+  }
+
+  private void recordEarlyRefresh(boolean background) {
+    if (cacheMetrics != null) {
+      cacheMetrics.recordEarlyRefresh(getName(), background);
+    }
+  }
+
+  /**
+   * When an entry was written, how long loading it took, and whether (and
+   * since when) an early refresh is in progress.
+   */
+  private record Stamp(long writtenAt, long loadNanos, boolean refreshing, long claimedAt) {
+
+    /**
+     * Whether a refresh claim is held and has not lapsed.
+     */
+    boolean isClaimed(long now) {
+      return refreshing
+          && now - claimedAt < Math.max(loadNanos * CLAIM_TIMEOUT_LOADS, MIN_CLAIM_TIMEOUT_NANOS);
+    }
+  }
+
+  /**
+   * A miss waiting for the matching put, with the refresh claim it holds if
+   * it is an early refresh (null otherwise).
+   */
+  private record PendingLoad(Object key, long startedAt, Stamp claim) {
+  }
+}
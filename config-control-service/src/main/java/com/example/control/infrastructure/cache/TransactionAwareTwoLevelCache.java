@@ -22,6 +22,9 @@ import java.util.List;
  * This ensures cache consistency with database transactions - cache is only
  * updated
  * when the transaction successfully commits.
+ * <p>
+ * With an {@link L2WriteBehindQueue}, L2 puts and evicts (immediate or on
+ * commit) are queued rather than written on the calling thread.
  *
  * @since 1.0.0
  */
@@ -31,6 +34,23 @@ public class TransactionAwareTwoLevelCache implements Cache {
   private final Cache delegate;
   private final Cache l2Cache;
   private final String cacheName;
+  private final L2WriteBehindQueue writeBehind;
+
+  /**
+   * Create a transaction-aware wrapper around a two-level cache.
+   *
+   * @param delegate    the underlying two-level cache
+   * @param l2Cache     the L2 cache (Redis) for deferred writes
+   * @param cacheName   cache name for logging
+   * @param writeBehind write-behind queue for L2 puts and evicts (may be null)
+   */
+  public TransactionAwareTwoLevelCache(Cache delegate, Cache l2Cache, String cacheName,
+      L2WriteBehindQueue writeBehind) {
+    this.delegate = delegate;
+    this.l2Cache = l2Cache;
+    this.cacheName = cacheName;
+    this.writeBehind = writeBehind;
+  }
 
   /**
    * Create a transaction-aware wrapper around a two-level cache.
@@ -40,9 +60,7 @@ public class TransactionAwareTwoLevelCache implements Cache {
    * @param cacheName cache name for logging
    */
   public TransactionAwareTwoLevelCache(Cache delegate, Cache l2Cache, String cacheName) {
-    this.delegate = delegate;
-    this.l2Cache = l2Cache;
-    this.cacheName = cacheName;
+    this(delegate, l2Cache, cacheName, null);
   }
 
   @Override
@@ -77,11 +95,11 @@ public class TransactionAwareTwoLevelCache implements Cache {
 
     // If L2 exists and transaction is active, defer L2 write
     if (l2Cache != null && TransactionSynchronizationManager.isActualTransactionActive()) {
-      deferL2Write(() -> l2Cache.put(key, value));
+      deferL2Write(() -> putL2(key, value));
       log.debug("Deferred L2 write for key: {} in cache: {}", key, cacheName);
     } else if (l2Cache != null) {
       // No transaction - write to L2 immediately
-      l2Cache.put(key, value);
+      putL2(key, value);
     }
   }
 
@@ -104,10 +122,10 @@ public class TransactionAwareTwoLevelCache implements Cache {
     delegate.evict(key);
 
     if (l2Cache != null && TransactionSynchronizationManager.isActualTransactionActive()) {
-      deferL2Evict(() -> l2Cache.evict(key));
+      deferL2Evict(() -> evictL2(key));
       log.debug("Deferred L2 evict for key: {} in cache: {}", key, cacheName);
     } else if (l2Cache != null) {
-      l2Cache.evict(key);
+      evictL2(key);
     }
   }
 
@@ -151,6 +169,30 @@ public class TransactionAwareTwoLevelCache implements Cache {
     return result;
   }
 
+  /**
+   * Write to L2, through the write-behind queue when it has room.
+   */
+  private void putL2(Object key, Object value) {
+    if (writeBehind == null) {
+      l2Cache.put(key, value);
+    } else if (!writeBehind.offerPut(cacheName, l2Cache, key, value, false)) {
+      writeBehind.discard(cacheName, key);
+      l2Cache.put(key, value);
+    }
+  }
+
+  /**
+   * Evict from L2, through the write-behind queue when it has room.
+   */
+  private void evictL2(Object key) {
+    if (writeBehind == null) {
+      l2Cache.evict(key);
+    } else if (!writeBehind.offerEvict(cacheName, l2Cache, key, false)) {
+      writeBehind.discard(cacheName, key);
+      l2Cache.evict(key);
+    }
+  }
+
   /**
    * Defer L2 write operation until transaction commit.
    */
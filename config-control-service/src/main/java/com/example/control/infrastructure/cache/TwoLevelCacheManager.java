@@ -10,6 +10,8 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 /**
  * Two-level {@link CacheManager} implementation that composes an L1 and an L2
@@ -28,9 +30,14 @@ import java.util.concurrent.Callable;
  * <li>{@link #getCache(String)} returns a composite {@link Cache} that first
  * attempts L1,
  * falls back to L2 on miss, and optionally promotes values from L2 to L1 for
- * faster subsequent access.</li>
+ * faster subsequent access. Composite caches are built once per name and
+ * reused; a provider switch installs a new manager, and
+ * {@link #resetCaches()} rebuilds them after a reconfiguration.</li>
  * <li>Writes go to L1 and—if configured via
- * {@link CacheProperties.TwoLevelConfig#isWriteThrough()}—also to L2.</li>
+ * {@link CacheProperties.TwoLevelConfig#isWriteThrough()}—also to L2, either
+ * synchronously or, with
+ * {@link CacheProperties.TwoLevelConfig#isWriteBehind()}, through the
+ * {@link L2WriteBehindQueue}.</li>
  * <li>When L2 is updated, publishes invalidation events via Redis pub/sub to
  * notify other instances.</li>
  * </ul>
@@ -86,17 +93,54 @@ public class TwoLevelCacheManager implements CacheManager {
     private final CacheMetrics cacheMetrics;
 
     /**
-     * Constructor with invalidation publisher and operation executor support.
+     * Optional write-behind queue for L2 writes (only used when
+     * {@link CacheProperties.TwoLevelConfig#isWriteBehind()} is enabled).
+     */
+    private final L2WriteBehindQueue writeBehindQueue;
+
+    /**
+     * Per-cache single-flight loaders, shared by every composite cache handed
+     * out for the same name (only used when
+     * {@link CacheProperties.TwoLevelConfig#isSingleFlight()} is enabled).
+     */
+    private final ConcurrentHashMap<String, SingleFlight<Object, Object>> singleFlights = new ConcurrentHashMap<>();
+
+    /**
+     * Composite caches by name. Spring's cache interceptor calls
+     * {@link #getCache(String)} on every cached invocation, so the composed
+     * (and possibly transaction-aware) cache is built once and reused.
+     */
+    private final ConcurrentHashMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Optional decorator applied to each composite cache (e.g. refresh-ahead).
+     */
+    private volatile BiFunction<String, Cache, Cache> cacheDecorator;
+
+    /**
+     * Constructor with write-behind support.
      */
     public TwoLevelCacheManager(CacheManager l1CacheManager, CacheManager l2CacheManager,
             CacheProperties.TwoLevelConfig config, CacheInvalidationPublisher invalidationPublisher,
-            CacheOperationExecutor cacheOperationExecutor, CacheMetrics cacheMetrics) {
+            CacheOperationExecutor cacheOperationExecutor, CacheMetrics cacheMetrics,
+            L2WriteBehindQueue writeBehindQueue) {
         this.l1CacheManager = l1CacheManager;
         this.l2CacheManager = l2CacheManager;
         this.config = config;
         this.invalidationPublisher = invalidationPublisher;
         this.cacheOperationExecutor = cacheOperationExecutor;
         this.cacheMetrics = cacheMetrics;
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    /**
+     * Constructor with invalidation publisher and operation executor support.
+     */
+    public TwoLevelCacheManager(CacheManager l1CacheManager, CacheManager l2CacheManager,
+            CacheProperties.TwoLevelConfig config, CacheInvalidationPublisher invalidationPublisher,
+            CacheOperationExecutor cacheOperationExecutor, CacheMetrics cacheMetrics) {
+        this(l1CacheManager, l2CacheManager, config, invalidationPublisher, cacheOperationExecutor, cacheMetrics,
+                null);
     }
 
     /**
@@ -128,6 +172,9 @@ public class TwoLevelCacheManager implements CacheManager {
      * </ol>
      * If the L1 cache cannot be resolved, the method logs a warning and returns the
      * L2 cache as the fallback.
+     * <p>
+     * The composite is created on first use and cached per name; L2-only
+     * fallbacks are not cached, so L1 is retried on the next call.
      *
      * @param name the cache name
      * @return a composite two-level {@link Cache} when L1 is available; otherwise
@@ -135,23 +182,69 @@ public class TwoLevelCacheManager implements CacheManager {
      */
     @Override
     public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+
+        cache = caches.computeIfAbsent(name, this::createCompositeCache);
+        if (cache != null) {
+            return cache;
+        }
+
+        log.warn("L1 cache not found for name: {}", name);
+        return l2CacheManager != null ? l2CacheManager.getCache(name) : null; // Fallback to L2 only
+    }
+
+    /**
+     * Set a decorator applied to each composite cache when it is composed. Must
+     * be set before caches are requested, or followed by {@link #resetCaches()}.
+     *
+     * @param cacheDecorator function of cache name and composite cache returning
+     *                       the cache to hand out
+     */
+    public void setCacheDecorator(BiFunction<String, Cache, Cache> cacheDecorator) {
+        this.cacheDecorator = cacheDecorator;
+    }
+
+    /**
+     * Drops all composite caches so the next {@link #getCache(String)} composes
+     * them again from the underlying managers and the current configuration.
+     * Cached entries live in the underlying managers and are not affected.
+     */
+    public void resetCaches() {
+        caches.clear();
+        log.info("Reset composite two-level caches");
+    }
+
+    /**
+     * Composes the two-level cache for a name.
+     *
+     * @param name the cache name
+     * @return the composite cache, or {@code null} when there is no L1 cache
+     */
+    private Cache createCompositeCache(String name) {
         Cache l1Cache = l1CacheManager.getCache(name);
         Cache l2Cache = l2CacheManager != null ? l2CacheManager.getCache(name) : null;
 
         if (l1Cache == null) {
-            log.warn("L1 cache not found for name: {}", name);
-            return l2Cache; // Fallback to L2 only
+            return null;
         }
 
+        SingleFlight<Object, Object> singleFlight = config.isSingleFlight()
+                ? singleFlights.computeIfAbsent(name, k -> new SingleFlight<>())
+                : null;
+        L2WriteBehindQueue writeBehind = config.isWriteBehind() && l2Cache != null ? writeBehindQueue : null;
         Cache twoLevelCache = new TwoLevelCache(name, l1Cache, l2Cache, config, invalidationPublisher,
-                cacheOperationExecutor, cacheMetrics);
+                cacheOperationExecutor, cacheMetrics, singleFlight, writeBehind);
 
         // Wrap with transaction-aware cache if deferL2Writes is enabled
-        if (config.isDeferL2Writes() && l2Cache != null) {
-            return new TransactionAwareTwoLevelCache(twoLevelCache, l2Cache, name);
-        }
+        Cache compositeCache = config.isDeferL2Writes() && l2Cache != null
+                ? new TransactionAwareTwoLevelCache(twoLevelCache, l2Cache, name, writeBehind)
+                : twoLevelCache;
 
-        return twoLevelCache;
+        BiFunction<String, Cache, Cache> decorator = cacheDecorator;
+        return decorator != null ? decorator.apply(name, compositeCache) : compositeCache;
     }
 
     /**
@@ -183,7 +276,8 @@ public class TwoLevelCacheManager implements CacheManager {
      * <strong>Read path:</strong> try L1 → on miss try L2 → on L2 hit, promote to
      * L1. <br/>
      * <strong>Write path:</strong> write to L1; if {@code writeThrough} is enabled
-     * and L2 is present, also write to L2.
+     * and L2 is present, also write to L2. With write-behind, L2 puts and evicts
+     * are queued and fall back to synchronous writes when the queue is full.
      * <p>
      * Method semantics follow Spring's {@link Cache} contract, including:
      * <ul>
@@ -238,11 +332,23 @@ public class TwoLevelCacheManager implements CacheManager {
         private final CacheMetrics cacheMetrics;
 
         /**
-         * Constructor with invalidation publisher and operation executor support.
+         * Optional single-flight loader coalescing concurrent
+         * {@link #get(Object, Callable)} misses per key.
+         */
+        private final SingleFlight<Object, Object> singleFlight;
+
+        /**
+         * Optional write-behind queue for L2 puts and evicts.
+         */
+        private final L2WriteBehindQueue writeBehind;
+
+        /**
+         * Constructor with single-flight loading and write-behind support.
          */
         public TwoLevelCache(String name, Cache l1Cache, Cache l2Cache,
                 CacheProperties.TwoLevelConfig config, CacheInvalidationPublisher invalidationPublisher,
-                CacheOperationExecutor cacheOperationExecutor, CacheMetrics cacheMetrics) {
+                CacheOperationExecutor cacheOperationExecutor, CacheMetrics cacheMetrics,
+                SingleFlight<Object, Object> singleFlight, L2WriteBehindQueue writeBehind) {
             this.name = name;
             this.l1Cache = l1Cache;
             this.l2Cache = l2Cache;
@@ -250,6 +356,28 @@ public class TwoLevelCacheManager implements CacheManager {
             this.invalidationPublisher = invalidationPublisher;
             this.cacheOperationExecutor = cacheOperationExecutor;
             this.cacheMetrics = cacheMetrics;
+            this.singleFlight = singleFlight;
+            this.writeBehind = writeBehind;
+        }
+
+        /**
+         * Constructor with single-flight loading support.
+         */
+        public TwoLevelCache(String name, Cache l1Cache, Cache l2Cache,
+                CacheProperties.TwoLevelConfig config, CacheInvalidationPublisher invalidationPublisher,
+                CacheOperationExecutor cacheOperationExecutor, CacheMetrics cacheMetrics,
+                SingleFlight<Object, Object> singleFlight) {
+            this(name, l1Cache, l2Cache, config, invalidationPublisher, cacheOperationExecutor, cacheMetrics,
+                    singleFlight, null);
+        }
+
+        /**
+         * Constructor with invalidation publisher and operation executor support.
+         */
+        public TwoLevelCache(String name, Cache l1Cache, Cache l2Cache,
+                CacheProperties.TwoLevelConfig config, CacheInvalidationPublisher invalidationPublisher,
+                CacheOperationExecutor cacheOperationExecutor, CacheMetrics cacheMetrics) {
+            this(name, l1Cache, l2Cache, config, invalidationPublisher, cacheOperationExecutor, cacheMetrics, null);
         }
 
         /**
@@ -394,6 +522,10 @@ public class TwoLevelCacheManager implements CacheManager {
          * Any exception thrown by the provided loader is wrapped in a
          * {@link RuntimeException} here.
          * (Spring's default contract uses {@code Cache.ValueRetrievalException}.)
+         * <p>
+         * With single-flight enabled, concurrent misses for the same key run the
+         * loader once and share its result, so {@code @Cacheable(sync = true)}
+         * gets per-key locking across both tiers.
          *
          * @param key         the cache key
          * @param valueLoader a value supplier invoked when the key is not present
@@ -402,14 +534,37 @@ public class TwoLevelCacheManager implements CacheManager {
          */
         @Override
         public <T> T get(Object key, Callable<T> valueLoader) {
+            // Try to get from cache first
+            ValueWrapper wrapper = get(key);
+            if (wrapper != null) {
+                Object value = wrapper.get();
+                @SuppressWarnings("unchecked")
+                T result = (T) value;
+                return result;
+            }
+
+            if (singleFlight != null) {
+                @SuppressWarnings("unchecked")
+                T result = (T) singleFlight.execute(key, () -> loadAndPut(key, valueLoader));
+                return result;
+            }
+
+            return loadAndPut(key, valueLoader);
+        }
+
+        /**
+         * Loads a value and caches it. Under single-flight, the cache is checked
+         * again first since a load that just finished may have filled it.
+         */
+        private <T> T loadAndPut(Object key, Callable<T> valueLoader) {
             try {
-                // Try to get from cache first
-                ValueWrapper wrapper = get(key);
-                if (wrapper != null) {
-                    Object value = wrapper.get();
-                    @SuppressWarnings("unchecked")
-                    T result = (T) value;
-                    return result;
+                if (singleFlight != null) {
+                    ValueWrapper wrapper = get(key);
+                    if (wrapper != null) {
+                        @SuppressWarnings("unchecked")
+                        T result = (T) wrapper.get();
+                        return result;
+                    }
                 }
 
                 // Load value and cache it
@@ -427,7 +582,9 @@ public class TwoLevelCacheManager implements CacheManager {
          * <p>
          * Always writes to L1. If L2 is present and write-through is enabled via
          * configuration,
-         * also writes to L2 to keep tiers aligned.
+         * also writes to L2 to keep tiers aligned. With write-behind, the L2 write
+         * and the invalidation are queued; when the queue is full they happen
+         * synchronously.
          *
          * @param key   the cache key
          * @param value the value to cache (may be {@code null} depending on cache
@@ -442,6 +599,16 @@ public class TwoLevelCacheManager implements CacheManager {
 
                 // Write to L2 if available and write-through is enabled
                 if (l2Cache != null && config.isWriteThrough()) {
+                    boolean publish = invalidationPublisher != null && config.isInvalidateL1OnL2Update();
+                    if (writeBehind != null) {
+                        if (writeBehind.offerPut(name, l2Cache, key, value, publish)) {
+                            log.debug("Queued L2 write for key: {}", key);
+                            return;
+                        }
+                        // Queue full: let a write of the key being drained finish first
+                        writeBehind.discard(name, key);
+                    }
+
                     if (cacheOperationExecutor != null) {
                         // Use executor for resilience (retry + circuit breaker)
                         cacheOperationExecutor.executeVoid(name, () -> {
@@ -455,7 +622,7 @@ public class TwoLevelCacheManager implements CacheManager {
                     }
 
                     // Publish invalidation event to notify other instances
-                    if (invalidationPublisher != null && config.isInvalidateL1OnL2Update()) {
+                    if (publish) {
                         invalidationPublisher.invalidate(name, key.toString());
                     }
                 }
@@ -538,6 +705,16 @@ public class TwoLevelCacheManager implements CacheManager {
                 log.debug("Evicted from L1 cache for key: {}", key);
 
                 if (l2Cache != null) {
+                    // Queued so that a pending write of the key cannot land after it
+                    if (writeBehind != null) {
+                        if (writeBehind.offerEvict(name, l2Cache, key, invalidationPublisher != null)) {
+                            log.debug("Queued L2 evict for key: {}", key);
+                            return;
+                        }
+                        // Queue full: let a write of the key being drained finish first
+                        writeBehind.discard(name, key);
+                    }
+
                     if (cacheOperationExecutor != null) {
                         cacheOperationExecutor.executeVoid(name, () -> l2Cache.evict(key));
                     } else {
@@ -555,6 +732,36 @@ public class TwoLevelCacheManager implements CacheManager {
             }
         }
 
+        /**
+         * Evict entries from L1 only, without touching L2 or publishing an
+         * invalidation. Used when applying invalidations received from other
+         * instances, which have already updated L2.
+         *
+         * @param keys the keys to evict
+         */
+        public void evictLocal(Collection<?> keys) {
+            for (Object key : keys) {
+                try {
+                    l1Cache.evict(key);
+                } catch (Exception e) {
+                    log.error("Error evicting L1 key: {}", key, e);
+                }
+            }
+            log.debug("Evicted {} keys from L1 cache: {}", keys.size(), name);
+        }
+
+        /**
+         * Clear L1 only, without touching L2 or publishing an invalidation.
+         */
+        public void clearLocal() {
+            try {
+                l1Cache.clear();
+                log.debug("Cleared L1 cache: {}", name);
+            } catch (Exception e) {
+                log.error("Error clearing L1 cache: {}", name, e);
+            }
+        }
+
         /**
          * Evict the entry mapped by {@code key} from both L1 and L2 (if present),
          * returning
@@ -576,6 +783,9 @@ public class TwoLevelCacheManager implements CacheManager {
 
                 // Evict from L2 if available
                 if (l2Cache != null) {
+                    if (writeBehind != null) {
+                        writeBehind.discard(name, key);
+                    }
                     evicted = l2Cache.evictIfPresent(key) || evicted;
                 }
 
@@ -605,6 +815,9 @@ public class TwoLevelCacheManager implements CacheManager {
                 log.debug("Cleared L1 cache: {}", name);
 
                 if (l2Cache != null) {
+                    if (writeBehind != null) {
+                        writeBehind.discard(name);
+                    }
                     l2Cache.clear();
                     log.debug("Cleared L2 cache: {}", name);
 
@@ -636,6 +849,9 @@ public class TwoLevelCacheManager implements CacheManager {
                 boolean result = l1Cache.invalidate();
 
                 if (l2Cache != null) {
+                    if (writeBehind != null) {
+                        writeBehind.discard(name);
+                    }
                     result = l2Cache.invalidate() && result;
                 }
 
@@ -12,9 +12,11 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.core.io.Resource;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -25,6 +27,9 @@ import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -113,19 +118,39 @@ public class CacheManagerFactory {
     private final Optional<CacheMetrics> cacheMetrics;
 
     /**
-     * Constructor with invalidation publisher, operation executor, and metrics
-     * support.
+     * Optional write-behind queue for two-level L2 writes.
+     */
+    private final Optional<L2WriteBehindQueue> writeBehindQueue;
+
+    /**
+     * Constructor with invalidation publisher, operation executor, metrics and
+     * write-behind support.
      */
     public CacheManagerFactory(CacheProperties cacheProperties,
             Optional<RedisConnectionFactory> redisConnectionFactory,
             Optional<CacheInvalidationPublisher> invalidationPublisher,
             Optional<CacheOperationExecutor> cacheOperationExecutor,
-            Optional<CacheMetrics> cacheMetrics) {
+            Optional<CacheMetrics> cacheMetrics,
+            Optional<L2WriteBehindQueue> writeBehindQueue) {
         this.cacheProperties = cacheProperties;
         this.redisConnectionFactory = redisConnectionFactory;
         this.invalidationPublisher = invalidationPublisher;
         this.cacheOperationExecutor = cacheOperationExecutor;
         this.cacheMetrics = cacheMetrics;
+        this.writeBehindQueue = writeBehindQueue;
+    }
+
+    /**
+     * Constructor with invalidation publisher, operation executor, and metrics
+     * support.
+     */
+    public CacheManagerFactory(CacheProperties cacheProperties,
+            Optional<RedisConnectionFactory> redisConnectionFactory,
+            Optional<CacheInvalidationPublisher> invalidationPublisher,
+            Optional<CacheOperationExecutor> cacheOperationExecutor,
+            Optional<CacheMetrics> cacheMetrics) {
+        this(cacheProperties, redisConnectionFactory, invalidationPublisher, cacheOperationExecutor, cacheMetrics,
+                Optional.empty());
     }
 
     /**
@@ -220,11 +245,20 @@ public class CacheManagerFactory {
      * <li>Static cache names via {@link CaffeineCacheManager#setCacheNames}</li>
      * </ul>
      * Note: These policies are global for all configured Caffeine caches managed
-     * here.
+     * here. Caches with refresh-ahead enabled are wrapped in a
+     * {@link RefreshAheadCache}.
      *
      * @return a configured {@link CaffeineCacheManager}
      */
     public CacheManager createCaffeineCacheManager() {
+        return createCaffeineCacheManager(true);
+    }
+
+    /**
+     * Create the Caffeine cache manager, optionally applying refresh-ahead to its
+     * caches (the two-level manager applies it to its composite caches instead).
+     */
+    private CacheManager createCaffeineCacheManager(boolean refreshAhead) {
         log.info("Creating Caffeine cache manager");
 
         CacheProperties.CaffeineConfig config = cacheProperties.getCaffeine();
@@ -238,7 +272,15 @@ public class CacheManagerFactory {
             builder.recordStats();
         }
 
-        CaffeineCacheManager manager = new CaffeineCacheManager();
+        CaffeineCacheManager manager = refreshAhead
+                ? new CaffeineCacheManager() {
+                    @Override
+                    protected Cache adaptCaffeineCache(String name,
+                            com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                        return decorateRefreshAhead(name, super.adaptCaffeineCache(name, cache));
+                    }
+                }
+                : new CaffeineCacheManager();
         manager.setCaffeine(builder);
 
         // Configure cache names (static mode).
@@ -357,10 +399,10 @@ public class CacheManagerFactory {
         RedisSerializer<Object> serializer = baseSerializer;
         CacheProperties.CompressionConfig compressionConfig = cacheProperties.getCompression();
         if (compressionConfig.isEnabled()) {
-            serializer = new CacheCompressionSerializer<>(baseSerializer,
-                    compressionConfig.getThreshold(), compressionConfig.getAlgorithm());
-            log.info("Cache compression enabled: threshold={} bytes, algorithm={}",
-                    compressionConfig.getThreshold(), compressionConfig.getAlgorithm());
+            serializer = createCompressionSerializer(baseSerializer, compressionConfig);
+            log.info("Cache compression enabled: threshold={} bytes, algorithm={}, zstdDictionary={}",
+                    compressionConfig.getThreshold(), compressionConfig.getAlgorithm(),
+                    compressionConfig.getZstdDictionary() != null);
         }
 
         // Default config (value serializer + default TTL). Key serializer can also be
@@ -386,10 +428,8 @@ public class CacheManagerFactory {
 
             // Apply per-cache compression if configured
             if (cacheConfig.getCompression() != null && cacheConfig.getCompression().isEnabled()) {
-                CacheCompressionSerializer<Object> perCacheCompression = new CacheCompressionSerializer<>(
-                        baseSerializer,
-                        cacheConfig.getCompression().getThreshold(),
-                        cacheConfig.getCompression().getAlgorithm());
+                CacheCompressionSerializer<Object> perCacheCompression = createCompressionSerializer(
+                        baseSerializer, cacheConfig.getCompression());
                 specificConfig = specificConfig.serializeValuesWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(perCacheCompression));
                 log.debug("Per-cache compression enabled for cache: {} (threshold: {} bytes)",
@@ -417,6 +457,31 @@ public class CacheManagerFactory {
         return new ResilientRedisCacheManager(redisCacheManager);
     }
 
+    /**
+     * Create a compressing serializer, loading the Zstd dictionary if one is
+     * configured.
+     *
+     * @param baseSerializer    serializer producing the uncompressed bytes
+     * @param compressionConfig compression settings
+     * @return the compressing serializer
+     * @throws IllegalStateException if the configured dictionary cannot be read
+     */
+    private CacheCompressionSerializer<Object> createCompressionSerializer(RedisSerializer<Object> baseSerializer,
+            CacheProperties.CompressionConfig compressionConfig) {
+        byte[] dictionary = null;
+        Resource dictionaryResource = compressionConfig.getZstdDictionary();
+        if (dictionaryResource != null) {
+            try (InputStream in = dictionaryResource.getInputStream()) {
+                dictionary = in.readAllBytes();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read Zstd dictionary: " + dictionaryResource, e);
+            }
+        }
+        return new CacheCompressionSerializer<>(baseSerializer, compressionConfig.getThreshold(),
+                compressionConfig.getAlgorithm(), compressionConfig.getZstdLevel(), dictionary,
+                compressionConfig.getMaxDecompressedBytes());
+    }
+
     /**
      * Create a two-level cache manager (L1: Caffeine; L2: Redis).
      * <p>
@@ -432,7 +497,7 @@ public class CacheManagerFactory {
     public CacheManager createTwoLevelCacheManager() {
         log.info("Creating two-level cache manager");
 
-        CacheManager l1Cache = createCaffeineCacheManager();
+        CacheManager l1Cache = createCaffeineCacheManager(false);
         CacheManager l2Cache = null;
 
         if (redisConnectionFactory.isPresent()) {
@@ -443,10 +508,41 @@ public class CacheManagerFactory {
             }
         }
 
-        return new TwoLevelCacheManager(l1Cache, l2Cache, cacheProperties.getTwoLevel(),
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(l1Cache, l2Cache, cacheProperties.getTwoLevel(),
                 invalidationPublisher.orElse(null),
                 cacheOperationExecutor.orElse(null),
-                cacheMetrics.orElse(null));
+                cacheMetrics.orElse(null),
+                writeBehindQueue.orElse(null));
+        manager.setCacheDecorator(this::decorateRefreshAhead);
+        return manager;
+    }
+
+    /**
+     * Wrap a cache in a {@link RefreshAheadCache} when refresh-ahead is enabled
+     * for its name.
+     * <p>
+     * Entries are considered to expire after the shorter of the Caffeine
+     * {@code expire-after-write} and the cache's {@code ttl}.
+     *
+     * @param name  the cache name
+     * @param cache the cache to decorate
+     * @return the decorated cache, or {@code cache} itself
+     */
+    private Cache decorateRefreshAhead(String name, Cache cache) {
+        CacheProperties.CacheConfig cacheConfig = cacheProperties.getCaches().get(name);
+        if (cache == null || cacheConfig == null || cacheConfig.getRefreshAhead() == null
+                || !cacheConfig.getRefreshAhead().isEnabled()) {
+            return cache;
+        }
+
+        CacheProperties.CaffeineConfig caffeine = cacheProperties.getCaffeine();
+        Duration ttl = cacheConfig.getTtl().compareTo(caffeine.getExpireAfterWrite()) < 0
+                ? cacheConfig.getTtl()
+                : caffeine.getExpireAfterWrite();
+        log.info("Enabling refresh-ahead for cache: {} (ttl={}, beta={})",
+                name, ttl, cacheConfig.getRefreshAhead().getBeta());
+        return new RefreshAheadCache(cache, ttl, cacheConfig.getRefreshAhead().getBeta(),
+                caffeine.getMaximumSize(), cacheMetrics.orElse(null));
     }
 
     /**
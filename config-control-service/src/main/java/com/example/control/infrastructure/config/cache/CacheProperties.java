@@ -1,9 +1,11 @@
 package com.example.control.infrastructure.config.cache;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.Duration;
@@ -224,6 +226,11 @@ public class CacheProperties {
    */
   private EvictionConfig eviction = new EvictionConfig();
 
+  /**
+   * Cross-instance invalidation broadcast configuration.
+   */
+  private InvalidationConfig invalidation = new InvalidationConfig();
+
     /**
      * Initializes default per-cache configurations tailored for the
      * {@code config-control-service}.
@@ -281,15 +288,26 @@ public class CacheProperties {
    * <li>TTL: 30 minutes — configuration digests do not change rapidly under
    * normal conditions. Increased from 10 minutes to reduce Config Server calls.</li>
    * <li>Maximum size: 1,000 — per-service hash footprint.</li>
+   * <li>Refresh-ahead — every heartbeat compares against these hashes.</li>
    * </ul>
    */
   private CacheConfig createConfigHashesConfig() {
     CacheConfig config = new CacheConfig();
     config.setTtl(Duration.ofMinutes(30));
     config.setMaximumSize(1_000L);
+    config.setRefreshAhead(createRefreshAheadConfig());
     return config;
   }
 
+    /**
+     * Build the default refresh-ahead config for hot caches (enabled, beta 1).
+     */
+    private RefreshAheadConfig createRefreshAheadConfig() {
+        RefreshAheadConfig config = new RefreshAheadConfig();
+        config.setEnabled(true);
+        return config;
+    }
+
     /**
      * Build default config for the {@code consul-services} cache.
      * <ul>
@@ -353,12 +371,14 @@ public class CacheProperties {
      * <ul>
      * <li>TTL: 10 minutes — service metadata changes infrequently.</li>
      * <li>Maximum size: 1,000 — supports large service catalogs.</li>
+     * <li>Refresh-ahead — the {@code 'all'} listing is read on every request.</li>
      * </ul>
      */
     private CacheConfig createApplicationServicesConfig() {
         CacheConfig config = new CacheConfig();
         config.setTtl(Duration.ofMinutes(10));
         config.setMaximumSize(1_000L);
+        config.setRefreshAhead(createRefreshAheadConfig());
         return config;
     }
 
@@ -551,6 +571,39 @@ public class CacheProperties {
          * coherent with L2).
          */
         private boolean invalidateL1OnL2Update = true;
+
+        /**
+         * If {@code true}, concurrent {@code get(key, valueLoader)} misses for the
+         * same key (e.g. {@code @Cacheable(sync = true)}) run the loader once and
+         * share its result instead of each loading the value.
+         */
+        private boolean singleFlight = false;
+
+        /**
+         * If {@code true}, write-through L2 puts and evicts (and the invalidations
+         * that follow them) are queued and written by a background worker instead
+         * of on the calling thread; L1 is still updated immediately.
+         */
+        private boolean writeBehind = false;
+
+        /**
+         * Maximum number of distinct keys waiting in the write-behind queue. Writes
+         * of new keys beyond it are performed synchronously.
+         */
+        @Min(1)
+        private int writeBehindCapacity = 10000;
+
+        /**
+         * Maximum number of L2 writes drained per batch.
+         */
+        @Min(1)
+        private int writeBehindBatchSize = 256;
+
+        /**
+         * Maximum time a queued L2 write waits for its batch.
+         */
+        @NotNull
+        private Duration writeBehindMaxDelay = Duration.ofMillis(50);
     }
 
     /**
@@ -652,6 +705,34 @@ public class CacheProperties {
          * compression config.
          */
         private CompressionConfig compression;
+
+        /**
+         * Per-cache refresh-ahead (probabilistic early refresh) configuration. If
+         * not specified, entries expire normally.
+         */
+        private RefreshAheadConfig refreshAhead;
+    }
+
+    /**
+     * Refresh-ahead configuration for a cache served from Caffeine (CAFFEINE
+     * provider or the L1 tier of TWO_LEVEL).
+     * <p>
+     * Hits close to expiry may trigger one early reload of the entry while the
+     * current value keeps being served, so hot entries do not expire for all
+     * callers at once. Entries are considered to expire after the shorter of the
+     * Caffeine {@code expire-after-write} and the cache's {@code ttl}.
+     */
+    @Data
+    public static class RefreshAheadConfig {
+        /**
+         * Enable refresh-ahead for this cache.
+         */
+        private boolean enabled = false;
+
+        /**
+         * XFetch beta: values above 1 refresh earlier, values below 1 later.
+         */
+        private double beta = 1.0;
     }
 
     /**
@@ -708,9 +789,32 @@ public class CacheProperties {
         private int threshold = 1024;
 
         /**
-         * Compression algorithm to use.
+         * Compression algorithm to use for new values. Instances from before
+         * LZ4 and Zstd were supported cannot read LZ4 or ZSTD values, so keep
+         * GZIP until every instance sharing the cache has been upgraded.
          */
         private CompressionAlgorithm algorithm = CompressionAlgorithm.GZIP;
+
+        /**
+         * Zstd compression level (1-22). Higher levels compress better but slower.
+         */
+        @Min(1)
+        @Max(22)
+        private int zstdLevel = 3;
+
+        /**
+         * Optional Zstd dictionary trained on sample cache values (e.g.
+         * {@code classpath:cache/zstd.dict}, created with {@code zstd --train}).
+         * Values written with a dictionary can only be read with the same one.
+         */
+        private Resource zstdDictionary;
+
+        /**
+         * Largest uncompressed size (in bytes) of a cached value. Larger (or
+         * corrupt) values are not decompressed and are treated as a cache miss.
+         */
+        @Min(1)
+        private int maxDecompressedBytes = 16 * 1024 * 1024;
     }
 
     /**
@@ -722,9 +826,14 @@ public class CacheProperties {
          */
         GZIP,
         /**
-         * LZ4 compression (faster, lower compression ratio).
+         * LZ4 compression (fastest, lower compression ratio).
+         */
+        LZ4,
+        /**
+         * Zstd compression (fast, ratio close to or better than GZIP; supports
+         * dictionaries).
          */
-        LZ4
+        ZSTD
     }
 
     /**
@@ -747,4 +856,40 @@ public class CacheProperties {
         @Min(1)
         private int batchThreshold = 50;
     }
+
+    /**
+     * Cross-instance invalidation broadcast configuration.
+     * <p>
+     * With batching enabled, exact-key invalidations are gathered per cache for
+     * up to {@link #batchWindow} (or until {@link #maxBatchKeys} keys are
+     * pending) and published together: as one multi-key message per cache when
+     * {@link #multiKeyMessages} is enabled, otherwise as single-key messages in
+     * one pipelined round trip.
+     */
+    @Data
+    public static class InvalidationConfig {
+        /**
+         * Enable batching of exact-key invalidations.
+         */
+        private boolean batchEnabled = true;
+
+        /**
+         * Maximum time an invalidation waits for its batch.
+         */
+        @NotNull
+        private Duration batchWindow = Duration.ofMillis(5);
+
+        /**
+         * Number of pending keys that triggers an immediate publish.
+         */
+        @Min(1)
+        private int maxBatchKeys = 500;
+
+        /**
+         * Publish a batch as one message with a {@code keys} list. Listeners
+         * from before multi-key messages fail to read them, so enable this only
+         * once every instance has been upgraded.
+         */
+        private boolean multiKeyMessages = false;
+    }
 }
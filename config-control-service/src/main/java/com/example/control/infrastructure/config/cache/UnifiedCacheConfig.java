@@ -7,6 +7,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -155,15 +156,30 @@ public class UnifiedCacheConfig {
     }
 
     /**
-     * Publisher for cache invalidation events via Redis pub/sub.
+     * Publisher for cache invalidation events via Redis pub/sub. Exact-key
+     * invalidations are batched unless
+     * {@code app.cache.invalidation.batch-enabled=false}, and sent as
+     * multi-key messages with {@code app.cache.invalidation.multi-key-messages}.
      */
     @Bean
     public CacheInvalidationPublisher cacheInvalidationPublisher(
             Optional<RedisTemplate<String, String>> cacheRedisTemplate,
-            ObjectMapper cacheObjectMapper) {
+            ObjectMapper cacheObjectMapper,
+            MeterRegistry meterRegistry) {
+        CacheProperties.InvalidationConfig invalidation = cacheProperties.getInvalidation();
+        if (invalidation.isBatchEnabled()) {
+            return new BatchingCacheInvalidationPublisher(
+                    cacheRedisTemplate.orElse(null),
+                    cacheObjectMapper,
+                    meterRegistry,
+                    invalidation.getBatchWindow(),
+                    invalidation.getMaxBatchKeys(),
+                    invalidation.isMultiKeyMessages());
+        }
         return new CacheInvalidationPublisher(
                 cacheRedisTemplate.orElse(null),
-                cacheObjectMapper);
+                cacheObjectMapper,
+                meterRegistry);
     }
 
     /**
@@ -197,13 +213,15 @@ public class UnifiedCacheConfig {
     @Primary
     public DelegatingCacheManager delegatingCacheManager(CacheInvalidationPublisher cacheInvalidationPublisher,
             Optional<CacheOperationExecutor> cacheOperationExecutor,
-            @Lazy Optional<CacheMetrics> cacheMetrics) {
+            @Lazy Optional<CacheMetrics> cacheMetrics,
+            Optional<L2WriteBehindQueue> cacheL2WriteBehindQueue) {
         CacheManagerFactory factory = new CacheManagerFactory(
                 cacheProperties,
                 redisConnectionFactory,
                 Optional.of(cacheInvalidationPublisher),
                 cacheOperationExecutor,
-                cacheMetrics);
+                cacheMetrics,
+                cacheL2WriteBehindQueue);
         CacheManager initialManager = factory.createCacheManager();
 
         log.info("Initialized DelegatingCacheManager with provider: {}",
@@ -229,9 +247,28 @@ public class UnifiedCacheConfig {
     @Bean
     public CacheManagerFactory cacheManagerFactory(CacheInvalidationPublisher cacheInvalidationPublisher,
             Optional<CacheOperationExecutor> cacheOperationExecutor,
-            @Lazy Optional<CacheMetrics> cacheMetrics) {
+            @Lazy Optional<CacheMetrics> cacheMetrics,
+            Optional<L2WriteBehindQueue> cacheL2WriteBehindQueue) {
         return new CacheManagerFactory(cacheProperties, redisConnectionFactory,
-                Optional.of(cacheInvalidationPublisher), cacheOperationExecutor, cacheMetrics);
+                Optional.of(cacheInvalidationPublisher), cacheOperationExecutor, cacheMetrics,
+                cacheL2WriteBehindQueue);
+    }
+
+    /**
+     * Write-behind queue for two-level L2 writes, shared by every two-level
+     * manager the factory creates. Only created (and its worker started) when
+     * {@code app.cache.two-level.write-behind} is enabled. Pending writes are
+     * drained when the context closes.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.cache.two-level", name = "write-behind", havingValue = "true")
+    public L2WriteBehindQueue cacheL2WriteBehindQueue(CacheInvalidationPublisher cacheInvalidationPublisher,
+            Optional<CacheOperationExecutor> cacheOperationExecutor,
+            MeterRegistry meterRegistry) {
+        CacheProperties.TwoLevelConfig twoLevel = cacheProperties.getTwoLevel();
+        return new L2WriteBehindQueue(cacheOperationExecutor.orElse(null), cacheInvalidationPublisher,
+                meterRegistry, twoLevel.getWriteBehindCapacity(), twoLevel.getWriteBehindBatchSize(),
+                twoLevel.getWriteBehindMaxDelay());
     }
 
     /**
@@ -0,0 +1,91 @@
+package com.example.control.infrastructure.config.messaging;
+
+import com.example.control.infrastructure.config.misc.ConfigProxyProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kafka listener configuration for observing Spring Cloud Bus traffic.
+ * <p>
+ * The bus binder only delivers events addressed to this service, while the
+ * expected-hash index needs every refresh event Config Server publishes. This
+ * factory reads the bus topic directly with a consumer group unique to this
+ * replica ({@code config.proxy.hash-index-group-id}), so every replica sees
+ * every event. The group is stable across restarts, so a restarted replica
+ * resumes from its committed offset instead of leaving an abandoned group
+ * behind; a new group starts from the latest offset.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ConfigBusListenerConfig {
+
+    private final ConfigProxyProperties configProxyProperties;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    /**
+     * Consumer factory for raw bus messages (JSON bytes).
+     *
+     * @return consumer factory
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> configBusConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId());
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    /**
+     * Configured group id, or one derived from the host name.
+     */
+    private String groupId() {
+        if (StringUtils.hasText(configProxyProperties.getHashIndexGroupId())) {
+            return configProxyProperties.getHashIndexGroupId();
+        }
+        try {
+            return "config-control-hash-index-" + InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            String groupId = "config-control-hash-index-" + UUID.randomUUID();
+            log.warn("Could not resolve host name, using one-off bus consumer group {}", groupId);
+            return groupId;
+        }
+    }
+
+    /**
+     * Single-threaded listener container factory for bus messages.
+     *
+     * @return listener container factory
+     */
+    @Bean(name = "configBusListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> configBusListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(configBusConsumerFactory());
+        factory.setConcurrency(1);
+        log.info("Created config bus listener container factory");
+        return factory;
+    }
+}
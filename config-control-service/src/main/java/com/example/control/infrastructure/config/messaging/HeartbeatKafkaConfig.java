@@ -1,6 +1,8 @@
 package com.example.control.infrastructure.config.messaging;
 
 import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.infrastructure.config.messaging.serde.HeartbeatBinarySerializer;
+import com.example.control.infrastructure.config.messaging.serde.HeartbeatWireFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,7 +23,8 @@ import java.util.Map;
  * Kafka configuration for heartbeat ingestion.
  * <p>
  * Creates a dedicated KafkaTemplate for HeartbeatPayload serialization with
- * JSON serializer. Uses serviceName as partition key to ensure ordering per service.
+ * JSON or compact binary serializer ({@code app.heartbeat.kafka.wire-format}).
+ * Uses serviceName as partition key to ensure ordering per service.
  */
 @Slf4j
 @Configuration
@@ -32,6 +35,7 @@ public class HeartbeatKafkaConfig {
     private String bootstrapServers;
 
     private final ObjectMapper objectMapper;
+    private final HeartbeatProperties heartbeatProperties;
 
     /**
      * Producer factory for heartbeat messages.
@@ -47,19 +51,22 @@ public class HeartbeatKafkaConfig {
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
-        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, heartbeatProperties.getKafka().getProducer().getBatchSize());
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, heartbeatProperties.getKafka().getProducer().getLingerMs());
         configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "gzip"); // Changed from snappy to gzip (no native libraries required)
         configProps.put(ProducerConfig.ACKS_CONFIG, "1"); // Leader acknowledgment
 
         // Configure JsonSerializer to use our ObjectMapper
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
 
+        HeartbeatWireFormat wireFormat = heartbeatProperties.getKafka().getWireFormat();
         DefaultKafkaProducerFactory<String, HeartbeatPayload> factory =
                 new DefaultKafkaProducerFactory<>(configProps);
-        factory.setValueSerializer(new JsonSerializer<>(objectMapper));
+        factory.setValueSerializer(wireFormat == HeartbeatWireFormat.PROTOBUF
+                ? new HeartbeatBinarySerializer()
+                : new JsonSerializer<>(objectMapper));
 
-        log.info("Created heartbeat Kafka producer factory with JSON serialization");
+        log.info("Created heartbeat Kafka producer factory with {} serialization", wireFormat);
         return factory;
     }
 
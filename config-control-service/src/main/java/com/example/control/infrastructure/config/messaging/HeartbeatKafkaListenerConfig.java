@@ -1,7 +1,11 @@
 package com.example.control.infrastructure.config.messaging;
 
+import com.example.control.application.service.infra.HeartbeatBatchProcessor;
+import com.example.control.application.service.infra.ServiceInstanceRegistry;
 import com.example.control.domain.model.HeartbeatPayload;
 import com.example.control.infrastructure.config.messaging.HeartbeatProperties;
+import com.example.control.infrastructure.config.messaging.serde.HeartbeatBinaryDeserializer;
+import com.example.control.infrastructure.config.messaging.serde.HeartbeatWireFormat;
 import com.example.control.infrastructure.observability.heartbeat.HeartbeatMetrics;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -25,8 +29,8 @@ import java.util.Map;
 /**
  * Kafka listener configuration for heartbeat batch processing.
  * <p>
- * Configures batch listener mode with manual acknowledgment and error handling
- * for dead letter queue routing.
+ * Configures batch listener mode with manual acknowledgment, error handling
+ * for dead letter queue routing and rebalance callbacks.
  */
 @Slf4j
 @Configuration
@@ -40,12 +44,16 @@ public class HeartbeatKafkaListenerConfig {
     private final ObjectMapper objectMapper;
     private final HeartbeatMetrics heartbeatMetrics;
     private final KafkaTemplate<String, HeartbeatPayload> dlqKafkaTemplate;
+    private final ServiceInstanceRegistry serviceInstanceRegistry;
+    private final HeartbeatBatchProcessor heartbeatBatchProcessor;
 
     /**
      * Consumer factory for heartbeat messages.
      * <p>
-     * Configures JSON deserialization for HeartbeatPayload values and String
-     * deserialization for keys (serviceName).
+     * Configures JSON (or compact binary, per
+     * {@code app.heartbeat.kafka.wire-format}) deserialization for
+     * HeartbeatPayload values and String deserialization for keys
+     * (serviceName).
      *
      * @return consumer factory
      */
@@ -75,18 +83,23 @@ public class HeartbeatKafkaListenerConfig {
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, HeartbeatPayload.class);
 
+        HeartbeatWireFormat wireFormat = heartbeatProperties.getKafka().getWireFormat();
+        JsonDeserializer<HeartbeatPayload> jsonDeserializer = new JsonDeserializer<>(HeartbeatPayload.class, objectMapper);
         DefaultKafkaConsumerFactory<String, HeartbeatPayload> factory =
                 new DefaultKafkaConsumerFactory<>(configProps);
-        factory.setValueDeserializer(new JsonDeserializer<>(HeartbeatPayload.class, objectMapper));
+        factory.setValueDeserializer(wireFormat == HeartbeatWireFormat.PROTOBUF
+                ? new HeartbeatBinaryDeserializer(jsonDeserializer)
+                : jsonDeserializer);
 
-        log.info("Created heartbeat Kafka consumer factory with JSON deserialization");
+        log.info("Created heartbeat Kafka consumer factory with {} deserialization", wireFormat);
         return factory;
     }
 
     /**
      * Kafka listener container factory for batch processing.
      * <p>
-     * Configures batch listener mode, manual acknowledgment, and error handling.
+     * Configures batch listener mode, manual acknowledgment, error handling and
+     * the {@link HeartbeatRebalanceListener}.
      *
      * @return listener container factory
      */
@@ -98,6 +111,8 @@ public class HeartbeatKafkaListenerConfig {
         factory.setBatchListener(true); // Enable batch mode
         factory.setConcurrency(heartbeatProperties.getKafka().getConsumer().getConcurrency());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setConsumerRebalanceListener(
+                new HeartbeatRebalanceListener(serviceInstanceRegistry, heartbeatBatchProcessor));
 
         // Configure error handler for DLQ routing
         HeartbeatKafkaErrorHandler errorHandler = new HeartbeatKafkaErrorHandler(
@@ -1,7 +1,11 @@
 package com.example.control.infrastructure.config.messaging;
 
+import com.example.control.infrastructure.config.messaging.serde.HeartbeatWireFormat;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -26,6 +30,41 @@ public class HeartbeatProperties {
      */
     private Kafka kafka = new Kafka();
 
+    /**
+     * In-memory instance registry configuration.
+     */
+    private Registry registry = new Registry();
+
+    /**
+     * Write-behind flush configuration.
+     */
+    private Flush flush = new Flush();
+
+    /**
+     * Batch HTTP endpoint configuration.
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * Adaptive admission control configuration.
+     */
+    private Admission admission = new Admission();
+
+    /**
+     * Drift-event aggregation configuration.
+     */
+    private DriftAggregation driftAggregation = new DriftAggregation();
+
+    /**
+     * Persistent-drift refresh backoff configuration.
+     */
+    private DriftBackoff driftBackoff = new DriftBackoff();
+
+    /**
+     * Bus refresh dispatch configuration.
+     */
+    private Refresh refresh = new Refresh();
+
     @Data
     public static class Kafka {
         /**
@@ -34,11 +73,23 @@ public class HeartbeatProperties {
         @NotBlank
         private String topic = "heartbeat-queue";
 
+        /**
+         * Encoding of records on the heartbeat topic. In PROTOBUF mode the
+         * consumer still accepts JSON records, so switch the control plane
+         * before the SDKs.
+         */
+        private HeartbeatWireFormat wireFormat = HeartbeatWireFormat.JSON;
+
         /**
          * Consumer configuration.
          */
         private Consumer consumer = new Consumer();
 
+        /**
+         * Producer and ingestion buffer configuration.
+         */
+        private Producer producer = new Producer();
+
         /**
          * Dead letter queue topic for failed heartbeat messages.
          */
@@ -92,7 +143,316 @@ public class HeartbeatProperties {
              */
             @Positive
             private int maxPollIntervalMs = 300000; // 5 minutes
+
+            /**
+             * How a polled batch is split into sub-batches processed in
+             * parallel on virtual threads. NONE processes the whole poll on the
+             * listener thread.
+             */
+            private ParallelMode parallelMode = ParallelMode.NONE;
+
+            /**
+             * Number of serviceName hash buckets when parallelMode is SERVICE.
+             */
+            @Positive
+            private int serviceBuckets = 8;
+
+            /**
+             * Number of in-process retries of the sub-batches that failed,
+             * before the poll is handed to the error handler. Sub-batches that
+             * succeeded are not re-run.
+             */
+            @PositiveOrZero
+            private int subBatchRetries = 2;
+
+            /**
+             * Backoff before the first sub-batch retry (milliseconds), doubled
+             * on each further retry.
+             */
+            @Positive
+            private long subBatchRetryBackoffMs = 200;
+        }
+
+        @Data
+        public static class Producer {
+            /**
+             * Collect heartbeats in an in-process buffer and send them to Kafka
+             * in bulk instead of one resilience-wrapped send per heartbeat.
+             */
+            private boolean batched = false;
+
+            /**
+             * Capacity of the ingestion buffer. Heartbeats are rejected when it
+             * is full, or while Kafka sends are failing.
+             */
+            @Positive
+            private int bufferCapacity = 65536;
+
+            /**
+             * Maximum number of heartbeats handed to the producer in one bulk
+             * send.
+             */
+            @Positive
+            private int maxBatchRecords = 500;
+
+            /**
+             * Producer batch.size (bytes).
+             */
+            @Positive
+            private int batchSize = 16384;
+
+            /**
+             * Producer linger.ms. The ingestion buffer waits at most this long
+             * for a bulk send to fill up, so buffering adds no latency beyond
+             * what the producer already accepts.
+             */
+            @PositiveOrZero
+            private int lingerMs = 10;
+
+            /**
+             * Number of times heartbeats of a failed bulk send are re-sent
+             * before they are processed synchronously instead.
+             */
+            @PositiveOrZero
+            private int sendRetries = 3;
+
+            /**
+             * Backoff before the first re-send of failed heartbeats
+             * (milliseconds), doubled on each further retry.
+             */
+            @Positive
+            private long retryBackoffMs = 500;
         }
     }
-}
 
+    @Data
+    public static class Registry {
+        /**
+         * Serve heartbeat reads from the in-memory registry and persist via the
+         * write-behind buffer. When disabled, every heartbeat reads and writes
+         * MongoDB directly.
+         * <p>
+         * Off by default: each replica holds its own copy, kept consistent only
+         * through the entry TTL, rebalance eviction and the Redis broadcast of
+         * instance changes. Enable it only where Redis pub/sub is available.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of registry shards. Spreads heartbeat updates and flush drains
+         * across independent maps to limit contention.
+         */
+        @Positive
+        private int shards = 16;
+
+        /**
+         * Page size used when warming the registry from MongoDB at startup.
+         */
+        @Positive
+        private int warmupPageSize = 1000;
+
+        /**
+         * Maximum age of state read from MongoDB before the registry reads it
+         * again (milliseconds). Expired entries are never judged touch-only.
+         */
+        @Positive
+        private long entryTtlMs = 30000;
+    }
+
+    @Data
+    public static class Flush {
+        /**
+         * Maximum time buffered heartbeat state waits before being written
+         * (milliseconds).
+         */
+        @Positive
+        private long intervalMs = 5000;
+
+        /**
+         * Number of pending instances that triggers an early flush, and the
+         * maximum number of operations per bulk write.
+         */
+        @Positive
+        private int maxBatchSize = 2000;
+
+        /**
+         * Number of pending instances at which callers must flush before
+         * buffering more heartbeats (back-pressure).
+         */
+        @Positive
+        private int capacity = 20000;
+    }
+
+    @Data
+    public static class Batch {
+        /**
+         * Maximum number of heartbeats accepted in one batch request.
+         */
+        @Positive
+        private int maxItems = 1000;
+
+        /**
+         * Maximum size of one batch request body (bytes).
+         */
+        @Positive
+        private long maxRequestBytes = 2 * 1024 * 1024;
+    }
+
+    @Data
+    public static class Admission {
+        /**
+         * Gate heartbeat processing with an adaptive (AIMD) concurrency limit.
+         * Touch-only heartbeats beyond the limit only refresh lastSeenAt.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Concurrency limit (heartbeats in flight) at startup. Counts batch
+         * members, so it should cover consumer concurrency times
+         * max-poll-records (15 x 500 by default) with room to spare.
+         */
+        @Positive
+        private int initialLimit = 10000;
+
+        /**
+         * Lower bound of the adaptive limit. Kept at one full poll so a
+         * single batch is never shed entirely.
+         */
+        @Positive
+        private int minLimit = 500;
+
+        /**
+         * Upper bound of the adaptive limit.
+         */
+        @Positive
+        private int maxLimit = 50000;
+
+        /**
+         * Average processing latency per heartbeat above which the limit is
+         * decreased (milliseconds). A batch call is judged by its latency
+         * divided by the number of heartbeats it processed.
+         */
+        @Positive
+        private long latencyThresholdMs = 20;
+
+        /**
+         * Amount the limit grows after a fast call while it is in use.
+         */
+        @Positive
+        private int additiveIncrease = 100;
+
+        /**
+         * Factor the limit is multiplied by after a slow or failed call.
+         */
+        @DecimalMin("0.1")
+        @DecimalMax("0.99")
+        private double backoffRatio = 0.9;
+    }
+
+    @Data
+    public static class DriftAggregation {
+        /**
+         * Buffer drift transitions and resolutions and write them per window:
+         * detected events as one bulk insert plus one aggregated event per
+         * (service, environment, expected hash), resolutions as one update.
+         * When disabled, every transition is written immediately.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Length of the aggregation window (milliseconds).
+         */
+        @Positive
+        private long windowMs = 2000;
+
+        /**
+         * Number of buffered transitions and resolutions that triggers an
+         * early flush.
+         */
+        @Positive
+        private int maxBatchSize = 5000;
+    }
+
+    @Data
+    public static class DriftBackoff {
+        /**
+         * Keep backoff state in Redis so all control-plane replicas share it.
+         * Falls back to the in-process state when Redis is unavailable.
+         */
+        private boolean shared = false;
+
+        /**
+         * Maximum number of instances whose backoff state is kept in process.
+         */
+        @Positive
+        private int maxEntries = 100000;
+
+        /**
+         * Backoff state of an instance without heartbeats for this long is
+         * dropped (milliseconds).
+         */
+        @Positive
+        private long ttlMs = 3600000;
+
+        /**
+         * Largest backoff exponent: persistent drift re-triggers a refresh at
+         * most every 2^maxExponent heartbeats.
+         */
+        @PositiveOrZero
+        private int maxExponent = 4;
+    }
+
+    @Data
+    public static class Refresh {
+        /**
+         * Debounce and coalesce drift-triggered bus refreshes. When disabled,
+         * every trigger calls Config Server's /busrefresh on the heartbeat
+         * thread.
+         */
+        private boolean debounced = true;
+
+        /**
+         * Time refresh requests are collected before they are sent
+         * (milliseconds).
+         */
+        @Positive
+        private long debounceMs = 1000;
+
+        /**
+         * A destination refreshed within this time is not refreshed again
+         * (milliseconds).
+         */
+        @PositiveOrZero
+        private long cooldownMs = 5000;
+
+        /**
+         * Number of instances of one service and environment within a window
+         * at which their refreshes are merged into one {@code service:**}
+         * refresh. The merged refresh reaches every environment of the
+         * service, so keep this well above a handful of instances.
+         */
+        @Positive
+        private int mergeThreshold = 10;
+    }
+
+    /**
+     * Split strategy for parallel batch processing.
+     */
+    public enum ParallelMode {
+        /**
+         * Process the whole poll as one batch on the listener thread.
+         */
+        NONE,
+
+        /**
+         * One sub-batch per Kafka partition (preserves partition order).
+         */
+        PARTITION,
+
+        /**
+         * One sub-batch per serviceName hash bucket (preserves per-service
+         * order).
+         */
+        SERVICE
+    }
+}
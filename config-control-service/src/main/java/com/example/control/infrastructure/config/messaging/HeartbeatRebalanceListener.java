@@ -0,0 +1,51 @@
+package com.example.control.infrastructure.config.messaging;
+
+import com.example.control.application.service.infra.HeartbeatBatchProcessor;
+import com.example.control.application.service.infra.ServiceInstanceRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import java.util.Collection;
+
+/**
+ * Rebalance callbacks of the heartbeat consumer.
+ * <p>
+ * Heartbeats are keyed by service name, so partitions newly assigned to this
+ * replica carry instances whose state another replica may have changed in
+ * the meantime. Registry entries do not record the service name, so the
+ * whole {@link ServiceInstanceRegistry} is dropped and instances are
+ * reloaded from MongoDB on their next heartbeat.
+ * <p>
+ * Revoked or lost partitions are forgotten by the
+ * {@link HeartbeatBatchProcessor}, whose remembered offsets of unacknowledged
+ * polls would otherwise never be cleared.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HeartbeatRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final ServiceInstanceRegistry serviceInstanceRegistry;
+    private final HeartbeatBatchProcessor heartbeatBatchProcessor;
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        heartbeatBatchProcessor.forgetPartitions(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        heartbeatBatchProcessor.forgetPartitions(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        log.info("Heartbeat partitions assigned: {}, clearing service instance registry", partitions);
+        serviceInstanceRegistry.clear();
+    }
+}
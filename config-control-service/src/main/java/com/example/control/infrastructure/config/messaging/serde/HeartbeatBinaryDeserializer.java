@@ -0,0 +1,83 @@
+package com.example.control.infrastructure.config.messaging.serde;
+
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.grpc.HeartbeatRequest;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka deserializer for the {@link HeartbeatWireFormat#PROTOBUF} envelope.
+ * <p>
+ * Dispatches on the first byte: {@link HeartbeatBinarySerializer#VERSION_1}
+ * records are decoded as protobuf, records starting with '{' are handed to the
+ * JSON delegate so producers still publishing JSON keep working during a
+ * migration. Any other version byte is rejected.
+ */
+public class HeartbeatBinaryDeserializer implements Deserializer<HeartbeatPayload> {
+
+    private final Deserializer<HeartbeatPayload> jsonDelegate;
+
+    /**
+     * @param jsonDelegate deserializer used for legacy JSON records
+     */
+    public HeartbeatBinaryDeserializer(Deserializer<HeartbeatPayload> jsonDelegate) {
+        this.jsonDelegate = jsonDelegate;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDelegate.configure(configs, isKey);
+    }
+
+    @Override
+    public HeartbeatPayload deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+
+        return switch (data[0]) {
+            case HeartbeatBinarySerializer.VERSION_1 -> decodeV1(topic, data);
+            case '{' -> jsonDelegate.deserialize(topic, data);
+            default -> throw new SerializationException(
+                    "Unsupported heartbeat wire format version " + data[0] + " on topic " + topic);
+        };
+    }
+
+    @Override
+    public void close() {
+        jsonDelegate.close();
+    }
+
+    private HeartbeatPayload decodeV1(String topic, byte[] data) {
+        HeartbeatRequest request;
+        try {
+            request = HeartbeatRequest.parseFrom(CodedInputStream.newInstance(data, 1, data.length - 1));
+        } catch (InvalidProtocolBufferException e) {
+            throw new SerializationException("Malformed protobuf heartbeat on topic " + topic, e);
+        }
+
+        // proto3 has no presence for scalars: map defaults back to null
+        return HeartbeatPayload.builder()
+                .serviceName(emptyToNull(request.getServiceName()))
+                .instanceId(emptyToNull(request.getInstanceId()))
+                .configHash(emptyToNull(request.getConfigHash()))
+                .host(emptyToNull(request.getHost()))
+                .port(request.getPort() != 0 ? request.getPort() : null)
+                .environment(emptyToNull(request.getEnvironment()))
+                .version(emptyToNull(request.getVersion()))
+                .metadata(request.getMetadataCount() > 0 ? new HashMap<>(request.getMetadataMap()) : null)
+                .configFingerprint(request.getConfigFingerprintCount() > 0
+                        ? new HashMap<>(request.getConfigFingerprintMap())
+                        : null)
+                .build();
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
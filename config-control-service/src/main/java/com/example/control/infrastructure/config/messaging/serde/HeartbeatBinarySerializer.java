@@ -0,0 +1,85 @@
+package com.example.control.infrastructure.config.messaging.serde;
+
+import com.example.control.domain.model.HeartbeatPayload;
+import com.example.control.grpc.HeartbeatRequest;
+import com.google.protobuf.CodedOutputStream;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka serializer writing {@link HeartbeatPayload} in the
+ * {@link HeartbeatWireFormat#PROTOBUF} envelope.
+ * <p>
+ * Layout: {@code [version byte][protobuf HeartbeatRequest]}. Field numbers
+ * are shared with the gRPC API and the SDK, so producers and consumers only
+ * need to agree on the version byte. Optional fields such as the config
+ * fingerprint (field 9) are added without a version bump, since older
+ * decoders skip unknown fields.
+ */
+public class HeartbeatBinarySerializer implements Serializer<HeartbeatPayload> {
+
+    /**
+     * Current envelope version. JSON records start with '{' (0x7B), so any
+     * value below that cannot be confused with a JSON record.
+     */
+    public static final byte VERSION_1 = 0x01;
+
+    @Override
+    public byte[] serialize(String topic, HeartbeatPayload payload) {
+        if (payload == null) {
+            return null;
+        }
+
+        HeartbeatRequest.Builder builder = HeartbeatRequest.newBuilder();
+        if (payload.getServiceName() != null) {
+            builder.setServiceName(payload.getServiceName());
+        }
+        if (payload.getInstanceId() != null) {
+            builder.setInstanceId(payload.getInstanceId());
+        }
+        if (payload.getConfigHash() != null) {
+            builder.setConfigHash(payload.getConfigHash());
+        }
+        if (payload.getHost() != null) {
+            builder.setHost(payload.getHost());
+        }
+        if (payload.getPort() != null) {
+            builder.setPort(payload.getPort());
+        }
+        if (payload.getEnvironment() != null) {
+            builder.setEnvironment(payload.getEnvironment());
+        }
+        if (payload.getVersion() != null) {
+            builder.setVersion(payload.getVersion());
+        }
+        if (payload.getMetadata() != null) {
+            payload.getMetadata().forEach((key, value) -> {
+                if (key != null && value != null) {
+                    builder.putMetadata(key, value);
+                }
+            });
+        }
+        if (payload.getConfigFingerprint() != null) {
+            payload.getConfigFingerprint().forEach((bucket, hash) -> {
+                if (bucket != null && hash != null) {
+                    builder.putConfigFingerprint(bucket, hash);
+                }
+            });
+        }
+
+        HeartbeatRequest request = builder.build();
+        int size = request.getSerializedSize();
+        byte[] bytes = new byte[1 + size];
+        bytes[0] = VERSION_1;
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(bytes, 1, size);
+            request.writeTo(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            throw new SerializationException("Failed to serialize heartbeat for topic " + topic, e);
+        }
+        return bytes;
+    }
+}
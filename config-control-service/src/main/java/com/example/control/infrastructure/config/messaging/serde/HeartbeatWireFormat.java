@@ -0,0 +1,18 @@
+package com.example.control.infrastructure.config.messaging.serde;
+
+/**
+ * Encoding of {@code HeartbeatPayload} values on a heartbeat Kafka topic.
+ */
+public enum HeartbeatWireFormat {
+    /**
+     * Jackson JSON, one self-describing document per record.
+     */
+    JSON,
+
+    /**
+     * Schema-versioned binary envelope: one version byte followed by the
+     * protobuf {@code HeartbeatRequest} encoding. Consumers in this mode still
+     * read JSON records, so producers can be switched over gradually.
+     */
+    PROTOBUF
+}
@@ -1,5 +1,6 @@
 package com.example.control.infrastructure.config.misc;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -70,6 +71,88 @@ public class ConfigProxyProperties {
      */
     private boolean logMockUsage = true;
 
+    /**
+     * Keep computed expected config hashes in an in-memory index that is
+     * invalidated when Config Server announces a change over Spring Cloud Bus
+     * (config monitor webhook or {@code /busrefresh}) and after
+     * {@link #hashIndexTtlMs}.
+     * <p>
+     * When disabled, every {@code config-hashes} cache miss fetches the
+     * effective config from Config Server.
+     */
+    private boolean hashIndexEnabled = true;
+
+    /**
+     * How long an indexed expected hash is served before it is recomputed,
+     * in milliseconds, even if no change event invalidated it. Bounds the
+     * staleness caused by a missed bus event.
+     */
+    @Min(1)
+    private long hashIndexTtlMs = 600_000L;
+
+    /**
+     * Kafka consumer group of the bus listener feeding the index. Must be
+     * unique per replica (every replica needs every event) and stable across
+     * restarts, so committed offsets are reused instead of leaving a new
+     * group behind on every start.
+     */
+    private String hashIndexGroupId;
+
+    /**
+     * Remember the last Config Server environment response per
+     * application/profile and revalidate it with conditional GETs
+     * ({@code If-None-Match}) instead of downloading it again.
+     */
+    private boolean responseCacheEnabled = true;
+
+    /**
+     * How long a stored response that no change event has invalidated is
+     * reused without contacting Config Server, in milliseconds. Only applies
+     * while {@link #hashIndexEnabled} (which consumes the change events).
+     */
+    @Min(0)
+    private long responseCacheMaxAgeMs = 300_000L;
+
+    /**
+     * Resolve the expected hashes of a heartbeat batch with one call to Config
+     * Server's {@code /effective-hashes} endpoint instead of fetching every
+     * environment. Keys the call cannot resolve fall back to per-key fetches.
+     */
+    private boolean bulkHashEnabled = true;
+
+    /**
+     * Maximum number of keys sent in one {@code /effective-hashes} call; larger
+     * batches are split. Must not exceed Config Server's
+     * {@code effective-hashes.max-requests}.
+     */
+    @Min(1)
+    private int bulkHashMaxKeys = 500;
+
+    /**
+     * Expected config hash format: MERGED or PER_SOURCE.
+     * <p>
+     * Must match {@code zcm.sdk.ping.hash-mode} of the SDK clients. PER_SOURCE
+     * combines one sub-hash per Config Server property source (see
+     * {@code ConfigHashCombiner}).
+     */
+    @NotNull
+    private HashMode hashMode = HashMode.MERGED;
+
+    /**
+     * Expected config hash format enumeration.
+     */
+    public enum HashMode {
+        /**
+         * Hash of the merged, precedence-resolved property set.
+         */
+        MERGED,
+
+        /**
+         * Combination of per-property-source sub-hashes.
+         */
+        PER_SOURCE
+    }
+
     /**
      * Mock strategy enumeration.
      */
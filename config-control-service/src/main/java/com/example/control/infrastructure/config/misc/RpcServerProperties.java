@@ -25,5 +25,53 @@ public class RpcServerProperties {
      */
     @Positive
     private int grpcPort = 9091;
+
+    /**
+     * Thrift server mode.
+     */
+    private ThriftServerMode thriftServerMode = ThriftServerMode.THREAD_POOL;
+
+    /**
+     * Selector threads accepting and reading framed requests (NONBLOCKING mode).
+     */
+    @Positive
+    private int thriftSelectorThreads = 2;
+
+    /**
+     * Worker threads invoking the handler (NONBLOCKING mode).
+     */
+    @Positive
+    private int thriftWorkerThreads = 16;
+
+    /**
+     * Maximum size of a single framed request in bytes (NONBLOCKING mode).
+     */
+    @Positive
+    private int thriftMaxFrameSize = 1024 * 1024;
+
+    /**
+     * Heartbeats buffered per gRPC stream before they are handed to the batch
+     * pipeline (synchronous heartbeat mode only).
+     */
+    @Positive
+    private int grpcStreamBatchSize = 500;
+
+    /**
+     * Thread model of the Thrift server.
+     */
+    public enum ThriftServerMode {
+        /**
+         * Blocking {@code TServerSocket} with one pooled thread per connection.
+         * Clients use a plain (unframed) transport.
+         */
+        THREAD_POOL,
+
+        /**
+         * {@code TNonblockingServerSocket} served by {@code TThreadedSelectorServer}:
+         * a few selector threads multiplex all connections and a small worker
+         * pool runs the handler. Clients must use {@code TFramedTransport}.
+         */
+        NONBLOCKING
+    }
 }
 
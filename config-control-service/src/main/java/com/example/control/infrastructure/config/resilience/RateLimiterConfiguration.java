@@ -44,4 +44,18 @@ public class RateLimiterConfiguration {
     log.info("Admin rate limiter created with config: {}", rateLimiter.getRateLimiterConfig());
     return rateLimiter;
   }
+
+  /**
+   * Rate limiter for drift-triggered bus refreshes sent to Config Server.
+   * <p>
+   * Configured in application.yml under
+   * resilience4j.ratelimiter.instances.bus-refresh
+   * </p>
+   */
+  @Bean
+  public RateLimiter busRefreshRateLimiter(RateLimiterRegistry rateLimiterRegistry) {
+    RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter("bus-refresh");
+    log.info("Bus refresh rate limiter created with config: {}", rateLimiter.getRateLimiterConfig());
+    return rateLimiter;
+  }
 }
@@ -0,0 +1,98 @@
+package com.example.control.infrastructure.external.configserver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Invalidates the {@link ExpectedHashIndex} when Config Server announces a
+ * configuration change.
+ * <p>
+ * The config-server monitor (Git webhook) and {@code /busrefresh} both publish
+ * a {@code RefreshRemoteApplicationEvent} on the Spring Cloud Bus topic whose
+ * destination names the changed application ({@code payment-service:**}) or
+ * all applications ({@code **}). Matching index entries and their
+ * {@code config-hashes} cache entries are dropped and stored Config Server
+ * responses are marked stale, so the next lookup revalidates the environment
+ * and recomputes the hash once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ConfigChangeEventListener {
+
+    private static final String REFRESH_EVENT_TYPE = "RefreshRemoteApplicationEvent";
+    private static final String CONFIG_HASHES_CACHE = "config-hashes";
+
+    private final ExpectedHashIndex expectedHashIndex;
+    private final ConfigServerResponseStore responseStore;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher applicationMatcher = new AntPathMatcher(":");
+
+    /**
+     * Handles a raw Spring Cloud Bus message.
+     *
+     * @param message JSON-serialized remote application event
+     */
+    @KafkaListener(
+            topics = "${spring.cloud.bus.destination:springCloudBus}",
+            containerFactory = "configBusListenerContainerFactory",
+            autoStartup = "${config.proxy.hash-index-enabled:true}"
+    )
+    public void onBusMessage(byte[] message) {
+        JsonNode event;
+        try {
+            event = objectMapper.readTree(message);
+        } catch (Exception e) {
+            log.debug("Ignoring unreadable bus message: {}", e.getMessage());
+            return;
+        }
+        if (event == null || !REFRESH_EVENT_TYPE.equals(event.path("type").asText())) {
+            return;
+        }
+
+        String destination = event.path("destinationService").asText("**");
+        onConfigChanged(destination);
+    }
+
+    /**
+     * Invalidates index and cache entries for a bus destination.
+     *
+     * @param destination bus destination, e.g. {@code app:**}, {@code app} or
+     *                    {@code **}
+     */
+    void onConfigChanged(String destination) {
+        String application = destination.split(":", 2)[0];
+        Cache cache = cacheManager.getCache(CONFIG_HASHES_CACHE);
+
+        if (!StringUtils.hasText(application) || application.contains("*")) {
+            String pattern = StringUtils.hasText(application) ? application : "**";
+            List<String> dropped = expectedHashIndex.invalidateMatching(app -> applicationMatcher.match(pattern, app));
+            responseStore.invalidateMatching(app -> applicationMatcher.match(pattern, app));
+            if (cache != null) {
+                dropped.forEach(cache::evict);
+            }
+            log.info("Config change for {}: invalidated {} expected hashes", destination, dropped.size());
+            return;
+        }
+
+        List<String> profiles = expectedHashIndex.invalidate(application);
+        responseStore.invalidate(application);
+        if (cache != null) {
+            for (String profile : profiles) {
+                cache.evict(ExpectedHashIndex.cacheKey(application, profile));
+            }
+        }
+        log.info("Config change for {}: invalidated expected hashes of profiles {}", application, profiles);
+    }
+}
@@ -4,6 +4,9 @@ import com.example.control.api.http.exception.exceptions.ExternalServiceExceptio
 import com.example.control.api.http.exception.exceptions.ServiceNotFoundException;
 import com.example.control.infrastructure.config.misc.ConfigProxyProperties;
 import com.example.control.infrastructure.config.misc.ConfigServerProperties;
+import com.example.control.infrastructure.cache.SingleFlight;
+import com.example.control.infrastructure.observability.configserver.ConfigServerResponseMetrics;
+import com.example.control.domain.valueobject.configsnapshot.ConfigFingerprint;
 import com.example.control.domain.valueobject.configsnapshot.ConfigSnapshot;
 import com.example.control.domain.valueobject.configsnapshot.ConfigSnapshotBuilder;
 import com.example.control.domain.valueobject.configsnapshot.ConfigHashCalculator;
@@ -13,15 +16,26 @@ import io.micrometer.tracing.annotation.NewSpan;
 import io.micrometer.tracing.annotation.SpanTag;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service that proxies requests to Config Server and provides config-related
@@ -44,6 +58,16 @@ public class ConfigProxyService {
     private final RestClient loadBalancedRestClient;
     private final RestClient directRestClient;
     private final ConfigSnapshotBuilder snapshotBuilder;
+    private final ExpectedHashIndex expectedHashIndex;
+    private final ConfigServerResponseStore responseStore;
+    private final ConfigServerResponseMetrics responseMetrics;
+    private final CacheManager cacheManager;
+
+    /**
+     * Coalesces concurrent Config Server fetches per {@code service:profile}, so
+     * a burst of heartbeats after a redeploy causes a single fetch.
+     */
+    private final SingleFlight<String, String> configHashLoads = new SingleFlight<>();
 
     public ConfigProxyService(
             DiscoveryClient discoveryClient,
@@ -51,7 +75,11 @@ public class ConfigProxyService {
             ConfigProxyProperties configProxyProperties,
             ObjectMapper objectMapper,
             @Qualifier("loadBalancedConfigServerRestClient") RestClient loadBalancedRestClient,
-            @Qualifier("configServerRestClient") RestClient directRestClient) {
+            @Qualifier("configServerRestClient") RestClient directRestClient,
+            ExpectedHashIndex expectedHashIndex,
+            ConfigServerResponseStore responseStore,
+            ConfigServerResponseMetrics responseMetrics,
+            CacheManager cacheManager) {
         this.discoveryClient = discoveryClient;
         this.configServerProperties = configServerProperties;
         this.configProxyProperties = configProxyProperties;
@@ -59,6 +87,10 @@ public class ConfigProxyService {
         this.loadBalancedRestClient = loadBalancedRestClient;
         this.directRestClient = directRestClient;
         this.snapshotBuilder = new ConfigSnapshotBuilder();
+        this.expectedHashIndex = expectedHashIndex;
+        this.responseStore = responseStore;
+        this.responseMetrics = responseMetrics;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -66,17 +98,23 @@ public class ConfigProxyService {
      */
     private static final String MOCK_PREFIX = "mock-";
 
+    private static final String CONFIG_HASHES_CACHE = "config-hashes";
+
     /**
      * Get effective configuration hash for a service in an environment.
      * <p>
      * If mock mode is enabled and service is not whitelisted, returns a mock hash.
-     * Otherwise, fetches config from Config Server and computes SHA-256 hash.
+     * Otherwise, serves the hash from the {@link ExpectedHashIndex}, fetching
+     * config from Config Server and computing the SHA-256 hash only when the
+     * application is not indexed or changed since. Concurrent fetches for the
+     * same service and profile are coalesced into one.
      *
      * @param serviceName service name
      * @param profile     environment profile (e.g., dev, prod)
      * @return SHA-256 hash of effective configuration (or mock hash)
      */
-    @Cacheable(value = "config-hashes", key = "#serviceName + ':' + #profile")
+    @Cacheable(value = "config-hashes",
+            key = "T(com.example.control.infrastructure.external.configserver.ExpectedHashIndex).cacheKey(#serviceName, #profile)")
     @NewSpan("config.get_effective_hash")
     public String getEffectiveConfigHash(
             @SpanTag("service.name") String serviceName,
@@ -91,8 +129,172 @@ public class ConfigProxyService {
             return getMockConfigHash(serviceName, profile);
         }
 
-        // Fetch real config from Config Server
-        return fetchRealConfigHash(serviceName, profile);
+        if (!configProxyProperties.isHashIndexEnabled()) {
+            return configHashLoads.execute(serviceName + ":" + profile,
+                    () -> fetchRealConfigHash(serviceName, profile));
+        }
+
+        Optional<String> indexed = expectedHashIndex.get(serviceName, profile, null);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
+        // Fetch real config from Config Server and index it until the next change event
+        return configHashLoads.execute(serviceName + ":" + profile, () -> {
+            Optional<String> loaded = expectedHashIndex.get(serviceName, profile, null);
+            if (loaded.isPresent()) {
+                return loaded.get();
+            }
+            long generation = expectedHashIndex.generation(serviceName);
+            String hash = fetchRealConfigHash(serviceName, profile);
+            expectedHashIndex.put(serviceName, profile, null, hash, generation);
+            return hash;
+        });
+    }
+
+    /**
+     * Returns the expected config hash if it is known locally (mock hash,
+     * {@link ExpectedHashIndex} or {@code config-hashes} cache), without
+     * calling Config Server.
+     *
+     * @param serviceName service name
+     * @param profile     environment profile
+     * @return the current expected hash, or empty if it would have to be fetched
+     */
+    public Optional<String> findKnownConfigHash(String serviceName, String profile) {
+        if (serviceName == null || serviceName.isBlank()) {
+            return Optional.empty();
+        }
+        if (configProxyProperties.isMockModeEnabled() &&
+                !configProxyProperties.isWhitelisted(serviceName)) {
+            return Optional.ofNullable(getMockConfigHash(serviceName, profile));
+        }
+        if (configProxyProperties.isHashIndexEnabled()) {
+            Optional<String> indexed = expectedHashIndex.get(serviceName, profile, null);
+            if (indexed.isPresent()) {
+                return indexed;
+            }
+        }
+        Cache cache = cacheManager.getCache(CONFIG_HASHES_CACHE);
+        return cache != null
+                ? Optional.ofNullable(cache.get(ExpectedHashIndex.cacheKey(serviceName, profile), String.class))
+                : Optional.empty();
+    }
+
+    /**
+     * Resolves the expected config hashes of several {@code service:profile}
+     * keys at once.
+     * <p>
+     * Mock, indexed and {@code config-hashes} cached hashes are served
+     * locally; only the remaining keys are resolved with
+     * {@code POST /effective-hashes} calls to Config Server (when
+     * {@code config.proxy.bulk-hash-enabled}), at most
+     * {@code config.proxy.bulk-hash-max-keys} per call, and indexed and cached.
+     * Keys that could not be resolved are absent from the result, so callers
+     * can fall back to {@link #getEffectiveConfigHash} for them. A missing or
+     * blank profile means {@code default}, as on Config Server; results are
+     * keyed by the keys as given.
+     *
+     * @param serviceProfileKeys keys in {@code service:profile} form
+     * @return resolved hashes by key
+     */
+    public Map<String, String> getEffectiveConfigHashes(Collection<String> serviceProfileKeys) {
+        Map<String, String> hashes = new HashMap<>();
+        // Requested keys by normalized service:profile key
+        Map<String, List<String>> misses = new LinkedHashMap<>();
+        Cache cache = cacheManager.getCache(CONFIG_HASHES_CACHE);
+
+        for (String key : serviceProfileKeys) {
+            String[] parts = key.split(":", 2);
+            String serviceName = parts[0];
+            String profile = ExpectedHashIndex.normalizeProfile(parts.length > 1 ? parts[1] : null);
+
+            if (configProxyProperties.isMockModeEnabled() &&
+                    !configProxyProperties.isWhitelisted(serviceName)) {
+                hashes.put(key, getMockConfigHash(serviceName, profile));
+                continue;
+            }
+            if (configProxyProperties.isHashIndexEnabled()) {
+                Optional<String> indexed = expectedHashIndex.get(serviceName, profile, null);
+                if (indexed.isPresent()) {
+                    hashes.put(key, indexed.get());
+                    continue;
+                }
+            }
+            String cached = cache != null
+                    ? cache.get(ExpectedHashIndex.cacheKey(serviceName, profile), String.class)
+                    : null;
+            if (cached != null) {
+                hashes.put(key, cached);
+                continue;
+            }
+            misses.computeIfAbsent(ExpectedHashIndex.cacheKey(serviceName, profile), k -> new ArrayList<>())
+                    .add(key);
+        }
+
+        if (misses.isEmpty() || !configProxyProperties.isBulkHashEnabled()) {
+            return hashes;
+        }
+
+        List<String> missKeys = new ArrayList<>(misses.keySet());
+        Map<String, String> resolved = new HashMap<>();
+        int chunkSize = configProxyProperties.getBulkHashMaxKeys();
+        for (int from = 0; from < missKeys.size(); from += chunkSize) {
+            List<String> chunk = missKeys.subList(from, Math.min(from + chunkSize, missKeys.size()));
+            try {
+                resolveBulk(chunk, resolved, cache);
+            } catch (Exception e) {
+                log.warn("Bulk config hash request failed for {} keys, falling back to per-key fetches: {}",
+                        chunk.size(), e.getMessage());
+            }
+        }
+        misses.forEach((normalizedKey, keys) -> {
+            String hash = resolved.get(normalizedKey);
+            if (hash != null) {
+                keys.forEach(key -> hashes.put(key, hash));
+            }
+        });
+        log.debug("Resolved {} of {} config hashes with bulk requests", resolved.size(), misses.size());
+        return hashes;
+    }
+
+    /**
+     * Resolves one chunk of normalized {@code service:profile} keys with a
+     * single bulk request, adding the hashes to {@code hashes} (by normalized
+     * key), the index and the cache.
+     */
+    private void resolveBulk(List<String> misses, Map<String, String> hashes, Cache cache) {
+        // Capture index generations before the call so a concurrent change event wins
+        Map<String, Long> generations = new HashMap<>();
+        List<Map<String, String>> request = new ArrayList<>(misses.size());
+        for (String miss : misses) {
+            String[] parts = miss.split(":", 2);
+            generations.computeIfAbsent(parts[0], expectedHashIndex::generation);
+            request.add(Map.of("application", parts[0], "profile", parts[1]));
+        }
+
+        List<EffectiveHash> results = callConfigServerBulk(request);
+        if (results == null) {
+            return;
+        }
+
+        for (EffectiveHash result : results) {
+            if (result.hash() == null || result.application() == null) {
+                if (result.error() != null) {
+                    log.debug("Config Server could not hash {}:{}: {}",
+                            result.application(), result.profile(), result.error());
+                }
+                continue;
+            }
+            hashes.put(ExpectedHashIndex.cacheKey(result.application(), result.profile()), result.hash());
+            if (configProxyProperties.isHashIndexEnabled()) {
+                expectedHashIndex.put(result.application(), result.profile(), null, result.hash(),
+                        generations.getOrDefault(result.application(), -1L));
+            }
+            if (cache != null) {
+                cache.put(ExpectedHashIndex.cacheKey(result.application(), result.profile()), result.hash());
+            }
+        }
     }
 
     /**
@@ -151,20 +353,19 @@ public class ConfigProxyService {
      */
     private String fetchRealConfigHash(String serviceName, String profile) {
         try {
-            log.debug("Fetching effective config from Config Server for {}:{}", serviceName, profile);
-
-            String path = "/" + serviceName + "/" +
-                    (profile != null && !profile.trim().isEmpty() ? profile : "default");
-            String configJson = callConfigServer(path);
-
-            if (configJson == null || configJson.trim().isEmpty()) {
-                log.warn("Empty config response from Config Server for {}:{}", serviceName, profile);
+            JsonNode configNode = fetchEffectiveConfig(serviceName, profile);
+            if (configNode == null) {
                 return null;
             }
 
-            JsonNode configNode = objectMapper.readTree(configJson);
+            if (configProxyProperties.getHashMode() == ConfigProxyProperties.HashMode.PER_SOURCE) {
+                String hash = snapshotBuilder.buildPerSourceHash(serviceName, profile, null, configNode);
+                log.debug("Computed per-source config hash for {}:{} hash={}", serviceName, profile, hash);
+                return hash;
+            }
+
             ConfigSnapshot snapshot = snapshotBuilder.build(serviceName, profile, null, configNode);
-            String hash = ConfigHashCalculator.hash(snapshot.toCanonicalString());
+            String hash = ConfigHashCalculator.hash(snapshot);
             log.debug("Computed config hash for {}:{} keys={} hash={}", serviceName, profile,
                     snapshot.getProperties().size(), hash);
             return hash;
@@ -176,13 +377,88 @@ public class ConfigProxyService {
         }
     }
 
+    /**
+     * Fetches the effective configuration JSON from Config Server.
+     * <p>
+     * With the response store enabled, a stored environment that no change
+     * event has invalidated is reused without a request until it reaches
+     * {@code config.proxy.response-cache-max-age-ms}; otherwise the request is
+     * sent as a conditional GET and a {@code 304 Not Modified} reuses the
+     * stored environment.
+     *
+     * @param serviceName service name
+     * @param profile     environment profile
+     * @return parsed environment JSON, or {@code null} if the response is empty
+     * @throws Exception if the call or parsing fails
+     */
+    private JsonNode fetchEffectiveConfig(String serviceName, String profile) throws Exception {
+        log.debug("Fetching effective config from Config Server for {}:{}", serviceName, profile);
+
+        String path = "/" + serviceName + "/" +
+                (profile != null && !profile.trim().isEmpty() ? profile : "default");
+
+        if (!configProxyProperties.isResponseCacheEnabled()) {
+            return parseEnvironment(serviceName, profile, callConfigServer(path, null).getBody());
+        }
+
+        Optional<ConfigServerResponseStore.Entry> stored = responseStore.get(serviceName, profile, null);
+        // Trusting an entry without a request relies on change events invalidating it,
+        // which are only consumed while the hash index is enabled
+        long maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(configProxyProperties.getResponseCacheMaxAgeMs());
+        if (stored.isPresent() && configProxyProperties.isHashIndexEnabled() && stored.get().isFresh(maxAgeNanos)) {
+            responseMetrics.recordSkipped(stored.get().bodyLength());
+            return stored.get().environment();
+        }
+
+        String etag = stored.map(ConfigServerResponseStore.Entry::etag).orElse(null);
+        long generation = responseStore.generation();
+        ResponseEntity<String> response = callConfigServer(path, etag);
+
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && stored.isPresent()) {
+            log.debug("Config Server environment for {}:{} not modified (version={})",
+                    serviceName, profile, stored.get().version());
+            responseStore.revalidated(serviceName, profile, null, generation);
+            responseMetrics.recordNotModified(stored.get().bodyLength());
+            return stored.get().environment();
+        }
+
+        responseMetrics.recordFullResponse(etag != null);
+        String body = response.getBody();
+        JsonNode environment = parseEnvironment(serviceName, profile, body);
+        if (environment != null) {
+            String version = environment.hasNonNull("version") ? environment.get("version").asText() : null;
+            responseStore.put(serviceName, profile, null, environment, body.length(),
+                    response.getHeaders().getETag(), version, generation);
+        }
+        return environment;
+    }
+
+    /**
+     * Parses an environment response body.
+     *
+     * @param serviceName service name (for logging)
+     * @param profile     environment profile (for logging)
+     * @param configJson  response body
+     * @return parsed JSON, or {@code null} if the body is empty
+     * @throws Exception if parsing fails
+     */
+    private JsonNode parseEnvironment(String serviceName, String profile, String configJson) throws Exception {
+        if (configJson == null || configJson.trim().isEmpty()) {
+            log.warn("Empty config response from Config Server for {}:{}", serviceName, profile);
+            return null;
+        }
+        return objectMapper.readTree(configJson);
+    }
+
     /**
      * Call Config Server with service discovery fallback to direct URL.
      *
      * @param path request path
-     * @return response body
+     * @param etag {@code ETag} of the stored response to send as
+     *             {@code If-None-Match}, or {@code null}
+     * @return response (status {@code 304} with no body when not modified)
      */
-    private String callConfigServer(String path) {
+    private ResponseEntity<String> callConfigServer(String path, String etag) {
         // Try service discovery first if enabled
         if (configServerProperties.getServiceDiscovery().isEnabled()) {
             try {
@@ -198,8 +474,11 @@ public class ConfigProxyService {
                     return loadBalancedRestClient.get()
                             .uri(serviceUrl)
                             .accept(MediaType.APPLICATION_JSON)
+                            .headers(headers -> {
+                                if (etag != null) headers.setIfNoneMatch(etag);
+                            })
                             .retrieve()
-                            .body(String.class);
+                            .toEntity(String.class);
                 } else {
                     log.debug("No instances found for service: {}. Falling back to direct URL.",
                             configServerProperties.getServiceDiscovery().getServiceName());
@@ -218,8 +497,58 @@ public class ConfigProxyService {
             return directRestClient.get()
                     .uri(url)
                     .accept(MediaType.APPLICATION_JSON)
+                    .headers(headers -> {
+                        if (etag != null) headers.setIfNoneMatch(etag);
+                    })
                     .retrieve()
-                    .body(String.class);
+                    .toEntity(String.class);
+        } else {
+            throw new ExternalServiceException("config-server",
+                    "Service discovery failed and fallback to URL is disabled", null);
+        }
+    }
+
+    /**
+     * Calls Config Server's bulk hash endpoint with service discovery fallback
+     * to direct URL.
+     *
+     * @param request {@code application}/{@code profile} tuples
+     * @return one result per tuple
+     */
+    private List<EffectiveHash> callConfigServerBulk(List<Map<String, String>> request) {
+        String path = "/effective-hashes?mode=" + configProxyProperties.getHashMode().name();
+        ParameterizedTypeReference<List<EffectiveHash>> type = new ParameterizedTypeReference<>() {
+        };
+
+        // Try service discovery first if enabled
+        if (configServerProperties.getServiceDiscovery().isEnabled()) {
+            try {
+                List<ServiceInstance> instances = discoveryClient.getInstances(
+                        configServerProperties.getServiceDiscovery().getServiceName());
+
+                if (instances != null && !instances.isEmpty()) {
+                    String serviceUrl = "http://" + configServerProperties.getServiceDiscovery().getServiceName() + path;
+                    return loadBalancedRestClient.post()
+                            .uri(serviceUrl)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(request)
+                            .retrieve()
+                            .body(type);
+                }
+            } catch (Exception e) {
+                log.warn("Service discovery failed for config-server, falling back to direct URL: {}",
+                        e.getMessage());
+            }
+        }
+
+        // Fallback to direct URL
+        if (configServerProperties.getServiceDiscovery().isFallbackToUrl()) {
+            return directRestClient.post()
+                    .uri(normalizeUrl(configServerProperties.getUrl()) + path)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(request)
+                    .retrieve()
+                    .body(type);
         } else {
             throw new ExternalServiceException("config-server",
                     "Service discovery failed and fallback to URL is disabled", null);
@@ -235,18 +564,71 @@ public class ConfigProxyService {
      * @return map with drift status and hashes
      */
     public Map<String, Object> getConfigDiff(String serviceName, String profile, String appliedHash) {
+        return getConfigDiff(serviceName, profile, appliedHash, null);
+    }
+
+    /**
+     * Get configuration difference between expected (SoT) and applied,
+     * naming the diverging key ranges when the instance reported a
+     * {@link ConfigFingerprint}.
+     * <p>
+     * On drift, the expected fingerprint is computed from the effective
+     * config in Config Server and compared bucket by bucket; the result lists
+     * the top-level key prefixes ({@code spring}, {@code app}, ...) whose
+     * values differ, without the instance sending its configuration.
+     *
+     * @param serviceName        service name
+     * @param profile            environment profile
+     * @param appliedHash        currently applied config hash
+     * @param appliedFingerprint fingerprint reported by the instance, or {@code null}
+     * @return map with drift status, hashes and, when available, diverging key ranges
+     */
+    public Map<String, Object> getConfigDiff(String serviceName, String profile, String appliedHash,
+                                             Map<String, String> appliedFingerprint) {
         String expectedHash = getEffectiveConfigHash(serviceName, profile);
 
         boolean hasDrift = expectedHash != null &&
                 appliedHash != null &&
                 !expectedHash.equals(appliedHash);
 
-        return Map.of(
-                "serviceName", serviceName,
-                "profile", profile != null ? profile : "default",
-                "expectedHash", expectedHash != null ? expectedHash : "unknown",
-                "appliedHash", appliedHash != null ? appliedHash : "unknown",
-                "hasDrift", hasDrift);
+        Map<String, Object> diff = new LinkedHashMap<>();
+        diff.put("serviceName", serviceName);
+        diff.put("profile", profile != null ? profile : "default");
+        diff.put("expectedHash", expectedHash != null ? expectedHash : "unknown");
+        diff.put("appliedHash", appliedHash != null ? appliedHash : "unknown");
+        diff.put("hasDrift", hasDrift);
+
+        boolean mocked = configProxyProperties.isMockModeEnabled() &&
+                !configProxyProperties.isWhitelisted(serviceName);
+        if (hasDrift && appliedFingerprint != null && !mocked) {
+            diff.put("divergingKeyRanges", getDivergingKeyRanges(serviceName, profile, appliedFingerprint));
+        }
+        return diff;
+    }
+
+    /**
+     * Compares an applied fingerprint with the fingerprint of the effective
+     * config in Config Server.
+     *
+     * @param serviceName        service name
+     * @param profile            environment profile
+     * @param appliedFingerprint fingerprint reported by the instance
+     * @return sorted names of diverging key buckets
+     */
+    private List<String> getDivergingKeyRanges(String serviceName, String profile,
+                                               Map<String, String> appliedFingerprint) {
+        try {
+            JsonNode configNode = fetchEffectiveConfig(serviceName, profile);
+            if (configNode == null) {
+                return List.of();
+            }
+            ConfigSnapshot snapshot = snapshotBuilder.build(serviceName, profile, null, configNode);
+            return ConfigFingerprint.diverging(ConfigFingerprint.of(snapshot), appliedFingerprint);
+        } catch (Exception e) {
+            log.error("Failed to compute config fingerprint for {}:{}", serviceName, profile, e);
+            throw new ExternalServiceException("config-server",
+                    "Failed to compute config fingerprint: " + e.getMessage(), e);
+        }
     }
 
     /**
@@ -307,7 +689,10 @@ public class ConfigProxyService {
         try {
             log.info("Triggering bus refresh via Config Server for destination: {}", destination);
 
-            String path = "/actuator/busrefresh";
+            // Without a destination the bus refreshes every application
+            String path = destination != null && !destination.isBlank()
+                    ? "/actuator/busrefresh/" + destination
+                    : "/actuator/busrefresh";
             String response;
 
             // Try service discovery first if enabled
@@ -367,4 +752,11 @@ public class ConfigProxyService {
         }
         return url;
     }
+
+    /**
+     * One result of Config Server's {@code /effective-hashes} endpoint.
+     */
+    record EffectiveHash(String application, String profile, String label, String version,
+                         String hash, String error) {
+    }
 }
@@ -0,0 +1,163 @@
+package com.example.control.infrastructure.external.configserver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Last Config Server environment response per (application, profile, label).
+ * <p>
+ * Each entry remembers the parsed environment, its {@code ETag} and the Git
+ * {@code version} it was served from, so the next request for the same
+ * environment can be sent as a conditional GET ({@code If-None-Match}) and a
+ * {@code 304 Not Modified} reuses the stored environment. Entries that have
+ * not been invalidated by a Config Server change event are trusted without
+ * any request until they reach the configured maximum age.
+ */
+@Component
+public class ConfigServerResponseStore {
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented on every invalidation, so a response fetched before a change
+     * event is not stored as trusted after it. Mutations are synchronized so
+     * the check and the write cannot interleave with an invalidation.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Looks up the stored response for an environment.
+     *
+     * @param application application name
+     * @param profile     profile ({@code null} means {@code default})
+     * @param label       label ({@code null} means the server default)
+     * @return stored response, if any
+     */
+    public Optional<Entry> get(String application, String profile, String label) {
+        return Optional.ofNullable(entries.get(Key.of(application, profile, label)));
+    }
+
+    /**
+     * Current invalidation generation; capture it before requesting and pass
+     * it to {@link #put}.
+     *
+     * @return generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores a full (200) response. If an invalidation happened since
+     * {@code fetchGeneration}, the entry is stored stale so it is revalidated
+     * on next use.
+     *
+     * @param application     application name
+     * @param profile         profile
+     * @param label           label
+     * @param environment     parsed response body (treated as read-only)
+     * @param bodyLength      response body length
+     * @param etag            {@code ETag} response header, may be {@code null}
+     * @param version         Git version reported by Config Server, may be {@code null}
+     * @param fetchGeneration {@link #generation()} captured before the request
+     */
+    public synchronized void put(String application, String profile, String label, JsonNode environment,
+                                 int bodyLength, String etag, String version, long fetchGeneration) {
+        boolean stale = generation.get() != fetchGeneration;
+        entries.put(Key.of(application, profile, label),
+                new Entry(environment, bodyLength, etag, version, System.nanoTime(), stale));
+    }
+
+    /**
+     * Marks a stored response as revalidated by a {@code 304 Not Modified}.
+     *
+     * @param application     application name
+     * @param profile         profile
+     * @param label           label
+     * @param fetchGeneration {@link #generation()} captured before the request
+     */
+    public synchronized void revalidated(String application, String profile, String label, long fetchGeneration) {
+        if (generation.get() != fetchGeneration) {
+            return;
+        }
+        entries.computeIfPresent(Key.of(application, profile, label),
+                (key, entry) -> entry.withStoredAt(System.nanoTime()));
+    }
+
+    /**
+     * Marks all responses of an application as stale; they are revalidated
+     * with a conditional GET on next use.
+     *
+     * @param application application name
+     */
+    public void invalidate(String application) {
+        invalidateMatching(application::equals);
+    }
+
+    /**
+     * Marks all responses of applications matching a predicate as stale.
+     *
+     * @param applicationFilter application name predicate
+     */
+    public synchronized void invalidateMatching(Predicate<String> applicationFilter) {
+        generation.incrementAndGet();
+        entries.replaceAll((key, entry) -> applicationFilter.test(key.application()) && !entry.stale()
+                ? entry.asStale()
+                : entry);
+    }
+
+    /**
+     * Number of stored responses.
+     *
+     * @return entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * A stored response.
+     *
+     * @param environment   parsed response body (treated as read-only)
+     * @param bodyLength    response body length
+     * @param etag          {@code ETag} of the response, may be {@code null}
+     * @param version       Git version of the environment, may be {@code null}
+     * @param storedAtNanos {@link System#nanoTime()} of the last fetch or revalidation
+     * @param stale         whether a change event was received since
+     */
+    public record Entry(JsonNode environment, int bodyLength, String etag, String version,
+                        long storedAtNanos, boolean stale) {
+
+        /**
+         * Whether the response can be used without contacting Config Server.
+         *
+         * @param maxAgeNanos maximum age in nanoseconds
+         * @return true if not stale and younger than the maximum age
+         */
+        public boolean isFresh(long maxAgeNanos) {
+            return !stale && System.nanoTime() - storedAtNanos < maxAgeNanos;
+        }
+
+        Entry withStoredAt(long nanos) {
+            return new Entry(environment, bodyLength, etag, version, nanos, false);
+        }
+
+        Entry asStale() {
+            return new Entry(environment, bodyLength, etag, version, storedAtNanos, true);
+        }
+    }
+
+    private record Key(String application, String profile, String label) {
+
+        static Key of(String application, String profile, String label) {
+            return new Key(application,
+                    profile != null && !profile.isBlank() ? profile : "default",
+                    label != null ? label : "");
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.control.infrastructure.external.configserver;
+
+import com.example.control.infrastructure.config.misc.ConfigProxyProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Precomputed index of expected configuration hashes, keyed by
+ * {@code (application, profile, label)}.
+ * <p>
+ * Filled by {@link ConfigProxyService} whenever it computes a hash from Config
+ * Server and invalidated per application by {@link ConfigChangeEventListener}
+ * when the config-server monitor or bus announces a change, so steady-state
+ * hash lookups are plain map reads.
+ * <p>
+ * Every invalidation bumps a per-application generation; a hash computed
+ * before an invalidation is discarded instead of resurrecting stale state.
+ * Entries also expire after {@code config.proxy.hash-index-ttl-ms}, so a
+ * missed change event cannot keep a stale hash forever. Expired entries stay
+ * in the map until they are replaced or invalidated, so invalidation still
+ * reports their profiles for cache eviction.
+ */
+@Slf4j
+@Component
+public class ExpectedHashIndex {
+
+    private static final String DEFAULT_PROFILE = "default";
+    private static final String DEFAULT_LABEL = "";
+
+    private final ConcurrentHashMap<IndexKey, Entry> hashes = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    // Guarded by this; writers are rare (index misses and change events)
+    private final Map<String, Long> generations = new HashMap<>();
+    private long globalGeneration;
+
+    public ExpectedHashIndex(ConfigProxyProperties configProxyProperties) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(configProxyProperties.getHashIndexTtlMs());
+    }
+
+    /**
+     * Key of the {@code config-hashes} cache entry for an application and
+     * profile, with a missing profile normalized like index keys, so change
+     * events evict exactly the entries that lookups created.
+     *
+     * @param application application (service) name
+     * @param profile     profile, null for default
+     * @return cache key in {@code application:profile} form
+     */
+    public static String cacheKey(String application, String profile) {
+        return application + ":" + normalizeProfile(profile);
+    }
+
+    /**
+     * Looks up the indexed hash.
+     *
+     * @param application application (service) name
+     * @param profile     profile, null for default
+     * @param label       label, null for the Config Server default label
+     * @return the indexed hash, if present and not expired
+     */
+    public Optional<String> get(String application, String profile, String label) {
+        Entry entry = hashes.get(IndexKey.of(application, profile, label));
+        if (entry == null || System.nanoTime() - entry.expiresAtNanos() > 0) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.hash());
+    }
+
+    /**
+     * Returns the current generation of an application, to be passed to
+     * {@link #put} once the hash has been computed.
+     *
+     * @param application application (service) name
+     * @return opaque generation stamp
+     */
+    public synchronized long generation(String application) {
+        return globalGeneration + generations.getOrDefault(application, 0L);
+    }
+
+    /**
+     * Indexes a hash unless the application was invalidated after
+     * {@code generation} was taken.
+     *
+     * @param application application (service) name
+     * @param profile     profile, null for default
+     * @param label       label, null for the Config Server default label
+     * @param hash        computed hash
+     * @param generation  stamp from {@link #generation} taken before computing
+     */
+    public synchronized void put(String application, String profile, String label, String hash, long generation) {
+        if (hash == null) {
+            return;
+        }
+        IndexKey key = IndexKey.of(application, profile, label);
+        if (generation(application) == generation) {
+            hashes.put(key, new Entry(hash, System.nanoTime() + ttlNanos));
+        } else {
+            log.debug("Discarding expected hash for {} computed before an invalidation", key);
+        }
+    }
+
+    /**
+     * Drops all entries of an application.
+     *
+     * @param application application (service) name
+     * @return the profiles whose entries were dropped
+     */
+    public synchronized List<String> invalidate(String application) {
+        List<String> profiles = new ArrayList<>();
+        hashes.keySet().removeIf(key -> {
+            if (key.application().equals(application)) {
+                profiles.add(key.profile());
+                return true;
+            }
+            return false;
+        });
+        generations.merge(application, 1L, Long::sum);
+        return profiles;
+    }
+
+    /**
+     * Drops the entries of all applications matching a predicate, used for
+     * wildcard destinations.
+     *
+     * @param applicationMatcher matches application names
+     * @return keys ({@code application:profile}) of the dropped entries
+     */
+    public synchronized List<String> invalidateMatching(Predicate<String> applicationMatcher) {
+        List<String> dropped = new ArrayList<>();
+        hashes.keySet().removeIf(key -> {
+            if (applicationMatcher.test(key.application())) {
+                dropped.add(key.application() + ":" + key.profile());
+                return true;
+            }
+            return false;
+        });
+        globalGeneration++;
+        return dropped;
+    }
+
+    /**
+     * Number of indexed hashes.
+     *
+     * @return index size
+     */
+    public int size() {
+        return hashes.size();
+    }
+
+    /**
+     * Profile as Config Server resolves it: null or blank means the default
+     * profile.
+     */
+    static String normalizeProfile(String profile) {
+        return profile == null || profile.isBlank() ? DEFAULT_PROFILE : profile;
+    }
+
+    /**
+     * Index key; null profile and label are normalized so equivalent lookups
+     * share an entry.
+     */
+    record IndexKey(String application, String profile, String label) {
+
+        static IndexKey of(String application, String profile, String label) {
+            return new IndexKey(application, normalizeProfile(profile), label == null ? DEFAULT_LABEL : label);
+        }
+    }
+
+    private record Entry(String hash, long expiresAtNanos) {
+    }
+}
@@ -84,6 +84,34 @@ public final class MetricsNames {
     public static final String HEARTBEAT = "config_control.thrift.heartbeat";
   }
 
+  /**
+   * gRPC metrics.
+   */
+  public static final class Grpc {
+    private Grpc() {
+    }
+
+    /**
+     * gRPC unary heartbeat operation.
+     * <p>
+     * Metric name: {@code config_control.grpc.heartbeat}
+     * <p>
+     * Used in:
+     * {@link com.example.control.api.rpc.grpc.GrpcHeartbeatService#recordHeartbeat}
+     */
+    public static final String HEARTBEAT = "config_control.grpc.heartbeat";
+
+    /**
+     * Heartbeats received over client-streaming calls.
+     * <p>
+     * Metric name: {@code config_control.grpc.stream_heartbeats}
+     * <p>
+     * Used in:
+     * {@link com.example.control.api.rpc.grpc.GrpcHeartbeatService#streamHeartbeats}
+     */
+    public static final String STREAM_HEARTBEATS = "config_control.grpc.stream_heartbeats";
+  }
+
   /**
    * Cleanup service metrics.
    */
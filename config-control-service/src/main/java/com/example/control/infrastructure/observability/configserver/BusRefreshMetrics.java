@@ -0,0 +1,112 @@
+package com.example.control.infrastructure.observability.configserver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for drift-triggered bus refreshes sent through the
+ * {@code BusRefreshDispatcher}.
+ * <p>
+ * Tracks:
+ * <ul>
+ * <li>Refresh requests from heartbeat processing</li>
+ * <li>Refreshes actually sent to Config Server</li>
+ * <li>Requests suppressed by debouncing, merging or the cooldown</li>
+ * <li>Refreshes deferred by the rate limiter, and failed refreshes</li>
+ * <li>Services with refreshes waiting to be sent</li>
+ * </ul>
+ */
+@Component
+public class BusRefreshMetrics {
+
+    private final Counter requested;
+    private final Counter sent;
+    private final Counter suppressed;
+    private final Counter rateLimited;
+    private final Counter failed;
+
+    private final AtomicLong pending = new AtomicLong(0);
+
+    /**
+     * Constructor that initializes all metrics.
+     *
+     * @param meterRegistry the Micrometer meter registry
+     */
+    public BusRefreshMetrics(MeterRegistry meterRegistry) {
+        this.requested = Counter.builder("config.server.bus_refresh.requested")
+                .description("Bus refreshes requested by heartbeat processing")
+                .register(meterRegistry);
+
+        this.sent = Counter.builder("config.server.bus_refresh.sent")
+                .description("Bus refreshes sent to Config Server")
+                .register(meterRegistry);
+
+        this.suppressed = Counter.builder("config.server.bus_refresh.suppressed")
+                .description("Bus refresh requests absorbed by debouncing, merging or the cooldown")
+                .register(meterRegistry);
+
+        this.rateLimited = Counter.builder("config.server.bus_refresh.rate_limited")
+                .description("Bus refreshes deferred to the next dispatch by the rate limiter")
+                .register(meterRegistry);
+
+        this.failed = Counter.builder("config.server.bus_refresh.failed")
+                .description("Bus refreshes that failed")
+                .register(meterRegistry);
+
+        Gauge.builder("config.server.bus_refresh.pending", pending, AtomicLong::get)
+                .description("Services with bus refreshes waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a refresh request.
+     */
+    public void recordRequested() {
+        requested.increment();
+    }
+
+    /**
+     * Records a refresh sent to Config Server.
+     */
+    public void recordSent() {
+        sent.increment();
+    }
+
+    /**
+     * Records requests that did not produce a refresh of their own.
+     *
+     * @param count the number of suppressed requests
+     */
+    public void recordSuppressed(long count) {
+        if (count > 0) {
+            suppressed.increment(count);
+        }
+    }
+
+    /**
+     * Records a refresh deferred by the rate limiter.
+     */
+    public void recordRateLimited() {
+        rateLimited.increment();
+    }
+
+    /**
+     * Records a failed refresh.
+     */
+    public void recordFailed() {
+        failed.increment();
+    }
+
+    /**
+     * Updates the number of services with pending refreshes.
+     *
+     * @param services the number of services
+     */
+    public void updatePending(long services) {
+        pending.set(services);
+    }
+}
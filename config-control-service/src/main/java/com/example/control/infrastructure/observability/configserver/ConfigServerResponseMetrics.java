@@ -0,0 +1,99 @@
+package com.example.control.infrastructure.observability.configserver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for Config Server environment requests served through the
+ * {@code ConfigServerResponseStore}.
+ * <p>
+ * Tracks:
+ * <ul>
+ * <li>Requests skipped because the stored response was still trusted</li>
+ * <li>Conditional GETs answered with {@code 304 Not Modified}</li>
+ * <li>Full downloads</li>
+ * <li>Response bytes not downloaded thanks to skips and 304s</li>
+ * <li>Ratio of 304s among conditional GETs</li>
+ * </ul>
+ */
+@Component
+public class ConfigServerResponseMetrics {
+
+    private final Counter skipped;
+    private final Counter notModified;
+    private final Counter fullResponses;
+    private final Counter bytesSaved;
+
+    private final AtomicLong conditionalRequests = new AtomicLong(0);
+    private final AtomicLong notModifiedResponses = new AtomicLong(0);
+
+    /**
+     * Constructor that initializes all metrics.
+     *
+     * @param meterRegistry the Micrometer meter registry
+     */
+    public ConfigServerResponseMetrics(MeterRegistry meterRegistry) {
+        this.skipped = Counter.builder("config.server.response.skipped")
+                .description("Config Server requests skipped because the stored response was unchanged")
+                .register(meterRegistry);
+
+        this.notModified = Counter.builder("config.server.response.not_modified")
+                .description("Conditional Config Server requests answered with 304 Not Modified")
+                .register(meterRegistry);
+
+        this.fullResponses = Counter.builder("config.server.response.full")
+                .description("Config Server requests that downloaded the full environment")
+                .register(meterRegistry);
+
+        this.bytesSaved = Counter.builder("config.server.response.bytes_saved")
+                .description("Environment response bytes not downloaded thanks to skips and 304s")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        Gauge.builder("config.server.response.not_modified.ratio", this,
+                        m -> {
+                            long total = m.conditionalRequests.get();
+                            return total == 0 ? 0.0 : (double) m.notModifiedResponses.get() / total;
+                        })
+                .description("Share of conditional Config Server requests answered with 304")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a request served from the store without contacting Config Server.
+     *
+     * @param bodyLength length of the stored body
+     */
+    public void recordSkipped(int bodyLength) {
+        skipped.increment();
+        bytesSaved.increment(bodyLength);
+    }
+
+    /**
+     * Records a 304 response to a conditional request.
+     *
+     * @param bodyLength length of the stored body reused
+     */
+    public void recordNotModified(int bodyLength) {
+        conditionalRequests.incrementAndGet();
+        notModifiedResponses.incrementAndGet();
+        notModified.increment();
+        bytesSaved.increment(bodyLength);
+    }
+
+    /**
+     * Records a full (200) response.
+     *
+     * @param conditional whether the request carried {@code If-None-Match}
+     */
+    public void recordFullResponse(boolean conditional) {
+        if (conditional) {
+            conditionalRequests.incrementAndGet();
+        }
+        fullResponses.increment();
+    }
+}
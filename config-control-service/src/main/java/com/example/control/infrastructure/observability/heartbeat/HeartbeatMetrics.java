@@ -19,8 +19,14 @@ import java.util.concurrent.atomic.AtomicLong;
  * <li>Processing latency and throughput</li>
  * <li>Kafka queue depth</li>
  * <li>Batch processing metrics</li>
- * <li>Drift detection rate</li>
+ * <li>Drift detection rate, aggregated drift events and drift-event buffer
+ * depth</li>
  * <li>MongoDB write operations</li>
+ * <li>In-memory instance registry size and write-behind buffer depth</li>
+ * <li>Batched ingestion buffer depth and bulk send outcomes</li>
+ * <li>Admission control limit, in-flight heartbeats and shed heartbeats</li>
+ * <li>Heartbeat change classification (touch-only, field change, status
+ * transition)</li>
  * </ul>
  * <p>
  * All metrics are exported to Prometheus and can be visualized in Grafana.
@@ -40,6 +46,17 @@ public class HeartbeatMetrics {
     private final Counter heartbeatBatchProcessed;
     private final Counter heartbeatBatchFailed;
     private final Counter heartbeatDlqSent;
+    private final Counter heartbeatChangeTouchOnly;
+    private final Counter heartbeatChangeField;
+    private final Counter heartbeatChangeTransition;
+    private final Counter heartbeatFlushBackpressure;
+    private final Counter heartbeatIngestionBatchSent;
+    private final Counter heartbeatIngestionBatchFailed;
+    private final Counter heartbeatIngestionRejected;
+    private final Counter heartbeatIngestionRetried;
+    private final Counter heartbeatIngestionFallback;
+    private final Counter heartbeatAdmissionShed;
+    private final Counter heartbeatDriftAggregated;
 
     // Timers
     private final Timer heartbeatProcessingTime;
@@ -49,6 +66,13 @@ public class HeartbeatMetrics {
     // Gauges (mutable state)
     private final AtomicLong queueSize = new AtomicLong(0);
     private final AtomicLong currentBatchSize = new AtomicLong(0);
+    private final AtomicLong registrySize = new AtomicLong(0);
+    private final AtomicLong flushPending = new AtomicLong(0);
+    private final AtomicLong ingestionQueueDepth = new AtomicLong(0);
+    private final AtomicLong admissionLimit = new AtomicLong(0);
+    private final AtomicLong admissionInFlight = new AtomicLong(0);
+    private final AtomicLong admissionShedTotal = new AtomicLong(0);
+    private final AtomicLong driftPending = new AtomicLong(0);
 
     /**
      * Constructor that initializes all metrics.
@@ -91,6 +115,50 @@ public class HeartbeatMetrics {
                 .description("Total number of heartbeats sent to dead letter queue")
                 .register(meterRegistry);
 
+        this.heartbeatChangeTouchOnly = Counter.builder("heartbeat.change.touch_only")
+                .description("Heartbeats that changed nothing but lastSeenAt")
+                .register(meterRegistry);
+
+        this.heartbeatChangeField = Counter.builder("heartbeat.change.field")
+                .description("Heartbeats that changed persisted instance fields")
+                .register(meterRegistry);
+
+        this.heartbeatChangeTransition = Counter.builder("heartbeat.change.transition")
+                .description("Heartbeats that changed instance status or drift state")
+                .register(meterRegistry);
+
+        this.heartbeatFlushBackpressure = Counter.builder("heartbeat.flush.backpressure")
+                .description("Times a batch consumer had to flush the full write-behind buffer itself")
+                .register(meterRegistry);
+
+        this.heartbeatIngestionBatchSent = Counter.builder("heartbeat.ingestion.batch.sent")
+                .description("Bulk sends from the ingestion buffer to Kafka")
+                .register(meterRegistry);
+
+        this.heartbeatIngestionBatchFailed = Counter.builder("heartbeat.ingestion.batch.failed")
+                .description("Bulk sends from the ingestion buffer with at least one failed record")
+                .register(meterRegistry);
+
+        this.heartbeatIngestionRejected = Counter.builder("heartbeat.ingestion.rejected")
+                .description("Heartbeats rejected because the ingestion buffer was full or Kafka sends were failing")
+                .register(meterRegistry);
+
+        this.heartbeatIngestionRetried = Counter.builder("heartbeat.ingestion.retried")
+                .description("Heartbeats re-sent after a failed bulk send from the ingestion buffer")
+                .register(meterRegistry);
+
+        this.heartbeatIngestionFallback = Counter.builder("heartbeat.ingestion.fallback")
+                .description("Heartbeats processed synchronously after Kafka sends kept failing")
+                .register(meterRegistry);
+
+        this.heartbeatAdmissionShed = Counter.builder("heartbeat.admission.shed")
+                .description("Touch-only heartbeats shed by admission control (liveness refreshed only)")
+                .register(meterRegistry);
+
+        this.heartbeatDriftAggregated = Counter.builder("heartbeat.drift.aggregated")
+                .description("Drift groups reported per (service, environment, expected hash) window")
+                .register(meterRegistry);
+
         // Initialize timers
         this.heartbeatProcessingTime = Timer.builder("heartbeat.processing.time")
                 .description("Time taken to process a single heartbeat")
@@ -117,6 +185,34 @@ public class HeartbeatMetrics {
         Gauge.builder("heartbeat.batch.size", currentBatchSize, AtomicLong::get)
                 .description("Current batch processing size")
                 .register(meterRegistry);
+
+        Gauge.builder("heartbeat.registry.size", registrySize, AtomicLong::get)
+                .description("Number of service instances held in the in-memory registry")
+                .register(meterRegistry);
+
+        Gauge.builder("heartbeat.flush.pending", flushPending, AtomicLong::get)
+                .description("Number of instances waiting in the write-behind buffer")
+                .register(meterRegistry);
+
+        Gauge.builder("heartbeat.ingestion.queue.depth", ingestionQueueDepth, AtomicLong::get)
+                .description("Number of heartbeats waiting in the ingestion buffer for a bulk Kafka send")
+                .register(meterRegistry);
+
+        Gauge.builder("heartbeat.admission.limit", admissionLimit, AtomicLong::get)
+                .description("Current adaptive concurrency limit of heartbeat processing")
+                .register(meterRegistry);
+
+        Gauge.builder("heartbeat.admission.inflight", admissionInFlight, AtomicLong::get)
+                .description("Number of heartbeats currently admitted for processing")
+                .register(meterRegistry);
+
+        Gauge.builder("heartbeat.admission.shed.total", admissionShedTotal, AtomicLong::get)
+                .description("Touch-only heartbeats shed by admission control since startup")
+                .register(meterRegistry);
+
+        Gauge.builder("heartbeat.drift.pending", driftPending, AtomicLong::get)
+                .description("Drift transitions and resolutions waiting in the drift-event aggregator")
+                .register(meterRegistry);
     }
 
     /**
@@ -126,6 +222,15 @@ public class HeartbeatMetrics {
         heartbeatReceived.increment();
     }
 
+    /**
+     * Record that several heartbeats were received (ingested).
+     *
+     * @param count the number of heartbeats
+     */
+    public void recordReceived(long count) {
+        heartbeatReceived.increment(count);
+    }
+
     /**
      * Record that a heartbeat was successfully processed.
      *
@@ -143,6 +248,15 @@ public class HeartbeatMetrics {
         heartbeatFailed.increment();
     }
 
+    /**
+     * Record that several heartbeats failed.
+     *
+     * @param count the number of failed heartbeats
+     */
+    public void recordFailed(long count) {
+        heartbeatFailed.increment(count);
+    }
+
     /**
      * Record that configuration drift was detected.
      */
@@ -150,6 +264,52 @@ public class HeartbeatMetrics {
         heartbeatDriftDetected.increment();
     }
 
+    /**
+     * Record that configuration drift was detected on several instances.
+     *
+     * @param count the number of drifted instances
+     */
+    public void recordDriftDetected(long count) {
+        heartbeatDriftDetected.increment(count);
+    }
+
+    /**
+     * Record a drift group reported by the drift-event aggregator.
+     */
+    public void recordDriftAggregated() {
+        heartbeatDriftAggregated.increment();
+    }
+
+    /**
+     * Update the drift-event aggregator depth.
+     *
+     * @param pending the number of buffered transitions and resolutions
+     */
+    public void updateDriftPending(long pending) {
+        driftPending.set(pending);
+    }
+
+    /**
+     * Record a heartbeat that changed nothing but lastSeenAt.
+     */
+    public void recordTouchOnly() {
+        heartbeatChangeTouchOnly.increment();
+    }
+
+    /**
+     * Record a heartbeat that changed persisted instance fields.
+     */
+    public void recordFieldChange() {
+        heartbeatChangeField.increment();
+    }
+
+    /**
+     * Record a heartbeat that changed instance status or drift state.
+     */
+    public void recordStatusTransition() {
+        heartbeatChangeTransition.increment();
+    }
+
     /**
      * Record a MongoDB write operation.
      *
@@ -202,5 +362,104 @@ public class HeartbeatMetrics {
     public void updateQueueSize(long size) {
         queueSize.set(size);
     }
-}
 
+    /**
+     * Update the in-memory registry size.
+     *
+     * @param size the number of instances held in the registry
+     */
+    public void updateRegistrySize(long size) {
+        registrySize.set(size);
+    }
+
+    /**
+     * Update the write-behind buffer depth.
+     *
+     * @param pending the number of instances awaiting flush
+     */
+    public void updateFlushPending(long pending) {
+        flushPending.set(pending);
+    }
+
+    /**
+     * Record that a batch consumer was throttled by a full write-behind buffer.
+     */
+    public void recordFlushBackpressure() {
+        heartbeatFlushBackpressure.increment();
+    }
+
+    /**
+     * Record a bulk send from the ingestion buffer.
+     *
+     * @param duration time taken to hand the batch to the producer
+     */
+    public void recordIngestionBatchSent(Duration duration) {
+        heartbeatIngestionBatchSent.increment();
+        heartbeatIngestionTime.record(duration);
+    }
+
+    /**
+     * Record a bulk send in which some records failed.
+     *
+     * @param failedRecords the number of failed records
+     */
+    public void recordIngestionBatchFailed(long failedRecords) {
+        heartbeatIngestionBatchFailed.increment();
+        heartbeatFailed.increment(failedRecords);
+    }
+
+    /**
+     * Record a heartbeat rejected by the ingestion buffer.
+     */
+    public void recordIngestionRejected() {
+        heartbeatIngestionRejected.increment();
+    }
+
+    /**
+     * Record heartbeats scheduled for a re-send after a failed bulk send.
+     *
+     * @param count the number of heartbeats to re-send
+     */
+    public void recordIngestionRetried(long count) {
+        heartbeatIngestionRetried.increment(count);
+    }
+
+    /**
+     * Record heartbeats processed synchronously after their sends failed.
+     *
+     * @param count the number of heartbeats processed
+     */
+    public void recordIngestionFallback(long count) {
+        heartbeatIngestionFallback.increment(count);
+    }
+
+    /**
+     * Update the ingestion buffer depth.
+     *
+     * @param depth the number of heartbeats waiting for a bulk send
+     */
+    public void updateIngestionQueueDepth(long depth) {
+        ingestionQueueDepth.set(depth);
+    }
+
+    /**
+     * Record heartbeats shed by admission control.
+     *
+     * @param count the number of shed heartbeats
+     */
+    public void recordAdmissionShed(long count) {
+        heartbeatAdmissionShed.increment(count);
+        admissionShedTotal.addAndGet(count);
+    }
+
+    /**
+     * Update the admission control state.
+     *
+     * @param limit    the current concurrency limit
+     * @param inFlight the number of heartbeats currently admitted
+     */
+    public void updateAdmission(long limit, long inFlight) {
+        admissionLimit.set(limit);
+        admissionInFlight.set(inFlight);
+    }
+}
@@ -7,7 +7,11 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -146,4 +150,51 @@ public class ResilientKafkaProducer {
     
     return result;
   }
+
+  /**
+   * Send a batch of messages to a Kafka topic under a single resilience
+   * permit.
+   * <p>
+   * The circuit breaker and bulkhead are consulted once for the whole batch
+   * rather than once per record; the producer's own batching (batch.size,
+   * linger.ms) then groups the records on the wire.
+   * </p>
+   *
+   * @param template     KafkaTemplate instance
+   * @param topic        Topic name
+   * @param values       Message values
+   * @param keyExtractor Derives the message key from a value
+   * @param <K>          Key type
+   * @param <V>          Value type
+   * @return one future per value, in order (never null; all failed if the
+   *         batch was rejected by resilience protection)
+   */
+  public <K, V> List<CompletableFuture<SendResult<K, V>>> sendBatch(
+      KafkaTemplate<K, V> template,
+      String topic,
+      List<V> values,
+      Function<V, K> keyExtractor) {
+    Supplier<List<CompletableFuture<SendResult<K, V>>>> sendOperation = () -> {
+      List<CompletableFuture<SendResult<K, V>>> futures = new ArrayList<>(values.size());
+      for (V value : values) {
+        futures.add(template.send(topic, keyExtractor.apply(value), value));
+      }
+      return futures;
+    };
+
+    List<CompletableFuture<SendResult<K, V>>> result = resilienceFactory.decorateSupplierWithoutRetry(
+        SERVICE_NAME,
+        sendOperation,
+        null) // Fail if send fails
+        .get();
+
+    if (result == null) {
+      log.warn("Kafka batch send of {} records failed due to resilience protection (circuit breaker/bulkhead), returning failed futures",
+          values.size());
+      RuntimeException failure = new RuntimeException("Kafka send failed: circuit breaker open or bulkhead full");
+      return Collections.nCopies(values.size(), CompletableFuture.failedFuture(failure));
+    }
+
+    return result;
+  }
 }
@@ -0,0 +1,26 @@
+package com.example.configserver.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Adds {@code ETag} headers to environment responses and answers
+ * {@code If-None-Match} requests with {@code 304 Not Modified}.
+ * <p>
+ * config-control-service revalidates its stored environments this way, so an
+ * unchanged configuration is not transferred again.
+ */
+@Configuration
+public class ConditionalGetConfig {
+
+  @Bean
+  public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+    FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+        new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+    registration.addUrlPatterns("/*");
+    registration.setName("shallowEtagHeaderFilter");
+    return registration;
+  }
+}
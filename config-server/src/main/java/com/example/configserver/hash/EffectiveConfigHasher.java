@@ -0,0 +1,157 @@
+package com.example.configserver.hash;
+
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.cloud.config.environment.PropertySource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Computes the canonical configuration hash of an {@link Environment}.
+ * <p>
+ * Mirrors config-control-service's {@code ConfigSnapshotBuilder},
+ * {@code ConfigSnapshot#toCanonicalString} and {@code ConfigHashCombiner}
+ * (and the SDK's equivalents), so the hash equals what the control plane
+ * computes from the {@code /{application}/{profile}} response. Keep all of
+ * them in sync.
+ */
+public final class EffectiveConfigHasher {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private EffectiveConfigHasher() {
+  }
+
+  /**
+   * Hashes the merged, precedence-resolved properties (MERGED mode).
+   *
+   * @param application application name
+   * @param profile     profile ({@code null} means {@code default})
+   * @param label       label included in the canonical form, may be {@code null}
+   * @param environment the environment served by Config Server
+   * @return SHA-256 hash as a lowercase hex string
+   */
+  public static String mergedHash(String application, String profile, String label, Environment environment) {
+    SortedMap<String, String> props = new TreeMap<>();
+    for (PropertySource ps : environment.getPropertySources()) {
+      if (!includeSource(ps.getName())) continue;
+      // Config Server lists high-precedence sources first: keep the first-seen value
+      collect(ps, props, false);
+    }
+    return sha256(canonical(application, profile != null ? profile : "default", label,
+        environment.getVersion(), props));
+  }
+
+  /**
+   * Hashes each property source separately and combines the sub-hashes
+   * (PER_SOURCE mode).
+   *
+   * @param application application name
+   * @param profile     profile ({@code null} means {@code default})
+   * @param label       label included in the canonical form, may be {@code null}
+   * @param environment the environment served by Config Server
+   * @return SHA-256 hash as a lowercase hex string
+   */
+  public static String perSourceHash(String application, String profile, String label, Environment environment) {
+    List<String> sourceHashes = new ArrayList<>();
+    for (PropertySource ps : environment.getPropertySources()) {
+      if (!includeSource(ps.getName())) continue;
+      SortedMap<String, String> props = new TreeMap<>();
+      collect(ps, props, true);
+      sourceHashes.add(sha256(canonical(null, null, null, null, props)));
+    }
+
+    StringBuilder sb = header(application, profile != null ? profile : "default", label, environment.getVersion());
+    for (String sourceHash : sourceHashes) {
+      sb.append("source=").append(sourceHash).append('\n');
+    }
+    return sha256(sb.toString());
+  }
+
+  private static void collect(PropertySource ps, SortedMap<String, String> props, boolean overwrite) {
+    Map<?, ?> source = ps.getSource();
+    if (source == null) return;
+    for (Map.Entry<?, ?> e : source.entrySet()) {
+      String key = String.valueOf(e.getKey());
+      if (excludeKey(key) || e.getValue() == null) continue;
+      String value = asText(e.getValue());
+      if (overwrite) {
+        props.put(key, value);
+      } else {
+        props.putIfAbsent(key, value);
+      }
+    }
+  }
+
+  /**
+   * Renders a value the way Jackson's {@code JsonNode#asText()} does for the
+   * serialized response: scalars as text, containers as empty text.
+   */
+  private static String asText(Object value) {
+    if (value instanceof Map<?, ?> || value instanceof Collection<?> || value.getClass().isArray()) {
+      return "";
+    }
+    return String.valueOf(value);
+  }
+
+  private static String canonical(String application, String profile, String label, String version,
+                                  SortedMap<String, String> props) {
+    StringBuilder sb = header(application, profile, label, version);
+    for (Map.Entry<String, String> e : props.entrySet()) {
+      sb.append(e.getKey()).append('=').append(e.getValue()).append('\n');
+    }
+    return sb.toString();
+  }
+
+  private static StringBuilder header(String application, String profile, String label, String version) {
+    StringBuilder sb = new StringBuilder(256);
+    if (application != null) sb.append("application=").append(application).append('\n');
+    if (profile != null) sb.append("profile=").append(profile).append('\n');
+    if (label != null) sb.append("label=").append(label).append('\n');
+    if (version != null) sb.append("version=").append(version).append('\n');
+    return sb;
+  }
+
+  private static String sha256(String canonical) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+      char[] out = new char[digest.length * 2];
+      for (int i = 0; i < digest.length; i++) {
+        out[2 * i] = HEX[(digest[i] >> 4) & 0x0f];
+        out[2 * i + 1] = HEX[digest[i] & 0x0f];
+      }
+      return new String(out);
+    } catch (Exception e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private static boolean includeSource(String name) {
+    if (name == null) return false;
+    String n = name.toLowerCase();
+    if (n.startsWith("configserver:")) return true;
+    return n.startsWith("http://") || n.startsWith("https://");
+  }
+
+  private static boolean excludeKey(String key) {
+    String k = key.toLowerCase();
+    return k.contains("password") || k.contains("secret") || k.contains("token") || k.contains("credential")
+        || k.startsWith("random.")
+        || k.startsWith("local.server.port")
+        || k.startsWith("local.management.port")
+        || k.startsWith("management.metrics")
+        || k.startsWith("logging.")
+        || k.startsWith("spring.application.instance_id")
+        || k.startsWith("info.")
+        || k.startsWith("server.address")
+        || k.startsWith("java.")
+        || k.startsWith("sun.")
+        || k.startsWith("user.");
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.configserver.hash;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.config.environment.Environment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.config.server.environment.EnvironmentController;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk effective-configuration hash endpoint.
+ * <p>
+ * Resolves each {@code (application, profile, label)} exactly like
+ * {@code GET /{application}/{profile}/{label}} and returns its canonical
+ * configuration hash, so config-control-service can resolve the expected
+ * hashes of a whole heartbeat batch with a single request instead of
+ * downloading and hashing every environment itself.
+ * <p>
+ * Requests with more than {@code effective-hashes.max-requests} entries are
+ * rejected, and repeated {@code (application, profile, label)} entries are
+ * resolved once.
+ */
+@RestController
+public class EffectiveHashController {
+
+  private static final Logger log = LoggerFactory.getLogger(EffectiveHashController.class);
+
+  private final EnvironmentController environmentController;
+  private final int maxRequests;
+
+  public EffectiveHashController(EnvironmentController environmentController,
+                                 @Value("${effective-hashes.max-requests:500}") int maxRequests) {
+    this.environmentController = environmentController;
+    this.maxRequests = maxRequests;
+  }
+
+  /**
+   * Computes the configuration hashes of several environments.
+   *
+   * @param mode     hash format: MERGED (default) or PER_SOURCE
+   * @param requests environments to hash
+   * @return one result per request, in request order
+   * @throws ResponseStatusException 413 if there are more than
+   *                                  {@code effective-hashes.max-requests} requests
+   */
+  @PostMapping("/effective-hashes")
+  public List<HashResult> effectiveHashes(@RequestParam(defaultValue = "MERGED") String mode,
+                                          @RequestBody List<HashRequest> requests) {
+    if (requests.size() > maxRequests) {
+      throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+          "At most " + maxRequests + " environments per request, got " + requests.size());
+    }
+    boolean perSource = "PER_SOURCE".equalsIgnoreCase(mode);
+    Map<HashRequest, Resolved> resolved = new HashMap<>();
+    List<HashResult> results = new ArrayList<>(requests.size());
+    for (HashRequest request : requests) {
+      String profile = request.profile() != null && !request.profile().isBlank() ? request.profile() : "default";
+      Resolved hash = resolved.computeIfAbsent(
+          new HashRequest(request.application(), profile, request.label()),
+          key -> resolve(key, perSource));
+      results.add(new HashResult(request.application(), request.profile(), request.label(),
+          hash.version(), hash.hash(), hash.error()));
+    }
+    return results;
+  }
+
+  private Resolved resolve(HashRequest key, boolean perSource) {
+    try {
+      Environment environment = environmentController.labelled(key.application(), key.profile(), key.label());
+      String hash = perSource
+          ? EffectiveConfigHasher.perSourceHash(key.application(), key.profile(), key.label(), environment)
+          : EffectiveConfigHasher.mergedHash(key.application(), key.profile(), key.label(), environment);
+      return new Resolved(environment.getVersion(), hash, null);
+    } catch (Exception e) {
+      log.warn("Failed to hash environment {}/{}/{}: {}",
+          key.application(), key.profile(), key.label(), e.getMessage());
+      return new Resolved(null, null, e.getMessage());
+    }
+  }
+
+  /**
+   * An environment to hash.
+   *
+   * @param application application name
+   * @param profile     profile ({@code null} means {@code default})
+   * @param label       label ({@code null} means the server default)
+   */
+  public record HashRequest(String application, String profile, String label) {
+  }
+
+  /**
+   * Hash of one environment.
+   *
+   * @param application application name
+   * @param profile     profile as requested
+   * @param label       label as requested
+   * @param version     Git version the environment was resolved from
+   * @param hash        canonical configuration hash, or {@code null} on error
+   * @param error       error message, or {@code null} on success
+   */
+  public record HashResult(String application, String profile, String label, String version,
+                           String hash, String error) {
+  }
+
+  private record Resolved(String version, String hash, String error) {
+  }
+}
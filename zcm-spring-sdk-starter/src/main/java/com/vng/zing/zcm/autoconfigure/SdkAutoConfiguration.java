@@ -136,7 +136,8 @@ public class SdkAutoConfiguration {
   @Bean
   @ConditionalOnMissingBean
   public ConfigHashCalculator configHashCalculator(ConfigurableEnvironment env) {
-    return new ConfigHashCalculator(env);
+    boolean perSource = "PER_SOURCE".equalsIgnoreCase(props.getPing().getHashMode());
+    return new ConfigHashCalculator(env, perSource);
   }
 
   /**
@@ -175,7 +176,7 @@ public class SdkAutoConfiguration {
     
     return switch (pingProtocol) {
       case HTTP -> new HttpRestPingStrategy(props);
-      case THRIFT -> new ThriftRpcPingStrategy();
+      case THRIFT -> new ThriftRpcPingStrategy(props.getPing().getThrift().isFramed());
       case GRPC -> new GrpcPingStrategy();
       case KAFKA -> {
         if (pingKafkaTemplate == null || kafkaConfigCache == null) {
@@ -148,9 +148,44 @@ public class SdkProperties {
     /** Config hash caching configuration. */
     private HashCache hashCache = new HashCache();
 
+    /**
+     * Config hash format (MERGED or PER_SOURCE).
+     * <p>
+     * PER_SOURCE hashes each Config Server property source separately and
+     * combines the sub-hashes, so only changed sources are re-hashed. Only
+     * enable it together with {@code config.proxy.hash-mode=PER_SOURCE} on
+     * config-control-service, otherwise every instance is reported as drifted.
+     */
+    private String hashMode = "MERGED";
+
+    /**
+     * Whether heartbeats carry the key-bucket config fingerprint, letting
+     * config-control-service report which key ranges drifted. Adds one short
+     * hash per top-level key prefix to every heartbeat.
+     */
+    private boolean fingerprintEnabled = false;
+
     /** Circuit breaker configuration for Kafka ping operations. */
     private CircuitBreaker circuitBreaker = new CircuitBreaker();
 
+    /** Thrift configuration for ping communication (used when protocol is THRIFT). */
+    private Thrift thrift = new Thrift();
+
+    /**
+     * Thrift configuration for ping operations.
+     */
+    @Data
+    public static class Thrift {
+
+      /**
+       * Whether to wrap the socket in {@code TFramedTransport}.
+       * <p>
+       * Must be enabled when the control service runs its Thrift server in
+       * NONBLOCKING mode, and disabled for the default THREAD_POOL mode.
+       */
+      private boolean framed = false;
+    }
+
     /**
      * Kafka configuration for ping operations.
      * <p>
@@ -186,6 +221,15 @@ public class SdkProperties {
        * Can be overridden via environment variable {@code ZCM_SDK_PING_KAFKA_CONFIG_REFRESH_INTERVAL}.
        */
       private long configRefreshInterval = 300000L; // 5 minutes
+
+      /**
+       * Encoding of heartbeat records (JSON or PROTOBUF).
+       * <p>
+       * PROTOBUF writes a versioned protobuf envelope that is several times
+       * smaller than JSON. Only enable it once config-control-service consumes
+       * the heartbeat topic with {@code app.heartbeat.kafka.wire-format=PROTOBUF}.
+       */
+      private String wireFormat = "JSON";
     }
 
     /**
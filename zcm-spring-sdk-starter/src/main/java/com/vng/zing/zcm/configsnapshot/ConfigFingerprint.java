@@ -0,0 +1,64 @@
+package com.vng.zing.zcm.configsnapshot;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Merkle-style fingerprint of a {@link ConfigSnapshot}.
+ * <p>
+ * Properties are grouped into buckets by their top-level key segment
+ * ({@code spring.datasource.url} belongs to bucket {@code spring}); each bucket
+ * is hashed over its sorted {@code key=value} lines. The configuration hash
+ * remains the root used for equality checks, while the bucket hashes let the
+ * control plane name which key ranges diverge without either side shipping
+ * the configuration itself.
+ * <p>
+ * config-control-service computes the same buckets from Config Server; keep
+ * both in sync.
+ */
+public final class ConfigFingerprint {
+
+  /** Number of hex characters kept per bucket hash (64 bits). */
+  static final int BUCKET_HASH_LENGTH = 16;
+
+  private ConfigFingerprint() {
+  }
+
+  /**
+   * Computes the bucket hashes of a snapshot.
+   *
+   * @param snapshot the configuration snapshot
+   * @return bucket name to truncated bucket hash, sorted by bucket name
+   */
+  public static SortedMap<String, String> of(ConfigSnapshot snapshot) {
+    SortedMap<String, SortedMap<String, String>> buckets = new TreeMap<>();
+    for (Map.Entry<String, String> e : snapshot.getProperties().entrySet()) {
+      buckets.computeIfAbsent(bucketOf(e.getKey()), b -> new TreeMap<>()).put(e.getKey(), e.getValue());
+    }
+
+    SortedMap<String, String> fingerprint = new TreeMap<>();
+    for (Map.Entry<String, SortedMap<String, String>> bucket : buckets.entrySet()) {
+      String hash = StreamingConfigHasher.hash(new ConfigSnapshot(null, null, null, null, bucket.getValue()));
+      fingerprint.put(bucket.getKey(), hash.substring(0, BUCKET_HASH_LENGTH));
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Returns the bucket of a property key: its first segment before
+   * {@code '.'} or {@code '['}, or the whole key.
+   *
+   * @param key the property key
+   * @return bucket name
+   */
+  public static String bucketOf(String key) {
+    for (int i = 0; i < key.length(); i++) {
+      char c = key.charAt(i);
+      if (c == '.' || c == '[') {
+        return key.substring(0, i);
+      }
+    }
+    return key;
+  }
+}
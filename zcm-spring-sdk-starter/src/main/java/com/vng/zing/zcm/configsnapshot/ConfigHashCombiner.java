@@ -0,0 +1,65 @@
+package com.vng.zing.zcm.configsnapshot;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Per-source ("incremental") configuration hash format.
+ * <p>
+ * Instead of hashing the merged property set, each Config Server property
+ * source gets its own sub-hash, and the sub-hashes are combined in precedence
+ * order together with the snapshot metadata:
+ * <pre>
+ * application=...\n profile=...\n label=...\n version=...\n   (when non-null)
+ * source=&lt;sub-hash&gt;\n                                     (one per source)
+ * </pre>
+ * A sub-hash is the hash of a metadata-free {@link ConfigSnapshot} holding
+ * only that source's retained properties.
+ * <p>
+ * config-control-service has a matching combiner; keep both in sync.
+ */
+public final class ConfigHashCombiner {
+
+  private ConfigHashCombiner() {
+  }
+
+  /**
+   * Computes the sub-hash of one property source.
+   *
+   * @param properties the source's retained properties
+   * @return SHA-256 hash as a lowercase hex string
+   */
+  public static String sourceHash(SortedMap<String, String> properties) {
+    return StreamingConfigHasher.hash(new ConfigSnapshot(null, null, null, null, properties));
+  }
+
+  /**
+   * Combines per-source sub-hashes into the final configuration hash.
+   *
+   * @param application  the application name
+   * @param profile      the active profile
+   * @param label        the config label (branch/tag)
+   * @param version      the config version (commit hash)
+   * @param sourceHashes sub-hashes in precedence order (highest first)
+   * @return SHA-256 hash as a lowercase hex string
+   */
+  public static String combine(String application, String profile, String label, String version,
+                               List<String> sourceHashes) {
+    StringBuilder sb = new StringBuilder(128 + sourceHashes.size() * 72);
+    if (application != null) sb.append("application=").append(application).append('\n');
+    if (profile != null) sb.append("profile=").append(profile).append('\n');
+    if (label != null) sb.append("label=").append(label).append('\n');
+    if (version != null) sb.append("version=").append(version).append('\n');
+    for (String sourceHash : sourceHashes) {
+      sb.append("source=").append(sourceHash).append('\n');
+    }
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      return StreamingConfigHasher.toHex(md.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    } catch (Exception e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
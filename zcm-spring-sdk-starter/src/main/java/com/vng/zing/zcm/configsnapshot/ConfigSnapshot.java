@@ -75,7 +75,8 @@ public final class ConfigSnapshot {
    * Builds a deterministic canonical string representation of this configuration.
    * <p>
    * This is mainly used for hashing or drift comparison. The output is line-oriented
-   * with each property expressed as {@code key=value}.
+   * with each property expressed as {@code key=value}. {@link StreamingConfigHasher}
+   * hashes the same format without building the string; keep both in sync.
    *
    * @return a canonical text representation of this snapshot
    */
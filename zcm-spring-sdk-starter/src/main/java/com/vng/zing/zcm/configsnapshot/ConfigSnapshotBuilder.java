@@ -73,7 +73,7 @@ public final class ConfigSnapshotBuilder {
    * @param sourceName the property source name
    * @return true if the source is Config Server-backed
    */
-  private boolean isFromConfigServer(String sourceName) {
+  static boolean isFromConfigServer(String sourceName) {
     if (sourceName == null) return false;
     String n = sourceName.toLowerCase();
     if (n.startsWith("configserver:")) return true;
@@ -92,7 +92,7 @@ public final class ConfigSnapshotBuilder {
    * @param key the property key
    * @return true if the property should be excluded
    */
-  private boolean isVolatileOrSensitive(String key) {
+  static boolean isVolatileOrSensitive(String key) {
     if (key == null) return true;
     String k = key.toLowerCase();
     return k.contains("password") || k.contains("secret") || k.contains("token") || k.contains("credential")
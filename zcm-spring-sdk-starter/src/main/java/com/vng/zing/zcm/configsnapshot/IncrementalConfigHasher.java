@@ -0,0 +1,115 @@
+package com.vng.zing.zcm.configsnapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Computes the per-source configuration hash ({@link ConfigHashCombiner})
+ * while remembering each Config Server property source's sub-hash.
+ * <p>
+ * A sub-hash is reused while the environment still holds the same
+ * {@link PropertySource} instance. {@code ContextRefresher} replaces every
+ * Config Server source on refresh, so a replaced source is also reused when
+ * its backing map is equal to the previous one; only sources whose content
+ * actually changed are filtered and hashed again.
+ */
+@Slf4j
+public final class IncrementalConfigHasher {
+
+  private final ConfigurableEnvironment environment;
+
+  /** Sub-hashes of the Config Server sources seen last time, by source name. */
+  private final Map<String, SourceHash> sourceHashes = new HashMap<>();
+
+  /**
+   * Constructs a new {@code IncrementalConfigHasher} for the provided environment.
+   *
+   * @param environment the active Spring environment
+   */
+  public IncrementalConfigHasher(ConfigurableEnvironment environment) {
+    this.environment = environment;
+  }
+
+  /**
+   * Computes the combined per-source hash of the current configuration.
+   *
+   * @param application the application name
+   * @param profile     the active Spring profile
+   * @param label       the config label (branch/tag)
+   * @param version     the config version (commit hash)
+   * @return SHA-256 hash as a lowercase hex string
+   */
+  public synchronized String hash(String application, String profile, String label, String version) {
+    List<String> hashes = new ArrayList<>();
+    Map<String, SourceHash> current = new HashMap<>();
+    int recomputed = 0;
+
+    for (PropertySource<?> ps : environment.getPropertySources()) {
+      if (!(ps instanceof EnumerablePropertySource<?> eps)) continue;
+      String name = ps.getName();
+      if (!ConfigSnapshotBuilder.isFromConfigServer(name)) continue;
+
+      SourceHash previous = sourceHashes.get(name);
+      SourceHash sourceHash;
+      if (previous != null && previous.matches(ps)) {
+        sourceHash = new SourceHash(ps, previous.hash());
+      } else {
+        sourceHash = new SourceHash(ps, ConfigHashCombiner.sourceHash(collect(eps)));
+        recomputed++;
+      }
+      current.put(name, sourceHash);
+      hashes.add(sourceHash.hash());
+    }
+
+    // Drop sources that are no longer present
+    sourceHashes.clear();
+    sourceHashes.putAll(current);
+
+    if (recomputed > 0) {
+      log.debug("Recomputed {} of {} config source hashes", recomputed, hashes.size());
+    }
+    return ConfigHashCombiner.combine(application, profile, label, version, hashes);
+  }
+
+  /**
+   * Collects the retained properties of a single source.
+   *
+   * @param eps the property source
+   * @return sorted map of retained key-value pairs
+   */
+  private SortedMap<String, String> collect(EnumerablePropertySource<?> eps) {
+    SortedMap<String, String> props = new TreeMap<>();
+    for (String key : eps.getPropertyNames()) {
+      if (ConfigSnapshotBuilder.isVolatileOrSensitive(key)) continue;
+      Object v = eps.getProperty(key);
+      if (v != null) props.put(key, String.valueOf(v));
+    }
+    return props;
+  }
+
+  /**
+   * Sub-hash of a property source together with the instance it was computed from.
+   */
+  private record SourceHash(PropertySource<?> source, String hash) {
+
+    /**
+     * Whether {@code candidate} has the same content as the hashed source:
+     * either the same instance, or a replacement backed by an equal map.
+     */
+    boolean matches(PropertySource<?> candidate) {
+      if (candidate == source) return true;
+      return candidate.getSource() instanceof Map<?, ?> map
+          && source.getSource() instanceof Map<?, ?>
+          && map.equals(source.getSource());
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.vng.zing.zcm.configsnapshot;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+/**
+ * Allocation-light SHA-256 hasher for {@link ConfigSnapshot}s.
+ * <p>
+ * Produces exactly the SHA-256 of {@code snapshot.toCanonicalString()} in
+ * UTF-8 (and therefore the control plane's hash), but encodes the canonical
+ * form straight into a small buffer that is fed to {@link MessageDigest} as
+ * it fills, instead of materializing the canonical string and its byte array.
+ * Each call uses its own digest (cloned from a prototype) and buffer, so
+ * hashing is equally cheap on virtual threads, where a per-thread cache would
+ * be rebuilt for every task. Must stay byte-identical to the control plane's
+ * copy; {@code ConfigHashBenchmarkTest} there checks both.
+ */
+public final class StreamingConfigHasher {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+  private static final int BUFFER_SIZE = 2048;
+
+  private static final MessageDigest PROTOTYPE = newDigest();
+
+  private final MessageDigest digest;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+
+  private StreamingConfigHasher() {
+    MessageDigest md;
+    try {
+      md = (MessageDigest) PROTOTYPE.clone();
+    } catch (CloneNotSupportedException e) {
+      md = newDigest();
+    }
+    this.digest = md;
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /**
+   * Hashes the canonical form of a snapshot.
+   *
+   * @param snapshot the snapshot
+   * @return SHA-256 hash as a lowercase hex string
+   */
+  public static String hash(ConfigSnapshot snapshot) {
+    StreamingConfigHasher hasher = new StreamingConfigHasher();
+
+    // Must mirror ConfigSnapshot#toCanonicalString
+    hasher.line("application=", snapshot.getApplication());
+    hasher.line("profile=", snapshot.getProfile());
+    hasher.line("label=", snapshot.getLabel());
+    hasher.line("version=", snapshot.getVersion());
+    for (Map.Entry<String, String> e : snapshot.getProperties().entrySet()) {
+      hasher.append(e.getKey());
+      hasher.appendByte('=');
+      hasher.append(e.getValue());
+      hasher.appendByte('\n');
+    }
+    return hasher.finish();
+  }
+
+  /**
+   * Formats a digest as a lowercase hex string using a lookup table.
+   *
+   * @param digest the digest bytes
+   * @return lowercase hex string
+   */
+  public static String toHex(byte[] digest) {
+    char[] out = new char[digest.length * 2];
+    for (int i = 0; i < digest.length; i++) {
+      out[2 * i] = HEX[(digest[i] >> 4) & 0x0f];
+      out[2 * i + 1] = HEX[digest[i] & 0x0f];
+    }
+    return new String(out);
+  }
+
+  private void line(String prefix, String value) {
+    if (value == null) {
+      return;
+    }
+    append(prefix);
+    append(value);
+    appendByte('\n');
+  }
+
+  /**
+   * Appends the UTF-8 encoding of {@code s}, matching
+   * {@code String.getBytes(UTF_8)}: unpaired surrogates become {@code '?'}.
+   */
+  private void append(String s) {
+    int length = s.length();
+    for (int i = 0; i < length; i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        appendByte(c);
+      } else if (c < 0x800) {
+        ensure(2);
+        buffer[position++] = (byte) (0xc0 | (c >> 6));
+        buffer[position++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+          int cp = Character.toCodePoint(c, s.charAt(++i));
+          ensure(4);
+          buffer[position++] = (byte) (0xf0 | (cp >> 18));
+          buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+          buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+          buffer[position++] = (byte) (0x80 | (cp & 0x3f));
+        } else {
+          appendByte('?');
+        }
+      } else {
+        ensure(3);
+        buffer[position++] = (byte) (0xe0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buffer[position++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+  }
+
+  private void appendByte(int b) {
+    if (position == BUFFER_SIZE) {
+      flush();
+    }
+    buffer[position++] = (byte) b;
+  }
+
+  private void ensure(int bytes) {
+    if (position + bytes > BUFFER_SIZE) {
+      flush();
+    }
+  }
+
+  private void flush() {
+    digest.update(buffer, 0, position);
+    position = 0;
+  }
+
+  private String finish() {
+    flush();
+    return toHex(digest.digest());
+  }
+}
@@ -1,12 +1,14 @@
 package com.vng.zing.zcm.pingconfig;
 
+import com.vng.zing.zcm.configsnapshot.ConfigFingerprint;
 import com.vng.zing.zcm.configsnapshot.ConfigSnapshotBuilder;
+import com.vng.zing.zcm.configsnapshot.IncrementalConfigHasher;
+import com.vng.zing.zcm.configsnapshot.StreamingConfigHasher;
 import lombok.Getter;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.env.ConfigurableEnvironment;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.util.Map;
 
 /**
  * Calculates a deterministic SHA-256 hash of the effective configuration
@@ -20,6 +22,11 @@ import java.security.MessageDigest;
  * <p>
  * The hash is cached to avoid expensive recalculation on every ping.
  * Cache is invalidated when refresh events are received.
+ * <p>
+ * In per-source mode ({@code zcm.sdk.ping.hash-mode=PER_SOURCE}) the hash is
+ * combined from per-property-source sub-hashes by an
+ * {@link IncrementalConfigHasher}, so a cache miss only re-hashes the sources
+ * that changed since the previous calculation.
  */
 public class ConfigHashCalculator {
 
@@ -27,21 +34,38 @@ public class ConfigHashCalculator {
   @Getter
   private final ConfigurableEnvironment environment;
 
+  /** Per-source hasher, or {@code null} when hashing the merged snapshot. */
+  private final IncrementalConfigHasher incrementalHasher;
+
+  /** Fingerprint of the last configuration it was computed for, keyed by hash. */
+  private volatile Fingerprint lastFingerprint;
+
   /**
    * Constructs a {@code ConfigHashCalculator} using the provided Spring environment.
    *
    * @param environment the environment that contains the active configuration properties
    */
   public ConfigHashCalculator(ConfigurableEnvironment environment) {
+    this(environment, false);
+  }
+
+  /**
+   * Constructs a {@code ConfigHashCalculator} using the provided Spring environment.
+   *
+   * @param environment the environment that contains the active configuration properties
+   * @param perSource   whether to compute the per-source (incremental) hash
+   */
+  public ConfigHashCalculator(ConfigurableEnvironment environment, boolean perSource) {
     this.environment = environment;
+    this.incrementalHasher = perSource ? new IncrementalConfigHasher(environment) : null;
   }
 
   /**
    * Computes a SHA-256 hash of the canonicalized configuration snapshot.
    * <p>
    * The algorithm collects key properties (application name, profile, label, version),
-   * builds a normalized snapshot via {@link ConfigSnapshotBuilder}, converts it to
-   * a canonical text form, and hashes the UTF-8 bytes.
+   * builds a normalized snapshot via {@link ConfigSnapshotBuilder}, and hashes the
+   * UTF-8 bytes of its canonical text form via {@link StreamingConfigHasher}.
    * <p>
    * The result is cached using Spring Cache with cache name "config-hash-cache".
    * Cache key is based on application name, profile, and label to ensure uniqueness.
@@ -59,25 +83,52 @@ public class ConfigHashCalculator {
       String label = environment.getProperty("spring.cloud.config.label");
       String version = environment.getProperty("config.client.version");
 
+      if (incrementalHasher != null) {
+        return incrementalHasher.hash(application, profile, label, version);
+      }
+
       // Build a canonical snapshot of the current configuration
       var snapshot = new ConfigSnapshotBuilder(environment)
           .build(application, profile, label, version);
-      String canonical = snapshot.toCanonicalString();
 
-      // Compute SHA-256 digest
-      MessageDigest md = MessageDigest.getInstance("SHA-256");
-      byte[] digest = md.digest(canonical.getBytes(StandardCharsets.UTF_8));
-
-      // Convert digest bytes to lowercase hex string
-      StringBuilder sb = new StringBuilder(digest.length * 2);
-      for (byte b : digest) sb.append(String.format("%02x", b));
-      return sb.toString();
+      // SHA-256 of the canonical text, streamed without building it
+      return StreamingConfigHasher.hash(snapshot);
     } catch (Exception e) {
       // Fail-safe fallback, ensuring no exception propagation
       return "NA";
     }
   }
 
+  /**
+   * Returns the key-bucket fingerprint ({@link ConfigFingerprint}) of the
+   * current configuration.
+   * <p>
+   * The fingerprint is only recomputed when {@code configHash} differs from
+   * the hash it was last computed for.
+   *
+   * @param configHash the current configuration hash (from {@link #currentHash()})
+   * @return bucket name to bucket hash, or {@code null} if an error occurs
+   */
+  public Map<String, String> currentFingerprint(String configHash) {
+    Fingerprint last = lastFingerprint;
+    if (last != null && last.configHash().equals(configHash)) {
+      return last.buckets();
+    }
+    try {
+      String application = environment.getProperty("spring.application.name", "unknown");
+      String[] profiles = environment.getActiveProfiles();
+      String profile = profiles.length > 0 ? profiles[0] : "default";
+      var snapshot = new ConfigSnapshotBuilder(environment).build(application, profile, null, null);
+      Map<String, String> buckets = ConfigFingerprint.of(snapshot);
+      if (configHash != null && !"NA".equals(configHash)) {
+        lastFingerprint = new Fingerprint(configHash, buckets);
+      }
+      return buckets;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
   /**
    * Generates a cache key for the current configuration context.
    * <p>
@@ -93,4 +144,7 @@ public class ConfigHashCalculator {
     String label = environment.getProperty("spring.cloud.config.label", "master");
     return application + ":" + profile + ":" + label;
   }
+
+  private record Fingerprint(String configHash, Map<String, String> buckets) {
+  }
 }
@@ -40,4 +40,10 @@ public class HeartbeatPayload {
 
   /** Additional instance metadata */
   private Map<String, String> metadata;
+
+  /**
+   * Key-bucket fingerprint of the applied configuration (bucket name to bucket
+   * hash), sent when {@code zcm.sdk.ping.fingerprint-enabled} is set.
+   */
+  private Map<String, String> configFingerprint;
 }
@@ -182,10 +182,13 @@ public class PingSender {
     metadata.put("hostname", host());
     metadata.put("profile", getActiveProfile());
 
+    String configHash = hash.currentHash();
+
     return HeartbeatPayload.builder()
         .serviceName(props.getServiceName())
         .instanceId(getInstanceId())
-        .configHash(hash.currentHash())
+        .configHash(configHash)
+        .configFingerprint(props.getPing().isFingerprintEnabled() ? hash.currentFingerprint(configHash) : null)
         .host(host())
         .port(getPort())
         .environment(getActiveProfile())
@@ -76,7 +76,7 @@ public class GrpcPingStrategy implements PingStrategy {
    * @return gRPC request object
    */
   private HeartbeatRequest convertToGrpc(HeartbeatPayload payload) {
-    return HeartbeatRequest.newBuilder()
+    HeartbeatRequest.Builder builder = HeartbeatRequest.newBuilder()
         .setServiceName(payload.getServiceName())
         .setInstanceId(payload.getInstanceId())
         .setConfigHash(payload.getConfigHash())
@@ -84,7 +84,10 @@ public class GrpcPingStrategy implements PingStrategy {
         .setPort(payload.getPort())
         .setEnvironment(payload.getEnvironment())
         .setVersion(payload.getVersion())
-        .putAllMetadata(payload.getMetadata())
-        .build();
+        .putAllMetadata(payload.getMetadata());
+    if (payload.getConfigFingerprint() != null) {
+      builder.putAllConfigFingerprint(payload.getConfigFingerprint());
+    }
+    return builder.build();
   }
 }
@@ -0,0 +1,84 @@
+package com.vng.zing.zcm.pingconfig.strategy;
+
+import com.google.protobuf.CodedOutputStream;
+import com.vng.zing.zcm.grpc.HeartbeatRequest;
+import com.vng.zing.zcm.pingconfig.HeartbeatPayload;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka serializer writing {@link HeartbeatPayload} in the control service's
+ * compact binary wire format.
+ * <p>
+ * Layout: {@code [version byte][protobuf HeartbeatRequest]}, using the same
+ * {@code zcm_sdk.proto} message as the gRPC ping strategy. Only enable it
+ * (zcm.sdk.ping.kafka.wire-format=PROTOBUF) once the control service consumes
+ * the heartbeat topic in PROTOBUF mode.
+ * <p>
+ * The config fingerprint is protobuf field 9, added without a version bump:
+ * control services built before it skip the unknown field.
+ */
+public class HeartbeatBinarySerializer implements Serializer<HeartbeatPayload> {
+
+  /** Current envelope version; must match the control service deserializer. */
+  public static final byte VERSION_1 = 0x01;
+
+  @Override
+  public byte[] serialize(String topic, HeartbeatPayload payload) {
+    if (payload == null) {
+      return null;
+    }
+
+    HeartbeatRequest.Builder builder = HeartbeatRequest.newBuilder();
+    if (payload.getServiceName() != null) {
+      builder.setServiceName(payload.getServiceName());
+    }
+    if (payload.getInstanceId() != null) {
+      builder.setInstanceId(payload.getInstanceId());
+    }
+    if (payload.getConfigHash() != null) {
+      builder.setConfigHash(payload.getConfigHash());
+    }
+    if (payload.getHost() != null) {
+      builder.setHost(payload.getHost());
+    }
+    if (payload.getPort() != null) {
+      builder.setPort(payload.getPort());
+    }
+    if (payload.getEnvironment() != null) {
+      builder.setEnvironment(payload.getEnvironment());
+    }
+    if (payload.getVersion() != null) {
+      builder.setVersion(payload.getVersion());
+    }
+    if (payload.getMetadata() != null) {
+      payload.getMetadata().forEach((key, value) -> {
+        if (key != null && value != null) {
+          builder.putMetadata(key, value);
+        }
+      });
+    }
+    if (payload.getConfigFingerprint() != null) {
+      payload.getConfigFingerprint().forEach((bucket, hash) -> {
+        if (bucket != null && hash != null) {
+          builder.putConfigFingerprint(bucket, hash);
+        }
+      });
+    }
+
+    HeartbeatRequest request = builder.build();
+    int size = request.getSerializedSize();
+    byte[] bytes = new byte[1 + size];
+    bytes[0] = VERSION_1;
+    try {
+      CodedOutputStream output = CodedOutputStream.newInstance(bytes, 1, size);
+      request.writeTo(output);
+      output.checkNoSpaceLeft();
+    } catch (IOException e) {
+      throw new SerializationException("Failed to serialize heartbeat for topic " + topic, e);
+    }
+    return bytes;
+  }
+}
@@ -1,6 +1,7 @@
 package com.vng.zing.zcm.pingconfig.strategy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vng.zing.zcm.config.SdkProperties;
 import com.vng.zing.zcm.pingconfig.HeartbeatPayload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,7 +22,7 @@ import java.util.Map;
  * Kafka producer configuration for ping operations.
  * <p>
  * Creates a dedicated KafkaTemplate for HeartbeatPayload serialization with
- * JSON serializer. Uses serviceName as partition key to ensure ordering per service.
+ * JSON or compact binary serializer ({@code zcm.sdk.ping.kafka.wire-format}). Uses serviceName as partition key to ensure ordering per service.
  * <p>
  * The bootstrap servers are obtained from KafkaConfigCache (which fetches from
  * config-control-service) or fallback to properties/env vars.
@@ -34,6 +35,7 @@ public class KafkaPingProducerConfig {
 
     private final KafkaConfigCache kafkaConfigCache;
     private final ObjectMapper objectMapper;
+    private final SdkProperties sdkProperties;
 
     /**
      * Producer factory for ping heartbeat messages.
@@ -71,12 +73,15 @@ public class KafkaPingProducerConfig {
         // Configure JsonSerializer to use our ObjectMapper
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
 
+        String wireFormat = sdkProperties.getPing().getKafka().getWireFormat();
+        boolean binary = "PROTOBUF".equalsIgnoreCase(wireFormat);
         DefaultKafkaProducerFactory<String, HeartbeatPayload> factory =
                 new DefaultKafkaProducerFactory<>(configProps);
-        JsonSerializer<HeartbeatPayload> valueSerializer = new JsonSerializer<>(objectMapper);
-        factory.setValueSerializer(valueSerializer);
+        factory.setValueSerializer(binary
+                ? new HeartbeatBinarySerializer()
+                : new JsonSerializer<>(objectMapper));
 
-        log.info("Created ping Kafka producer factory with JSON serialization");
+        log.info("Created ping Kafka producer factory with {} serialization", binary ? "PROTOBUF" : "JSON");
         return factory;
     }
 
@@ -8,13 +8,14 @@ import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.transport.TSocket;
 import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
+import org.apache.thrift.transport.layered.TFramedTransport;
 
 /**
  * Apache Thrift RPC implementation of the ping strategy.
  * <p>
  * This strategy sends heartbeat messages using Apache Thrift RPC calls to the
  * control service. It uses binary protocol over TCP sockets for efficient
- * communication.
+ * communication, optionally framed for non-blocking servers.
  */
 @Slf4j
 public class ThriftRpcPingStrategy implements PingStrategy {
@@ -22,13 +23,28 @@ public class ThriftRpcPingStrategy implements PingStrategy {
   private static final int TIMEOUT_MS = 5000;
   private static final int DEFAULT_THRIFT_PORT = 9090;
 
+  private final boolean framed;
+
+  public ThriftRpcPingStrategy() {
+    this(false);
+  }
+
+  /**
+   * @param framed whether to use {@code TFramedTransport}, required by the
+   *               control service's NONBLOCKING Thrift server mode
+   */
+  public ThriftRpcPingStrategy(boolean framed) {
+    this.framed = framed;
+  }
+
   @Override
   public void sendHeartbeat(String endpoint, HeartbeatPayload payload) throws Exception {
     String[] parts = endpoint.split(":");
     String host = parts[0];
     int port = parts.length > 1 ? Integer.parseInt(parts[1]) : DEFAULT_THRIFT_PORT;
 
-    try (TTransport transport = new TSocket(host, port, TIMEOUT_MS)) {
+    TTransport socket = new TSocket(host, port, TIMEOUT_MS);
+    try (TTransport transport = framed ? new TFramedTransport(socket) : socket) {
       transport.open();
       TBinaryProtocol protocol = new TBinaryProtocol(transport);
       ConfigControlService.Client client = new ConfigControlService.Client(protocol);